@@ -0,0 +1,17 @@
+package com.task.founding.engineer.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Non-blocking read API over R2DBC, deployed next to the MVC application against the same
+ * database. Only scans its own package; equal-db contributes its DTOs and enums.
+ */
+@SpringBootApplication
+public class ReactiveApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(ReactiveApplication.class, args);
+	}
+
+}
@@ -0,0 +1,57 @@
+package com.task.founding.engineer.reactive.compression;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictDecompress;
+import jakarta.annotation.Nullable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Read side of {@code TextCompressor}: returns the plain column when set, otherwise decompresses
+ * the zstd frame. The frame names its dictionary by its unique {@code dict_id}; a dictionary not
+ * seen yet is read once without blocking and kept, since dictionaries are never changed once saved.
+ */
+@Component
+public class ZstdTextReader {
+
+    private final DatabaseClient databaseClient;
+    private final ConcurrentMap<Long, ZstdDictDecompress> dictionaries = new ConcurrentHashMap<>();
+
+    public ZstdTextReader(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<String> read(@Nullable String plain, @Nullable byte[] compressed) {
+        if (Objects.nonNull(plain) || Objects.isNull(compressed)) {
+            return Mono.justOrEmpty(plain);
+        }
+        long dictId = Zstd.getDictIdFromFrame(compressed);
+        if (dictId == 0) {
+            return Mono.just(decompress(compressed, null));
+        }
+        ZstdDictDecompress dictionary = dictionaries.get(dictId);
+        if (Objects.nonNull(dictionary)) {
+            return Mono.just(decompress(compressed, dictionary));
+        }
+        return databaseClient.sql("SELECT dictionary FROM xray_compression_dictionaries WHERE dict_id = :dictId")
+                .bind("dictId", dictId)
+                .map(row -> row.get("dictionary", byte[].class))
+                .one()
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("Compression dictionary not found with id: " + dictId)))
+                .map(bytes -> decompress(compressed, dictionaries.computeIfAbsent(dictId, id -> new ZstdDictDecompress(bytes))));
+    }
+
+    private static String decompress(byte[] compressed, @Nullable ZstdDictDecompress dictionary) {
+        int size = (int) Zstd.getFrameContentSize(compressed);
+        byte[] bytes = Objects.isNull(dictionary)
+                ? Zstd.decompress(compressed, size)
+                : Zstd.decompress(compressed, dictionary, size);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,50 @@
+package com.task.founding.engineer.reactive.controller;
+
+import com.task.founding.engineer.dto.response.ApiResponse;
+import com.task.founding.engineer.dto.response.CandidateResponseDTO;
+import com.task.founding.engineer.reactive.service.ReadService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/steps")
+@RequiredArgsConstructor
+public class ReactiveCandidateController {
+
+    private final ReadService readService;
+
+    @GetMapping("/{stepId}/candidates")
+    public Mono<ApiResponse<List<CandidateResponseDTO>>> getCandidates(
+            @PathVariable UUID stepId,
+            @RequestParam(required = false) Boolean selected) {
+        return readService.getCandidates(stepId, selected).collectList().map(ApiResponse::success);
+    }
+
+    /**
+     * The same candidates as NDJSON, one line per candidate as it is read from the cursor. Netty
+     * only requests more rows as the client takes them, so a slow client holds back the read
+     * without holding a thread.
+     */
+    @GetMapping(value = "/{stepId}/candidates", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<CandidateResponseDTO> streamCandidates(
+            @PathVariable UUID stepId,
+            @RequestParam(required = false) Boolean selected) {
+        return readService.getCandidates(stepId, selected);
+    }
+
+    @GetMapping("/{stepId}/candidates/selected")
+    public Mono<ApiResponse<List<CandidateResponseDTO>>> getSelectedCandidates(@PathVariable UUID stepId) {
+        return readService.getCandidates(stepId, true).collectList().map(ApiResponse::success);
+    }
+
+    @GetMapping("/{stepId}/candidates/rejected")
+    public Mono<ApiResponse<List<CandidateResponseDTO>>> getRejectedCandidates(@PathVariable UUID stepId) {
+        return readService.getCandidates(stepId, false).collectList().map(ApiResponse::success);
+    }
+}
@@ -0,0 +1,50 @@
+package com.task.founding.engineer.reactive.controller;
+
+import com.task.founding.engineer.dto.response.ApiResponse;
+import com.task.founding.engineer.dto.response.RunResponseDTO;
+import com.task.founding.engineer.enums.PayloadField;
+import com.task.founding.engineer.enums.RunStatus;
+import com.task.founding.engineer.reactive.repository.RunReadRepository;
+import com.task.founding.engineer.reactive.service.ReadService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/runs")
+@RequiredArgsConstructor
+public class ReactiveRunController {
+
+    private final ReadService readService;
+
+    @GetMapping("/{runId}")
+    public Mono<ApiResponse<RunResponseDTO>> getRun(
+            @PathVariable UUID runId,
+            @RequestParam(required = false) List<String> include) {
+        Set<PayloadField> fields = PayloadField.parse(include);
+        return readService.getRunById(runId, fields).map(ApiResponse::success);
+    }
+
+    @GetMapping
+    public Mono<ApiResponse<List<RunResponseDTO>>> getAllRuns(
+            @RequestParam(required = false) String pipelineType,
+            @RequestParam(required = false) RunStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) List<String> include) {
+        Set<PayloadField> fields = PayloadField.parse(include);
+        RunReadRepository.Filter filter = RunReadRepository.Filter.builder()
+                .pipelineType(pipelineType)
+                .status(status)
+                .startDate(startDate)
+                .endDate(endDate)
+                .build();
+        return readService.getAllRuns(filter, fields).map(ApiResponse::success);
+    }
+}
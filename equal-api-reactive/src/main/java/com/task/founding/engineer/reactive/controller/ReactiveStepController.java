@@ -0,0 +1,49 @@
+package com.task.founding.engineer.reactive.controller;
+
+import com.task.founding.engineer.dto.response.ApiResponse;
+import com.task.founding.engineer.dto.response.StepResponseDTO;
+import com.task.founding.engineer.enums.PayloadField;
+import com.task.founding.engineer.reactive.service.ReadService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1")
+@RequiredArgsConstructor
+public class ReactiveStepController {
+
+    private final ReadService readService;
+
+    @GetMapping("/steps/{stepId}")
+    public Mono<ApiResponse<StepResponseDTO>> getStep(
+            @PathVariable UUID stepId,
+            @RequestParam(required = false) List<String> include) {
+        Set<PayloadField> fields = PayloadField.parse(include);
+        return readService.getStepById(stepId, fields).map(ApiResponse::success);
+    }
+
+    @GetMapping("/runs/{runId}/steps")
+    public Mono<ApiResponse<List<StepResponseDTO>>> getStepsByRun(
+            @PathVariable UUID runId,
+            @RequestParam(required = false) List<String> include) {
+        Set<PayloadField> fields = PayloadField.parse(include);
+        return readService.getStepsByRunId(runId, fields).map(ApiResponse::success);
+    }
+
+    @GetMapping("/steps")
+    public Mono<ApiResponse<List<StepResponseDTO>>> getStepsByType(
+            @RequestParam(required = false) String stepType,
+            @RequestParam(required = false) List<String> include) {
+        Set<PayloadField> fields = PayloadField.parse(include);
+        if (Objects.isNull(stepType)) {
+            return Mono.just(ApiResponse.success(List.of()));
+        }
+        return readService.getStepsByType(stepType, fields).map(ApiResponse::success);
+    }
+}
@@ -0,0 +1,82 @@
+package com.task.founding.engineer.reactive.repository;
+
+import com.task.founding.engineer.dto.response.CandidateResponseDTO;
+import com.task.founding.engineer.json.RawJson;
+import com.task.founding.engineer.reactive.compression.ZstdTextReader;
+import io.r2dbc.spi.Readable;
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Candidates read straight from the {@code xray_candidates} cursor. Rows are fetched
+ * {@code fetchSize} at a time as the subscriber requests them, so a slow client holds back the
+ * read instead of the rows piling up in memory.
+ */
+@Repository
+public class CandidateReadRepository {
+
+    private static final String SELECT = "SELECT c.candidate_id, c.step_id, c.data, c.score, c.selected, "
+            + "c.rejection_reason, c.rejection_reason_zstd, c.metadata FROM xray_candidates c";
+
+    private final DatabaseClient databaseClient;
+    private final ZstdTextReader textReader;
+    private final int fetchSize;
+
+    public CandidateReadRepository(
+            DatabaseClient databaseClient,
+            ZstdTextReader textReader,
+            @Value("${xray.reactive.candidate-fetch-size:500}") int fetchSize) {
+        this.databaseClient = databaseClient;
+        this.textReader = textReader;
+        this.fetchSize = fetchSize;
+    }
+
+    public Flux<CandidateResponseDTO> findByStepId(@NotNull UUID stepId, @Nullable Boolean selected) {
+        String sql = SELECT + " WHERE c.step_id = :stepId";
+        DatabaseClient.GenericExecuteSpec spec;
+        if (Objects.nonNull(selected)) {
+            spec = databaseClient.sql(sql + " AND c.selected = :selected")
+                    .bind("selected", selected);
+        } else {
+            spec = databaseClient.sql(sql);
+        }
+        return spec.bind("stepId", stepId)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map(this::read)
+                .all()
+                .concatMap(candidate -> candidate);
+    }
+
+    public Flux<CandidateResponseDTO> findByStepIds(@NotNull Collection<UUID> stepIds) {
+        return databaseClient.sql(SELECT + " WHERE c.step_id IN (:stepIds)")
+                .bind("stepIds", stepIds)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map(this::read)
+                .all()
+                .concatMap(candidate -> candidate);
+    }
+
+    // Columns are read while the row is current; only the decompression is deferred
+    private Mono<CandidateResponseDTO> read(Readable row) {
+        CandidateResponseDTO.CandidateResponseDTOBuilder candidate = CandidateResponseDTO.builder()
+                .candidateId(row.get("candidate_id", UUID.class))
+                .stepId(row.get("step_id", UUID.class))
+                .data(RawJson.of(row.get("data", String.class)))
+                .score(row.get("score", Double.class))
+                .selected(row.get("selected", Boolean.class))
+                .metadata(RawJson.of(row.get("metadata", String.class)));
+        return textReader.read(row.get("rejection_reason", String.class), row.get("rejection_reason_zstd", byte[].class))
+                .map(candidate::rejectionReason)
+                .defaultIfEmpty(candidate)
+                .map(CandidateResponseDTO.CandidateResponseDTOBuilder::build);
+    }
+}
@@ -0,0 +1,110 @@
+package com.task.founding.engineer.reactive.repository;
+
+import com.task.founding.engineer.dictionary.ValueDigest;
+import com.task.founding.engineer.dto.response.RunResponseDTO;
+import com.task.founding.engineer.enums.PayloadField;
+import com.task.founding.engineer.enums.RunStatus;
+import com.task.founding.engineer.json.RawJson;
+import io.r2dbc.spi.Readable;
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Runs without their steps. Payload columns are only selected when requested, and only the
+ * filters that are set are written into the SQL.
+ */
+@Repository
+public class RunReadRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public RunReadRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    @Builder
+    public record Filter(
+            @Nullable String pipelineType,
+            @Nullable RunStatus status,
+            @Nullable LocalDateTime startDate,
+            @Nullable LocalDateTime endDate) {
+    }
+
+    public Mono<RunResponseDTO> findById(@NotNull UUID runId, @NotNull Set<PayloadField> include) {
+        return databaseClient.sql(select(include) + " WHERE r.run_id = :runId")
+                .bind("runId", runId)
+                .map(row -> toResponse(row, include))
+                .one();
+    }
+
+    public Flux<RunResponseDTO> findAll(@NotNull Filter filter, @NotNull Set<PayloadField> include) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        return databaseClient.sql(toSql(filter, include, parameters))
+                .bindValues(parameters)
+                .map(row -> toResponse(row, include))
+                .all();
+    }
+
+    static String toSql(Filter filter, Set<PayloadField> include, Map<String, Object> parameters) {
+        StringBuilder sql = new StringBuilder(select(include)).append(" WHERE 1 = 1");
+        // Pipeline types are matched on their interned code, and on the string for runs not coded yet,
+        // as in the MVC API
+        if (Objects.nonNull(filter.pipelineType())) {
+            sql.append(" AND (r.pipeline_type_code = (SELECT d.code FROM xray_dictionary d")
+                    .append(" WHERE d.kind = 'PIPELINE_TYPE' AND d.entry_digest = :pipelineTypeDigest)")
+                    .append(" OR (r.pipeline_type_code IS NULL AND r.pipeline_type = :pipelineType))");
+            parameters.put("pipelineTypeDigest", ValueDigest.of(filter.pipelineType()));
+            parameters.put("pipelineType", filter.pipelineType());
+        }
+        if (Objects.nonNull(filter.status())) {
+            sql.append(" AND r.status = :status");
+            parameters.put("status", filter.status().name());
+        }
+        if (Objects.nonNull(filter.startDate())) {
+            sql.append(" AND r.started_at >= :startDate");
+            parameters.put("startDate", filter.startDate());
+        }
+        if (Objects.nonNull(filter.endDate())) {
+            sql.append(" AND r.started_at <= :endDate");
+            parameters.put("endDate", filter.endDate());
+        }
+        return sql.append(" ORDER BY r.started_at").toString();
+    }
+
+    private static String select(Set<PayloadField> include) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT r.run_id, r.pipeline_type, r.pipeline_id, r.started_at, r.completed_at, r.status");
+        if (include.contains(PayloadField.INPUT)) {
+            sql.append(", r.input");
+        }
+        if (include.contains(PayloadField.OUTPUT)) {
+            sql.append(", r.output");
+        }
+        return sql.append(" FROM xray_runs r").toString();
+    }
+
+    private static RunResponseDTO toResponse(Readable row, Set<PayloadField> include) {
+        return RunResponseDTO.builder()
+                .runId(row.get("run_id", UUID.class))
+                .pipelineType(row.get("pipeline_type", String.class))
+                .pipelineId(row.get("pipeline_id", String.class))
+                .startedAt(row.get("started_at", LocalDateTime.class))
+                .completedAt(row.get("completed_at", LocalDateTime.class))
+                .status(RunStatus.valueOf(row.get("status", String.class)))
+                .input(include.contains(PayloadField.INPUT) ? RawJson.of(row.get("input", String.class)) : null)
+                .output(include.contains(PayloadField.OUTPUT) ? RawJson.of(row.get("output", String.class)) : null)
+                .build();
+    }
+}
@@ -0,0 +1,105 @@
+package com.task.founding.engineer.reactive.repository;
+
+import com.task.founding.engineer.dictionary.ValueDigest;
+import com.task.founding.engineer.dto.response.StepResponseDTO;
+import com.task.founding.engineer.enums.PayloadField;
+import com.task.founding.engineer.enums.StepStatus;
+import com.task.founding.engineer.json.RawJson;
+import com.task.founding.engineer.reactive.compression.ZstdTextReader;
+import io.r2dbc.spi.Readable;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Steps without their candidates. Payload columns are only selected when requested; reasoning is
+ * decompressed as it is read.
+ */
+@Repository
+public class StepReadRepository {
+
+    private final DatabaseClient databaseClient;
+    private final ZstdTextReader textReader;
+
+    public StepReadRepository(DatabaseClient databaseClient, ZstdTextReader textReader) {
+        this.databaseClient = databaseClient;
+        this.textReader = textReader;
+    }
+
+    public Mono<StepResponseDTO> findById(@NotNull UUID stepId, @NotNull Set<PayloadField> include) {
+        return databaseClient.sql(select(include) + " WHERE s.step_id = :stepId")
+                .bind("stepId", stepId)
+                .map(row -> read(row, include))
+                .one()
+                .flatMap(step -> step);
+    }
+
+    public Flux<StepResponseDTO> findByRunIds(@NotNull Collection<UUID> runIds, @NotNull Set<PayloadField> include) {
+        return databaseClient.sql(select(include) + " WHERE s.run_id IN (:runIds) ORDER BY s.run_id, s.order_index")
+                .bind("runIds", runIds)
+                .map(row -> read(row, include))
+                .all()
+                .concatMap(step -> step);
+    }
+
+    // Step types are matched on their interned code, and on the string for steps not coded yet, as in
+    // the MVC API
+    public Flux<StepResponseDTO> findByStepType(@NotNull String stepType, @NotNull Set<PayloadField> include) {
+        return databaseClient.sql(select(include) + " WHERE s.step_type_code = (SELECT d.code FROM xray_dictionary d"
+                        + " WHERE d.kind = 'STEP_TYPE' AND d.entry_digest = :stepTypeDigest)"
+                        + " OR (s.step_type_code IS NULL AND s.step_type = :stepType)")
+                .bind("stepTypeDigest", ValueDigest.of(stepType))
+                .bind("stepType", stepType)
+                .map(row -> read(row, include))
+                .all()
+                .concatMap(step -> step);
+    }
+
+    private static String select(Set<PayloadField> include) {
+        StringBuilder sql = new StringBuilder("SELECT s.step_id, s.run_id, s.step_name, s.step_type, s.order_index, "
+                + "s.started_at, s.completed_at, s.status");
+        if (include.contains(PayloadField.INPUT)) {
+            sql.append(", s.input");
+        }
+        if (include.contains(PayloadField.OUTPUT)) {
+            sql.append(", s.output");
+        }
+        if (include.contains(PayloadField.REASONING)) {
+            sql.append(", s.reasoning, s.reasoning_zstd");
+        }
+        if (include.contains(PayloadField.METADATA)) {
+            sql.append(", s.metadata");
+        }
+        return sql.append(" FROM xray_steps s").toString();
+    }
+
+    // Columns are read while the row is current; only the decompression is deferred
+    private Mono<StepResponseDTO> read(Readable row, Set<PayloadField> include) {
+        StepResponseDTO.StepResponseDTOBuilder step = StepResponseDTO.builder()
+                .stepId(row.get("step_id", UUID.class))
+                .runId(row.get("run_id", UUID.class))
+                .stepName(row.get("step_name", String.class))
+                .stepType(row.get("step_type", String.class))
+                .order(row.get("order_index", Integer.class))
+                .startedAt(row.get("started_at", LocalDateTime.class))
+                .completedAt(row.get("completed_at", LocalDateTime.class))
+                .status(StepStatus.valueOf(row.get("status", String.class)))
+                .input(include.contains(PayloadField.INPUT) ? RawJson.of(row.get("input", String.class)) : null)
+                .output(include.contains(PayloadField.OUTPUT) ? RawJson.of(row.get("output", String.class)) : null)
+                .metadata(include.contains(PayloadField.METADATA) ? RawJson.of(row.get("metadata", String.class)) : null);
+        if (!include.contains(PayloadField.REASONING)) {
+            return Mono.just(step.build());
+        }
+        return textReader.read(row.get("reasoning", String.class), row.get("reasoning_zstd", byte[].class))
+                .map(step::reasoning)
+                .defaultIfEmpty(step)
+                .map(StepResponseDTO.StepResponseDTOBuilder::build);
+    }
+}
@@ -0,0 +1,37 @@
+package com.task.founding.engineer.reactive.service;
+
+import com.task.founding.engineer.dto.response.CandidateResponseDTO;
+import com.task.founding.engineer.dto.response.RunResponseDTO;
+import com.task.founding.engineer.dto.response.StepResponseDTO;
+import com.task.founding.engineer.enums.PayloadField;
+import com.task.founding.engineer.reactive.repository.RunReadRepository;
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.NotNull;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * The run, step and candidate reads of the MVC API, without blocking. Runs come with their steps
+ * and steps with their candidates, as there.
+ */
+public interface ReadService {
+
+    Mono<RunResponseDTO> getRunById(@NotNull UUID runId, @NotNull Set<PayloadField> include);
+
+    Mono<List<RunResponseDTO>> getAllRuns(@NotNull RunReadRepository.Filter filter, @NotNull Set<PayloadField> include);
+
+    Mono<StepResponseDTO> getStepById(@NotNull UUID stepId, @NotNull Set<PayloadField> include);
+
+    Mono<List<StepResponseDTO>> getStepsByRunId(@NotNull UUID runId, @NotNull Set<PayloadField> include);
+
+    Mono<List<StepResponseDTO>> getStepsByType(@NotNull String stepType, @NotNull Set<PayloadField> include);
+
+    /**
+     * The step's candidates as they are read, optionally only the selected or rejected ones.
+     */
+    Flux<CandidateResponseDTO> getCandidates(@NotNull UUID stepId, @Nullable Boolean selected);
+}
@@ -0,0 +1,110 @@
+package com.task.founding.engineer.reactive.service.impl;
+
+import com.task.founding.engineer.dto.response.CandidateResponseDTO;
+import com.task.founding.engineer.dto.response.RunResponseDTO;
+import com.task.founding.engineer.dto.response.StepResponseDTO;
+import com.task.founding.engineer.enums.PayloadField;
+import com.task.founding.engineer.reactive.repository.CandidateReadRepository;
+import com.task.founding.engineer.reactive.repository.RunReadRepository;
+import com.task.founding.engineer.reactive.repository.StepReadRepository;
+import com.task.founding.engineer.reactive.service.ReadService;
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class ReadServiceImpl implements ReadService {
+
+    private final RunReadRepository runRepository;
+    private final StepReadRepository stepRepository;
+    private final CandidateReadRepository candidateRepository;
+
+    @Override
+    public Mono<RunResponseDTO> getRunById(@NotNull UUID runId, @NotNull Set<PayloadField> include) {
+        return runRepository.findById(runId, include)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Run not found with id: " + runId)))
+                .flatMap(run -> withSteps(List.of(run), include))
+                .map(List::getFirst);
+    }
+
+    @Override
+    public Mono<List<RunResponseDTO>> getAllRuns(
+            @NotNull RunReadRepository.Filter filter,
+            @NotNull Set<PayloadField> include) {
+        return runRepository.findAll(filter, include)
+                .collectList()
+                .flatMap(runs -> withSteps(runs, include));
+    }
+
+    @Override
+    public Mono<StepResponseDTO> getStepById(@NotNull UUID stepId, @NotNull Set<PayloadField> include) {
+        return stepRepository.findById(stepId, include)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Step not found with id: " + stepId)))
+                .flatMap(step -> withCandidates(List.of(step)))
+                .map(List::getFirst);
+    }
+
+    @Override
+    public Mono<List<StepResponseDTO>> getStepsByRunId(@NotNull UUID runId, @NotNull Set<PayloadField> include) {
+        return stepRepository.findByRunIds(List.of(runId), include)
+                .collectList()
+                .flatMap(this::withCandidates);
+    }
+
+    @Override
+    public Mono<List<StepResponseDTO>> getStepsByType(@NotNull String stepType, @NotNull Set<PayloadField> include) {
+        return stepRepository.findByStepType(stepType, include)
+                .collectList()
+                .flatMap(this::withCandidates);
+    }
+
+    @Override
+    public Flux<CandidateResponseDTO> getCandidates(@NotNull UUID stepId, @Nullable Boolean selected) {
+        return candidateRepository.findByStepId(stepId, selected);
+    }
+
+    // One query for the steps of all runs, one for the candidates of all steps
+    private Mono<List<RunResponseDTO>> withSteps(List<RunResponseDTO> runs, Set<PayloadField> include) {
+        if (runs.isEmpty()) {
+            return Mono.just(runs);
+        }
+        return stepRepository.findByRunIds(runs.stream().map(RunResponseDTO::getRunId).toList(), include)
+                .collectList()
+                .flatMap(this::withCandidates)
+                .map(steps -> {
+                    Map<UUID, List<StepResponseDTO>> byRun = group(steps, StepResponseDTO::getRunId);
+                    runs.forEach(run -> run.setSteps(byRun.getOrDefault(run.getRunId(), new ArrayList<>())));
+                    return runs;
+                });
+    }
+
+    private Mono<List<StepResponseDTO>> withCandidates(List<StepResponseDTO> steps) {
+        if (steps.isEmpty()) {
+            return Mono.just(steps);
+        }
+        return candidateRepository.findByStepIds(steps.stream().map(StepResponseDTO::getStepId).toList())
+                .collectList()
+                .map(candidates -> {
+                    Map<UUID, List<CandidateResponseDTO>> byStep = group(candidates, CandidateResponseDTO::getStepId);
+                    steps.forEach(step -> step.setCandidates(byStep.getOrDefault(step.getStepId(), new ArrayList<>())));
+                    return steps;
+                });
+    }
+
+    private static <T> Map<UUID, List<T>> group(Collection<T> values, Function<T, UUID> key) {
+        return values.stream().collect(Collectors.groupingBy(key));
+    }
+}
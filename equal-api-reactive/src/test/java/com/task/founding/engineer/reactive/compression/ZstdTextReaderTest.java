@@ -0,0 +1,86 @@
+package com.task.founding.engineer.reactive.compression;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictTrainer;
+import com.task.founding.engineer.reactive.repository.ReadSchema;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ZstdTextReaderTest {
+
+    private DatabaseClient databaseClient;
+    private ZstdTextReader textReader;
+
+    @BeforeEach
+    void setUp() {
+        databaseClient = ReadSchema.create();
+        textReader = new ZstdTextReader(databaseClient);
+    }
+
+    @Test
+    void testRead_PrefersPlainText() {
+        assertEquals("plain", textReader.read("plain", new byte[] {1, 2, 3}).block());
+        assertNull(textReader.read(null, null).block());
+    }
+
+    @Test
+    void testRead_WithoutDictionary() {
+        byte[] frame = Zstd.compress(bytes("Price $120.00 exceeds maximum allowed $80.00"));
+
+        assertEquals("Price $120.00 exceeds maximum allowed $80.00", textReader.read(null, frame).block());
+    }
+
+    @Test
+    void testRead_LoadsDictionaryByFrameIdOnce() {
+        byte[] dictionary = trainDictionary();
+        long dictId = Zstd.getDictIdFromDict(dictionary);
+        databaseClient.sql("INSERT INTO xray_compression_dictionaries (dict_id, step_name, dictionary, created_at) "
+                        + "VALUES (:dictId, 'filter_by_price', :dictionary, :createdAt)")
+                .bind("dictId", dictId)
+                .bind("dictionary", dictionary)
+                .bind("createdAt", LocalDateTime.now())
+                .then().block();
+        String text = "Price $131.00 exceeds maximum allowed $80.00 for category shoes";
+        byte[] frame = Zstd.compress(bytes(text), new ZstdDictCompress(dictionary, 3));
+        assertEquals(dictId, Zstd.getDictIdFromFrame(frame));
+
+        assertEquals(text, textReader.read(null, frame).block());
+        // Kept after the first read
+        databaseClient.sql("DELETE FROM xray_compression_dictionaries").then().block();
+        assertEquals(text, textReader.read(null, frame).block());
+    }
+
+    @Test
+    void testRead_MissingDictionary() {
+        byte[] dictionary = trainDictionary();
+        byte[] frame = Zstd.compress(bytes("Price $131.00 exceeds maximum allowed $80.00"), new ZstdDictCompress(dictionary, 3));
+
+        StepVerifier.create(textReader.read(null, frame))
+                .expectErrorMessage("Compression dictionary not found with id: " + Zstd.getDictIdFromDict(dictionary))
+                .verify();
+    }
+
+    private static byte[] trainDictionary() {
+        Random random = new Random(7);
+        ZstdDictTrainer trainer = new ZstdDictTrainer(64 * 1024, 4096);
+        for (int i = 0; i < 500; i++) {
+            trainer.addSample(bytes("Price $" + (80 + random.nextInt(100)) + ".00 exceeds maximum allowed $80.00 for category "
+                    + (random.nextBoolean() ? "shoes" : "bags")));
+        }
+        return trainer.trainSamples();
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
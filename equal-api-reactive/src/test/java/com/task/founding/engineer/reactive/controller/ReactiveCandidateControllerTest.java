@@ -0,0 +1,106 @@
+package com.task.founding.engineer.reactive.controller;
+
+import com.task.founding.engineer.dto.response.CandidateResponseDTO;
+import com.task.founding.engineer.json.RawJson;
+import com.task.founding.engineer.reactive.controller.exception.handler.ReactiveExceptionHandler;
+import com.task.founding.engineer.reactive.service.ReadService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReactiveCandidateControllerTest {
+
+    private WebTestClient webTestClient;
+    private ReadService readService;
+    private UUID stepId;
+
+    @BeforeEach
+    void setUp() {
+        readService = mock(ReadService.class);
+        webTestClient = WebTestClient.bindToController(new ReactiveCandidateController(readService))
+                .controllerAdvice(new ReactiveExceptionHandler())
+                .build();
+        stepId = UUID.randomUUID();
+    }
+
+    @Test
+    void testGetCandidates_WrapsTheListAsJson() {
+        when(readService.getCandidates(stepId, true)).thenReturn(Flux.just(candidate("a"), candidate("b")));
+
+        webTestClient.get().uri("/api/v1/steps/{stepId}/candidates?selected=true", stepId)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.success").isEqualTo(true)
+                .jsonPath("$.data.length()").isEqualTo(2)
+                .jsonPath("$.data[0].data.sku").isEqualTo("a")
+                .jsonPath("$.data[1].stepId").isEqualTo(stepId.toString());
+    }
+
+    @Test
+    void testStreamCandidates_WritesOneLinePerCandidate() {
+        when(readService.getCandidates(stepId, null)).thenReturn(Flux.just(candidate("a"), candidate("b")));
+
+        String body = webTestClient.get().uri("/api/v1/steps/{stepId}/candidates", stepId)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        String[] lines = body.strip().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"data\":{\"sku\":\"a\"}"));
+        assertTrue(lines[1].contains("\"data\":{\"sku\":\"b\"}"));
+    }
+
+    @Test
+    void testSelectedAndRejected() {
+        when(readService.getCandidates(stepId, true)).thenReturn(Flux.just(candidate("a")));
+        when(readService.getCandidates(stepId, false)).thenReturn(Flux.just(candidate("b"), candidate("c")));
+
+        webTestClient.get().uri("/api/v1/steps/{stepId}/candidates/selected", stepId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.data.length()").isEqualTo(1);
+        webTestClient.get().uri("/api/v1/steps/{stepId}/candidates/rejected", stepId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.data.length()").isEqualTo(2);
+    }
+
+    @Test
+    void testGetCandidates_ReadErrorIsReported() {
+        when(readService.getCandidates(stepId, null)).thenReturn(Flux.error(new IllegalArgumentException("bad filter")));
+
+        webTestClient.get().uri("/api/v1/steps/{stepId}/candidates", stepId)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.success").isEqualTo(false)
+                .jsonPath("$.message").isEqualTo("bad filter");
+    }
+
+    private CandidateResponseDTO candidate(String sku) {
+        return CandidateResponseDTO.builder()
+                .candidateId(UUID.randomUUID())
+                .stepId(stepId)
+                .data(RawJson.of("{\"sku\":\"" + sku + "\"}"))
+                .score(0.5)
+                .selected(true)
+                .build();
+    }
+}
@@ -0,0 +1,119 @@
+package com.task.founding.engineer.reactive.repository;
+
+import com.github.luben.zstd.Zstd;
+import com.task.founding.engineer.dto.response.CandidateResponseDTO;
+import com.task.founding.engineer.reactive.compression.ZstdTextReader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CandidateReadRepositoryTest {
+
+    private DatabaseClient databaseClient;
+    private CandidateReadRepository repository;
+    private UUID stepId;
+
+    @BeforeEach
+    void setUp() {
+        databaseClient = ReadSchema.create();
+        repository = new CandidateReadRepository(databaseClient, new ZstdTextReader(databaseClient), 2);
+        stepId = UUID.randomUUID();
+    }
+
+    @Test
+    void testFindByStepId_ReadsEveryColumn() {
+        UUID candidateId = insert(stepId, true, null, null);
+
+        List<CandidateResponseDTO> candidates = repository.findByStepId(stepId, null).collectList().block();
+
+        assertEquals(1, candidates.size());
+        CandidateResponseDTO candidate = candidates.getFirst();
+        assertEquals(candidateId, candidate.getCandidateId());
+        assertEquals(stepId, candidate.getStepId());
+        assertEquals("{\"sku\":\"a\"}", candidate.getData().json());
+        assertEquals(0.5, candidate.getScore());
+        assertEquals(true, candidate.getSelected());
+        assertNull(candidate.getRejectionReason());
+        assertEquals("{\"source\":\"test\"}", candidate.getMetadata().json());
+    }
+
+    @Test
+    void testFindByStepId_FiltersOnSelected() {
+        UUID selected = insert(stepId, true, null, null);
+        UUID rejected = insert(stepId, false, "too expensive", null);
+        insert(UUID.randomUUID(), true, null, null);
+
+        assertEquals(Set.of(selected, rejected), ids(repository.findByStepId(stepId, null).collectList().block()));
+        assertEquals(Set.of(selected), ids(repository.findByStepId(stepId, true).collectList().block()));
+        assertEquals(Set.of(rejected), ids(repository.findByStepId(stepId, false).collectList().block()));
+    }
+
+    @Test
+    void testFindByStepId_EmitsOnlyWhatIsRequested() {
+        for (int i = 0; i < 5; i++) {
+            insert(stepId, true, null, null);
+        }
+
+        StepVerifier.create(repository.findByStepId(stepId, null), 0)
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(50))
+                .thenRequest(2)
+                .expectNextCount(2)
+                .expectNoEvent(Duration.ofMillis(50))
+                .thenRequest(3)
+                .expectNextCount(3)
+                .verifyComplete();
+    }
+
+    @Test
+    void testFindByStepId_DecompressesRejectionReason() {
+        byte[] frame = Zstd.compress("price above budget".getBytes(StandardCharsets.UTF_8));
+        insert(stepId, false, null, frame);
+
+        CandidateResponseDTO candidate = repository.findByStepId(stepId, false).blockFirst();
+
+        assertEquals("price above budget", candidate.getRejectionReason());
+    }
+
+    @Test
+    void testFindByStepIds_ReadsEveryStep() {
+        UUID otherStepId = UUID.randomUUID();
+        UUID first = insert(stepId, true, null, null);
+        UUID second = insert(otherStepId, false, "duplicate", null);
+        insert(UUID.randomUUID(), true, null, null);
+
+        assertEquals(Set.of(first, second),
+                ids(repository.findByStepIds(List.of(stepId, otherStepId)).collectList().block()));
+    }
+
+    private UUID insert(UUID stepId, boolean selected, String reason, byte[] reasonCompressed) {
+        UUID candidateId = UUID.randomUUID();
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("INSERT INTO xray_candidates "
+                        + "(candidate_id, step_id, data, score, selected, rejection_reason, rejection_reason_zstd, metadata) "
+                        + "VALUES (:candidateId, :stepId, '{\"sku\":\"a\"}' FORMAT JSON, 0.5, :selected, :reason, :reasonCompressed, "
+                        + "'{\"source\":\"test\"}' FORMAT JSON)")
+                .bind("candidateId", candidateId)
+                .bind("stepId", stepId)
+                .bind("selected", selected);
+        spec = Objects.nonNull(reason) ? spec.bind("reason", reason) : spec.bindNull("reason", String.class);
+        spec = Objects.nonNull(reasonCompressed) ? spec.bind("reasonCompressed", reasonCompressed) : spec.bindNull("reasonCompressed", byte[].class);
+        spec.then().block();
+        return candidateId;
+    }
+
+    private static Set<UUID> ids(List<CandidateResponseDTO> candidates) {
+        return candidates.stream().map(CandidateResponseDTO::getCandidateId).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,42 @@
+package com.task.founding.engineer.reactive.repository;
+
+import io.r2dbc.spi.ConnectionFactories;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The tables the reads touch, as the MVC application creates them, in a private in-memory H2
+ * database per test.
+ */
+public final class ReadSchema {
+
+    private static final List<String> DDL = List.of(
+            "CREATE TABLE xray_runs (run_id UUID PRIMARY KEY, pipeline_type VARCHAR(100) NOT NULL, "
+                    + "pipeline_type_code INT, pipeline_id VARCHAR(255) NOT NULL, started_at TIMESTAMP NOT NULL, "
+                    + "completed_at TIMESTAMP, last_activity_at TIMESTAMP, status VARCHAR(20) NOT NULL, "
+                    + "input JSON, output JSON)",
+            "CREATE TABLE xray_steps (step_id UUID PRIMARY KEY, run_id UUID NOT NULL, step_name VARCHAR(100) NOT NULL, "
+                    + "step_type VARCHAR(50) NOT NULL, step_name_code INT, step_type_code INT, order_index INT NOT NULL, "
+                    + "started_at TIMESTAMP NOT NULL, completed_at TIMESTAMP, status VARCHAR(20) NOT NULL, "
+                    + "input JSON, output JSON, reasoning TEXT, reasoning_zstd BYTEA, metadata JSON, candidate_bloom BYTEA)",
+            "CREATE TABLE xray_candidates (candidate_id UUID PRIMARY KEY, step_id UUID NOT NULL, data JSON NOT NULL, "
+                    + "score DOUBLE PRECISION, selected BOOLEAN NOT NULL, rejection_reason TEXT, rejection_reason_zstd BYTEA, "
+                    + "rejection_reason_code INT, rejection_template_id BIGINT, business_key VARCHAR(255), metadata JSON)",
+            "CREATE TABLE xray_dictionary (code INT PRIMARY KEY, kind VARCHAR(20) NOT NULL, entry_digest VARCHAR(64) NOT NULL, "
+                    + "entry_value TEXT NOT NULL, template_id BIGINT)",
+            "CREATE TABLE xray_compression_dictionaries (dictionary_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                    + "dict_id BIGINT NOT NULL UNIQUE, step_name VARCHAR(100) NOT NULL, "
+                    + "dictionary BYTEA NOT NULL, created_at TIMESTAMP NOT NULL)");
+
+    private ReadSchema() {
+    }
+
+    public static DatabaseClient create() {
+        DatabaseClient client = DatabaseClient.create(ConnectionFactories.get(
+                "r2dbc:h2:mem:///" + UUID.randomUUID() + "?options=MODE=PostgreSQL;DB_CLOSE_DELAY=-1"));
+        DDL.forEach(statement -> client.sql(statement).then().block());
+        return client;
+    }
+}
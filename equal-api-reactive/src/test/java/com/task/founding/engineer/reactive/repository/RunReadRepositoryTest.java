@@ -0,0 +1,124 @@
+package com.task.founding.engineer.reactive.repository;
+
+import com.task.founding.engineer.dictionary.ValueDigest;
+import com.task.founding.engineer.dto.response.RunResponseDTO;
+import com.task.founding.engineer.enums.PayloadField;
+import com.task.founding.engineer.enums.RunStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RunReadRepositoryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    private DatabaseClient databaseClient;
+    private RunReadRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        databaseClient = ReadSchema.create();
+        repository = new RunReadRepository(databaseClient);
+        databaseClient.sql("INSERT INTO xray_dictionary (code, kind, entry_digest, entry_value) VALUES (1, 'PIPELINE_TYPE', :digest, 'search')")
+                .bind("digest", ValueDigest.of("search"))
+                .then().block();
+    }
+
+    @Test
+    void testFindById_SelectsPayloadsOnlyWhenRequested() {
+        UUID runId = insert("search", 1, RunStatus.COMPLETED, NOW);
+
+        RunResponseDTO bare = repository.findById(runId, Set.of()).block();
+        RunResponseDTO full = repository.findById(runId, EnumSet.of(PayloadField.INPUT, PayloadField.OUTPUT)).block();
+
+        assertEquals(runId, bare.getRunId());
+        assertEquals("search", bare.getPipelineType());
+        assertEquals("pipeline-1", bare.getPipelineId());
+        assertEquals(NOW, bare.getStartedAt());
+        assertEquals(RunStatus.COMPLETED, bare.getStatus());
+        assertNull(bare.getInput());
+        assertNull(bare.getOutput());
+        assertEquals("{\"query\":\"shoes\"}", full.getInput().json());
+        assertEquals("{\"count\":3}", full.getOutput().json());
+    }
+
+    @Test
+    void testFindById_EmptyWhenMissing() {
+        assertNull(repository.findById(UUID.randomUUID(), Set.of()).block());
+    }
+
+    @Test
+    void testFindAll_AppliesEveryFilterThatIsSet() {
+        UUID early = insert("search", 1, RunStatus.COMPLETED, NOW.minusDays(2));
+        UUID failed = insert("search", 1, RunStatus.FAILED, NOW);
+        UUID late = insert("search", 1, RunStatus.COMPLETED, NOW);
+        insert("ranking", 2, RunStatus.COMPLETED, NOW);
+
+        assertEquals(List.of(early, failed, late), ids(RunReadRepository.Filter.builder().pipelineType("search").build()));
+        assertEquals(List.of(early, late), ids(RunReadRepository.Filter.builder()
+                .pipelineType("search").status(RunStatus.COMPLETED).build()));
+        assertEquals(List.of(late), ids(RunReadRepository.Filter.builder()
+                .pipelineType("search").status(RunStatus.COMPLETED).startDate(NOW.minusDays(1)).build()));
+        assertEquals(List.of(early), ids(RunReadRepository.Filter.builder().endDate(NOW.minusDays(1)).build()));
+        assertEquals(List.of(), ids(RunReadRepository.Filter.builder().pipelineType("never-written").build()));
+    }
+
+    @Test
+    void testFindAll_MatchesRunsNotCodedYetOnTheirPipelineType() {
+        UUID coded = insert("search", 1, RunStatus.COMPLETED, NOW.minusDays(1));
+        UUID uncoded = insert("search", null, RunStatus.COMPLETED, NOW);
+        UUID neverInterned = insert("legacy", null, RunStatus.COMPLETED, NOW);
+
+        assertEquals(List.of(coded, uncoded), ids(RunReadRepository.Filter.builder().pipelineType("search").build()));
+        assertEquals(List.of(neverInterned), ids(RunReadRepository.Filter.builder().pipelineType("legacy").build()));
+    }
+
+    @Test
+    void testToSql_WritesOnlyTheFiltersThatAreSet() {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+
+        String sql = RunReadRepository.toSql(RunReadRepository.Filter.builder().status(RunStatus.FAILED).build(),
+                Set.of(), parameters);
+
+        assertTrue(sql.contains("r.status = :status"));
+        assertFalse(sql.contains("pipeline_type_code"));
+        assertFalse(sql.contains("started_at >="));
+        assertFalse(sql.contains("r.input"));
+        assertEquals(Map.of("status", "FAILED"), parameters);
+    }
+
+    private UUID insert(String pipelineType, Integer pipelineTypeCode, RunStatus status, LocalDateTime startedAt) {
+        UUID runId = UUID.randomUUID();
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("INSERT INTO xray_runs "
+                        + "(run_id, pipeline_type, pipeline_type_code, pipeline_id, started_at, status, input, output) "
+                        + "VALUES (:runId, :pipelineType, :pipelineTypeCode, 'pipeline-1', :startedAt, :status, "
+                        + "'{\"query\":\"shoes\"}' FORMAT JSON, '{\"count\":3}' FORMAT JSON)")
+                .bind("runId", runId)
+                .bind("pipelineType", pipelineType)
+                .bind("startedAt", startedAt)
+                .bind("status", status.name());
+        spec = Objects.nonNull(pipelineTypeCode)
+                ? spec.bind("pipelineTypeCode", pipelineTypeCode)
+                : spec.bindNull("pipelineTypeCode", Integer.class);
+        spec.then().block();
+        return runId;
+    }
+
+    private List<UUID> ids(RunReadRepository.Filter filter) {
+        return repository.findAll(filter, Set.of()).map(RunResponseDTO::getRunId).collectList().block();
+    }
+}
@@ -0,0 +1,110 @@
+package com.task.founding.engineer.reactive.repository;
+
+import com.task.founding.engineer.dictionary.ValueDigest;
+import com.github.luben.zstd.Zstd;
+import com.task.founding.engineer.dto.response.StepResponseDTO;
+import com.task.founding.engineer.enums.PayloadField;
+import com.task.founding.engineer.enums.StepStatus;
+import com.task.founding.engineer.reactive.compression.ZstdTextReader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class StepReadRepositoryTest {
+
+    private DatabaseClient databaseClient;
+    private StepReadRepository repository;
+    private UUID runId;
+
+    @BeforeEach
+    void setUp() {
+        databaseClient = ReadSchema.create();
+        repository = new StepReadRepository(databaseClient, new ZstdTextReader(databaseClient));
+        runId = UUID.randomUUID();
+        databaseClient.sql("INSERT INTO xray_dictionary (code, kind, entry_digest, entry_value) VALUES (7, 'STEP_TYPE', :digest, 'filter')")
+                .bind("digest", ValueDigest.of("filter"))
+                .then().block();
+    }
+
+    @Test
+    void testFindById_SelectsPayloadsOnlyWhenRequested() {
+        UUID stepId = insert(runId, 0, 7, "kept 3 of 10");
+
+        StepResponseDTO bare = repository.findById(stepId, Set.of()).block();
+        StepResponseDTO full = repository.findById(stepId, EnumSet.allOf(PayloadField.class)).block();
+
+        assertEquals(stepId, bare.getStepId());
+        assertEquals(runId, bare.getRunId());
+        assertEquals("filter_by_price", bare.getStepName());
+        assertEquals("filter", bare.getStepType());
+        assertEquals(0, bare.getOrder());
+        assertEquals(StepStatus.SUCCESS, bare.getStatus());
+        assertNull(bare.getInput());
+        assertNull(bare.getReasoning());
+        assertEquals("{\"limit\":10}", full.getInput().json());
+        assertEquals("{\"kept\":3}", full.getOutput().json());
+        assertEquals("{\"source\":\"test\"}", full.getMetadata().json());
+        assertEquals("kept 3 of 10", full.getReasoning());
+    }
+
+    @Test
+    void testFindById_DecompressesReasoning() {
+        UUID stepId = insert(runId, 0, 7, null);
+        databaseClient.sql("UPDATE xray_steps SET reasoning_zstd = :frame WHERE step_id = :stepId")
+                .bind("frame", Zstd.compress("kept the cheapest".getBytes(StandardCharsets.UTF_8)))
+                .bind("stepId", stepId)
+                .then().block();
+
+        assertEquals("kept the cheapest", repository.findById(stepId, EnumSet.of(PayloadField.REASONING)).block().getReasoning());
+    }
+
+    @Test
+    void testFindByRunIds_OrdersStepsOfEachRun() {
+        UUID second = insert(runId, 1, 7, null);
+        UUID first = insert(runId, 0, 7, null);
+        insert(UUID.randomUUID(), 0, 7, null);
+
+        List<UUID> steps = repository.findByRunIds(List.of(runId), Set.of())
+                .map(StepResponseDTO::getStepId).collectList().block();
+
+        assertEquals(List.of(first, second), steps);
+    }
+
+    @Test
+    void testFindByStepType_MatchesTheInternedCode() {
+        UUID filter = insert(runId, 0, 7, null);
+        insert(runId, 1, 8, null);
+
+        assertEquals(List.of(filter), repository.findByStepType("filter", Set.of())
+                .map(StepResponseDTO::getStepId).collectList().block());
+        assertEquals(List.of(), repository.findByStepType("never-written", Set.of()).collectList().block());
+    }
+
+    private UUID insert(UUID runId, int order, int stepTypeCode, String reasoning) {
+        UUID stepId = UUID.randomUUID();
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("INSERT INTO xray_steps "
+                        + "(step_id, run_id, step_name, step_type, step_type_code, order_index, started_at, status, "
+                        + "input, output, reasoning, metadata) "
+                        + "VALUES (:stepId, :runId, 'filter_by_price', 'filter', :stepTypeCode, :order, :startedAt, 'SUCCESS', "
+                        + "'{\"limit\":10}' FORMAT JSON, '{\"kept\":3}' FORMAT JSON, :reasoning, '{\"source\":\"test\"}' FORMAT JSON)")
+                .bind("stepId", stepId)
+                .bind("runId", runId)
+                .bind("stepTypeCode", stepTypeCode)
+                .bind("order", order)
+                .bind("startedAt", LocalDateTime.now());
+        spec = Objects.nonNull(reasoning) ? spec.bind("reasoning", reasoning) : spec.bindNull("reasoning", String.class);
+        spec.then().block();
+        return stepId;
+    }
+}
@@ -0,0 +1,142 @@
+package com.task.founding.engineer.reactive.service.impl;
+
+import com.task.founding.engineer.dto.response.CandidateResponseDTO;
+import com.task.founding.engineer.dto.response.RunResponseDTO;
+import com.task.founding.engineer.dto.response.StepResponseDTO;
+import com.task.founding.engineer.enums.PayloadField;
+import com.task.founding.engineer.reactive.repository.CandidateReadRepository;
+import com.task.founding.engineer.reactive.repository.RunReadRepository;
+import com.task.founding.engineer.reactive.repository.StepReadRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReadServiceImplTest {
+
+    @Mock
+    private RunReadRepository runRepository;
+
+    @Mock
+    private StepReadRepository stepRepository;
+
+    @Mock
+    private CandidateReadRepository candidateRepository;
+
+    private ReadServiceImpl readService;
+
+    private final Set<PayloadField> include = Set.of(PayloadField.INPUT);
+
+    @BeforeEach
+    void setUp() {
+        readService = new ReadServiceImpl(runRepository, stepRepository, candidateRepository);
+    }
+
+    @Test
+    void testGetRunById_AttachesStepsAndCandidates() {
+        UUID runId = UUID.randomUUID();
+        StepResponseDTO first = step(runId);
+        StepResponseDTO second = step(runId);
+        CandidateResponseDTO candidate = candidate(second.getStepId());
+        when(runRepository.findById(runId, include)).thenReturn(Mono.just(run(runId)));
+        when(stepRepository.findByRunIds(List.of(runId), include)).thenReturn(Flux.just(first, second));
+        when(candidateRepository.findByStepIds(List.of(first.getStepId(), second.getStepId())))
+                .thenReturn(Flux.just(candidate));
+
+        RunResponseDTO run = readService.getRunById(runId, include).block();
+
+        assertEquals(List.of(first, second), run.getSteps());
+        assertTrue(first.getCandidates().isEmpty());
+        assertEquals(List.of(candidate), second.getCandidates());
+    }
+
+    @Test
+    void testGetRunById_NotFound() {
+        UUID runId = UUID.randomUUID();
+        when(runRepository.findById(runId, include)).thenReturn(Mono.empty());
+
+        StepVerifier.create(readService.getRunById(runId, include))
+                .expectErrorMessage("Run not found with id: " + runId)
+                .verify();
+    }
+
+    @Test
+    void testGetAllRuns_GroupsStepsByRunWithOneQueryEach() {
+        UUID firstRunId = UUID.randomUUID();
+        UUID secondRunId = UUID.randomUUID();
+        StepResponseDTO step = step(secondRunId);
+        RunReadRepository.Filter filter = RunReadRepository.Filter.builder().build();
+        when(runRepository.findAll(filter, include)).thenReturn(Flux.just(run(firstRunId), run(secondRunId)));
+        when(stepRepository.findByRunIds(List.of(firstRunId, secondRunId), include)).thenReturn(Flux.just(step));
+        when(candidateRepository.findByStepIds(List.of(step.getStepId()))).thenReturn(Flux.empty());
+
+        List<RunResponseDTO> runs = readService.getAllRuns(filter, include).block();
+
+        assertTrue(runs.get(0).getSteps().isEmpty());
+        assertEquals(List.of(step), runs.get(1).getSteps());
+    }
+
+    @Test
+    void testGetAllRuns_NoRunsSkipsStepQuery() {
+        RunReadRepository.Filter filter = RunReadRepository.Filter.builder().pipelineType("search").build();
+        when(runRepository.findAll(filter, include)).thenReturn(Flux.empty());
+
+        assertEquals(List.of(), readService.getAllRuns(filter, include).block());
+        verify(stepRepository, never()).findByRunIds(any(), any());
+    }
+
+    @Test
+    void testGetStepById_NotFound() {
+        UUID stepId = UUID.randomUUID();
+        when(stepRepository.findById(stepId, include)).thenReturn(Mono.empty());
+
+        StepVerifier.create(readService.getStepById(stepId, include))
+                .expectErrorMessage("Step not found with id: " + stepId)
+                .verify();
+    }
+
+    @Test
+    void testGetStepsByType_NoStepsSkipsCandidateQuery() {
+        when(stepRepository.findByStepType("filter", include)).thenReturn(Flux.empty());
+
+        assertEquals(List.of(), readService.getStepsByType("filter", include).block());
+        verify(candidateRepository, never()).findByStepIds(any());
+    }
+
+    @Test
+    void testGetCandidates_ReturnsTheCursorFlux() {
+        UUID stepId = UUID.randomUUID();
+        Flux<CandidateResponseDTO> candidates = Flux.just(candidate(stepId));
+        when(candidateRepository.findByStepId(stepId, false)).thenReturn(candidates);
+
+        assertEquals(candidates, readService.getCandidates(stepId, false));
+    }
+
+    private static RunResponseDTO run(UUID runId) {
+        return RunResponseDTO.builder().runId(runId).build();
+    }
+
+    private static StepResponseDTO step(UUID runId) {
+        return StepResponseDTO.builder().stepId(UUID.randomUUID()).runId(runId).build();
+    }
+
+    private static CandidateResponseDTO candidate(UUID stepId) {
+        return CandidateResponseDTO.builder().candidateId(UUID.randomUUID()).stepId(stepId).build();
+    }
+}
@@ -1,8 +1,18 @@
 package com.task.founding.engineer.api.controller;
 
+import com.task.founding.engineer.dto.request.WhatIfRequestDTO;
 import com.task.founding.engineer.dto.response.ApiResponse;
+import com.task.founding.engineer.dto.response.DistinctKeyCountResponseDTO;
 import com.task.founding.engineer.dto.response.FilteringStatsResponseDTO;
+import com.task.founding.engineer.dto.response.LiveCountersResponseDTO;
+import com.task.founding.engineer.dto.response.RejectedKeysResponseDTO;
+import com.task.founding.engineer.dto.response.RejectionReasonBreakdownResponseDTO;
+import com.task.founding.engineer.dto.response.ScoreDriftResponseDTO;
+import com.task.founding.engineer.dto.response.WhatIfResponseDTO;
+import com.task.founding.engineer.enums.RejectionReasonGrouping;
+import com.task.founding.engineer.enums.TimeBucket;
 import com.task.founding.engineer.service.AnalyticsService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
@@ -27,5 +37,69 @@ public class AnalyticsController {
                 pipelineType, startDate, endDate);
         return ResponseEntity.ok(ApiResponse.success(stats));
     }
+
+    @GetMapping("/rejection_reasons")
+    public ResponseEntity<ApiResponse<RejectionReasonBreakdownResponseDTO>> getRejectionReasons(
+            @RequestParam(required = false) String stepName,
+            @RequestParam(required = false) String pipelineType,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String groupBy,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        RejectionReasonBreakdownResponseDTO breakdown = analyticsService.getRejectionReasonBreakdown(
+                stepName, pipelineType, startDate, endDate, RejectionReasonGrouping.parse(groupBy), limit);
+        return ResponseEntity.ok(ApiResponse.success(breakdown));
+    }
+
+    @GetMapping("/rejected_keys")
+    public ResponseEntity<ApiResponse<RejectedKeysResponseDTO>> getRejectedKeys(
+            @RequestParam String stepName,
+            @RequestParam(defaultValue = "24") int hours,
+            @RequestParam(defaultValue = "100") int limit) {
+
+        RejectedKeysResponseDTO rejectedKeys = analyticsService.getTopRejectedKeys(stepName, hours, limit);
+        return ResponseEntity.ok(ApiResponse.success(rejectedKeys));
+    }
+
+    @GetMapping("/distinct_keys")
+    public ResponseEntity<ApiResponse<DistinctKeyCountResponseDTO>> getDistinctKeys(
+            @RequestParam String pipelineType,
+            @RequestParam(required = false) String stepName,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String bucket) {
+
+        DistinctKeyCountResponseDTO counts = analyticsService.getDistinctKeyCounts(
+                pipelineType, stepName, startDate, endDate, TimeBucket.parse(bucket));
+        return ResponseEntity.ok(ApiResponse.success(counts));
+    }
+
+    @PostMapping("/what_if")
+    public ResponseEntity<ApiResponse<WhatIfResponseDTO>> simulateWhatIf(
+            @Valid @RequestBody WhatIfRequestDTO request) {
+
+        WhatIfResponseDTO result = analyticsService.simulateWhatIf(request);
+        return ResponseEntity.ok(ApiResponse.success(result));
+    }
+
+    @GetMapping("/score_drift")
+    public ResponseEntity<ApiResponse<ScoreDriftResponseDTO>> getScoreDrift(
+            @RequestParam String stepName,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime baselineStart,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime baselineEnd,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime currentStart,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime currentEnd) {
+
+        ScoreDriftResponseDTO drift = analyticsService.getScoreDrift(
+                stepName, baselineStart, baselineEnd, currentStart, currentEnd);
+        return ResponseEntity.ok(ApiResponse.success(drift));
+    }
+
+    @GetMapping("/live")
+    public ResponseEntity<ApiResponse<LiveCountersResponseDTO>> getLiveCounters() {
+        LiveCountersResponseDTO counters = analyticsService.getLiveCounters();
+        return ResponseEntity.ok(ApiResponse.success(counters));
+    }
 }
 
@@ -0,0 +1,39 @@
+package com.task.founding.engineer.api.controller;
+
+import com.task.founding.engineer.api.controller.converter.CandidateConverter;
+import com.task.founding.engineer.dto.request.CandidateSearchRequestDTO;
+import com.task.founding.engineer.dto.response.ApiResponse;
+import com.task.founding.engineer.dto.response.CandidateSearchResponseDTO;
+import com.task.founding.engineer.model.XRayCandidate;
+import com.task.founding.engineer.service.CandidateService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/v1/candidates")
+@RequiredArgsConstructor
+public class CandidateSearchController {
+
+    private final CandidateService candidateService;
+    private final CandidateConverter candidateConverter;
+
+    @PostMapping("/search")
+    public ResponseEntity<ApiResponse<CandidateSearchResponseDTO>> searchCandidates(
+            @Valid @RequestBody CandidateSearchRequestDTO request) {
+        Slice<XRayCandidate> candidates = candidateService.searchCandidates(request);
+        CandidateSearchResponseDTO response = CandidateSearchResponseDTO.builder()
+                .candidates(candidates.getContent().stream()
+                        .map(candidateConverter::toResponse)
+                        .collect(Collectors.toList()))
+                .page(candidates.getNumber())
+                .size(candidates.getSize())
+                .hasNext(candidates.hasNext())
+                .build();
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+}
@@ -0,0 +1,55 @@
+package com.task.founding.engineer.api.controller;
+
+import com.task.founding.engineer.dto.response.DecisionMatrixHeaderDTO;
+import com.task.founding.engineer.service.DecisionMatrixService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/runs")
+@RequiredArgsConstructor
+public class DecisionMatrixController {
+
+    private static final int NEWLINE = '\n';
+
+    private final DecisionMatrixService decisionMatrixService;
+    private final JsonMapper jsonMapper;
+
+    /**
+     * Streams the matrix as NDJSON: the header line first, then one line per row as it is pivoted.
+     * The header is read before the response starts, so an unknown run is still a 404.
+     */
+    @GetMapping(value = "/{runId}/decision_matrix", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getDecisionMatrix(@PathVariable UUID runId) {
+        DecisionMatrixHeaderDTO header = decisionMatrixService.getDecisionMatrixHeader(runId);
+        StreamingResponseBody body = out -> {
+            writeLine(out, header);
+            decisionMatrixService.streamDecisionMatrix(header, row -> writeLine(out, row));
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    // Written as bytes: writing to the stream through the mapper would close it after the first line
+    private void writeLine(OutputStream out, Object value) {
+        try {
+            out.write(jsonMapper.writeValueAsBytes(value));
+            out.write(NEWLINE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
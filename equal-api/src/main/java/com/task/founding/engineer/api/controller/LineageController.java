@@ -0,0 +1,42 @@
+package com.task.founding.engineer.api.controller;
+
+import com.task.founding.engineer.dto.response.ApiResponse;
+import com.task.founding.engineer.dto.response.LineageResponseDTO;
+import com.task.founding.engineer.dto.response.StepMembershipResponseDTO;
+import com.task.founding.engineer.service.LineageService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/v1/lineage")
+@RequiredArgsConstructor
+public class LineageController {
+
+    private final LineageService lineageService;
+
+    @GetMapping("/{businessKey}")
+    public ResponseEntity<ApiResponse<LineageResponseDTO>> getLineage(
+            @PathVariable String businessKey,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        LineageResponseDTO lineage = lineageService.getLineage(businessKey, startDate, endDate, limit);
+        return ResponseEntity.ok(ApiResponse.success(lineage));
+    }
+
+    @GetMapping("/{businessKey}/steps")
+    public ResponseEntity<ApiResponse<StepMembershipResponseDTO>> getStepMembership(
+            @PathVariable String businessKey,
+            @RequestParam String stepName,
+            @RequestParam(required = false) String pipelineType,
+            @RequestParam(defaultValue = "10000") int limit) {
+
+        StepMembershipResponseDTO membership = lineageService.getStepMembership(businessKey, stepName, pipelineType, limit);
+        return ResponseEntity.ok(ApiResponse.success(membership));
+    }
+}
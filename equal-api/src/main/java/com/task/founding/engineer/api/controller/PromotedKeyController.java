@@ -0,0 +1,48 @@
+package com.task.founding.engineer.api.controller;
+
+import com.task.founding.engineer.api.controller.converter.PromotedKeyConverter;
+import com.task.founding.engineer.dto.request.PromoteKeyRequestDTO;
+import com.task.founding.engineer.dto.response.ApiResponse;
+import com.task.founding.engineer.dto.response.DataKeyUsageDTO;
+import com.task.founding.engineer.dto.response.PromotedKeyResponseDTO;
+import com.task.founding.engineer.service.PromotedKeyService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/v1/admin/data_keys")
+@RequiredArgsConstructor
+public class PromotedKeyController {
+
+    private final PromotedKeyService promotedKeyService;
+    private final PromotedKeyConverter promotedKeyConverter;
+
+    @GetMapping("/usage")
+    public ResponseEntity<ApiResponse<List<DataKeyUsageDTO>>> getDataKeyUsage(
+            @RequestParam(required = false) String pipelineType) {
+        return ResponseEntity.ok(ApiResponse.success(promotedKeyService.getDataKeyUsage(pipelineType)));
+    }
+
+    @GetMapping("/promoted")
+    public ResponseEntity<ApiResponse<List<PromotedKeyResponseDTO>>> getPromotedKeys() {
+        List<PromotedKeyResponseDTO> keys = promotedKeyService.getPromotedKeys().stream()
+                .map(promotedKeyConverter::toResponse)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(ApiResponse.success(keys));
+    }
+
+    // Accepted rather than created: the column is built in the background
+    @PostMapping("/promoted")
+    public ResponseEntity<ApiResponse<PromotedKeyResponseDTO>> promoteKey(
+            @Valid @RequestBody PromoteKeyRequestDTO request) {
+        PromotedKeyResponseDTO key = promotedKeyConverter.toResponse(promotedKeyService.promoteKey(request.getPath()));
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("Key promotion requested", key));
+    }
+}
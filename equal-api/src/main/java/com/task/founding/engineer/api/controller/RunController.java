@@ -2,10 +2,13 @@ package com.task.founding.engineer.api.controller;
 
 import com.task.founding.engineer.api.controller.converter.RunConverter;
 import com.task.founding.engineer.dto.request.CreateRunRequestDTO;
+import com.task.founding.engineer.dto.response.ActiveRunDTO;
 import com.task.founding.engineer.dto.response.ApiResponse;
 import com.task.founding.engineer.dto.response.IdResponseDTO;
 import com.task.founding.engineer.dto.response.RunResponseDTO;
+import com.task.founding.engineer.enums.PayloadField;
 import com.task.founding.engineer.enums.RunStatus;
+import com.task.founding.engineer.json.RawJson;
 import com.task.founding.engineer.service.RunService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -16,6 +19,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -34,9 +38,19 @@ public class RunController {
                 .body(ApiResponse.success("Run created successfully", IdResponseDTO.of(runId)));
     }
 
+    @GetMapping("/active")
+    public ResponseEntity<ApiResponse<List<ActiveRunDTO>>> getActiveRuns(
+            @RequestParam(required = false) String pipelineType) {
+        List<ActiveRunDTO> runs = runService.getActiveRuns(pipelineType);
+        return ResponseEntity.ok(ApiResponse.success(runs));
+    }
+
     @GetMapping("/{runId}")
-    public ResponseEntity<ApiResponse<RunResponseDTO>> getRun(@PathVariable UUID runId) {
-        RunResponseDTO run = runConverter.toResponse(runService.getRunById(runId));
+    public ResponseEntity<ApiResponse<RunResponseDTO>> getRun(
+            @PathVariable UUID runId,
+            @RequestParam(required = false) List<String> include) {
+        Set<PayloadField> fields = PayloadField.parse(include);
+        RunResponseDTO run = runConverter.toResponse(runService.getRunById(runId, fields), fields);
         return ResponseEntity.ok(ApiResponse.success(run));
     }
 
@@ -45,10 +59,12 @@ public class RunController {
             @RequestParam(required = false) String pipelineType,
             @RequestParam(required = false) RunStatus status,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) List<String> include) {
+        Set<PayloadField> fields = PayloadField.parse(include);
         List<RunResponseDTO> runs = runService.getAllRuns(
-                        pipelineType, status, startDate, endDate).stream()
-                .map(runConverter::toResponse)
+                        pipelineType, status, startDate, endDate, fields).stream()
+                .map(run -> runConverter.toResponse(run, fields))
                 .collect(Collectors.toList());
         return ResponseEntity.ok(ApiResponse.success(runs));
     }
@@ -56,7 +72,7 @@ public class RunController {
     @PutMapping("/{runId}/complete")
     public ResponseEntity<ApiResponse<Void>> completeRun(
             @PathVariable UUID runId,
-            @RequestBody(required = false) Object output) {
+            @RequestBody(required = false) RawJson output) {
         runService.completeRun(runId, output);
         return ResponseEntity.ok(ApiResponse.success("Run completed successfully", null));
     }
@@ -0,0 +1,58 @@
+package com.task.founding.engineer.api.controller;
+
+import com.task.founding.engineer.dto.response.RunEventDTO;
+import com.task.founding.engineer.live.RunEventBroadcaster;
+import com.task.founding.engineer.service.RunService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/runs")
+public class RunStreamController {
+
+    private final RunService runService;
+    private final Duration timeout;
+
+    public RunStreamController(
+            RunService runService,
+            @Value("${xray.run-stream.timeout:PT30M}") Duration timeout) {
+        this.runService = runService;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Live tail of a run as Server-Sent Events, named after the event type, each carrying a
+     * {@link RunEventDTO}. The stream ends after the run completes or fails, or after the timeout;
+     * events published while a client reconnects are not replayed. An unknown run is a 404.
+     */
+    @GetMapping(value = "/{runId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamRun(@PathVariable UUID runId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        RunEventBroadcaster.Subscription subscription = runService.streamRun(
+                runId, event -> send(emitter, event), emitter::complete);
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(error -> subscription.close());
+        return emitter;
+    }
+
+    private static void send(SseEmitter emitter, RunEventDTO event) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name(event.getType().getEventName())
+                    .data(event, MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
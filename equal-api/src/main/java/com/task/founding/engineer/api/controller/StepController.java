@@ -1,10 +1,13 @@
 package com.task.founding.engineer.api.controller;
 
 import com.task.founding.engineer.api.controller.converter.StepConverter;
+import com.task.founding.engineer.dto.request.CompleteStepRequestDTO;
 import com.task.founding.engineer.dto.request.CreateStepRequestDTO;
 import com.task.founding.engineer.dto.response.ApiResponse;
 import com.task.founding.engineer.dto.response.IdResponseDTO;
 import com.task.founding.engineer.dto.response.StepResponseDTO;
+import com.task.founding.engineer.enums.PayloadField;
+import com.task.founding.engineer.json.RawJson;
 import com.task.founding.engineer.service.StepService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -13,8 +16,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -36,26 +39,34 @@ public class StepController {
     }
 
     @GetMapping("/steps/{stepId}")
-    public ResponseEntity<ApiResponse<StepResponseDTO>> getStep(@PathVariable UUID stepId) {
-        StepResponseDTO step = stepConverter.toResponse(stepService.getStepById(stepId));
+    public ResponseEntity<ApiResponse<StepResponseDTO>> getStep(
+            @PathVariable UUID stepId,
+            @RequestParam(required = false) List<String> include) {
+        Set<PayloadField> fields = PayloadField.parse(include);
+        StepResponseDTO step = stepConverter.toResponse(stepService.getStepById(stepId, fields), fields);
         return ResponseEntity.ok(ApiResponse.success(step));
     }
 
     @GetMapping("/runs/{runId}/steps")
-    public ResponseEntity<ApiResponse<List<StepResponseDTO>>> getStepsByRunId(@PathVariable UUID runId) {
-        List<StepResponseDTO> steps = stepService.getStepsByRunId(runId).stream()
-                .map(stepConverter::toResponse)
+    public ResponseEntity<ApiResponse<List<StepResponseDTO>>> getStepsByRunId(
+            @PathVariable UUID runId,
+            @RequestParam(required = false) List<String> include) {
+        Set<PayloadField> fields = PayloadField.parse(include);
+        List<StepResponseDTO> steps = stepService.getStepsByRunId(runId, fields).stream()
+                .map(step -> stepConverter.toResponse(step, fields))
                 .collect(Collectors.toList());
         return ResponseEntity.ok(ApiResponse.success(steps));
     }
 
     @GetMapping("/steps")
     public ResponseEntity<ApiResponse<List<StepResponseDTO>>> getStepsByType(
-            @RequestParam(required = false) String stepType) {
+            @RequestParam(required = false) String stepType,
+            @RequestParam(required = false) List<String> include) {
+        Set<PayloadField> fields = PayloadField.parse(include);
         List<StepResponseDTO> steps;
         if (Objects.nonNull(stepType)) {
-            steps = stepService.getStepsByType(stepType).stream()
-                    .map(stepConverter::toResponse)
+            steps = stepService.getStepsByType(stepType, fields).stream()
+                    .map(step -> stepConverter.toResponse(step, fields))
                     .collect(Collectors.toList());
         } else {
             steps = List.of();
@@ -66,11 +77,9 @@ public class StepController {
     @PutMapping("/steps/{stepId}/complete")
     public ResponseEntity<ApiResponse<Void>> completeStep(
             @PathVariable UUID stepId,
-            @RequestBody(required = false) Map<String, Object> body) {
-        Object output = Objects.nonNull(body) ? body.get("output") : null;
-        String reasoning = Objects.nonNull(body) && Objects.nonNull(body.get("reasoning"))
-            ? body.get("reasoning").toString() 
-            : null;
+            @RequestBody(required = false) CompleteStepRequestDTO body) {
+        RawJson output = Objects.nonNull(body) ? body.getOutput() : null;
+        String reasoning = Objects.nonNull(body) ? body.getReasoning() : null;
         stepService.completeStep(stepId, output, reasoning);
         return ResponseEntity.ok(ApiResponse.success("Step completed successfully", null));
     }
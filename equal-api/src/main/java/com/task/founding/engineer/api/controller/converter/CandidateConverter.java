@@ -1,5 +1,6 @@
 package com.task.founding.engineer.api.controller.converter;
 
+import com.task.founding.engineer.compression.TextCompressor;
 import com.task.founding.engineer.dto.response.CandidateResponseDTO;
 import com.task.founding.engineer.model.XRayCandidate;
 import org.springframework.stereotype.Component;
@@ -9,6 +10,12 @@ import java.util.Objects;
 @Component
 public class CandidateConverter {
 
+    private final TextCompressor textCompressor;
+
+    public CandidateConverter(TextCompressor textCompressor) {
+        this.textCompressor = textCompressor;
+    }
+
     public CandidateResponseDTO toResponse(XRayCandidate candidate) {
         if (Objects.isNull(candidate)) {
             return null;
@@ -17,11 +24,12 @@ public class CandidateConverter {
         return CandidateResponseDTO.builder()
                 .candidateId(candidate.getCandidateId())
                 .stepId(candidate.getStepId())
-                .data((java.util.Map<String, Object>) candidate.getData())
+                .data(candidate.getData())
                 .score(candidate.getScore())
                 .selected(candidate.getSelected())
-                .rejectionReason(candidate.getRejectionReason())
-                .metadata((java.util.Map<String, Object>) candidate.getMetadata())
+                .rejectionReason(textCompressor.read(
+                        candidate.getRejectionReason(), candidate.getRejectionReasonCompressed()))
+                .metadata(candidate.getMetadata())
                 .build();
     }
 }
@@ -0,0 +1,26 @@
+package com.task.founding.engineer.api.controller.converter;
+
+import com.task.founding.engineer.dto.response.PromotedKeyResponseDTO;
+import com.task.founding.engineer.model.XRayPromotedKey;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+@Component
+public class PromotedKeyConverter {
+
+    public PromotedKeyResponseDTO toResponse(XRayPromotedKey promotedKey) {
+        if (Objects.isNull(promotedKey)) {
+            return null;
+        }
+
+        return PromotedKeyResponseDTO.builder()
+                .path(promotedKey.getPath())
+                .indexName(promotedKey.getIndexName())
+                .status(promotedKey.getStatus())
+                .error(promotedKey.getError())
+                .createdAt(promotedKey.getCreatedAt())
+                .readyAt(promotedKey.getReadyAt())
+                .build();
+    }
+}
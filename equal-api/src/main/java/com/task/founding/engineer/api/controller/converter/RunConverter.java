@@ -1,10 +1,12 @@
 package com.task.founding.engineer.api.controller.converter;
 
 import com.task.founding.engineer.dto.response.RunResponseDTO;
+import com.task.founding.engineer.enums.PayloadField;
 import com.task.founding.engineer.model.XRayRun;
 import org.springframework.stereotype.Component;
 
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Component
@@ -16,7 +18,7 @@ public class RunConverter {
         this.stepConverter = stepConverter;
     }
 
-    public RunResponseDTO toResponse(XRayRun run) {
+    public RunResponseDTO toResponse(XRayRun run, Set<PayloadField> include) {
         if (Objects.isNull(run)) {
             return null;
         }
@@ -28,11 +30,11 @@ public class RunConverter {
                 .startedAt(run.getStartedAt())
                 .completedAt(run.getCompletedAt())
                 .status(run.getStatus())
-                .input((java.util.Map<String, Object>) run.getInput())
-                .output((java.util.Map<String, Object>) run.getOutput())
+                .input(include.contains(PayloadField.INPUT) ? run.getInput() : null)
+                .output(include.contains(PayloadField.OUTPUT) ? run.getOutput() : null)
                 .steps(Objects.nonNull(run.getSteps())
                     ? run.getSteps().stream()
-                        .map(stepConverter::toResponse)
+                        .map(step -> stepConverter.toResponse(step, include))
                         .collect(Collectors.toList())
                     : null)
                 .build();
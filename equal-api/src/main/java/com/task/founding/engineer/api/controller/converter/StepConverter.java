@@ -1,22 +1,27 @@
 package com.task.founding.engineer.api.controller.converter;
 
+import com.task.founding.engineer.compression.TextCompressor;
 import com.task.founding.engineer.dto.response.StepResponseDTO;
+import com.task.founding.engineer.enums.PayloadField;
 import com.task.founding.engineer.model.XRayStep;
 import org.springframework.stereotype.Component;
 
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Component
 public class StepConverter {
 
     private final CandidateConverter candidateConverter;
+    private final TextCompressor textCompressor;
 
-    public StepConverter(CandidateConverter candidateConverter) {
+    public StepConverter(CandidateConverter candidateConverter, TextCompressor textCompressor) {
         this.candidateConverter = candidateConverter;
+        this.textCompressor = textCompressor;
     }
 
-    public StepResponseDTO toResponse(XRayStep step) {
+    public StepResponseDTO toResponse(XRayStep step, Set<PayloadField> include) {
         if (Objects.isNull(step)) {
             return null;
         }
@@ -30,10 +35,12 @@ public class StepConverter {
                 .startedAt(step.getStartedAt())
                 .completedAt(step.getCompletedAt())
                 .status(step.getStatus())
-                .input((java.util.Map<String, Object>) step.getInput())
-                .output((java.util.Map<String, Object>) step.getOutput())
-                .reasoning(step.getReasoning())
-                .metadata((java.util.Map<String, Object>) step.getMetadata())
+                .input(include.contains(PayloadField.INPUT) ? step.getInput() : null)
+                .output(include.contains(PayloadField.OUTPUT) ? step.getOutput() : null)
+                .reasoning(include.contains(PayloadField.REASONING)
+                        ? textCompressor.read(step.getReasoning(), step.getReasoningCompressed())
+                        : null)
+                .metadata(include.contains(PayloadField.METADATA) ? step.getMetadata() : null)
                 .candidates(Objects.nonNull(step.getCandidates())
                     ? step.getCandidates().stream()
                         .map(candidateConverter::toResponse)
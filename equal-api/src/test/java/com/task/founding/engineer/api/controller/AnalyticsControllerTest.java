@@ -1,19 +1,42 @@
 package com.task.founding.engineer.api.controller;
 
+import com.task.founding.engineer.api.controller.exception.handler.GlobalExceptionHandler;
+import com.task.founding.engineer.dto.request.WhatIfRequestDTO;
+import com.task.founding.engineer.dto.response.DistinctKeyBucketDTO;
+import com.task.founding.engineer.dto.response.DistinctKeyCountResponseDTO;
 import com.task.founding.engineer.dto.response.FilteringStatsResponseDTO;
+import com.task.founding.engineer.dto.response.LiveCountersResponseDTO;
+import com.task.founding.engineer.dto.response.LivePipelineCountersDTO;
+import com.task.founding.engineer.dto.response.RejectedKeyCountDTO;
+import com.task.founding.engineer.dto.response.RejectedKeysResponseDTO;
+import com.task.founding.engineer.dto.response.RejectionReasonBreakdownResponseDTO;
+import com.task.founding.engineer.dto.response.RejectionReasonCountDTO;
+import com.task.founding.engineer.dto.response.ScoreDriftResponseDTO;
+import com.task.founding.engineer.dto.response.ScoreQuantileDeltaDTO;
+import com.task.founding.engineer.dto.response.WhatIfResponseDTO;
+import com.task.founding.engineer.dto.response.WhatIfScenarioDTO;
+import com.task.founding.engineer.enums.RejectionReasonGrouping;
+import com.task.founding.engineer.enums.TimeBucket;
 import com.task.founding.engineer.service.AnalyticsService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 class AnalyticsControllerTest {
@@ -210,5 +233,287 @@ class AnalyticsControllerTest {
             .andExpect(jsonPath("$.success").value(true))
             .andExpect(jsonPath("$.data.totalFilteringSteps").value(10));
     }
-}
 
+    @Test
+    void testGetRejectionReasons_WithFilters() throws Exception {
+        LocalDateTime startDate = LocalDateTime.now().minusDays(7);
+        RejectionReasonBreakdownResponseDTO breakdown = RejectionReasonBreakdownResponseDTO.builder()
+            .totalRejected(100L)
+            .unspecifiedCount(25L)
+            .reasons(List.of(RejectionReasonCountDTO.builder()
+                .reason("Price exceeds maximum")
+                .count(60L)
+                .share(0.6)
+                .build()))
+            .build();
+        when(analyticsService.getRejectionReasonBreakdown(
+                eq("filter_by_price"), eq("competitor-selection"), eq(startDate), eq(null), eq(RejectionReasonGrouping.REASON), eq(5)))
+            .thenReturn(breakdown);
+
+        mockMvc.perform(get("/api/v1/analytics/rejection_reasons")
+                .param("stepName", "filter_by_price")
+                .param("pipelineType", "competitor-selection")
+                .param("startDate", startDate.toString())
+                .param("limit", "5"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.success").value(true))
+            .andExpect(jsonPath("$.data.totalRejected").value(100))
+            .andExpect(jsonPath("$.data.unspecifiedCount").value(25))
+            .andExpect(jsonPath("$.data.reasons[0].reason").value("Price exceeds maximum"))
+            .andExpect(jsonPath("$.data.reasons[0].count").value(60))
+            .andExpect(jsonPath("$.data.reasons[0].share").value(0.6))
+            .andExpect(jsonPath("$.data.reasons[0].templateId").doesNotExist());
+    }
+
+    @Test
+    void testGetRejectionReasons_GroupedByTemplate() throws Exception {
+        LocalDateTime startDate = LocalDateTime.of(2026, 1, 1, 0, 0);
+        when(analyticsService.getRejectionReasonBreakdown(null, null, startDate, null, RejectionReasonGrouping.TEMPLATE, 20))
+            .thenReturn(RejectionReasonBreakdownResponseDTO.builder()
+                .totalRejected(10L)
+                .unspecifiedCount(0L)
+                .reasons(List.of(RejectionReasonCountDTO.builder()
+                    .templateId(4L)
+                    .reason("price <num> exceeds maximum allowed <num>")
+                    .count(10L)
+                    .share(1.0)
+                    .build()))
+                .build());
+
+        mockMvc.perform(get("/api/v1/analytics/rejection_reasons")
+                .param("startDate", startDate.toString())
+                .param("groupBy", "template"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.reasons[0].templateId").value(4))
+            .andExpect(jsonPath("$.data.reasons[0].reason").value("price <num> exceeds maximum allowed <num>"));
+    }
+
+    @Test
+    void testGetRejectionReasons_UnknownGroupBy() throws Exception {
+        MockMvc adviceMvc = MockMvcBuilders.standaloneSetup(new AnalyticsController(analyticsService))
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .build();
+
+        adviceMvc.perform(get("/api/v1/analytics/rejection_reasons").param("groupBy", "step"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.success").value(false));
+        verifyNoInteractions(analyticsService);
+    }
+
+    @Test
+    void testGetRejectionReasons_DefaultLimit() throws Exception {
+        LocalDateTime startDate = LocalDateTime.of(2026, 1, 1, 0, 0);
+        when(analyticsService.getRejectionReasonBreakdown(null, null, startDate, null, RejectionReasonGrouping.REASON, 20))
+            .thenReturn(RejectionReasonBreakdownResponseDTO.builder()
+                .totalRejected(0L)
+                .unspecifiedCount(0L)
+                .reasons(List.of())
+                .build());
+
+        mockMvc.perform(get("/api/v1/analytics/rejection_reasons").param("startDate", startDate.toString()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.totalRejected").value(0))
+            .andExpect(jsonPath("$.data.reasons").isEmpty());
+    }
+
+    @Test
+    void testGetRejectionReasons_MissingStartDate() throws Exception {
+        MockMvc adviceMvc = MockMvcBuilders.standaloneSetup(new AnalyticsController(analyticsService))
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .build();
+        when(analyticsService.getRejectionReasonBreakdown(null, null, null, null, RejectionReasonGrouping.REASON, 20))
+            .thenThrow(new IllegalArgumentException("startDate is required"));
+
+        adviceMvc.perform(get("/api/v1/analytics/rejection_reasons"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("startDate is required"));
+    }
+
+    @Test
+    void testGetRejectionReasons_InvalidLimit() throws Exception {
+        MockMvc adviceMvc = MockMvcBuilders.standaloneSetup(new AnalyticsController(analyticsService))
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .build();
+        when(analyticsService.getRejectionReasonBreakdown(null, null, null, null, RejectionReasonGrouping.REASON, 0))
+            .thenThrow(new IllegalArgumentException("limit must be positive: 0"));
+
+        adviceMvc.perform(get("/api/v1/analytics/rejection_reasons").param("limit", "0"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    void testGetRejectedKeys() throws Exception {
+        when(analyticsService.getTopRejectedKeys("filter_by_price", 6, 100))
+            .thenReturn(RejectedKeysResponseDTO.builder()
+                .stepName("filter_by_price")
+                .windowStart(LocalDateTime.of(2026, 1, 1, 6, 0))
+                .windowEnd(LocalDateTime.of(2026, 1, 1, 12, 0))
+                .totalRejections(40L)
+                .keys(List.of(RejectedKeyCountDTO.builder()
+                    .businessKey("12345")
+                    .count(12L)
+                    .guaranteedCount(10L)
+                    .build()))
+                .build());
+
+        mockMvc.perform(get("/api/v1/analytics/rejected_keys")
+                .param("stepName", "filter_by_price")
+                .param("hours", "6"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.totalRejections").value(40))
+            .andExpect(jsonPath("$.data.keys[0].businessKey").value("12345"))
+            .andExpect(jsonPath("$.data.keys[0].count").value(12))
+            .andExpect(jsonPath("$.data.keys[0].guaranteedCount").value(10));
+    }
+
+    @Test
+    void testGetDistinctKeys_DailyBuckets() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2026, 1, 1, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2026, 1, 8, 0, 0);
+        when(analyticsService.getDistinctKeyCounts("recommendation", null, start, end, TimeBucket.DAY))
+            .thenReturn(DistinctKeyCountResponseDTO.builder()
+                .pipelineType("recommendation")
+                .windowStart(start)
+                .windowEnd(end)
+                .distinctKeys(52000L)
+                .standardError(0.01625)
+                .buckets(List.of(DistinctKeyBucketDTO.builder()
+                    .bucketStart(start)
+                    .distinctKeys(9000L)
+                    .build()))
+                .build());
+
+        mockMvc.perform(get("/api/v1/analytics/distinct_keys")
+                .param("pipelineType", "recommendation")
+                .param("startDate", "2026-01-01T00:00:00")
+                .param("endDate", "2026-01-08T00:00:00")
+                .param("bucket", "day"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.distinctKeys").value(52000))
+            .andExpect(jsonPath("$.data.buckets[0].distinctKeys").value(9000));
+    }
+
+    @Test
+    void testGetDistinctKeys_UnknownBucket() throws Exception {
+        MockMvc adviceMvc = MockMvcBuilders.standaloneSetup(new AnalyticsController(analyticsService))
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .build();
+
+        adviceMvc.perform(get("/api/v1/analytics/distinct_keys")
+                .param("pipelineType", "recommendation")
+                .param("startDate", "2026-01-01T00:00:00")
+                .param("endDate", "2026-01-08T00:00:00")
+                .param("bucket", "week"))
+            .andExpect(status().isBadRequest());
+        verifyNoInteractions(analyticsService);
+    }
+
+    @Test
+    void testSimulateWhatIf() throws Exception {
+        when(analyticsService.simulateWhatIf(any(WhatIfRequestDTO.class)))
+            .thenReturn(WhatIfResponseDTO.builder()
+                .stepName("filter_by_price")
+                .candidates(1000L)
+                .historicalSelected(600L)
+                .historicalSelectionRate(0.6)
+                .scenarios(List.of(WhatIfScenarioDTO.builder()
+                    .minScore(0.7)
+                    .selected(450L)
+                    .selectionRate(0.45)
+                    .selectionRateChange(-0.15)
+                    .build()))
+                .build());
+
+        mockMvc.perform(post("/api/v1/analytics/what_if")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"stepName": "filter_by_price", "startDate": "2026-10-01T00:00:00", "minScores": [0.7],
+                     "rules": [{"path": "data.price", "operator": "lte", "value": "100"}]}
+                    """))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.historicalSelectionRate").value(0.6))
+            .andExpect(jsonPath("$.data.scenarios[0].selected").value(450))
+            .andExpect(jsonPath("$.data.scenarios[0].selectionRateChange").value(-0.15));
+
+        ArgumentCaptor<WhatIfRequestDTO> captor = ArgumentCaptor.forClass(WhatIfRequestDTO.class);
+        verify(analyticsService).simulateWhatIf(captor.capture());
+        assertEquals(List.of(0.7), captor.getValue().getMinScores());
+        assertEquals("lte", captor.getValue().getRules().get(0).getOperator());
+    }
+
+    @Test
+    void testSimulateWhatIf_MissingStepName() throws Exception {
+        MockMvc adviceMvc = MockMvcBuilders.standaloneSetup(new AnalyticsController(analyticsService))
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .build();
+
+        adviceMvc.perform(post("/api/v1/analytics/what_if")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"startDate\": \"2026-10-01T00:00:00\", \"minScores\": [0.7]}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.data.stepName").value("stepName is required"));
+        verifyNoInteractions(analyticsService);
+    }
+
+    @Test
+    void testGetScoreDrift() throws Exception {
+        when(analyticsService.getScoreDrift(
+                "rank_by_relevance",
+                LocalDateTime.parse("2026-09-01T00:00:00"),
+                LocalDateTime.parse("2026-09-08T00:00:00"),
+                LocalDateTime.parse("2026-10-01T00:00:00"),
+                LocalDateTime.parse("2026-10-08T00:00:00")))
+            .thenReturn(ScoreDriftResponseDTO.builder()
+                .stepName("rank_by_relevance")
+                .ksStatistic(0.31)
+                .psi(0.42)
+                .quantiles(List.of(ScoreQuantileDeltaDTO.builder()
+                    .quantile(0.5)
+                    .baseline(0.61)
+                    .current(0.48)
+                    .delta(-0.13)
+                    .build()))
+                .build());
+
+        mockMvc.perform(get("/api/v1/analytics/score_drift")
+                .param("stepName", "rank_by_relevance")
+                .param("baselineStart", "2026-09-01T00:00:00")
+                .param("baselineEnd", "2026-09-08T00:00:00")
+                .param("currentStart", "2026-10-01T00:00:00")
+                .param("currentEnd", "2026-10-08T00:00:00"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.ksStatistic").value(0.31))
+            .andExpect(jsonPath("$.data.psi").value(0.42))
+            .andExpect(jsonPath("$.data.quantiles[0].delta").value(-0.13));
+    }
+
+    @Test
+    void testGetScoreDrift_MissingWindow() throws Exception {
+        mockMvc.perform(get("/api/v1/analytics/score_drift")
+                .param("stepName", "rank_by_relevance")
+                .param("baselineStart", "2026-09-01T00:00:00")
+                .param("baselineEnd", "2026-09-08T00:00:00"))
+            .andExpect(status().isBadRequest());
+        verifyNoInteractions(analyticsService);
+    }
+
+    @Test
+    void testGetLiveCounters() throws Exception {
+        when(analyticsService.getLiveCounters()).thenReturn(LiveCountersResponseDTO.builder()
+                .asOf(LocalDateTime.of(2026, 10, 18, 12, 0))
+                .pipelines(List.of(LivePipelineCountersDTO.builder()
+                    .pipelineType("ranking")
+                    .runsStartedPerMinute(4L)
+                    .runsFailedPerMinute(1L)
+                    .candidatesPerSecond(25.0)
+                    .build()))
+                .build());
+
+        mockMvc.perform(get("/api/v1/analytics/live"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.pipelines[0].pipelineType").value("ranking"))
+            .andExpect(jsonPath("$.data.pipelines[0].runsStartedPerMinute").value(4))
+            .andExpect(jsonPath("$.data.pipelines[0].candidatesPerSecond").value(25.0));
+    }
+}
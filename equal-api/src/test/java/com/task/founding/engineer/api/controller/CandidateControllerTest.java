@@ -5,6 +5,7 @@ import com.task.founding.engineer.api.controller.converter.CandidateConverter;
 import com.task.founding.engineer.dto.request.BatchCreateCandidatesRequestDTO;
 import com.task.founding.engineer.dto.request.CreateCandidateRequestDTO;
 import com.task.founding.engineer.dto.response.CandidateResponseDTO;
+import com.task.founding.engineer.json.RawJson;
 import com.task.founding.engineer.model.XRayCandidate;
 import com.task.founding.engineer.service.CandidateService;
 import org.junit.jupiter.api.BeforeEach;
@@ -54,33 +55,33 @@ class CandidateControllerTest {
         data.put("rating", 4.5);
         
         createRequest = CreateCandidateRequestDTO.builder()
-            .data(data)
+            .data(RawJson.fromValue(data))
             .score(0.85)
             .selected(true)
             .rejectionReason(null)
-            .metadata(Collections.singletonMap("source", "test"))
+            .metadata(RawJson.fromValue(Collections.singletonMap("source", "test")))
             .build();
 
         // Setup mock candidate entity
         mockCandidate = XRayCandidate.builder()
             .candidateId(candidateId)
             .stepId(stepId)
-            .data(data)
+            .data(RawJson.fromValue(data))
             .score(0.85)
             .selected(true)
             .rejectionReason(null)
-            .metadata(Collections.singletonMap("source", "test"))
+            .metadata(RawJson.fromValue(Collections.singletonMap("source", "test")))
             .build();
 
         // Setup response DTO
         responseDTO = CandidateResponseDTO.builder()
             .candidateId(candidateId)
             .stepId(stepId)
-            .data(data)
+            .data(RawJson.fromValue(data))
             .score(0.85)
             .selected(true)
             .rejectionReason(null)
-            .metadata(Collections.singletonMap("source", "test"))
+            .metadata(RawJson.fromValue(Collections.singletonMap("source", "test")))
             .build();
     }
 
@@ -120,7 +121,7 @@ class CandidateControllerTest {
         List<CreateCandidateRequestDTO> candidates = Arrays.asList(
             createRequest,
             CreateCandidateRequestDTO.builder()
-                .data(data2)
+                .data(RawJson.fromValue(data2))
                 .score(0.75)
                 .selected(false)
                 .rejectionReason("Price too low")
@@ -199,7 +200,7 @@ class CandidateControllerTest {
         XRayCandidate rejectedCandidate = XRayCandidate.builder()
             .candidateId(UUID.randomUUID())
             .stepId(stepId)
-            .data(rejectedData)
+            .data(RawJson.fromValue(rejectedData))
             .selected(false)
             .rejectionReason("Price out of range")
             .build();
@@ -207,7 +208,7 @@ class CandidateControllerTest {
         CandidateResponseDTO rejectedResponse = CandidateResponseDTO.builder()
             .candidateId(rejectedCandidate.getCandidateId())
             .stepId(stepId)
-            .data(rejectedData)
+            .data(RawJson.fromValue(rejectedData))
             .selected(false)
             .rejectionReason("Price out of range")
             .build();
@@ -251,7 +252,7 @@ class CandidateControllerTest {
         XRayCandidate rejectedCandidate = XRayCandidate.builder()
             .candidateId(UUID.randomUUID())
             .stepId(stepId)
-            .data(rejectedData)
+            .data(RawJson.fromValue(rejectedData))
             .selected(false)
             .rejectionReason("Does not meet quality criteria")
             .build();
@@ -259,7 +260,7 @@ class CandidateControllerTest {
         CandidateResponseDTO rejectedResponse = CandidateResponseDTO.builder()
             .candidateId(rejectedCandidate.getCandidateId())
             .stepId(stepId)
-            .data(rejectedData)
+            .data(RawJson.fromValue(rejectedData))
             .selected(false)
             .rejectionReason("Does not meet quality criteria")
             .build();
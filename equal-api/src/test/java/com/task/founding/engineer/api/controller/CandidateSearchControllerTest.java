@@ -0,0 +1,117 @@
+package com.task.founding.engineer.api.controller;
+
+import com.task.founding.engineer.api.controller.converter.CandidateConverter;
+import com.task.founding.engineer.api.controller.exception.handler.GlobalExceptionHandler;
+import com.task.founding.engineer.dto.request.CandidateSearchRequestDTO;
+import com.task.founding.engineer.dto.response.CandidateResponseDTO;
+import com.task.founding.engineer.json.RawJson;
+import com.task.founding.engineer.model.XRayCandidate;
+import com.task.founding.engineer.service.CandidateService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class CandidateSearchControllerTest {
+
+    private static final String SEARCH_BODY = """
+        {
+          "pipelineType": "competitor-selection",
+          "startDate": "2026-10-01T00:00:00",
+          "minScore": 0.8,
+          "predicates": [{"path": "data.category", "value": "shoes"}],
+          "size": 10
+        }
+        """;
+
+    private MockMvc mockMvc;
+    private CandidateService candidateService;
+    private CandidateConverter candidateConverter;
+
+    @BeforeEach
+    void setUp() {
+        candidateService = mock(CandidateService.class);
+        candidateConverter = mock(CandidateConverter.class);
+        mockMvc = MockMvcBuilders.standaloneSetup(new CandidateSearchController(candidateService, candidateConverter))
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .build();
+    }
+
+    @Test
+    void testSearchCandidates_Success() throws Exception {
+        UUID candidateId = UUID.randomUUID();
+        XRayCandidate candidate = XRayCandidate.builder().candidateId(candidateId).build();
+        when(candidateService.searchCandidates(any(CandidateSearchRequestDTO.class)))
+            .thenReturn(new SliceImpl<>(List.of(candidate), PageRequest.of(0, 10), true));
+        when(candidateConverter.toResponse(candidate)).thenReturn(CandidateResponseDTO.builder()
+            .candidateId(candidateId)
+            .data(RawJson.of("{\"category\":\"shoes\"}"))
+            .score(0.9)
+            .build());
+
+        mockMvc.perform(post("/api/v1/candidates/search")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(SEARCH_BODY))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.success").value(true))
+            .andExpect(jsonPath("$.data.candidates[0].candidateId").value(candidateId.toString()))
+            .andExpect(jsonPath("$.data.candidates[0].data.category").value("shoes"))
+            .andExpect(jsonPath("$.data.page").value(0))
+            .andExpect(jsonPath("$.data.size").value(10))
+            .andExpect(jsonPath("$.data.hasNext").value(true));
+
+        ArgumentCaptor<CandidateSearchRequestDTO> captor = ArgumentCaptor.forClass(CandidateSearchRequestDTO.class);
+        verify(candidateService).searchCandidates(captor.capture());
+        assertEquals("data.category", captor.getValue().getPredicates().get(0).getPath());
+        assertEquals("\"shoes\"", captor.getValue().getPredicates().get(0).getValue().json());
+    }
+
+    @Test
+    void testSearchCandidates_MissingStartDate() throws Exception {
+        mockMvc.perform(post("/api/v1/candidates/search")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"stepName\": \"filter_by_price\"}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.data.startDate").value("startDate is required"));
+        verifyNoInteractions(candidateService);
+    }
+
+    @Test
+    void testSearchCandidates_UnselectiveSearchRejected() throws Exception {
+        when(candidateService.searchCandidates(any(CandidateSearchRequestDTO.class)))
+            .thenThrow(new IllegalArgumentException(
+                "Candidate search needs a data/metadata predicate, a pipelineType or a stepName"));
+
+        mockMvc.perform(post("/api/v1/candidates/search")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"startDate\": \"2026-10-01T00:00:00\"}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    void testSearchCandidates_Timeout() throws Exception {
+        when(candidateService.searchCandidates(any(CandidateSearchRequestDTO.class)))
+            .thenThrow(new QueryTimeoutException("canceling statement due to statement timeout"));
+
+        mockMvc.perform(post("/api/v1/candidates/search")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(SEARCH_BODY))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(jsonPath("$.success").value(false));
+    }
+}
@@ -0,0 +1,100 @@
+package com.task.founding.engineer.api.controller;
+
+import com.task.founding.engineer.api.controller.exception.handler.GlobalExceptionHandler;
+import com.task.founding.engineer.dto.response.DecisionMatrixCellDTO;
+import com.task.founding.engineer.dto.response.DecisionMatrixHeaderDTO;
+import com.task.founding.engineer.dto.response.DecisionMatrixRowDTO;
+import com.task.founding.engineer.dto.response.DecisionMatrixStepDTO;
+import com.task.founding.engineer.service.DecisionMatrixService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class DecisionMatrixControllerTest {
+
+    private MockMvc mockMvc;
+    private DecisionMatrixService decisionMatrixService;
+
+    @BeforeEach
+    void setUp() {
+        decisionMatrixService = mock(DecisionMatrixService.class);
+        mockMvc = MockMvcBuilders.standaloneSetup(
+                new DecisionMatrixController(decisionMatrixService, JsonMapper.builder().build()))
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .build();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetDecisionMatrix_StreamsNdjson() throws Exception {
+        UUID runId = UUID.randomUUID();
+        DecisionMatrixHeaderDTO header = DecisionMatrixHeaderDTO.builder()
+            .runId(runId)
+            .pipelineType("competitor-selection")
+            .steps(List.of(
+                DecisionMatrixStepDTO.builder().stepName("keyword_search").order(1).build(),
+                DecisionMatrixStepDTO.builder().stepName("filter_by_price").order(2).build()))
+            .build();
+        when(decisionMatrixService.getDecisionMatrixHeader(runId)).thenReturn(header);
+        doAnswer(invocation -> {
+            Consumer<DecisionMatrixRowDTO> consumer = invocation.getArgument(1);
+            consumer.accept(DecisionMatrixRowDTO.builder()
+                .businessKey("12345")
+                .cells(Arrays.asList(
+                    DecisionMatrixCellDTO.builder().selected(true).score(0.9).build(),
+                    DecisionMatrixCellDTO.builder().selected(false).score(0.9).rejectionReason("Price exceeds maximum allowed").build()))
+                .build());
+            consumer.accept(DecisionMatrixRowDTO.builder()
+                .businessKey("67890")
+                .cells(Arrays.asList(DecisionMatrixCellDTO.builder().selected(true).score(0.4).build(), null))
+                .build());
+            return 2L;
+        }).when(decisionMatrixService).streamDecisionMatrix(eq(header), any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/runs/{runId}/decision_matrix", runId))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+            .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].contains("\"runId\":\"" + runId + "\""));
+        assertTrue(lines[0].contains("\"stepName\":\"filter_by_price\""));
+        assertTrue(lines[1].startsWith("{\"businessKey\":\"12345\""));
+        assertTrue(lines[1].contains("\"rejectionReason\":\"Price exceeds maximum allowed\""));
+        assertTrue(lines[2].endsWith(",null]}"));
+        assertFalse(lines[2].contains("candidateId"));
+        assertTrue(body.endsWith("\n"));
+    }
+
+    @Test
+    void testGetDecisionMatrix_RunNotFound() throws Exception {
+        UUID runId = UUID.randomUUID();
+        when(decisionMatrixService.getDecisionMatrixHeader(runId))
+            .thenThrow(new RuntimeException("Run not found with id: " + runId));
+
+        mockMvc.perform(get("/api/v1/runs/{runId}/decision_matrix", runId))
+            .andExpect(status().isNotFound());
+        verify(decisionMatrixService, never()).streamDecisionMatrix(any(), any());
+    }
+}
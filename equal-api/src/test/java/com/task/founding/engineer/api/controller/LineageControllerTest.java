@@ -0,0 +1,103 @@
+package com.task.founding.engineer.api.controller;
+
+import com.task.founding.engineer.api.controller.exception.handler.GlobalExceptionHandler;
+import com.task.founding.engineer.dto.response.LineageResponseDTO;
+import com.task.founding.engineer.dto.response.LineageRunDTO;
+import com.task.founding.engineer.dto.response.LineageStepDTO;
+import com.task.founding.engineer.dto.response.StepMembershipDTO;
+import com.task.founding.engineer.dto.response.StepMembershipResponseDTO;
+import com.task.founding.engineer.service.LineageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class LineageControllerTest {
+
+    private MockMvc mockMvc;
+    private LineageService lineageService;
+
+    @BeforeEach
+    void setUp() {
+        lineageService = mock(LineageService.class);
+        mockMvc = MockMvcBuilders.standaloneSetup(new LineageController(lineageService))
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .build();
+    }
+
+    @Test
+    void testGetLineage() throws Exception {
+        UUID runId = UUID.randomUUID();
+        when(lineageService.getLineage("12345", LocalDateTime.of(2026, 1, 1, 0, 0), null, 5)).thenReturn(
+            LineageResponseDTO.builder()
+                .businessKey("12345")
+                .runs(List.of(LineageRunDTO.builder()
+                    .runId(runId)
+                    .pipelineType("competitor-selection")
+                    .steps(List.of(LineageStepDTO.builder()
+                        .stepName("filter_by_price")
+                        .order(2)
+                        .selected(false)
+                        .score(0.4)
+                        .rejectionReason("Price exceeds maximum allowed")
+                        .build()))
+                    .build()))
+                .build());
+
+        mockMvc.perform(get("/api/v1/lineage/12345")
+                .param("startDate", "2026-01-01T00:00:00")
+                .param("limit", "5"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.businessKey").value("12345"))
+            .andExpect(jsonPath("$.data.runs[0].runId").value(runId.toString()))
+            .andExpect(jsonPath("$.data.runs[0].steps[0].selected").value(false))
+            .andExpect(jsonPath("$.data.runs[0].steps[0].rejectionReason").value("Price exceeds maximum allowed"));
+    }
+
+    @Test
+    void testGetLineage_DefaultLimit() throws Exception {
+        when(lineageService.getLineage("sku.42", null, null, 20)).thenReturn(
+            LineageResponseDTO.builder().businessKey("sku.42").runs(List.of()).build());
+
+        mockMvc.perform(get("/api/v1/lineage/sku.42"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.businessKey").value("sku.42"));
+    }
+
+    @Test
+    void testGetLineage_InvalidLimit() throws Exception {
+        when(lineageService.getLineage("12345", null, null, 500))
+            .thenThrow(new IllegalArgumentException("limit must be between 1 and 100: 500"));
+
+        mockMvc.perform(get("/api/v1/lineage/12345").param("limit", "500"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    void testGetStepMembership() throws Exception {
+        UUID stepId = UUID.randomUUID();
+        when(lineageService.getStepMembership("12345", "filter_by_price", null, 10_000)).thenReturn(
+            StepMembershipResponseDTO.builder()
+                .businessKey("12345")
+                .stepName("filter_by_price")
+                .stepsScanned(10_000)
+                .probableHits(3)
+                .steps(List.of(StepMembershipDTO.builder().stepId(stepId).build()))
+                .build());
+
+        mockMvc.perform(get("/api/v1/lineage/12345/steps").param("stepName", "filter_by_price"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.stepsScanned").value(10_000))
+            .andExpect(jsonPath("$.data.probableHits").value(3))
+            .andExpect(jsonPath("$.data.steps[0].stepId").value(stepId.toString()));
+    }
+}
@@ -0,0 +1,102 @@
+package com.task.founding.engineer.api.controller;
+
+import com.task.founding.engineer.api.controller.converter.PromotedKeyConverter;
+import com.task.founding.engineer.api.controller.exception.handler.GlobalExceptionHandler;
+import com.task.founding.engineer.dto.response.DataKeyUsageDTO;
+import com.task.founding.engineer.enums.PromotionStatus;
+import com.task.founding.engineer.model.XRayPromotedKey;
+import com.task.founding.engineer.service.PromotedKeyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class PromotedKeyControllerTest {
+
+    private MockMvc mockMvc;
+    private PromotedKeyService promotedKeyService;
+
+    @BeforeEach
+    void setUp() {
+        promotedKeyService = mock(PromotedKeyService.class);
+        mockMvc = MockMvcBuilders.standaloneSetup(new PromotedKeyController(promotedKeyService, new PromotedKeyConverter()))
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .build();
+    }
+
+    @Test
+    void testGetDataKeyUsage() throws Exception {
+        when(promotedKeyService.getDataKeyUsage("competitor-selection")).thenReturn(List.of(DataKeyUsageDTO.builder()
+            .pipelineType("competitor-selection")
+            .path("data.sku")
+            .queries(40L)
+            .promotedIndex("idx_dk_sku")
+            .build()));
+
+        mockMvc.perform(get("/api/v1/admin/data_keys/usage").param("pipelineType", "competitor-selection"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data[0].path").value("data.sku"))
+            .andExpect(jsonPath("$.data[0].queries").value(40))
+            .andExpect(jsonPath("$.data[0].promotedIndex").value("idx_dk_sku"));
+    }
+
+    @Test
+    void testPromoteKey_Accepted() throws Exception {
+        when(promotedKeyService.promoteKey("data.sku")).thenReturn(XRayPromotedKey.builder()
+            .path("data.sku")
+            .indexName("idx_dk_sku")
+            .status(PromotionStatus.PENDING)
+            .build());
+
+        mockMvc.perform(post("/api/v1/admin/data_keys/promoted")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"path\": \"data.sku\"}"))
+            .andExpect(status().isAccepted())
+            .andExpect(jsonPath("$.message").value("Key promotion requested"))
+            .andExpect(jsonPath("$.data.indexName").value("idx_dk_sku"))
+            .andExpect(jsonPath("$.data.status").value("PENDING"));
+    }
+
+    @Test
+    void testPromoteKey_InvalidPath() throws Exception {
+        when(promotedKeyService.promoteKey("metadata.source"))
+            .thenThrow(new IllegalArgumentException("Only data keys can be promoted: metadata.source"));
+
+        mockMvc.perform(post("/api/v1/admin/data_keys/promoted")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"path\": \"metadata.source\"}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    void testPromoteKey_MissingPath() throws Exception {
+        mockMvc.perform(post("/api/v1/admin/data_keys/promoted")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+            .andExpect(status().isBadRequest());
+        verifyNoInteractions(promotedKeyService);
+    }
+
+    @Test
+    void testGetPromotedKeys() throws Exception {
+        when(promotedKeyService.getPromotedKeys()).thenReturn(List.of(XRayPromotedKey.builder()
+            .path("data.sku")
+            .indexName("idx_dk_sku")
+            .status(PromotionStatus.READY)
+            .build()));
+
+        mockMvc.perform(get("/api/v1/admin/data_keys/promoted"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data[0].path").value("data.sku"))
+            .andExpect(jsonPath("$.data[0].status").value("READY"));
+    }
+}
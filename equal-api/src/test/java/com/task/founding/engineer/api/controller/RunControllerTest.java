@@ -1,10 +1,17 @@
 package com.task.founding.engineer.api.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.task.founding.engineer.api.controller.converter.CandidateConverter;
 import com.task.founding.engineer.api.controller.converter.RunConverter;
+import com.task.founding.engineer.api.controller.converter.StepConverter;
+import com.task.founding.engineer.api.controller.exception.handler.GlobalExceptionHandler;
+import com.task.founding.engineer.compression.TextCompressor;
 import com.task.founding.engineer.dto.request.CreateRunRequestDTO;
+import com.task.founding.engineer.dto.response.ActiveRunDTO;
 import com.task.founding.engineer.dto.response.RunResponseDTO;
+import com.task.founding.engineer.enums.PayloadField;
 import com.task.founding.engineer.enums.RunStatus;
+import com.task.founding.engineer.json.RawJson;
 import com.task.founding.engineer.model.XRayRun;
 import com.task.founding.engineer.service.RunService;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,13 +19,16 @@ import org.junit.jupiter.api.Test;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.CannotCreateTransactionException;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -54,7 +64,7 @@ class RunControllerTest {
         createRequest = CreateRunRequestDTO.builder()
             .pipelineType("data-processing")
             .pipelineId("pipeline-123")
-            .input(input)
+            .input(RawJson.fromValue(input))
             .build();
 
         // Setup mock run entity
@@ -65,7 +75,7 @@ class RunControllerTest {
             .startedAt(LocalDateTime.now())
             .completedAt(null)
             .status(RunStatus.IN_PROGRESS)
-            .input(input)
+            .input(RawJson.fromValue(input))
             .output(null)
             .build();
 
@@ -77,7 +87,7 @@ class RunControllerTest {
             .startedAt(mockRun.getStartedAt())
             .completedAt(null)
             .status(RunStatus.IN_PROGRESS)
-            .input(input)
+            .input(RawJson.fromValue(input))
             .output(null)
             .steps(Collections.emptyList())
             .build();
@@ -102,7 +112,7 @@ class RunControllerTest {
         CreateRunRequestDTO invalidRequest = CreateRunRequestDTO.builder()
             .pipelineType(null) // Required field is null
             .pipelineId("pipeline-123")
-            .input(Collections.singletonMap("key", "value"))
+            .input(RawJson.fromValue(Collections.singletonMap("key", "value")))
             .build();
 
         mockMvc.perform(post("/api/v1/runs")
@@ -116,7 +126,7 @@ class RunControllerTest {
         CreateRunRequestDTO invalidRequest = CreateRunRequestDTO.builder()
             .pipelineType("data-processing")
             .pipelineId(null) // Required field is null
-            .input(Collections.singletonMap("key", "value"))
+            .input(RawJson.fromValue(Collections.singletonMap("key", "value")))
             .build();
 
         mockMvc.perform(post("/api/v1/runs")
@@ -127,26 +137,104 @@ class RunControllerTest {
 
     @Test
     void testGetRun_Success() throws Exception {
-        when(runService.getRunById(runId))
+        Set<PayloadField> include = EnumSet.of(PayloadField.INPUT);
+        when(runService.getRunById(runId, include))
             .thenReturn(mockRun);
-        when(runConverter.toResponse(any(XRayRun.class)))
+        when(runConverter.toResponse(mockRun, include))
             .thenReturn(runResponseDTO);
 
-        mockMvc.perform(get("/api/v1/runs/{runId}", runId))
+        mockMvc.perform(get("/api/v1/runs/{runId}", runId)
+                .param("include", "input"))
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.success").value(true))
             .andExpect(jsonPath("$.data.runId").value(runId.toString()))
             .andExpect(jsonPath("$.data.pipelineType").value("data-processing"))
             .andExpect(jsonPath("$.data.pipelineId").value("pipeline-123"))
-            .andExpect(jsonPath("$.data.status").value("IN_PROGRESS"));
+            .andExpect(jsonPath("$.data.status").value("IN_PROGRESS"))
+            .andExpect(jsonPath("$.data.input.source").value("test-source"))
+            .andExpect(jsonPath("$.data.input.batchSize").value(100));
+    }
+
+    @Test
+    void testGetRun_OmitsPayloadsNotIncluded() throws Exception {
+        TextCompressor textCompressor = mock(TextCompressor.class);
+        RunController controller = new RunController(
+                runService, new RunConverter(new StepConverter(new CandidateConverter(textCompressor), textCompressor)));
+        MockMvc realConverterMvc = MockMvcBuilders.standaloneSetup(controller).build();
+        when(runService.getRunById(runId, Set.of()))
+            .thenReturn(mockRun);
+
+        realConverterMvc.perform(get("/api/v1/runs/{runId}", runId))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.runId").value(runId.toString()))
+            .andExpect(jsonPath("$.data.input").doesNotExist())
+            .andExpect(jsonPath("$.data.output").doesNotExist());
+    }
+
+    @Test
+    void testGetRun_MultipleIncludes() throws Exception {
+        Set<PayloadField> include = EnumSet.of(PayloadField.INPUT, PayloadField.OUTPUT);
+        when(runService.getRunById(runId, include))
+            .thenReturn(mockRun);
+        when(runConverter.toResponse(mockRun, include))
+            .thenReturn(runResponseDTO);
+
+        mockMvc.perform(get("/api/v1/runs/{runId}", runId)
+                .param("include", "input,OUTPUT"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.input.source").value("test-source"));
+
+        verify(runService).getRunById(runId, include);
+    }
+
+    @Test
+    void testGetRun_UnknownInclude() throws Exception {
+        MockMvc adviceMvc = MockMvcBuilders.standaloneSetup(new RunController(runService, runConverter))
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .build();
+
+        adviceMvc.perform(get("/api/v1/runs/{runId}", runId)
+                .param("include", "prompt"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.success").value(false))
+            .andExpect(jsonPath("$.message").value("Unknown include field: prompt"));
+    }
+
+    @Test
+    void testGetRun_DatabaseBusy() throws Exception {
+        MockMvc adviceMvc = MockMvcBuilders.standaloneSetup(new RunController(runService, runConverter))
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .build();
+        when(runService.getRunById(runId, Set.of()))
+            .thenThrow(new CannotCreateTransactionException("Could not open JPA EntityManager for transaction"));
+
+        adviceMvc.perform(get("/api/v1/runs/{runId}", runId))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(jsonPath("$.success").value(false))
+            .andExpect(jsonPath("$.message").value("Database is busy; retry later"));
+    }
+
+    @Test
+    void testGetRun_WorkloadAtCapacity() throws Exception {
+        MockMvc adviceMvc = MockMvcBuilders.standaloneSetup(new RunController(runService, runConverter))
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .build();
+        when(runService.getRunById(runId, Set.of()))
+            .thenThrow(new RejectedExecutionException("interactive requests are at capacity; retry later"));
+
+        adviceMvc.perform(get("/api/v1/runs/{runId}", runId))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(header().string("Retry-After", "1"))
+            .andExpect(jsonPath("$.success").value(false))
+            .andExpect(jsonPath("$.message").value("interactive requests are at capacity; retry later"));
     }
 
     @Test
     void testGetAllRuns_NoFilters() throws Exception {
         List<XRayRun> runs = Collections.singletonList(mockRun);
-        when(runService.getAllRuns(null, null, null, null))
+        when(runService.getAllRuns(null, null, null, null, Set.of()))
             .thenReturn(runs);
-        when(runConverter.toResponse(any(XRayRun.class)))
+        when(runConverter.toResponse(any(XRayRun.class), any()))
             .thenReturn(runResponseDTO);
 
         mockMvc.perform(get("/api/v1/runs"))
@@ -160,9 +248,9 @@ class RunControllerTest {
     @Test
     void testGetAllRuns_WithPipelineTypeFilter() throws Exception {
         List<XRayRun> runs = Collections.singletonList(mockRun);
-        when(runService.getAllRuns(eq("data-processing"), eq(null), eq(null), eq(null)))
+        when(runService.getAllRuns(eq("data-processing"), eq(null), eq(null), eq(null), eq(Set.of())))
             .thenReturn(runs);
-        when(runConverter.toResponse(any(XRayRun.class)))
+        when(runConverter.toResponse(any(XRayRun.class), any()))
             .thenReturn(runResponseDTO);
 
         mockMvc.perform(get("/api/v1/runs")
@@ -177,9 +265,9 @@ class RunControllerTest {
     @Test
     void testGetAllRuns_WithStatusFilter() throws Exception {
         List<XRayRun> runs = Collections.singletonList(mockRun);
-        when(runService.getAllRuns(eq(null), eq(RunStatus.IN_PROGRESS), eq(null), eq(null)))
+        when(runService.getAllRuns(eq(null), eq(RunStatus.IN_PROGRESS), eq(null), eq(null), eq(Set.of())))
             .thenReturn(runs);
-        when(runConverter.toResponse(any(XRayRun.class)))
+        when(runConverter.toResponse(any(XRayRun.class), any()))
             .thenReturn(runResponseDTO);
 
         mockMvc.perform(get("/api/v1/runs")
@@ -197,9 +285,9 @@ class RunControllerTest {
         LocalDateTime endDate = LocalDateTime.now();
         
         List<XRayRun> runs = Collections.singletonList(mockRun);
-        when(runService.getAllRuns(eq(null), eq(null), eq(startDate), eq(endDate)))
+        when(runService.getAllRuns(eq(null), eq(null), eq(startDate), eq(endDate), eq(Set.of())))
             .thenReturn(runs);
-        when(runConverter.toResponse(any(XRayRun.class)))
+        when(runConverter.toResponse(any(XRayRun.class), any()))
             .thenReturn(runResponseDTO);
 
         mockMvc.perform(get("/api/v1/runs")
@@ -217,9 +305,9 @@ class RunControllerTest {
         LocalDateTime endDate = LocalDateTime.now();
         
         List<XRayRun> runs = Collections.singletonList(mockRun);
-        when(runService.getAllRuns(eq("data-processing"), eq(RunStatus.IN_PROGRESS), eq(startDate), eq(endDate)))
+        when(runService.getAllRuns(eq("data-processing"), eq(RunStatus.IN_PROGRESS), eq(startDate), eq(endDate), eq(Set.of())))
             .thenReturn(runs);
-        when(runConverter.toResponse(any(XRayRun.class)))
+        when(runConverter.toResponse(any(XRayRun.class), any()))
             .thenReturn(runResponseDTO);
 
         mockMvc.perform(get("/api/v1/runs")
@@ -235,7 +323,7 @@ class RunControllerTest {
 
     @Test
     void testGetAllRuns_EmptyList() throws Exception {
-        when(runService.getAllRuns(null, null, null, null))
+        when(runService.getAllRuns(null, null, null, null, Set.of()))
             .thenReturn(Collections.emptyList());
 
         mockMvc.perform(get("/api/v1/runs"))
@@ -247,7 +335,7 @@ class RunControllerTest {
 
     @Test
     void testCompleteRun_Success() throws Exception {
-        Map<String, Object> output = Collections.singletonMap("result", "success");
+        RawJson output = RawJson.of("{\"result\":\"success\"}");
         
         mockMvc.perform(put("/api/v1/runs/{runId}/complete", runId)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -255,6 +343,8 @@ class RunControllerTest {
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.success").value(true))
             .andExpect(jsonPath("$.message").value("Run completed successfully"));
+
+        verify(runService).completeRun(runId, output);
     }
 
     @Test
@@ -282,7 +372,7 @@ class RunControllerTest {
             .pipelineId("pipeline-456")
             .startedAt(LocalDateTime.now())
             .status(RunStatus.COMPLETED)
-            .input(Collections.singletonMap("key", "value"))
+            .input(RawJson.fromValue(Collections.singletonMap("key", "value")))
             .build();
 
         RunResponseDTO runResponseDTO2 = RunResponseDTO.builder()
@@ -291,16 +381,16 @@ class RunControllerTest {
             .pipelineId("pipeline-456")
             .startedAt(run2.getStartedAt())
             .status(RunStatus.COMPLETED)
-            .input(Collections.singletonMap("key", "value"))
+            .input(RawJson.fromValue(Collections.singletonMap("key", "value")))
             .steps(Collections.emptyList())
             .build();
 
         List<XRayRun> runs = Arrays.asList(mockRun, run2);
-        when(runService.getAllRuns(null, null, null, null))
+        when(runService.getAllRuns(null, null, null, null, Set.of()))
             .thenReturn(runs);
-        when(runConverter.toResponse(mockRun))
+        when(runConverter.toResponse(mockRun, Set.of()))
             .thenReturn(runResponseDTO);
-        when(runConverter.toResponse(run2))
+        when(runConverter.toResponse(run2, Set.of()))
             .thenReturn(runResponseDTO2);
 
         mockMvc.perform(get("/api/v1/runs"))
@@ -311,5 +401,20 @@ class RunControllerTest {
             .andExpect(jsonPath("$.data[0].runId").value(runId.toString()))
             .andExpect(jsonPath("$.data[1].runId").value(runId2.toString()));
     }
-}
 
+    @Test
+    void testGetActiveRuns() throws Exception {
+        when(runService.getActiveRuns("data-processing")).thenReturn(List.of(ActiveRunDTO.builder()
+            .runId(runId)
+            .pipelineType("data-processing")
+            .startedAt(LocalDateTime.of(2026, 10, 18, 12, 0))
+            .lastActivityAt(LocalDateTime.of(2026, 10, 18, 12, 5))
+            .build()));
+
+        mockMvc.perform(get("/api/v1/runs/active").param("pipelineType", "data-processing"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.length()").value(1))
+            .andExpect(jsonPath("$.data[0].runId").value(runId.toString()))
+            .andExpect(jsonPath("$.data[0].pipelineType").value("data-processing"));
+    }
+}
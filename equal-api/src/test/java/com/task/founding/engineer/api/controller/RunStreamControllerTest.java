@@ -0,0 +1,80 @@
+package com.task.founding.engineer.api.controller;
+
+import com.task.founding.engineer.api.controller.exception.handler.GlobalExceptionHandler;
+import com.task.founding.engineer.dto.response.RunEventDTO;
+import com.task.founding.engineer.enums.RunEventType;
+import com.task.founding.engineer.live.RunEventBroadcaster;
+import com.task.founding.engineer.service.RunService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.hamcrest.Matchers.containsString;
+
+class RunStreamControllerTest {
+
+    private MockMvc mockMvc;
+    private RunService runService;
+    private UUID runId;
+
+    @BeforeEach
+    void setUp() {
+        runService = mock(RunService.class);
+        mockMvc = MockMvcBuilders.standaloneSetup(new RunStreamController(runService, Duration.ofMinutes(1)))
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .build();
+        runId = UUID.randomUUID();
+    }
+
+    @Test
+    void testStreamRun_SendsEventsUntilRunEnds() throws Exception {
+        RunEventBroadcaster.Subscription subscription = mock(RunEventBroadcaster.Subscription.class);
+        when(runService.streamRun(eq(runId), any(), any())).thenAnswer(invocation -> {
+            Consumer<RunEventDTO> listener = invocation.getArgument(1);
+            Runnable onClose = invocation.getArgument(2);
+            listener.accept(RunEventDTO.builder()
+                .type(RunEventType.STEP_CREATED)
+                .runId(runId)
+                .stepName("filter_by_price")
+                .build());
+            listener.accept(RunEventDTO.builder()
+                .type(RunEventType.RUN_COMPLETED)
+                .runId(runId)
+                .build());
+            onClose.run();
+            return subscription;
+        });
+
+        MvcResult result = mockMvc.perform(get("/api/v1/runs/{runId}/stream", runId))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().string(containsString("event:step_created")))
+            .andExpect(content().string(containsString("\"stepName\":\"filter_by_price\"")))
+            .andExpect(content().string(containsString("event:run_completed")));
+    }
+
+    @Test
+    void testStreamRun_UnknownRun() throws Exception {
+        when(runService.streamRun(eq(runId), any(), any()))
+            .thenThrow(new RuntimeException("Run not found with id: " + runId));
+
+        mockMvc.perform(get("/api/v1/runs/{runId}/stream", runId))
+            .andExpect(status().isNotFound());
+    }
+}
@@ -4,7 +4,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.task.founding.engineer.api.controller.converter.StepConverter;
 import com.task.founding.engineer.dto.request.CreateStepRequestDTO;
 import com.task.founding.engineer.dto.response.StepResponseDTO;
+import com.task.founding.engineer.enums.PayloadField;
 import com.task.founding.engineer.enums.StepStatus;
+import com.task.founding.engineer.json.RawJson;
 import com.task.founding.engineer.model.XRayStep;
 import com.task.founding.engineer.service.StepService;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,6 +21,7 @@ import java.util.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -57,8 +60,8 @@ class StepControllerTest {
             .stepName("Filter Step")
             .stepType("filter")
             .order(1)
-            .input(input)
-            .metadata(Collections.singletonMap("version", "1.0"))
+            .input(RawJson.fromValue(input))
+            .metadata(RawJson.fromValue(Collections.singletonMap("version", "1.0")))
             .build();
 
         // Setup mock step entity
@@ -71,10 +74,10 @@ class StepControllerTest {
             .startedAt(LocalDateTime.now())
             .completedAt(null)
             .status(StepStatus.SUCCESS)
-            .input(input)
+            .input(RawJson.fromValue(input))
             .output(null)
             .reasoning(null)
-            .metadata(Collections.singletonMap("version", "1.0"))
+            .metadata(RawJson.fromValue(Collections.singletonMap("version", "1.0")))
             .build();
 
         // Setup response DTO
@@ -87,10 +90,10 @@ class StepControllerTest {
             .startedAt(mockStep.getStartedAt())
             .completedAt(null)
             .status(StepStatus.SUCCESS)
-            .input(input)
+            .input(RawJson.fromValue(input))
             .output(null)
             .reasoning(null)
-            .metadata(Collections.singletonMap("version", "1.0"))
+            .metadata(RawJson.fromValue(Collections.singletonMap("version", "1.0")))
             .candidates(Collections.emptyList())
             .build();
     }
@@ -115,7 +118,7 @@ class StepControllerTest {
             .stepName(null) // Required field is null
             .stepType("filter")
             .order(1)
-            .input(Collections.singletonMap("key", "value"))
+            .input(RawJson.fromValue(Collections.singletonMap("key", "value")))
             .build();
 
         mockMvc.perform(post("/api/v1/runs/{runId}/steps", runId)
@@ -130,7 +133,7 @@ class StepControllerTest {
             .stepName("Filter Step")
             .stepType(null) // Required field is null
             .order(1)
-            .input(Collections.singletonMap("key", "value"))
+            .input(RawJson.fromValue(Collections.singletonMap("key", "value")))
             .build();
 
         mockMvc.perform(post("/api/v1/runs/{runId}/steps", runId)
@@ -145,7 +148,7 @@ class StepControllerTest {
             .stepName("Filter Step")
             .stepType("filter")
             .order(null) // Required field is null
-            .input(Collections.singletonMap("key", "value"))
+            .input(RawJson.fromValue(Collections.singletonMap("key", "value")))
             .build();
 
         mockMvc.perform(post("/api/v1/runs/{runId}/steps", runId)
@@ -156,9 +159,9 @@ class StepControllerTest {
 
     @Test
     void testGetStep_Success() throws Exception {
-        when(stepService.getStepById(stepId))
+        when(stepService.getStepById(stepId, Set.of()))
             .thenReturn(mockStep);
-        when(stepConverter.toResponse(any(XRayStep.class)))
+        when(stepConverter.toResponse(any(XRayStep.class), any()))
             .thenReturn(stepResponseDTO);
 
         mockMvc.perform(get("/api/v1/steps/{stepId}", stepId))
@@ -171,12 +174,28 @@ class StepControllerTest {
             .andExpect(jsonPath("$.data.status").value("SUCCESS"));
     }
 
+    @Test
+    void testGetStep_WithInclude() throws Exception {
+        Set<PayloadField> include = EnumSet.of(PayloadField.REASONING, PayloadField.METADATA);
+        when(stepService.getStepById(stepId, include))
+            .thenReturn(mockStep);
+        when(stepConverter.toResponse(mockStep, include))
+            .thenReturn(stepResponseDTO);
+
+        mockMvc.perform(get("/api/v1/steps/{stepId}", stepId)
+                .param("include", "reasoning", "metadata"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.metadata.version").value("1.0"));
+
+        verify(stepService).getStepById(stepId, include);
+    }
+
     @Test
     void testGetStepsByRunId_Success() throws Exception {
         List<XRayStep> steps = Collections.singletonList(mockStep);
-        when(stepService.getStepsByRunId(runId))
+        when(stepService.getStepsByRunId(runId, Set.of()))
             .thenReturn(steps);
-        when(stepConverter.toResponse(any(XRayStep.class)))
+        when(stepConverter.toResponse(any(XRayStep.class), any()))
             .thenReturn(stepResponseDTO);
 
         mockMvc.perform(get("/api/v1/runs/{runId}/steps", runId))
@@ -190,7 +209,7 @@ class StepControllerTest {
 
     @Test
     void testGetStepsByRunId_EmptyList() throws Exception {
-        when(stepService.getStepsByRunId(runId))
+        when(stepService.getStepsByRunId(runId, Set.of()))
             .thenReturn(Collections.emptyList());
 
         mockMvc.perform(get("/api/v1/runs/{runId}/steps", runId))
@@ -203,9 +222,9 @@ class StepControllerTest {
     @Test
     void testGetStepsByType_WithStepType() throws Exception {
         List<XRayStep> steps = Collections.singletonList(mockStep);
-        when(stepService.getStepsByType("filter"))
+        when(stepService.getStepsByType("filter", Set.of()))
             .thenReturn(steps);
-        when(stepConverter.toResponse(any(XRayStep.class)))
+        when(stepConverter.toResponse(any(XRayStep.class), any()))
             .thenReturn(stepResponseDTO);
 
         mockMvc.perform(get("/api/v1/steps")
@@ -251,9 +270,9 @@ class StepControllerTest {
             .build();
 
         List<XRayStep> steps = Collections.singletonList(step2);
-        when(stepService.getStepsByType("generation"))
+        when(stepService.getStepsByType("generation", Set.of()))
             .thenReturn(steps);
-        when(stepConverter.toResponse(any(XRayStep.class)))
+        when(stepConverter.toResponse(any(XRayStep.class), any()))
             .thenReturn(stepResponseDTO2);
 
         mockMvc.perform(get("/api/v1/steps")
@@ -335,11 +354,11 @@ class StepControllerTest {
             .build();
 
         List<XRayStep> steps = Arrays.asList(mockStep, step2);
-        when(stepService.getStepsByRunId(runId))
+        when(stepService.getStepsByRunId(runId, Set.of()))
             .thenReturn(steps);
-        when(stepConverter.toResponse(mockStep))
+        when(stepConverter.toResponse(mockStep, Set.of()))
             .thenReturn(stepResponseDTO);
-        when(stepConverter.toResponse(step2))
+        when(stepConverter.toResponse(step2, Set.of()))
             .thenReturn(stepResponseDTO2);
 
         mockMvc.perform(get("/api/v1/runs/{runId}/steps", runId))
@@ -0,0 +1,312 @@
+package com.task.founding.engineer.bus;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.task.founding.engineer.dto.response.RunEventDTO;
+import com.task.founding.engineer.enums.RunEventType;
+import jakarta.validation.constraints.NotNull;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Relays committed run events between instances over PostgreSQL {@code LISTEN/NOTIFY}, so caches
+ * and live subscribers see writes made through any instance.
+ * <p>
+ * Events handed to {@link #send} are coalesced in memory: repeated appends to one step add up, and
+ * a run's completion or failure is sent once. Every {@code flush-interval} the pending events are
+ * serialized into as few notifications as fit the {@code NOTIFY} payload limit and sent in one
+ * round trip, on a dedicated connection outside the pool that also listens on {@code channel}.
+ * Every other instance passes the events to its {@link ChangeListener}s; an instance ignores its
+ * own.
+ * <p>
+ * Delivery is best effort. When more than {@code max-pending} events wait, or a flush fails, the
+ * rest are dropped and the next notification asks every instance to resync; an instance that
+ * reconnects after losing its connection resyncs on its own. Disabled unless the datasource is
+ * PostgreSQL.
+ */
+@Slf4j
+@Component
+public class ChangeBus implements SmartLifecycle {
+
+    // NOTIFY rejects payloads of 8000 bytes or more
+    static final int MAX_PAYLOAD_BYTES = 7900;
+
+    private static final Pattern CHANNEL = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+    private static final JsonMapper MAPPER = JsonMapper.builder()
+            .changeDefaultPropertyInclusion(inclusion -> inclusion.withValueInclusion(JsonInclude.Include.NON_NULL))
+            .build();
+
+    private final ObjectProvider<ChangeListener> listeners;
+    private final boolean enabled;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final String channel;
+    private final Duration flushInterval;
+    private final int maxPending;
+    private final Duration reconnectDelay;
+    private final UUID instanceId = UUID.randomUUID();
+
+    // Insertion-ordered, so coalesced events are sent in the order they were first seen
+    private final LinkedHashMap<EventKey, RunEventDTO> pending = new LinkedHashMap<>();
+    private boolean resyncPending;
+    private volatile boolean running;
+    private Thread worker;
+
+    /**
+     * One notification: the sending instance, whether receivers should resync, and the events.
+     */
+    record ChangeBatch(UUID origin, boolean resync, List<RunEventDTO> events) {
+    }
+
+    // Events with equal keys are coalesced into one
+    private record EventKey(RunEventType type, UUID runId, UUID stepId) {
+
+        static EventKey of(RunEventDTO event) {
+            return new EventKey(event.getType(), event.getRunId(), event.getStepId());
+        }
+    }
+
+    public ChangeBus(
+            ObjectProvider<ChangeListener> listeners,
+            @Value("${xray.change-bus.enabled:true}") boolean enabled,
+            @Value("${spring.datasource.url:}") String url,
+            @Value("${spring.datasource.username:}") String username,
+            @Value("${spring.datasource.password:}") String password,
+            @Value("${xray.change-bus.channel:xray_changes}") String channel,
+            @Value("${xray.change-bus.flush-interval:PT0.2S}") Duration flushInterval,
+            @Value("${xray.change-bus.max-pending:10000}") int maxPending,
+            @Value("${xray.change-bus.reconnect-delay:PT5S}") Duration reconnectDelay) {
+        if (!CHANNEL.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid change bus channel: " + channel);
+        }
+        this.listeners = listeners;
+        this.enabled = enabled && url.startsWith("jdbc:postgresql:");
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.channel = channel;
+        this.flushInterval = flushInterval;
+        this.maxPending = maxPending;
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    /**
+     * Queues a committed event for the other instances.
+     */
+    public void send(@NotNull RunEventDTO event) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (pending) {
+            EventKey key = EventKey.of(event);
+            RunEventDTO queued = pending.get(key);
+            if (Objects.nonNull(queued)) {
+                pending.put(key, coalesce(queued, event));
+            } else if (pending.size() < maxPending) {
+                pending.put(key, event);
+            } else {
+                resyncPending = true;
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        worker = Thread.ofPlatform().daemon().name("change-bus").start(this::run);
+        log.info("Change bus listening on channel {}", channel);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (Objects.nonNull(worker)) {
+            worker.interrupt();
+            worker = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Takes the pending events and serializes them into notification payloads.
+     */
+    List<String> drainPayloads() {
+        List<RunEventDTO> events;
+        boolean resync;
+        synchronized (pending) {
+            events = new ArrayList<>(pending.values());
+            pending.clear();
+            resync = resyncPending;
+            resyncPending = false;
+        }
+        List<String> payloads = new ArrayList<>();
+        if (!events.isEmpty() || resync) {
+            encode(events, resync, payloads);
+        }
+        return payloads;
+    }
+
+    /**
+     * Passes the events of one notification to the listeners, unless this instance sent it.
+     */
+    void receive(String payload) {
+        ChangeBatch batch;
+        try {
+            batch = MAPPER.readValue(payload, ChangeBatch.class);
+        } catch (JacksonException e) {
+            log.warn("Ignoring malformed change notification: {}", e.getOriginalMessage());
+            return;
+        }
+        if (instanceId.equals(batch.origin())) {
+            return;
+        }
+        if (batch.resync()) {
+            dispatch(ChangeListener::onResync);
+        }
+        if (Objects.nonNull(batch.events()) && !batch.events().isEmpty()) {
+            dispatch(listener -> listener.onRemoteEvents(batch.events()));
+        }
+    }
+
+    private void run() {
+        boolean connectedBefore = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                if (connectedBefore) {
+                    // Notifications sent while disconnected are lost
+                    dispatch(ChangeListener::onResync);
+                }
+                connectedBefore = true;
+                poll(connection);
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Change bus connection lost, reconnecting in {}: {}", reconnectDelay, e.getMessage());
+                try {
+                    Thread.sleep(reconnectDelay);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void poll(Connection connection) throws SQLException {
+        PGConnection notifications = connection.unwrap(PGConnection.class);
+        long nextFlush = System.nanoTime() + flushInterval.toNanos();
+        while (running) {
+            long now = System.nanoTime();
+            if (now - nextFlush >= 0) {
+                flush(connection);
+                nextFlush = now + flushInterval.toNanos();
+            }
+            // A timeout of 0 would block until a notification arrives
+            int timeoutMillis = (int) Math.max(1, (nextFlush - now) / 1_000_000);
+            PGNotification[] received = notifications.getNotifications(timeoutMillis);
+            if (Objects.nonNull(received)) {
+                for (PGNotification notification : received) {
+                    if (channel.equals(notification.getName())) {
+                        receive(notification.getParameter());
+                    }
+                }
+            }
+        }
+    }
+
+    private void flush(Connection connection) throws SQLException {
+        List<String> payloads = drainPayloads();
+        if (payloads.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, payload) FROM unnest(?) AS payload")) {
+            statement.setString(1, channel);
+            statement.setArray(2, connection.createArrayOf("text", payloads.toArray()));
+            try (ResultSet ignored = statement.executeQuery()) {
+                // pg_notify returns void; the notifications are sent once the statement commits
+            }
+        } catch (SQLException e) {
+            synchronized (pending) {
+                resyncPending = true;
+            }
+            throw e;
+        }
+    }
+
+    // Halves a batch until every part fits one payload; an event too large on its own is dropped for a resync
+    private void encode(List<RunEventDTO> events, boolean resync, List<String> payloads) {
+        String payload = MAPPER.writeValueAsString(new ChangeBatch(instanceId, resync, events));
+        if (payload.getBytes(StandardCharsets.UTF_8).length <= MAX_PAYLOAD_BYTES) {
+            payloads.add(payload);
+        } else if (events.size() == 1) {
+            payloads.add(MAPPER.writeValueAsString(new ChangeBatch(instanceId, true, List.of())));
+        } else {
+            int middle = events.size() / 2;
+            encode(events.subList(0, middle), resync, payloads);
+            encode(events.subList(middle, events.size()), false, payloads);
+        }
+    }
+
+    private void dispatch(Consumer<ChangeListener> call) {
+        listeners.orderedStream().forEach(listener -> {
+            try {
+                call.accept(listener);
+            } catch (RuntimeException e) {
+                log.warn("Change listener {} failed", listener.getClass().getSimpleName(), e);
+            }
+        });
+    }
+
+    private static RunEventDTO coalesce(RunEventDTO queued, RunEventDTO event) {
+        if (event.getType() != RunEventType.CANDIDATES_APPENDED) {
+            return queued;
+        }
+        // Copies every other field of the queued event, so fields added to the event survive coalescing
+        return queued.toBuilder()
+                .candidates(sum(queued.getCandidates(), event.getCandidates()))
+                .selected(sum(queued.getSelected(), event.getSelected()))
+                .occurredAt(event.getOccurredAt())
+                .build();
+    }
+
+    private static Integer sum(Integer a, Integer b) {
+        return (Objects.nonNull(a) ? a : 0) + (Objects.nonNull(b) ? b : 0);
+    }
+}
@@ -0,0 +1,22 @@
+package com.task.founding.engineer.bus;
+
+import com.task.founding.engineer.dto.response.RunEventDTO;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * Receives the run events other instances committed, as relayed by the {@link ChangeBus}.
+ * Called on the bus's listener thread, so implementations must not block.
+ */
+public interface ChangeListener {
+
+    void onRemoteEvents(@NotNull List<RunEventDTO> events);
+
+    /**
+     * Events may have been lost, while this instance was disconnected or because a sender had to
+     * drop some; state derived from remote events should be reloaded.
+     */
+    default void onResync() {
+    }
+}
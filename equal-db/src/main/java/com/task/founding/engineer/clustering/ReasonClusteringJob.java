@@ -0,0 +1,213 @@
+package com.task.founding.engineer.clustering;
+
+import com.task.founding.engineer.dictionary.ValueDictionary;
+import com.task.founding.engineer.enums.DictionaryKind;
+import com.task.founding.engineer.model.XRayDictionaryEntry;
+import com.task.founding.engineer.model.XRayReasonTemplate;
+import com.task.founding.engineer.model.XRayReasonTemplateBand;
+import com.task.founding.engineer.repository.XRayCandidateRepository;
+import com.task.founding.engineer.repository.XRayDictionaryEntryRepository;
+import com.task.founding.engineer.repository.XRayReasonTemplateBandRepository;
+import com.task.founding.engineer.repository.XRayReasonTemplateRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * Groups near-duplicate rejection reasons into templates, so reason analytics can group by
+ * template instead of by exact text.
+ * <p>
+ * Works on the distinct reasons interned in {@code xray_dictionary}, not on candidate rows: each
+ * reason is clustered once, in batches of {@code batch-size} in code order, and the candidates of
+ * a batch get their template ids in one update joined to the dictionary. Template signatures and
+ * their LSH bands live in tables, so a run only holds one batch and the templates it touches in
+ * memory, however many reasons exist. Runs are incremental: a reason with a template is never
+ * looked at again.
+ * <p>
+ * Candidates written after their reason was clustered get the template at ingest, from
+ * {@link ValueDictionary#templateIds}. Only a candidate committed while its reason was being
+ * clustered can miss it; the next run repeats the update for the reasons clustered by this one.
+ * <p>
+ * Assumes a single scheduler instance; two concurrent runs may create duplicate templates.
+ */
+@Slf4j
+@Component
+public class ReasonClusteringJob {
+
+    // Bound on the IN list of one band lookup or template update
+    private static final int LOOKUP_CHUNK = 1000;
+
+    private final XRayDictionaryEntryRepository entryRepository;
+    private final XRayReasonTemplateRepository templateRepository;
+    private final XRayReasonTemplateBandRepository bandRepository;
+    private final XRayCandidateRepository candidateRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxReasonsPerRun;
+    private final double similarity;
+
+    // Reasons clustered by the previous run, whose candidates the next run catches up
+    private List<Integer> lastClustered = List.of();
+
+    public ReasonClusteringJob(
+            XRayDictionaryEntryRepository entryRepository,
+            XRayReasonTemplateRepository templateRepository,
+            XRayReasonTemplateBandRepository bandRepository,
+            XRayCandidateRepository candidateRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${xray.reason-clustering.enabled:true}") boolean enabled,
+            @Value("${xray.reason-clustering.batch-size:1000}") int batchSize,
+            @Value("${xray.reason-clustering.max-reasons-per-run:100000}") int maxReasonsPerRun,
+            @Value("${xray.reason-clustering.similarity:0.6}") double similarity) {
+        this.entryRepository = entryRepository;
+        this.templateRepository = templateRepository;
+        this.bandRepository = bandRepository;
+        this.candidateRepository = candidateRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxReasonsPerRun = maxReasonsPerRun;
+        this.similarity = similarity;
+    }
+
+    @Scheduled(
+            initialDelayString = "${xray.reason-clustering.initial-delay:PT1M}",
+            fixedDelayString = "${xray.reason-clustering.interval:PT5M}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        List<Integer> previous = lastClustered;
+        int caughtUp = transactionTemplate.execute(status -> assignTemplates(previous));
+        List<Integer> clusteredCodes = new ArrayList<>();
+        int clustered = 0;
+        int afterCode = 0;
+        while (clustered < maxReasonsPerRun) {
+            int after = afterCode;
+            Batch batch = transactionTemplate.execute(status -> clusterBatch(after));
+            if (batch.reasons() == 0) {
+                break;
+            }
+            clusteredCodes.addAll(batch.codes());
+            clustered += batch.reasons();
+            afterCode = batch.lastCode();
+        }
+        lastClustered = clusteredCodes;
+        if (clustered > 0 || caughtUp > 0) {
+            log.info("Clustered {} rejection reasons; assigned templates to {} earlier candidates", clustered, caughtUp);
+        }
+    }
+
+    /**
+     * Assigns a template to the next unclustered reasons after {@code afterCode}, creating
+     * templates for reasons that match none.
+     */
+    Batch clusterBatch(int afterCode) {
+        List<XRayDictionaryEntry> entries = entryRepository.findByKindAndTemplateIdIsNullAndCodeGreaterThanOrderByCodeAsc(
+                DictionaryKind.REJECTION_REASON, afterCode, Limit.of(batchSize));
+        if (entries.isEmpty()) {
+            return new Batch(0, afterCode, List.of());
+        }
+
+        List<String> patterns = new ArrayList<>(entries.size());
+        List<int[]> signatures = new ArrayList<>(entries.size());
+        List<long[]> bands = new ArrayList<>(entries.size());
+        Set<Long> bandHashes = new HashSet<>();
+        for (XRayDictionaryEntry entry : entries) {
+            String pattern = ReasonMinHash.mask(entry.getValue());
+            int[] signature = ReasonMinHash.signature(pattern);
+            long[] entryBands = ReasonMinHash.bandHashes(signature);
+            patterns.add(pattern);
+            signatures.add(signature);
+            bands.add(entryBands);
+            for (long band : entryBands) {
+                bandHashes.add(band);
+            }
+        }
+
+        Map<Long, Set<Long>> buckets = loadBuckets(bandHashes);
+        Map<Long, int[]> templateSignatures = new HashMap<>();
+        templateRepository.findAllById(buckets.values().stream().flatMap(Set::stream).distinct().toList())
+                .forEach(template -> templateSignatures.put(
+                        template.getTemplateId(), ReasonMinHash.fromBytes(template.getSignature())));
+
+        List<XRayReasonTemplateBand> newBands = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            Long templateId = bestTemplate(signatures.get(i), bands.get(i), buckets, templateSignatures);
+            if (Objects.isNull(templateId)) {
+                // Later reasons of this batch can join the new template through the local buckets
+                templateId = templateRepository.save(XRayReasonTemplate.builder()
+                        .pattern(patterns.get(i))
+                        .signature(ReasonMinHash.toBytes(signatures.get(i)))
+                        .build()).getTemplateId();
+                templateSignatures.put(templateId, signatures.get(i));
+                for (long band : bands.get(i)) {
+                    buckets.computeIfAbsent(band, key -> new HashSet<>()).add(templateId);
+                    newBands.add(XRayReasonTemplateBand.builder().bandHash(band).templateId(templateId).build());
+                }
+            }
+            entries.get(i).setTemplateId(templateId);
+        }
+        bandRepository.saveAll(newBands);
+        // The update reads the templates from the dictionary rows
+        entryRepository.flush();
+        List<Integer> codes = entries.stream().map(XRayDictionaryEntry::getCode).toList();
+        assignTemplates(codes);
+
+        return new Batch(entries.size(), entries.getLast().getCode(), codes);
+    }
+
+    private int assignTemplates(List<Integer> codes) {
+        int assigned = 0;
+        for (int from = 0; from < codes.size(); from += LOOKUP_CHUNK) {
+            assigned += candidateRepository.assignRejectionTemplates(codes.subList(from, Math.min(from + LOOKUP_CHUNK, codes.size())));
+        }
+        return assigned;
+    }
+
+    private Map<Long, Set<Long>> loadBuckets(Set<Long> bandHashes) {
+        Map<Long, Set<Long>> buckets = new HashMap<>();
+        List<Long> hashes = new ArrayList<>(bandHashes);
+        for (int from = 0; from < hashes.size(); from += LOOKUP_CHUNK) {
+            List<Long> chunk = hashes.subList(from, Math.min(from + LOOKUP_CHUNK, hashes.size()));
+            for (XRayReasonTemplateBand band : bandRepository.findByBandHashIn(chunk)) {
+                buckets.computeIfAbsent(band.getBandHash(), key -> new HashSet<>()).add(band.getTemplateId());
+            }
+        }
+        return buckets;
+    }
+
+    // The most similar template sharing a band with the reason, if it clears the threshold
+    private Long bestTemplate(
+            int[] signature,
+            long[] bands,
+            Map<Long, Set<Long>> buckets,
+            Map<Long, int[]> templateSignatures) {
+        Long best = null;
+        double bestSimilarity = similarity;
+        Set<Long> compared = new HashSet<>();
+        for (long band : bands) {
+            for (Long templateId : buckets.getOrDefault(band, Set.of())) {
+                if (!compared.add(templateId)) {
+                    continue;
+                }
+                double candidate = ReasonMinHash.similarity(signature, templateSignatures.get(templateId));
+                if (candidate >= bestSimilarity) {
+                    best = templateId;
+                    bestSimilarity = candidate;
+                }
+            }
+        }
+        return best;
+    }
+
+    record Batch(int reasons, int lastCode, List<Integer> codes) {
+    }
+}
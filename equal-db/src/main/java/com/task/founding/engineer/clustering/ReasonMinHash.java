@@ -0,0 +1,136 @@
+package com.task.founding.engineer.clustering;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Masking, MinHash signatures and LSH band hashes for rejection reasons.
+ * <p>
+ * A reason is masked first (ids, numbers and quoted values become placeholders), so
+ * {@code "price 12.99 exceeds max 10.00"} and {@code "price 8.50 exceeds max 5.00"} are the same
+ * text. The signature estimates the Jaccard similarity of the masked texts' word shingles; it is
+ * split into {@link #BANDS} bands of {@link #ROWS} values, and reasons sharing any band hash are
+ * compared. With 16 x 4, pairs above ~0.5 similarity share a band with high probability.
+ */
+final class ReasonMinHash {
+
+    static final int BANDS = 16;
+    static final int ROWS = 4;
+    static final int SIGNATURE_LENGTH = BANDS * ROWS;
+
+    private static final Pattern UUID = Pattern.compile(
+            "\\b[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}\\b");
+    private static final Pattern QUOTED = Pattern.compile("'[^']*'|\"[^\"]*\"");
+    // Tokens containing a digit: prices, counts, SKUs, order ids
+    private static final Pattern WITH_DIGIT = Pattern.compile("[\\w.$%#:/-]*\\d[\\w.$%#:/-]*");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    // One seed per signature position; each turns the shingle hash into an independent permutation
+    private static final long[] SEEDS = seeds();
+
+    private ReasonMinHash() {
+    }
+
+    static String mask(@NotNull String reason) {
+        String masked = reason.toLowerCase(Locale.ROOT);
+        masked = UUID.matcher(masked).replaceAll("<id>");
+        masked = QUOTED.matcher(masked).replaceAll("<str>");
+        masked = WITH_DIGIT.matcher(masked).replaceAll("<num>");
+        return WHITESPACE.matcher(masked).replaceAll(" ").trim();
+    }
+
+    static int[] signature(@NotNull String masked) {
+        int[] signature = new int[SIGNATURE_LENGTH];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (long shingle : shingles(masked)) {
+            for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+                int value = (int) (mix(shingle + SEEDS[i]) >>> 33);
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    static long[] bandHashes(@NotNull int[] signature) {
+        long[] hashes = new long[BANDS];
+        for (int band = 0; band < BANDS; band++) {
+            long hash = band;
+            for (int row = 0; row < ROWS; row++) {
+                hash = mix(hash * 31 + signature[band * ROWS + row]);
+            }
+            hashes[band] = hash;
+        }
+        return hashes;
+    }
+
+    /**
+     * Fraction of equal signature positions, an estimate of the Jaccard similarity.
+     */
+    static double similarity(@NotNull int[] a, @NotNull int[] b) {
+        int equal = 0;
+        for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return equal / (double) SIGNATURE_LENGTH;
+    }
+
+    static byte[] toBytes(@NotNull int[] signature) {
+        ByteBuffer buffer = ByteBuffer.allocate(signature.length * Integer.BYTES);
+        buffer.asIntBuffer().put(signature);
+        return buffer.array();
+    }
+
+    static int[] fromBytes(@NotNull byte[] bytes) {
+        int[] signature = new int[bytes.length / Integer.BYTES];
+        ByteBuffer.wrap(bytes).asIntBuffer().get(signature);
+        return signature;
+    }
+
+    // Word bigrams, or the single word of a one-word reason
+    private static Set<Long> shingles(String masked) {
+        String[] words = masked.split(" ");
+        Set<Long> shingles = new HashSet<>();
+        if (words.length == 1) {
+            shingles.add(fnv(words[0]));
+        }
+        for (int i = 0; i + 1 < words.length; i++) {
+            shingles.add(fnv(words[i] + ' ' + words[i + 1]));
+        }
+        return shingles;
+    }
+
+    private static long fnv(String text) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < text.length(); i++) {
+            hash ^= text.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // splitmix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long[] seeds() {
+        long[] seeds = new long[SIGNATURE_LENGTH];
+        long seed = 0x9e3779b97f4a7c15L;
+        for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+            seed = mix(seed + 0x9e3779b97f4a7c15L);
+            seeds[i] = seed;
+        }
+        return seeds;
+    }
+}
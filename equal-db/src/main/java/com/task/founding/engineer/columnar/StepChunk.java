@@ -0,0 +1,95 @@
+package com.task.founding.engineer.columnar;
+
+import jakarta.annotation.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.Objects;
+
+/**
+ * The columns of one step in direct buffers, grown by doubling. Appends write past the published
+ * size, so readers of an earlier {@link StepColumns} view never see a partial row; a view holding
+ * replaced buffers keeps them reachable until it is dropped.
+ */
+final class StepChunk {
+
+    static final int INITIAL_CAPACITY = 64;
+
+    private DoubleBuffer scores;
+    private LongBuffer selected;
+    private IntBuffer reasonCodes;
+    private int size;
+    private volatile int capacity;
+    private volatile StepColumns columns;
+
+    StepChunk() {
+        allocate(INITIAL_CAPACITY);
+        publish();
+    }
+
+    synchronized void append(@Nullable Double score, boolean isSelected, @Nullable Integer reasonCode) {
+        if (size == capacity) {
+            grow();
+        }
+        scores.put(size, Objects.nonNull(score) ? score : Double.NaN);
+        if (isSelected) {
+            selected.put(size >>> 6, selected.get(size >>> 6) | (1L << size));
+        }
+        reasonCodes.put(size, Objects.nonNull(reasonCode) ? reasonCode : StepColumns.NO_REASON);
+        size++;
+    }
+
+    /**
+     * Makes the rows appended so far visible to {@link #columns()}.
+     */
+    synchronized void publish() {
+        columns = new StepColumns(scores, selected, reasonCodes, size);
+    }
+
+    StepColumns columns() {
+        return columns;
+    }
+
+    /**
+     * Off-heap bytes held, including unused capacity.
+     */
+    long bytes() {
+        return bytes(capacity);
+    }
+
+    /**
+     * Off-heap bytes held once one more row is appended.
+     */
+    synchronized long bytesAfterAppend() {
+        return size == capacity ? bytes(capacity * 2) : bytes(capacity);
+    }
+
+    static long bytes(int capacity) {
+        return (long) capacity * (Double.BYTES + Integer.BYTES) + (long) (capacity >>> 6) * Long.BYTES;
+    }
+
+    private void grow() {
+        DoubleBuffer oldScores = scores;
+        LongBuffer oldSelected = selected;
+        IntBuffer oldReasonCodes = reasonCodes;
+        allocate(capacity * 2);
+        scores.put(0, oldScores, 0, size);
+        selected.put(0, oldSelected, 0, oldSelected.capacity());
+        reasonCodes.put(0, oldReasonCodes, 0, size);
+    }
+
+    // Capacities are powers of two from 64, so the selected words cover them exactly
+    private void allocate(int newCapacity) {
+        scores = direct(newCapacity * Double.BYTES).asDoubleBuffer();
+        selected = direct((newCapacity >>> 6) * Long.BYTES).asLongBuffer();
+        reasonCodes = direct(newCapacity * Integer.BYTES).asIntBuffer();
+        capacity = newCapacity;
+    }
+
+    private static ByteBuffer direct(int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+    }
+}
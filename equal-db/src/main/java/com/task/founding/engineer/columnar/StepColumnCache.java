@@ -0,0 +1,327 @@
+package com.task.founding.engineer.columnar;
+
+import com.task.founding.engineer.bus.ChangeListener;
+import com.task.founding.engineer.dto.response.RunEventDTO;
+import com.task.founding.engineer.enums.RunEventType;
+import com.task.founding.engineer.model.XRayCandidate;
+import com.task.founding.engineer.model.XRayStep;
+import com.task.founding.engineer.repository.StepColumnRow;
+import com.task.founding.engineer.repository.XRayCandidateRepository;
+import com.task.founding.engineer.transaction.AfterCommit;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * In-process columnar copy of {@code (score, selected, rejection_reason_code)} per step, for
+ * analytics that would otherwise count or load candidate rows step by step.
+ * <p>
+ * Each step is one off-heap {@link StepChunk}. Chunks are backfilled lazily by the first scan that
+ * needs them, with one payload-free query per {@code 500} steps, and kept up to date by candidates
+ * ingested through this instance. Only steps started more than {@code settle-after} ago are cached:
+ * their candidates are assumed complete, so a chunk never misses rows another instance is still
+ * writing. Resident chunks are capped at {@code max-size} and the least recently scanned ones are
+ * evicted first; steps that are not cached come back to the caller for its SQL path.
+ * <p>
+ * A chunk is dropped when the change bus reports candidates appended to its step by another
+ * instance, and every chunk is dropped on a resync; the next scan backfills them again.
+ */
+@Component
+public class StepColumnCache implements ChangeListener {
+
+    // Bound on the IN list of one backfill query
+    private static final int BACKFILL_CHUNK = 500;
+    // Steps holding fewer candidates than this together are scanned by one task
+    private static final long SPLIT_CANDIDATES = 1 << 16;
+
+    private final XRayCandidateRepository candidateRepository;
+    private final boolean enabled;
+    private final long maxBytes;
+    private final Duration settleAfter;
+
+    // Access-ordered, so iteration starts at the coldest chunk
+    private final LinkedHashMap<UUID, StepChunk> chunks = new LinkedHashMap<>(16, 0.75f, true);
+    private long residentBytes;
+    // Bumped by every write to a settled step without a resident chunk; a backfill that raced one is not kept
+    private long lateWrites;
+
+    /**
+     * Per-step results of a scan, in the order of the steps passed in, and the steps to compute
+     * from SQL instead.
+     */
+    public record Scan<R>(Map<UUID, R> results, List<XRayStep> uncached) {
+    }
+
+    public StepColumnCache(
+            XRayCandidateRepository candidateRepository,
+            @Value("${xray.column-cache.enabled:true}") boolean enabled,
+            @Value("${xray.column-cache.max-size:256MB}") DataSize maxSize,
+            @Value("${xray.column-cache.settle-after:PT15M}") Duration settleAfter) {
+        this.candidateRepository = candidateRepository;
+        this.enabled = enabled;
+        this.maxBytes = maxSize.toBytes();
+        this.settleAfter = settleAfter;
+    }
+
+    /**
+     * Applies {@code perStep} to the columns of each cached step, in parallel fork-join tasks.
+     * Settled steps without a resident chunk are backfilled first, as long as the chunks this scan
+     * allocates fit in {@code max-size}; a step that would not fit comes back uncached instead.
+     * Must run inside a transaction.
+     */
+    public <R> Scan<R> scan(@NotNull Collection<XRayStep> steps, @NotNull Function<StepColumns, R> perStep) {
+        return scan(steps, perStep, true);
+    }
+
+    /**
+     * Like {@link #scan} on the resident chunks only: every step without one comes back uncached,
+     * so no candidate rows are read.
+     */
+    public <R> Scan<R> scanResident(@NotNull Collection<XRayStep> steps, @NotNull Function<StepColumns, R> perStep) {
+        return scan(steps, perStep, false);
+    }
+
+    private <R> Scan<R> scan(Collection<XRayStep> steps, Function<StepColumns, R> perStep, boolean backfill) {
+        if (!enabled || steps.isEmpty()) {
+            return new Scan<>(Map.of(), List.copyOf(steps));
+        }
+        LocalDateTime settledBefore = LocalDateTime.now().minus(settleAfter);
+        Map<UUID, StepColumns> columns = new LinkedHashMap<>();
+        Map<UUID, XRayStep> toLoad = new LinkedHashMap<>();
+        List<XRayStep> uncached = new ArrayList<>();
+        for (XRayStep step : steps) {
+            StepChunk chunk = get(step.getStepId());
+            if (Objects.nonNull(chunk)) {
+                columns.put(step.getStepId(), chunk.columns());
+            } else if (backfill && isSettled(step, settledBefore)) {
+                toLoad.put(step.getStepId(), step);
+            } else {
+                uncached.add(step);
+            }
+        }
+        backfill(toLoad, columns, uncached);
+
+        List<UUID> stepIds = new ArrayList<>(columns.keySet());
+        List<StepColumns> views = new ArrayList<>(columns.values());
+        Object[] results = new Object[views.size()];
+        ForkJoinPool.commonPool().invoke(new ScanTask<>(views, offsets(views), perStep, results, 0, views.size()));
+
+        Map<UUID, R> byStep = new LinkedHashMap<>();
+        for (int i = 0; i < results.length; i++) {
+            @SuppressWarnings("unchecked")
+            R result = (R) results[i];
+            byStep.put(stepIds.get(i), result);
+        }
+        return new Scan<>(byStep, uncached);
+    }
+
+    /**
+     * Appends candidates just written to a step to its resident chunk once the surrounding
+     * transaction commits, so candidates of a rolled back batch never reach the cache.
+     */
+    public void append(@NotNull XRayStep step, @NotNull List<XRayCandidate> candidates) {
+        if (!enabled || candidates.isEmpty()) {
+            return;
+        }
+        AfterCommit.run(() -> applyAppend(step, candidates));
+    }
+
+    public synchronized long residentBytes() {
+        return residentBytes;
+    }
+
+    public synchronized int residentSteps() {
+        return chunks.size();
+    }
+
+    @Override
+    public synchronized void onRemoteEvents(@NotNull List<RunEventDTO> events) {
+        for (RunEventDTO event : events) {
+            if (event.getType() != RunEventType.CANDIDATES_APPENDED || Objects.isNull(event.getStepId())) {
+                continue;
+            }
+            StepChunk chunk = chunks.remove(event.getStepId());
+            if (Objects.nonNull(chunk)) {
+                residentBytes -= chunk.bytes();
+            }
+            // A backfill of the step may be reading while the rows commit
+            lateWrites++;
+        }
+    }
+
+    @Override
+    public synchronized void onResync() {
+        chunks.clear();
+        residentBytes = 0;
+        lateWrites++;
+    }
+
+    synchronized void applyAppend(XRayStep step, List<XRayCandidate> candidates) {
+        StepChunk chunk = chunks.get(step.getStepId());
+        if (Objects.isNull(chunk)) {
+            // Written while a backfill of the step may be reading; that backfill must not be kept
+            if (isSettled(step, LocalDateTime.now().minus(settleAfter))) {
+                lateWrites++;
+            }
+            return;
+        }
+        long before = chunk.bytes();
+        for (XRayCandidate candidate : candidates) {
+            chunk.append(candidate.getScore(), Boolean.TRUE.equals(candidate.getSelected()), candidate.getRejectionReasonCode());
+        }
+        chunk.publish();
+        residentBytes += chunk.bytes() - before;
+        evict();
+    }
+
+    // Charges every chunk allocation against max-size as rows stream in: a step whose next row does
+    // not fit is dropped whole and left to SQL, so a scan never allocates more than the cap
+    private void backfill(Map<UUID, XRayStep> toLoad, Map<UUID, StepColumns> columns, List<XRayStep> uncached) {
+        List<UUID> stepIds = new ArrayList<>(toLoad.keySet());
+        long emptyBytes = StepChunk.bytes(StepChunk.INITIAL_CAPACITY);
+        long loadedBytes = 0;
+        for (int from = 0; from < stepIds.size(); from += BACKFILL_CHUNK) {
+            List<UUID> batch = stepIds.subList(from, Math.min(from + BACKFILL_CHUNK, stepIds.size()));
+            if (loadedBytes + emptyBytes > maxBytes) {
+                batch.forEach(stepId -> uncached.add(toLoad.get(stepId)));
+                continue;
+            }
+            long writes = lateWrites();
+            Map<UUID, StepChunk> loaded = new HashMap<>();
+            Set<UUID> dropped = new HashSet<>();
+            try (Stream<StepColumnRow> rows = candidateRepository.streamStepColumns(batch)) {
+                Iterator<StepColumnRow> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    StepColumnRow row = iterator.next();
+                    if (dropped.contains(row.stepId())) {
+                        continue;
+                    }
+                    StepChunk chunk = loaded.get(row.stepId());
+                    long held = Objects.nonNull(chunk) ? chunk.bytes() : 0;
+                    long needed = Objects.nonNull(chunk) ? chunk.bytesAfterAppend() : emptyBytes;
+                    if (loadedBytes - held + needed > maxBytes) {
+                        loaded.remove(row.stepId());
+                        dropped.add(row.stepId());
+                        loadedBytes -= held;
+                        continue;
+                    }
+                    if (Objects.isNull(chunk)) {
+                        chunk = new StepChunk();
+                        loaded.put(row.stepId(), chunk);
+                    }
+                    chunk.append(row.score(), Boolean.TRUE.equals(row.selected()), row.rejectionReasonCode());
+                    loadedBytes += chunk.bytes() - held;
+                }
+            }
+            for (UUID stepId : batch) {
+                StepChunk chunk = loaded.get(stepId);
+                // A step without candidates still takes an empty chunk
+                if (Objects.isNull(chunk) && !dropped.contains(stepId) && loadedBytes + emptyBytes <= maxBytes) {
+                    chunk = new StepChunk();
+                    loadedBytes += chunk.bytes();
+                }
+                if (Objects.isNull(chunk)) {
+                    uncached.add(toLoad.get(stepId));
+                    continue;
+                }
+                chunk.publish();
+                install(stepId, chunk, writes);
+                columns.put(stepId, chunk.columns());
+            }
+        }
+    }
+
+    private synchronized StepChunk get(UUID stepId) {
+        return chunks.get(stepId);
+    }
+
+    private synchronized long lateWrites() {
+        return lateWrites;
+    }
+
+    private synchronized void install(UUID stepId, StepChunk chunk, long writes) {
+        if (writes != lateWrites) {
+            return;
+        }
+        StepChunk previous = chunks.put(stepId, chunk);
+        if (Objects.nonNull(previous)) {
+            // Backfilled by a concurrent scan as well
+            residentBytes -= previous.bytes();
+        }
+        residentBytes += chunk.bytes();
+        evict();
+    }
+
+    private void evict() {
+        Iterator<StepChunk> coldest = chunks.values().iterator();
+        while (residentBytes > maxBytes && coldest.hasNext()) {
+            residentBytes -= coldest.next().bytes();
+            coldest.remove();
+        }
+    }
+
+    private boolean isSettled(XRayStep step, LocalDateTime settledBefore) {
+        return Objects.nonNull(step.getStartedAt()) && step.getStartedAt().isBefore(settledBefore);
+    }
+
+    // Candidates before each step, so a task can size its range without walking it
+    private static long[] offsets(List<StepColumns> views) {
+        long[] offsets = new long[views.size() + 1];
+        for (int i = 0; i < views.size(); i++) {
+            offsets[i + 1] = offsets[i] + views.get(i).size();
+        }
+        return offsets;
+    }
+
+    private static final class ScanTask<R> extends RecursiveAction {
+
+        private final List<StepColumns> views;
+        private final long[] offsets;
+        private final Function<StepColumns, R> perStep;
+        private final Object[] results;
+        private final int from;
+        private final int to;
+
+        ScanTask(List<StepColumns> views, long[] offsets, Function<StepColumns, R> perStep, Object[] results, int from, int to) {
+            this.views = views;
+            this.offsets = offsets;
+            this.perStep = perStep;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1 || offsets[to] - offsets[from] < SPLIT_CANDIDATES) {
+                for (int i = from; i < to; i++) {
+                    results[i] = perStep.apply(views.get(i));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                    new ScanTask<>(views, offsets, perStep, results, from, middle),
+                    new ScanTask<>(views, offsets, perStep, results, middle, to));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.task.founding.engineer.columnar;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * Immutable view of the first {@link #size()} candidates of one step: score, {@code selected} flag
+ * and rejection reason code, in off-heap buffers. Appends to the step after the view was taken
+ * are not visible through it.
+ */
+public final class StepColumns {
+
+    // Reason code of candidates without a coded rejection reason
+    public static final int NO_REASON = -1;
+
+    private final DoubleBuffer scores;
+    private final LongBuffer selected;
+    private final IntBuffer reasonCodes;
+    private final int size;
+
+    StepColumns(DoubleBuffer scores, LongBuffer selected, IntBuffer reasonCodes, int size) {
+        this.scores = scores;
+        this.selected = selected;
+        this.reasonCodes = reasonCodes;
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Score of the candidate, or NaN if it has none.
+     */
+    public double score(int index) {
+        return scores.get(index);
+    }
+
+    public boolean selected(int index) {
+        return (selected.get(index >>> 6) & (1L << index)) != 0;
+    }
+
+    /**
+     * Rejection reason code of the candidate, or {@link #NO_REASON}.
+     */
+    public int reasonCode(int index) {
+        return reasonCodes.get(index);
+    }
+
+    public long selectedCount() {
+        int fullWords = size >>> 6;
+        long count = 0;
+        for (int word = 0; word < fullWords; word++) {
+            count += Long.bitCount(selected.get(word));
+        }
+        int tail = size & 63;
+        if (tail > 0) {
+            // The last word may already hold bits of candidates appended after this view
+            count += Long.bitCount(selected.get(fullWords) & ((1L << tail) - 1));
+        }
+        return count;
+    }
+}
@@ -0,0 +1,245 @@
+package com.task.founding.engineer.compression;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+import com.github.luben.zstd.ZstdDictTrainer;
+import com.github.luben.zstd.ZstdException;
+import com.task.founding.engineer.model.XRayCompressionDictionary;
+import com.task.founding.engineer.repository.XRayCompressionDictionaryRepository;
+import jakarta.annotation.Nullable;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.constraints.NotNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Opt-in zstd compression for step reasoning and candidate rejection reasons
+ * ({@code xray.compression.enabled}).
+ * <p>
+ * Texts of one step name share most of their wording, so each step name gets its own dictionary,
+ * trained from the first {@code xray.compression.training-samples} texts written for it.
+ * Training and persisting the dictionary run on a background thread, outside the ingest transaction
+ * and its connection, and the dictionary is used once it is saved. Until then texts are compressed
+ * without a dictionary, which only pays off for longer reasoning; a frame is kept only when it is
+ * smaller than the text. Every frame records the zstd id of the dictionary it was written with, so
+ * reads never need the step name and keep working when compression is switched off again. That id
+ * must name one dictionary, so a dictionary whose id is already stored is never saved or used.
+ */
+@Slf4j
+@Component
+public class TextCompressor {
+
+    private final XRayCompressionDictionaryRepository dictionaryRepository;
+    private final TransactionTemplate dictionaryTransaction;
+    private final Executor trainer;
+    private final boolean enabled;
+    private final int level;
+    private final int dictionarySize;
+    private final int trainingSamples;
+
+    private final ConcurrentMap<String, ZstdDictCompress> compressDictionaries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, ZstdDictDecompress> decompressDictionaries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, TrainingSet> trainingSets = new ConcurrentHashMap<>();
+    private final Set<String> lookedUpStepNames = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public TextCompressor(
+            XRayCompressionDictionaryRepository dictionaryRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${xray.compression.enabled:false}") boolean enabled,
+            @Value("${xray.compression.level:3}") int level,
+            @Value("${xray.compression.dictionary-size:16384}") int dictionarySize,
+            @Value("${xray.compression.training-samples:200}") int trainingSamples) {
+        this(dictionaryRepository, transactionManager, enabled, level, dictionarySize, trainingSamples,
+                Executors.newSingleThreadExecutor(Thread.ofPlatform().daemon().name("compression-trainer").factory()));
+    }
+
+    TextCompressor(
+            XRayCompressionDictionaryRepository dictionaryRepository,
+            PlatformTransactionManager transactionManager,
+            boolean enabled,
+            int level,
+            int dictionarySize,
+            int trainingSamples,
+            Executor trainer) {
+        this.dictionaryRepository = dictionaryRepository;
+        // Runs on the trainer thread, so it never nests inside a request's transaction
+        this.dictionaryTransaction = new TransactionTemplate(transactionManager);
+        this.trainer = trainer;
+        this.enabled = enabled;
+        this.level = level;
+        this.dictionarySize = dictionarySize;
+        this.trainingSamples = trainingSamples;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (trainer instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Compresses {@code text} for storage, or returns {@code null} when compression is disabled,
+     * there is nothing to compress or the frame would not be smaller; callers then store the plain text.
+     */
+    @Nullable
+    public byte[] compress(@NotNull String stepName, @Nullable String text) {
+        if (!enabled || Objects.isNull(text)) {
+            return null;
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        ZstdDictCompress dictionary = dictionaryFor(stepName, bytes);
+        byte[] frame = Objects.nonNull(dictionary) ? Zstd.compress(bytes, dictionary) : Zstd.compress(bytes, level);
+        return frame.length < bytes.length ? frame : null;
+    }
+
+    /**
+     * Returns the stored text: the plain column when set, otherwise the decompressed frame.
+     */
+    @Nullable
+    public String read(@Nullable String plain, @Nullable byte[] compressed) {
+        if (Objects.nonNull(plain) || Objects.isNull(compressed)) {
+            return plain;
+        }
+        int size = (int) Zstd.getFrameContentSize(compressed);
+        long dictId = Zstd.getDictIdFromFrame(compressed);
+        byte[] bytes = dictId == 0
+                ? Zstd.decompress(compressed, size)
+                : Zstd.decompress(compressed, decompressDictionary(dictId), size);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Nullable
+    private ZstdDictCompress dictionaryFor(String stepName, byte[] sample) {
+        ZstdDictCompress dictionary = compressDictionaries.get(stepName);
+        if (Objects.nonNull(dictionary)) {
+            return dictionary;
+        }
+
+        // Another instance may already have trained one; look it up once per step name.
+        if (lookedUpStepNames.add(stepName)) {
+            dictionaryRepository.findFirstByStepNameOrderByCreatedAtDesc(stepName)
+                    .ifPresent(this::register);
+            dictionary = compressDictionaries.get(stepName);
+            if (Objects.nonNull(dictionary)) {
+                return dictionary;
+            }
+        }
+
+        List<byte[]> samples = trainingSets
+                .computeIfAbsent(stepName, name -> new TrainingSet())
+                .add(sample, trainingSamples);
+        if (Objects.nonNull(samples)) {
+            try {
+                trainer.execute(() -> train(stepName, samples));
+            } catch (RejectedExecutionException e) {
+                // Shutting down: the samples are collected again after the restart
+                trainingSets.remove(stepName);
+            }
+        }
+        return compressDictionaries.get(stepName);
+    }
+
+    private void train(String stepName, List<byte[]> samples) {
+        int totalBytes = samples.stream().mapToInt(sample -> sample.length).sum();
+        ZstdDictTrainer trainer = new ZstdDictTrainer(totalBytes, dictionarySize);
+        samples.forEach(trainer::addSample);
+
+        byte[] trained;
+        try {
+            trained = trainer.trainSamples();
+        } catch (ZstdException e) {
+            log.warn("Could not train compression dictionary for step {} from {} samples: {}",
+                    stepName, samples.size(), e.getMessage());
+            trainingSets.remove(stepName);
+            return;
+        }
+
+        XRayCompressionDictionary dictionary = XRayCompressionDictionary.builder()
+                .dictId(Zstd.getDictIdFromDict(trained))
+                .stepName(stepName)
+                .dictionary(trained)
+                .build();
+        // Committed before any frame is written with it, so those frames stay readable
+        boolean saved;
+        try {
+            saved = Boolean.TRUE.equals(dictionaryTransaction.execute(status -> {
+                if (dictionaryRepository.existsByDictId(dictionary.getDictId())) {
+                    return false;
+                }
+                dictionaryRepository.save(dictionary);
+                return true;
+            }));
+        } catch (RuntimeException e) {
+            log.warn("Could not save compression dictionary for step {}; collecting samples again", stepName, e);
+            trainingSets.remove(stepName);
+            return;
+        }
+        if (!saved) {
+            // The training set stays complete, so the step is not trained again until a restart
+            log.warn("Compression dictionary trained for step {} has id {} of a stored dictionary; "
+                    + "compressing without a dictionary", stepName, dictionary.getDictId());
+            return;
+        }
+        register(dictionary);
+        trainingSets.remove(stepName);
+    }
+
+    private ZstdDictDecompress decompressDictionary(long dictId) {
+        ZstdDictDecompress dictionary = decompressDictionaries.get(dictId);
+        if (Objects.nonNull(dictionary)) {
+            return dictionary;
+        }
+        register(dictionaryRepository.findByDictId(dictId)
+                .orElseThrow(() -> new IllegalStateException("Compression dictionary not found with id: " + dictId)));
+        return decompressDictionaries.get(dictId);
+    }
+
+    private void register(XRayCompressionDictionary dictionary) {
+        decompressDictionaries.putIfAbsent(dictionary.getDictId(), new ZstdDictDecompress(dictionary.getDictionary()));
+        compressDictionaries.putIfAbsent(dictionary.getStepName(), new ZstdDictCompress(dictionary.getDictionary(), level));
+    }
+
+    private static final class TrainingSet {
+
+        private final List<byte[]> samples = new ArrayList<>();
+        private boolean complete;
+
+        /**
+         * Adds a sample and, exactly once, returns all samples when {@code target} is reached.
+         */
+        synchronized List<byte[]> add(byte[] sample, int target) {
+            if (complete) {
+                return null;
+            }
+            samples.add(sample);
+            if (samples.size() < target) {
+                return null;
+            }
+            complete = true;
+            return List.copyOf(samples);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.task.founding.engineer.dictionary;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A map bounded to about {@code maxEntries} with CLOCK (second-chance) eviction: an entry read
+ * since the hand last passed it gets one more sweep before it is evicted. Reads never lock: a hit only sets the entry's referenced bit,
+ * and only when it is not set yet, so hot entries are not written on every read. Writes, which
+ * only happen on a miss, evict under a lock that no reader takes: the clock hand sweeps the
+ * entries, clears the referenced bits it passes and evicts the first entry it finds without one.
+ * A writer that finds another one evicting leaves the eviction to it, so the map may briefly hold
+ * a few entries more than the bound.
+ */
+class ClockCache<K, V> {
+
+    private final int maxEntries;
+    private final ConcurrentHashMap<K, Node<V>> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    // Guarded by evictionLock; weakly consistent, so it survives concurrent puts and removals
+    private Iterator<Map.Entry<K, Node<V>>> hand;
+
+    ClockCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    V get(K key) {
+        Node<V> node = entries.get(key);
+        if (Objects.isNull(node)) {
+            return null;
+        }
+        if (!node.referenced) {
+            node.referenced = true;
+        }
+        return node.value;
+    }
+
+    void put(K key, V value) {
+        entries.put(key, new Node<>(value));
+        if (entries.size() > maxEntries && evictionLock.tryLock()) {
+            try {
+                evict(key);
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    // Two passes of the hand are enough to find an unreferenced entry; the bound stops the sweep
+    // should concurrent writers keep refilling the map
+    private void evict(K inserted) {
+        int steps = 2 * entries.size() + 1;
+        while (entries.size() > maxEntries && steps-- > 0) {
+            if (Objects.isNull(hand) || !hand.hasNext()) {
+                hand = entries.entrySet().iterator();
+                if (!hand.hasNext()) {
+                    return;
+                }
+            }
+            Map.Entry<K, Node<V>> entry = hand.next();
+            if (entry.getKey().equals(inserted)) {
+                continue;
+            }
+            Node<V> node = entry.getValue();
+            if (node.referenced) {
+                node.referenced = false;
+            } else {
+                entries.remove(entry.getKey(), node);
+            }
+        }
+    }
+
+    private static final class Node<V> {
+
+        private final V value;
+        private volatile boolean referenced;
+
+        private Node(V value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.task.founding.engineer.dictionary;
+
+import com.task.founding.engineer.enums.DictionaryKind;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * Fills the code columns of rows written before they existed, so filters on codes see every row.
+ * Runs in the background, so startup does not wait for it.
+ * <p>
+ * Walks each table in primary key order, {@code batch-size} rows per transaction and at most
+ * {@code max-rows-per-run} rows per run: the uncoded values of a key range are interned with one
+ * insert, and the range is coded by one update that looks up each value's digest on the unique
+ * index of {@code xray_dictionary}. Every statement is bounded to the key range, so none scans the
+ * table.
+ * Once a table has been walked to its end it is not visited again until a restart; disable the job
+ * once every table is coded. Rejection reasons stored only as a zstd frame are left uncoded.
+ */
+@Slf4j
+@Component
+public class DictionaryBackfill {
+
+    private static final List<CodedColumn> COLUMNS = List.of(
+            new CodedColumn(DictionaryKind.PIPELINE_TYPE, "xray_runs", "run_id", "pipeline_type", "pipeline_type_code"),
+            new CodedColumn(DictionaryKind.STEP_NAME, "xray_steps", "step_id", "step_name", "step_name_code"),
+            new CodedColumn(DictionaryKind.STEP_TYPE, "xray_steps", "step_id", "step_type", "step_type_code"),
+            new CodedColumn(DictionaryKind.REJECTION_REASON, "xray_candidates", "candidate_id", "rejection_reason", "rejection_reason_code"));
+
+    private final ValueDictionary valueDictionary;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxRowsPerRun;
+
+    // Last primary key walked per column; only touched by the scheduler thread
+    private final Map<CodedColumn, UUID> cursors = new HashMap<>();
+    private final Set<CodedColumn> completed = new HashSet<>();
+
+    public DictionaryBackfill(
+            ValueDictionary valueDictionary,
+            EntityManager entityManager,
+            PlatformTransactionManager transactionManager,
+            @Value("${xray.dictionary.backfill.enabled:true}") boolean enabled,
+            @Value("${xray.dictionary.backfill.batch-size:5000}") int batchSize,
+            @Value("${xray.dictionary.backfill.max-rows-per-run:500000}") int maxRowsPerRun) {
+        this.valueDictionary = valueDictionary;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxRowsPerRun = maxRowsPerRun;
+    }
+
+    @Scheduled(
+            initialDelayString = "${xray.dictionary.backfill.initial-delay:PT30S}",
+            fixedDelayString = "${xray.dictionary.backfill.interval:PT1M}")
+    public void run() {
+        if (!enabled || completed.size() == COLUMNS.size()) {
+            return;
+        }
+        int walked = 0;
+        for (CodedColumn column : COLUMNS) {
+            if (completed.contains(column)) {
+                continue;
+            }
+            int coded = 0;
+            while (walked < maxRowsPerRun) {
+                Batch batch = transactionTemplate.execute(status -> backfillBatch(column, cursors.get(column)));
+                walked += batch.rows();
+                coded += batch.coded();
+                if (batch.rows() > 0) {
+                    cursors.put(column, batch.lastId());
+                }
+                if (batch.rows() < batchSize) {
+                    completed.add(column);
+                    break;
+                }
+            }
+            if (coded > 0) {
+                log.info("Backfilled {} for {} rows of {}", column.codeColumn(), coded, column.table());
+            }
+            if (walked >= maxRowsPerRun) {
+                return;
+            }
+        }
+        log.info("Dictionary backfill complete");
+    }
+
+    /**
+     * Codes the uncoded rows among the next {@code batch-size} primary keys after {@code afterId}.
+     */
+    Batch backfillBatch(CodedColumn column, UUID afterId) {
+        List<UUID> ids = nextIds(column, afterId);
+        if (ids.isEmpty()) {
+            return new Batch(0, 0, afterId);
+        }
+        UUID lastId = ids.getLast();
+        String range = "WHERE " + (Objects.isNull(afterId) ? "" : column.idColumn() + " > :afterId AND ") +
+                column.idColumn() + " <= :lastId AND " + column.codeColumn() + " IS NULL AND " +
+                column.valueColumn() + " IS NOT NULL";
+
+        @SuppressWarnings("unchecked")
+        List<String> values = bindRange(entityManager.createNativeQuery(
+                "SELECT DISTINCT " + column.valueColumn() + " FROM " + column.table() + " " + range), afterId, lastId)
+                .getResultList();
+        if (values.isEmpty()) {
+            return new Batch(ids.size(), 0, lastId);
+        }
+        valueDictionary.encodeAll(column.kind(), values);
+        int coded = bindRange(entityManager.createNativeQuery(
+                        "UPDATE " + column.table() + " SET " + column.codeColumn() + " = (" +
+                        "SELECT d.code FROM xray_dictionary d " +
+                        "WHERE d.kind = :kind AND d.entry_digest = " +
+                        ValueDigest.SQL.formatted(column.table() + "." + column.valueColumn()) + ") " +
+                        range)
+                .setParameter("kind", column.kind().name()), afterId, lastId)
+                .executeUpdate();
+        return new Batch(ids.size(), coded, lastId);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<UUID> nextIds(CodedColumn column, UUID afterId) {
+        Query query = entityManager.createNativeQuery(
+                "SELECT " + column.idColumn() + " FROM " + column.table() + " " +
+                (Objects.isNull(afterId) ? "" : "WHERE " + column.idColumn() + " > :afterId ") +
+                "ORDER BY " + column.idColumn(), UUID.class);
+        if (Objects.nonNull(afterId)) {
+            query.setParameter("afterId", afterId);
+        }
+        return query.setMaxResults(batchSize).getResultList();
+    }
+
+    private static Query bindRange(Query query, UUID afterId, UUID lastId) {
+        if (Objects.nonNull(afterId)) {
+            query.setParameter("afterId", afterId);
+        }
+        return query.setParameter("lastId", lastId);
+    }
+
+    record CodedColumn(DictionaryKind kind, String table, String idColumn, String valueColumn, String codeColumn) {
+    }
+
+    record Batch(int rows, int coded, UUID lastId) {
+    }
+}
@@ -0,0 +1,208 @@
+package com.task.founding.engineer.dictionary;
+
+import com.task.founding.engineer.enums.DictionaryKind;
+import com.task.founding.engineer.model.XRayDictionaryEntry;
+import com.task.founding.engineer.repository.XRayDictionaryEntryRepository;
+import com.task.founding.engineer.transaction.AfterCommit;
+import jakarta.annotation.Nullable;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * Interns pipeline types, step names, step types and rejection reasons into integer codes, which
+ * the hot tables store next to the strings and which filters and group-bys run on.
+ * <p>
+ * Both directions are cached in memory, in CLOCK caches of {@code cache-size} entries
+ * per kind and for decoding, so a long tail of distinct rejection reasons cannot grow the heap
+ * without bound. Cache hits take no lock, so concurrent ingest and reads do not serialize on them.
+ * The {@code xray_dictionary} table is only read on a cache miss, by the {@link ValueDigest digest}
+ * of the value it is unique on. New values are inserted in the caller's transaction, all values of
+ * a call in one statement, and only cached once it commits.
+ * Entries are never deleted and a value's code never changes, so cached mappings never go stale.
+ * The only update is the template {@code ReasonClusteringJob} sets on a rejection reason, once;
+ * a template is cached once it is set, and a reason without one is looked up again.
+ */
+@Component
+public class ValueDictionary {
+
+    // Bound on the IN list of one lookup and the rows of one insert
+    private static final int CHUNK = 1000;
+
+    private final XRayDictionaryEntryRepository entryRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate entryTransaction;
+
+    private final Map<DictionaryKind, ClockCache<String, Integer>> codes = new EnumMap<>(DictionaryKind.class);
+    private final ClockCache<Integer, String> values;
+    private final ClockCache<Integer, Long> templateIds;
+
+    public ValueDictionary(
+            XRayDictionaryEntryRepository entryRepository,
+            EntityManager entityManager,
+            PlatformTransactionManager transactionManager,
+            @Value("${xray.dictionary.cache-size:100000}") int cacheSize) {
+        this.entryRepository = entryRepository;
+        this.entityManager = entityManager;
+        this.entryTransaction = new TransactionTemplate(transactionManager);
+        for (DictionaryKind kind : DictionaryKind.values()) {
+            codes.put(kind, new ClockCache<>(cacheSize));
+        }
+        this.values = new ClockCache<>(cacheSize);
+        this.templateIds = new ClockCache<>(cacheSize);
+    }
+
+    /**
+     * Returns the code of {@code value}, creating a dictionary entry the first time it is seen.
+     */
+    @Nullable
+    public Integer encode(@NotNull DictionaryKind kind, @Nullable String value) {
+        if (Objects.isNull(value)) {
+            return null;
+        }
+        return encodeAll(kind, List.of(value)).get(value);
+    }
+
+    /**
+     * Returns the codes of {@code values} by value, creating the missing entries with one lookup
+     * and one insert. Joins the caller's transaction, so a new entry is rolled back with the rows
+     * that introduced it. Null values are skipped.
+     */
+    public Map<String, Integer> encodeAll(@NotNull DictionaryKind kind, @NotNull Collection<String> values) {
+        Map<String, Integer> result = new HashMap<>();
+        // Sorted, so concurrent inserts lock the unique index entries in the same order
+        SortedSet<String> missing = new TreeSet<>();
+        for (String value : values) {
+            if (Objects.isNull(value) || result.containsKey(value)) {
+                continue;
+            }
+            Integer code = codes.get(kind).get(value);
+            if (Objects.nonNull(code)) {
+                result.put(value, code);
+            } else {
+                missing.add(value);
+            }
+        }
+        if (!missing.isEmpty()) {
+            entryTransaction.executeWithoutResult(status -> intern(kind, missing, result));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the code of {@code value} without creating one; filters on a value that was never
+     * written match nothing.
+     */
+    public Optional<Integer> find(@NotNull DictionaryKind kind, @NotNull String value) {
+        Integer code = codes.get(kind).get(value);
+        if (Objects.nonNull(code)) {
+            return Optional.of(code);
+        }
+        return entryRepository.findByKindAndDigest(kind, ValueDigest.of(value)).map(this::register);
+    }
+
+    @Nullable
+    public String decode(@Nullable Integer code) {
+        if (Objects.isNull(code)) {
+            return null;
+        }
+        String value = values.get(code);
+        if (Objects.nonNull(value)) {
+            return value;
+        }
+        XRayDictionaryEntry entry = entryRepository.findById(code)
+                .orElseThrow(() -> new IllegalStateException("Dictionary entry not found with code: " + code));
+        register(entry);
+        return entry.getValue();
+    }
+
+    /**
+     * Returns the templates of the given rejection reason codes that are clustered, by code, with
+     * at most one lookup for the codes whose template is not cached.
+     */
+    public Map<Integer, Long> templateIds(@NotNull Collection<Integer> reasonCodes) {
+        Map<Integer, Long> result = new HashMap<>();
+        Set<Integer> missing = new HashSet<>();
+        for (Integer code : reasonCodes) {
+            if (Objects.isNull(code)) {
+                continue;
+            }
+            Long templateId = templateIds.get(code);
+            if (Objects.nonNull(templateId)) {
+                result.put(code, templateId);
+            } else {
+                missing.add(code);
+            }
+        }
+        List<Integer> list = new ArrayList<>(missing);
+        for (int from = 0; from < list.size(); from += CHUNK) {
+            for (XRayDictionaryEntry entry : entryRepository.findByCodeInAndTemplateIdIsNotNull(
+                    list.subList(from, Math.min(from + CHUNK, list.size())))) {
+                register(entry);
+                result.put(entry.getCode(), entry.getTemplateId());
+            }
+        }
+        return result;
+    }
+
+    private void intern(DictionaryKind kind, SortedSet<String> missing, Map<String, Integer> result) {
+        for (XRayDictionaryEntry entry : lookup(kind, missing)) {
+            result.put(entry.getValue(), register(entry));
+            missing.remove(entry.getValue());
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        insert(kind, missing);
+        // A value another writer inserted first is skipped by the insert and read back here
+        List<XRayDictionaryEntry> created = lookup(kind, missing);
+        created.forEach(entry -> result.put(entry.getValue(), entry.getCode()));
+        AfterCommit.run(() -> created.forEach(this::register));
+    }
+
+    private List<XRayDictionaryEntry> lookup(DictionaryKind kind, Collection<String> values) {
+        List<String> digests = values.stream().map(ValueDigest::of).toList();
+        List<XRayDictionaryEntry> entries = new ArrayList<>(digests.size());
+        for (int from = 0; from < digests.size(); from += CHUNK) {
+            entries.addAll(entryRepository.findByKindAndDigestIn(kind, digests.subList(from, Math.min(from + CHUNK, digests.size()))));
+        }
+        return entries;
+    }
+
+    // ON CONFLICT DO NOTHING waits for a concurrent insert of the same value and then skips it,
+    // instead of failing the whole statement; the conflict is on the digest, so values of any length
+    // can be inserted
+    private void insert(DictionaryKind kind, Collection<String> values) {
+        List<String> list = new ArrayList<>(values);
+        for (int from = 0; from < list.size(); from += CHUNK) {
+            List<String> chunk = list.subList(from, Math.min(from + CHUNK, list.size()));
+            StringJoiner rows = new StringJoiner(", ");
+            for (int i = 0; i < chunk.size(); i++) {
+                rows.add("(:kind, :d" + i + ", :v" + i + ")");
+            }
+            Query query = entityManager.createNativeQuery(
+                            "INSERT INTO xray_dictionary (kind, entry_digest, entry_value) VALUES " + rows + " ON CONFLICT DO NOTHING")
+                    .setParameter("kind", kind.name());
+            for (int i = 0; i < chunk.size(); i++) {
+                query.setParameter("d" + i, ValueDigest.of(chunk.get(i)))
+                        .setParameter("v" + i, chunk.get(i));
+            }
+            query.executeUpdate();
+        }
+    }
+
+    private Integer register(XRayDictionaryEntry entry) {
+        codes.get(entry.getKind()).put(entry.getValue(), entry.getCode());
+        values.put(entry.getCode(), entry.getValue());
+        if (Objects.nonNull(entry.getTemplateId())) {
+            templateIds.put(entry.getCode(), entry.getTemplateId());
+        }
+        return entry.getCode();
+    }
+}
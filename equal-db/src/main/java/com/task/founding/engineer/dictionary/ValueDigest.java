@@ -0,0 +1,33 @@
+package com.task.founding.engineer.dictionary;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * The digest {@code xray_dictionary} is unique on, in place of the value itself: a B-tree index
+ * entry is limited to about 2.7 KB, and rejection reasons can be far longer. Lowercase hex of the
+ * SHA-256 of the value's UTF-8 bytes, the same as {@link #SQL} computes in PostgreSQL.
+ */
+public final class ValueDigest {
+
+    /**
+     * The digest of the text column or parameter substituted for {@code %s}, in PostgreSQL.
+     */
+    public static final String SQL = "encode(sha256(convert_to(%s, 'UTF8')), 'hex')";
+
+    private ValueDigest() {
+    }
+
+    public static String of(@NotNull String value) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
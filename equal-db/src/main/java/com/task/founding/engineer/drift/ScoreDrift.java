@@ -0,0 +1,124 @@
+package com.task.founding.engineer.drift;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Two-sample statistics of score distributions, on sorted samples.
+ * <p>
+ * The Kolmogorov-Smirnov statistic is the largest distance between the two empirical CDFs; its
+ * p-value uses the asymptotic Kolmogorov distribution, so it is only meaningful for samples of a
+ * few dozen scores or more. The population stability index bins both samples at the baseline's
+ * deciles; by the usual rule of thumb, below 0.1 is stable and above 0.25 is a significant shift.
+ */
+public final class ScoreDrift {
+
+    public static final int PSI_BINS = 10;
+
+    // Share given to a bin no score fell into, so the index stays finite
+    private static final double EMPTY_BIN_SHARE = 1e-4;
+
+    private ScoreDrift() {
+    }
+
+    public static double ksStatistic(@NotNull double[] baseline, @NotNull double[] current) {
+        int i = 0;
+        int j = 0;
+        double distance = 0.0;
+        while (i < baseline.length && j < current.length) {
+            // Step past every copy of the smaller value in both samples, so ties move together
+            double value = Math.min(baseline[i], current[j]);
+            while (i < baseline.length && baseline[i] == value) {
+                i++;
+            }
+            while (j < current.length && current[j] == value) {
+                j++;
+            }
+            distance = Math.max(distance, Math.abs(i / (double) baseline.length - j / (double) current.length));
+        }
+        return distance;
+    }
+
+    /**
+     * Probability of a KS statistic at least this large if both samples came from one distribution.
+     */
+    public static double ksPValue(double statistic, int baselineSize, int currentSize) {
+        double effective = baselineSize * (double) currentSize / (baselineSize + currentSize);
+        double sqrtEffective = Math.sqrt(effective);
+        double lambda = (sqrtEffective + 0.12 + 0.11 / sqrtEffective) * statistic;
+        if (lambda < 0.2) {
+            return 1.0;
+        }
+        double sum = 0.0;
+        double sign = 1.0;
+        for (int k = 1; k <= 100; k++) {
+            double term = sign * Math.exp(-2.0 * k * k * lambda * lambda);
+            sum += term;
+            if (Math.abs(term) < 1e-12) {
+                break;
+            }
+            sign = -sign;
+        }
+        return Math.clamp(2.0 * sum, 0.0, 1.0);
+    }
+
+    public static double psi(@NotNull double[] baseline, @NotNull double[] current) {
+        double[] edges = decileEdges(baseline);
+        double[] baselineShares = shares(baseline, edges);
+        double[] currentShares = shares(current, edges);
+        double index = 0.0;
+        for (int bin = 0; bin < baselineShares.length; bin++) {
+            double expected = Math.max(baselineShares[bin], EMPTY_BIN_SHARE);
+            double actual = Math.max(currentShares[bin], EMPTY_BIN_SHARE);
+            index += (actual - expected) * Math.log(actual / expected);
+        }
+        return index;
+    }
+
+    /**
+     * Linear interpolation between the closest ranks of a sorted sample.
+     */
+    public static double quantile(@NotNull double[] sorted, double probability) {
+        double rank = probability * (sorted.length - 1);
+        int lower = (int) Math.floor(rank);
+        int upper = Math.min(lower + 1, sorted.length - 1);
+        return sorted[lower] + (rank - lower) * (sorted[upper] - sorted[lower]);
+    }
+
+    // Inner bin edges at the baseline's deciles; repeated scores collapse bins into one
+    private static double[] decileEdges(double[] baseline) {
+        double[] edges = new double[PSI_BINS - 1];
+        for (int bin = 1; bin < PSI_BINS; bin++) {
+            edges[bin - 1] = quantile(baseline, bin / (double) PSI_BINS);
+        }
+        return Arrays.stream(edges).distinct().toArray();
+    }
+
+    // A score equal to an edge falls into the bin above it
+    private static double[] shares(double[] sorted, double[] edges) {
+        double[] shares = new double[edges.length + 1];
+        int from = 0;
+        for (int bin = 0; bin < edges.length; bin++) {
+            int to = lowerBound(sorted, edges[bin]);
+            shares[bin] = (to - from) / (double) sorted.length;
+            from = to;
+        }
+        shares[edges.length] = (sorted.length - from) / (double) sorted.length;
+        return shares;
+    }
+
+    private static int lowerBound(double[] sorted, double value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
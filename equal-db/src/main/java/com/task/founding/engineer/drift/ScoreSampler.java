@@ -0,0 +1,96 @@
+package com.task.founding.engineer.drift;
+
+import com.task.founding.engineer.columnar.StepColumnCache;
+import com.task.founding.engineer.columnar.StepColumns;
+import com.task.founding.engineer.model.XRayStep;
+import com.task.founding.engineer.repository.XRayCandidateRepository;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.DoubleStream;
+
+/**
+ * Sample of the scores of a set of steps at one rate of {@code 1/k}, with {@code k} chosen so
+ * about {@code sample-size} scores are returned.
+ * <p>
+ * Steps whose {@link StepColumns} are already resident in the column cache are sampled in memory,
+ * every {@code k}-th candidate; a sample never backfills the cache. The other steps are sampled
+ * in SQL on the candidate id: ids are random UUIDs, so ids up to {@code 1/k} of the UUID range
+ * are a uniform sample, and only their scores leave the database. PostgreSQL still visits every
+ * candidate of those steps through the {@code step_id} index to apply the bound. Candidates
+ * without a score are skipped, so the sample may be smaller.
+ */
+@Component
+public class ScoreSampler {
+
+    // Bound on the IN list of one fallback query
+    private static final int LOOKUP_CHUNK = 1000;
+
+    private final StepColumnCache stepColumnCache;
+    private final XRayCandidateRepository candidateRepository;
+    private final int sampleSize;
+
+    /**
+     * Sorted sampled scores and the number of candidates they were drawn from.
+     */
+    public record ScoreSample(double[] scores, long candidates) {
+    }
+
+    public ScoreSampler(
+            StepColumnCache stepColumnCache,
+            XRayCandidateRepository candidateRepository,
+            @Value("${xray.score-drift.sample-size:100000}") int sampleSize) {
+        this.stepColumnCache = stepColumnCache;
+        this.candidateRepository = candidateRepository;
+        this.sampleSize = sampleSize;
+    }
+
+    public ScoreSample sample(@NotNull List<XRayStep> steps) {
+        StepColumnCache.Scan<StepColumns> scan = stepColumnCache.scanResident(steps, columns -> columns);
+        List<UUID> uncached = scan.uncached().stream().map(XRayStep::getStepId).toList();
+
+        long candidates = 0;
+        for (StepColumns columns : scan.results().values()) {
+            candidates += columns.size();
+        }
+        for (int from = 0; from < uncached.size(); from += LOOKUP_CHUNK) {
+            candidates += candidateRepository.countByStepIdIn(uncached.subList(from, Math.min(from + LOOKUP_CHUNK, uncached.size())));
+        }
+        long stride = Math.max(1, Math.ceilDiv(candidates, sampleSize));
+
+        DoubleStream.Builder scores = DoubleStream.builder();
+        // Position of the next candidate across the cached steps; those at multiples of the stride are taken
+        long position = 0;
+        for (StepColumns columns : scan.results().values()) {
+            for (long index = Math.floorMod(-position, stride); index < columns.size(); index += stride) {
+                double score = columns.score((int) index);
+                if (!Double.isNaN(score)) {
+                    scores.add(score);
+                }
+            }
+            position += columns.size();
+        }
+        UUID maxCandidateId = maxCandidateId(stride);
+        for (int from = 0; from < uncached.size(); from += LOOKUP_CHUNK) {
+            candidateRepository.findSampledScores(uncached.subList(from, Math.min(from + LOOKUP_CHUNK, uncached.size())), maxCandidateId)
+                    .forEach(scores::add);
+        }
+
+        double[] sample = scores.build().toArray();
+        Arrays.sort(sample);
+        return new ScoreSample(sample, candidates);
+    }
+
+    public int sampleSize() {
+        return sampleSize;
+    }
+
+    // Bound keeping 1/stride of the UUID range; UUIDs compare as unsigned bytes in PostgreSQL
+    static UUID maxCandidateId(long stride) {
+        return new UUID(Long.divideUnsigned(-1L, stride), -1L);
+    }
+}
@@ -0,0 +1,50 @@
+package com.task.founding.engineer.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CandidateSearchRequestDTO {
+
+    private String pipelineType;
+
+    private String stepName;
+
+    // Window on step start time; required so every search is bounded
+    @NotNull(message = "startDate is required")
+    private LocalDateTime startDate;
+
+    private LocalDateTime endDate;
+
+    private Boolean selected;
+
+    private Double minScore;
+
+    private Double maxScore;
+
+    @Valid
+    @Builder.Default
+    private List<JsonPathPredicateDTO> predicates = new ArrayList<>();
+
+    @Min(value = 0, message = "page must not be negative")
+    @Builder.Default
+    private Integer page = 0;
+
+    @Min(value = 1, message = "size must be positive")
+    @Max(value = 500, message = "size must be at most 500")
+    @Builder.Default
+    private Integer size = 50;
+}
@@ -0,0 +1,18 @@
+package com.task.founding.engineer.dto.request;
+
+import com.task.founding.engineer.json.RawJson;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompleteStepRequestDTO {
+
+    private RawJson output;
+
+    private String reasoning;
+}
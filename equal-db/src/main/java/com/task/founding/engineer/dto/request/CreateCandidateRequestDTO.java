@@ -1,13 +1,12 @@
 package com.task.founding.engineer.dto.request;
 
+import com.task.founding.engineer.json.RawJson;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.Map;
-
 @Data
 @Builder
 @NoArgsConstructor
@@ -15,7 +14,7 @@ import java.util.Map;
 public class CreateCandidateRequestDTO {
 
     @NotNull(message = "data is required")
-    private Map<String, Object> data;
+    private RawJson data;
 
     private Double score;
 
@@ -24,6 +23,6 @@ public class CreateCandidateRequestDTO {
 
     private String rejectionReason;
 
-    private Map<String, Object> metadata;
+    private RawJson metadata;
 }
 
@@ -1,5 +1,6 @@
 package com.task.founding.engineer.dto.request;
 
+import com.task.founding.engineer.json.RawJson;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -7,8 +8,6 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.antlr.v4.runtime.misc.NotNull;
 
-import java.util.Map;
-
 @Data
 @Builder
 @NoArgsConstructor
@@ -22,6 +21,6 @@ public class CreateRunRequestDTO {
     private String pipelineId;
 
     @NotNull
-    private Map<String, Object> input;
+    private RawJson input;
 }
 
@@ -1,5 +1,6 @@
 package com.task.founding.engineer.dto.request;
 
+import com.task.founding.engineer.json.RawJson;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -8,7 +9,6 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
-import java.util.Map;
 
 @Data
 @Builder
@@ -25,13 +25,13 @@ public class CreateStepRequestDTO {
     @NotNull(message = "order is required")
     private Integer order;
 
-    private Map<String, Object> input;
+    private RawJson input;
 
-    private Map<String, Object> output;
+    private RawJson output;
 
     private String reasoning;
 
-    private Map<String, Object> metadata;
+    private RawJson metadata;
 
     private List<CreateCandidateRequestDTO> candidates;
 }
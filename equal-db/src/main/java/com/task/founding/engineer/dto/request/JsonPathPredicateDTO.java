@@ -0,0 +1,26 @@
+package com.task.founding.engineer.dto.request;
+
+import com.task.founding.engineer.json.RawJson;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Equality on a JSON path of a candidate, e.g. {@code data.attributes.category = "shoes"}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JsonPathPredicateDTO {
+
+    // Dot-separated, rooted at "data" or "metadata"
+    @NotBlank(message = "path is required")
+    private String path;
+
+    @NotNull(message = "value is required")
+    private RawJson value;
+}
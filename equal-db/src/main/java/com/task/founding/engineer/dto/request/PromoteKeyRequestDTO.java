@@ -0,0 +1,18 @@
+package com.task.founding.engineer.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PromoteKeyRequestDTO {
+
+    // A data path such as data.sku or data.attributes.category
+    @NotBlank(message = "path is required")
+    private String path;
+}
@@ -0,0 +1,43 @@
+package com.task.founding.engineer.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WhatIfRequestDTO {
+
+    private String pipelineType;
+
+    @NotBlank(message = "stepName is required")
+    private String stepName;
+
+    // Window on step start time
+    @NotNull(message = "startDate is required")
+    private LocalDateTime startDate;
+
+    private LocalDateTime endDate;
+
+    // One scenario per threshold; without any, a single scenario of the rules alone
+    @Size(max = 50, message = "at most 50 minScores")
+    @Builder.Default
+    private List<Double> minScores = new ArrayList<>();
+
+    // All rules must match, in every scenario
+    @Valid
+    @Size(max = 10, message = "at most 10 rules")
+    @Builder.Default
+    private List<WhatIfRuleDTO> rules = new ArrayList<>();
+}
@@ -0,0 +1,29 @@
+package com.task.founding.engineer.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Rule on a promoted data key, e.g. {@code data.price lte 100}; see WhatIfOperator.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WhatIfRuleDTO {
+
+    // A promoted data path, e.g. data.price
+    @NotBlank(message = "path is required")
+    private String path;
+
+    // eq, ne, lt, lte, gt or gte
+    @NotBlank(message = "operator is required")
+    private String operator;
+
+    @NotNull(message = "value is required")
+    private String value;
+}
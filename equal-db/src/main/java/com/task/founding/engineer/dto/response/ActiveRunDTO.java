@@ -0,0 +1,21 @@
+package com.task.founding.engineer.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActiveRunDTO {
+    private UUID runId;
+    private String pipelineType;
+    private LocalDateTime startedAt;
+    // Latest start of the run or start or completion of one of its steps
+    private LocalDateTime lastActivityAt;
+}
@@ -1,11 +1,11 @@
 package com.task.founding.engineer.dto.response;
 
+import com.task.founding.engineer.json.RawJson;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.Map;
 import java.util.UUID;
 
 @Data
@@ -16,10 +16,10 @@ public class CandidateResponseDTO {
 
     private UUID candidateId;
     private UUID stepId;
-    private Map<String, Object> data;
+    private RawJson data;
     private Double score;
     private Boolean selected;
     private String rejectionReason;
-    private Map<String, Object> metadata;
+    private RawJson metadata;
 }
 
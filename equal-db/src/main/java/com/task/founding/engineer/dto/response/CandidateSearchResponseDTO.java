@@ -0,0 +1,19 @@
+package com.task.founding.engineer.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CandidateSearchResponseDTO {
+    private List<CandidateResponseDTO> candidates;
+    private Integer page;
+    private Integer size;
+    private Boolean hasNext;
+}
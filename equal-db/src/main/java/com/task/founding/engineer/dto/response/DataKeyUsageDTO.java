@@ -0,0 +1,19 @@
+package com.task.founding.engineer.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DataKeyUsageDTO {
+    // "*" for searches without a pipelineType
+    private String pipelineType;
+    private String path;
+    private Long queries;
+    // Set once the path has a ready promoted index
+    private String promotedIndex;
+}
@@ -0,0 +1,16 @@
+package com.task.founding.engineer.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DecisionMatrixCellDTO {
+    private Boolean selected;
+    private Double score;
+    private String rejectionReason;
+}
@@ -0,0 +1,20 @@
+package com.task.founding.engineer.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DecisionMatrixHeaderDTO {
+    private UUID runId;
+    private String pipelineType;
+    // Matrix columns in step order; the cells of every row are aligned with this list
+    private List<DecisionMatrixStepDTO> steps;
+}
@@ -0,0 +1,23 @@
+package com.task.founding.engineer.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DecisionMatrixRowDTO {
+    private String businessKey;
+    // Only for candidates without a business key, which cannot be matched across steps
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private UUID candidateId;
+    // One cell per header step; null where the candidate was not present in that step
+    private List<DecisionMatrixCellDTO> cells;
+}
@@ -0,0 +1,19 @@
+package com.task.founding.engineer.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DecisionMatrixStepDTO {
+    private UUID stepId;
+    private String stepName;
+    private String stepType;
+    private Integer order;
+}
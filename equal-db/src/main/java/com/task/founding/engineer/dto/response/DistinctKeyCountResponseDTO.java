@@ -0,0 +1,28 @@
+package com.task.founding.engineer.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DistinctKeyCountResponseDTO {
+    private String pipelineType;
+    // Null when counting across all steps of the pipeline type
+    private String stepName;
+    // Whole hours: [windowStart, windowEnd)
+    private LocalDateTime windowStart;
+    private LocalDateTime windowEnd;
+    // Estimated distinct business keys in the whole window
+    private Long distinctKeys;
+    // Relative standard error of every estimate in the response
+    private Double standardError;
+    // Per hour or day of the window, oldest first; buckets without keys are left out
+    private List<DistinctKeyBucketDTO> buckets;
+}
@@ -0,0 +1,18 @@
+package com.task.founding.engineer.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LineageResponseDTO {
+    private String businessKey;
+    // Most recent run first, at most `limit` runs
+    private List<LineageRunDTO> runs;
+}
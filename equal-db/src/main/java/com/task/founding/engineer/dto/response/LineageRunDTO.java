@@ -0,0 +1,25 @@
+package com.task.founding.engineer.dto.response;
+
+import com.task.founding.engineer.enums.RunStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LineageRunDTO {
+    private UUID runId;
+    private String pipelineType;
+    private String pipelineId;
+    private RunStatus status;
+    private LocalDateTime startedAt;
+    // Steps in which the candidate appeared, in step order
+    private List<LineageStepDTO> steps;
+}
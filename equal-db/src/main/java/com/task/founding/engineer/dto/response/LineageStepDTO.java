@@ -0,0 +1,23 @@
+package com.task.founding.engineer.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LineageStepDTO {
+    private UUID stepId;
+    private String stepName;
+    private String stepType;
+    private Integer order;
+    private UUID candidateId;
+    private Boolean selected;
+    private Double score;
+    private String rejectionReason;
+}
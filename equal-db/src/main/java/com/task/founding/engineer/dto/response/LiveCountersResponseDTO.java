@@ -0,0 +1,20 @@
+package com.task.founding.engineer.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LiveCountersResponseDTO {
+    // Counts cover the whole seconds before asOf, on the instance that answered
+    private LocalDateTime asOf;
+    // By pipeline type; types with no events since startup are absent
+    private List<LivePipelineCountersDTO> pipelines;
+}
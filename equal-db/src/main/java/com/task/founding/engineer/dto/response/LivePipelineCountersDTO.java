@@ -0,0 +1,26 @@
+package com.task.founding.engineer.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LivePipelineCountersDTO {
+    private String pipelineType;
+    // Last 60 seconds
+    private Long runsStartedPerMinute;
+    private Long runsCompletedPerMinute;
+    private Long runsFailedPerMinute;
+    private Long candidatesPerMinute;
+    // Averaged over the last 10 seconds
+    private Double candidatesPerSecond;
+    // Since the instance started
+    private Long runsStartedTotal;
+    private Long runsCompletedTotal;
+    private Long runsFailedTotal;
+    private Long candidatesTotal;
+}
@@ -0,0 +1,22 @@
+package com.task.founding.engineer.dto.response;
+
+import com.task.founding.engineer.enums.PromotionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PromotedKeyResponseDTO {
+    private String path;
+    private String indexName;
+    private PromotionStatus status;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime readyAt;
+}
@@ -0,0 +1,18 @@
+package com.task.founding.engineer.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RejectedKeyCountDTO {
+    private String businessKey;
+    // Upper bound on the rejections of the key
+    private Long count;
+    // Rejections certainly counted for the key; equal to count unless it took over another key's counter
+    private Long guaranteedCount;
+}
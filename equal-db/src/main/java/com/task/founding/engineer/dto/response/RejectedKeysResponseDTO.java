@@ -0,0 +1,24 @@
+package com.task.founding.engineer.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RejectedKeysResponseDTO {
+    private String stepName;
+    // Whole hours: [windowStart, windowEnd)
+    private LocalDateTime windowStart;
+    private LocalDateTime windowEnd;
+    // Rejections of keyed candidates in the window, including keys not listed
+    private Long totalRejections;
+    // Most rejected first, at most `limit` entries
+    private List<RejectedKeyCountDTO> keys;
+}
@@ -0,0 +1,20 @@
+package com.task.founding.engineer.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RejectionReasonBreakdownResponseDTO {
+    private Long totalRejected;
+    // Rejected candidates without a (coded) reason; counted in totalRejected, not listed in reasons
+    private Long unspecifiedCount;
+    // Most frequent first, at most `limit` entries; shares are of totalRejected
+    private List<RejectionReasonCountDTO> reasons;
+}
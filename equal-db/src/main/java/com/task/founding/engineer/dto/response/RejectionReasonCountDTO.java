@@ -0,0 +1,20 @@
+package com.task.founding.engineer.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RejectionReasonCountDTO {
+    // Set when grouped by template; reason is then the template's masked pattern
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long templateId;
+    private String reason;
+    private Long count;
+    private Double share;
+}
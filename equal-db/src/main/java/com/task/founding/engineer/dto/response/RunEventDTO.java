@@ -0,0 +1,29 @@
+package com.task.founding.engineer.dto.response;
+
+import com.task.founding.engineer.enums.RunEventType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class RunEventDTO {
+    private RunEventType type;
+    private UUID runId;
+    // Run events only
+    private String pipelineType;
+    // Step events only
+    private UUID stepId;
+    private String stepName;
+    private Integer order;
+    // Candidates appended by this batch, and how many of them were selected
+    private Integer candidates;
+    private Integer selected;
+    private LocalDateTime occurredAt;
+}
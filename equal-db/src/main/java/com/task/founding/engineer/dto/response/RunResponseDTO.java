@@ -1,6 +1,8 @@
 package com.task.founding.engineer.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.task.founding.engineer.enums.RunStatus;
+import com.task.founding.engineer.json.RawJson;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -8,7 +10,6 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 
 @Data
@@ -23,8 +24,10 @@ public class RunResponseDTO {
     private LocalDateTime startedAt;
     private LocalDateTime completedAt;
     private RunStatus status;
-    private Map<String, Object> input;
-    private Map<String, Object> output;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private RawJson input;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private RawJson output;
     private List<StepResponseDTO> steps;
 }
 
@@ -0,0 +1,26 @@
+package com.task.founding.engineer.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoreDriftResponseDTO {
+    private String stepName;
+    private ScoreWindowDTO baseline;
+    private ScoreWindowDTO current;
+    // Largest distance between the two windows' score CDFs, 0 to 1; null if either window has no scores
+    private Double ksStatistic;
+    // Asymptotic p-value of ksStatistic over the sampled scores
+    private Double ksPValue;
+    // Population stability index over the baseline's score deciles
+    private Double psi;
+    // Current minus baseline score at fixed quantiles
+    private List<ScoreQuantileDeltaDTO> quantiles;
+}
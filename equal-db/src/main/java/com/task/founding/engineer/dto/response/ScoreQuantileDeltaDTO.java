@@ -0,0 +1,17 @@
+package com.task.founding.engineer.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoreQuantileDeltaDTO {
+    private Double quantile;
+    private Double baseline;
+    private Double current;
+    private Double delta;
+}
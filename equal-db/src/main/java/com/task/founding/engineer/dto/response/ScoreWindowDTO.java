@@ -0,0 +1,24 @@
+package com.task.founding.engineer.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoreWindowDTO {
+    // Steps started in [windowStart, windowEnd)
+    private LocalDateTime windowStart;
+    private LocalDateTime windowEnd;
+    private Long steps;
+    // All candidates of the steps, with or without a score
+    private Long candidates;
+    // Scores in the sample the statistics are computed from
+    private Long sampledScores;
+    private Double meanScore;
+}
@@ -0,0 +1,23 @@
+package com.task.founding.engineer.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StepMembershipResponseDTO {
+    private String businessKey;
+    private String stepName;
+    // Steps whose filters were checked, at most `limit`, most recent first
+    private Integer stepsScanned;
+    // Steps whose filter matched; only these were checked against xray_candidates
+    private Integer probableHits;
+    // Steps that really had a candidate with the key, most recent first
+    private List<StepMembershipDTO> steps;
+}
@@ -1,6 +1,8 @@
 package com.task.founding.engineer.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.task.founding.engineer.enums.StepStatus;
+import com.task.founding.engineer.json.RawJson;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -8,7 +10,6 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 
 @Data
@@ -25,10 +26,14 @@ public class StepResponseDTO {
     private LocalDateTime startedAt;
     private LocalDateTime completedAt;
     private StepStatus status;
-    private Map<String, Object> input;
-    private Map<String, Object> output;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private RawJson input;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private RawJson output;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String reasoning;
-    private Map<String, Object> metadata;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private RawJson metadata;
     private List<CandidateResponseDTO> candidates;
 }
 
@@ -0,0 +1,26 @@
+package com.task.founding.engineer.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WhatIfResponseDTO {
+    private String stepName;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private Long candidates;
+    // Candidates without a score; they never pass a threshold
+    private Long unscoredCandidates;
+    private Long historicalSelected;
+    private Double historicalSelectionRate;
+    // In the order of the requested minScores
+    private List<WhatIfScenarioDTO> scenarios;
+}
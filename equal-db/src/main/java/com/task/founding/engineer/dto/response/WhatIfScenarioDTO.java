@@ -0,0 +1,25 @@
+package com.task.founding.engineer.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WhatIfScenarioDTO {
+    // Null for the scenario of the rules alone
+    private Double minScore;
+    private Long selected;
+    private Double selectionRate;
+    // selectionRate minus the historical selection rate
+    private Double selectionRateChange;
+    // Selected both by the scenario and historically
+    private Long keptSelected;
+    private Long newlySelected;
+    private Long newlyRejected;
+    // Share of candidates whose outcome the scenario leaves unchanged
+    private Double agreementRate;
+}
@@ -0,0 +1,11 @@
+package com.task.founding.engineer.enums;
+
+/**
+ * Repeated string columns that are interned into integer codes; see {@code ValueDictionary}.
+ */
+public enum DictionaryKind {
+    PIPELINE_TYPE,
+    STEP_NAME,
+    STEP_TYPE,
+    REJECTION_REASON
+}
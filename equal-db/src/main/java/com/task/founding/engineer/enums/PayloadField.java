@@ -0,0 +1,47 @@
+package com.task.founding.engineer.enums;
+
+import jakarta.annotation.Nullable;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Large run/step columns that are loaded lazily and only returned when requested via {@code include=}.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum PayloadField {
+    INPUT("input"),
+    OUTPUT("output"),
+    METADATA("metadata"),
+    REASONING("reasoning");
+
+    private final String attributeName;
+
+    public static Set<PayloadField> parse(@Nullable Collection<String> names) {
+        Set<PayloadField> fields = EnumSet.noneOf(PayloadField.class);
+        if (Objects.isNull(names)) {
+            return fields;
+        }
+        for (String name : names) {
+            if (name.isBlank()) {
+                continue;
+            }
+            fields.add(fromName(name.trim()));
+        }
+        return fields;
+    }
+
+    private static PayloadField fromName(String name) {
+        for (PayloadField field : values()) {
+            if (field.attributeName.equalsIgnoreCase(name)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown include field: " + name);
+    }
+}
@@ -0,0 +1,11 @@
+package com.task.founding.engineer.enums;
+
+/**
+ * Lifecycle of a data key promoted to an expression index; see {@code PromotedKeyMigrator}.
+ */
+public enum PromotionStatus {
+    PENDING,
+    BUILDING,
+    READY,
+    FAILED
+}
@@ -0,0 +1,32 @@
+package com.task.founding.engineer.enums;
+
+import jakarta.annotation.Nullable;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Objects;
+
+/**
+ * How the rejection reason breakdown groups candidates: by exact reason text, or by the
+ * near-duplicate template the reason was clustered into.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum RejectionReasonGrouping {
+    REASON("reason"),
+    TEMPLATE("template");
+
+    private final String parameterValue;
+
+    public static RejectionReasonGrouping parse(@Nullable String value) {
+        if (Objects.isNull(value) || value.isBlank()) {
+            return REASON;
+        }
+        for (RejectionReasonGrouping grouping : values()) {
+            if (grouping.parameterValue.equalsIgnoreCase(value.trim())) {
+                return grouping;
+            }
+        }
+        throw new IllegalArgumentException("Unknown groupBy: " + value);
+    }
+}
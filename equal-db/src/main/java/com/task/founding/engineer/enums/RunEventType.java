@@ -0,0 +1,20 @@
+package com.task.founding.engineer.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * What a live run event reports; a terminal event is the last one of its run.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum RunEventType {
+    RUN_STARTED("run_started", false),
+    STEP_CREATED("step_created", false),
+    CANDIDATES_APPENDED("candidates_appended", false),
+    RUN_COMPLETED("run_completed", true),
+    RUN_FAILED("run_failed", true);
+
+    private final String eventName;
+    private final boolean terminal;
+}
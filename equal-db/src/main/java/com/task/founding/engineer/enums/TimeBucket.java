@@ -0,0 +1,42 @@
+package com.task.founding.engineer.enums;
+
+import jakarta.annotation.Nullable;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+
+/**
+ * How a windowed count is broken down over time: not at all, or per hour or day of the window.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum TimeBucket {
+    NONE("none", null),
+    HOUR("hour", ChronoUnit.HOURS),
+    DAY("day", ChronoUnit.DAYS);
+
+    private final String parameterValue;
+    private final ChronoUnit unit;
+
+    public static TimeBucket parse(@Nullable String value) {
+        if (Objects.isNull(value) || value.isBlank()) {
+            return NONE;
+        }
+        for (TimeBucket bucket : values()) {
+            if (bucket.parameterValue.equalsIgnoreCase(value.trim())) {
+                return bucket;
+            }
+        }
+        throw new IllegalArgumentException("Unknown bucket: " + value);
+    }
+
+    /**
+     * Start of the bucket containing {@code time}.
+     */
+    public LocalDateTime truncate(LocalDateTime time) {
+        return Objects.isNull(unit) ? time : time.truncatedTo(unit);
+    }
+}
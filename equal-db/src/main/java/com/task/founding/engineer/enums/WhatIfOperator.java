@@ -0,0 +1,59 @@
+package com.task.founding.engineer.enums;
+
+import jakarta.annotation.Nullable;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Objects;
+
+/**
+ * Comparison of a what-if rule: {@code eq}/{@code ne} compare the key's text, the others compare
+ * it as a number. A candidate without the key, or with a non-numeric value under a numeric
+ * comparison, never matches.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum WhatIfOperator {
+    EQ("eq", false),
+    NE("ne", false),
+    LT("lt", true),
+    LTE("lte", true),
+    GT("gt", true),
+    GTE("gte", true);
+
+    private final String parameterValue;
+    private final boolean numeric;
+
+    public static WhatIfOperator parse(@Nullable String value) {
+        if (Objects.nonNull(value)) {
+            for (WhatIfOperator operator : values()) {
+                if (operator.parameterValue.equalsIgnoreCase(value.trim())) {
+                    return operator;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unknown rule operator: " + value);
+    }
+
+    public boolean matches(@Nullable String value, String operand) {
+        if (Objects.isNull(value)) {
+            return false;
+        }
+        if (!numeric) {
+            return this == EQ ? value.equals(operand) : !value.equals(operand);
+        }
+        double number;
+        try {
+            number = Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        int comparison = Double.compare(number, Double.parseDouble(operand));
+        return switch (this) {
+            case LT -> comparison < 0;
+            case LTE -> comparison <= 0;
+            case GT -> comparison > 0;
+            default -> comparison >= 0;
+        };
+    }
+}
@@ -0,0 +1,66 @@
+package com.task.founding.engineer.json;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.fasterxml.jackson.annotation.JsonValue;
+import tools.jackson.databind.annotation.JsonDeserialize;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Objects;
+
+/**
+ * Immutable holder for an already-serialized JSON document.
+ * <p>
+ * Request bodies are copied into it token by token, it is written to JSONB columns as-is and
+ * rendered back into responses as a raw value, so payloads never become {@code Map} trees.
+ */
+@JsonDeserialize(using = RawJsonDeserializer.class)
+public final class RawJson {
+
+    private static final JsonMapper MAPPER = JsonMapper.builder().build();
+
+    private final String json;
+
+    private RawJson(String json) {
+        this.json = json;
+    }
+
+    public static RawJson of(String json) {
+        return Objects.nonNull(json) ? new RawJson(json) : null;
+    }
+
+    /**
+     * Serializes an object tree once. Only meant for callers that already hold one;
+     * the request/response path never goes through here.
+     */
+    public static RawJson fromValue(Object value) {
+        return Objects.nonNull(value) ? new RawJson(MAPPER.writeValueAsString(value)) : null;
+    }
+
+    @JsonValue
+    @JsonRawValue
+    public String json() {
+        return json;
+    }
+
+    public int length() {
+        return json.length();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof RawJson other && json.equals(other.json);
+    }
+
+    @Override
+    public int hashCode() {
+        return json.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return json;
+    }
+}
@@ -0,0 +1,28 @@
+package com.task.founding.engineer.json;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.ObjectWriteContext;
+import tools.jackson.core.json.JsonFactory;
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.ValueDeserializer;
+
+import java.io.StringWriter;
+
+/**
+ * Copies the current JSON value straight from the parser into a string, one token at a time,
+ * without materializing maps, lists or {@code JsonNode}s.
+ */
+public class RawJsonDeserializer extends ValueDeserializer<RawJson> {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    @Override
+    public RawJson deserialize(JsonParser p, DeserializationContext ctxt) {
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = FACTORY.createGenerator(ObjectWriteContext.empty(), writer)) {
+            generator.copyCurrentStructureExact(p);
+        }
+        return RawJson.of(writer.toString());
+    }
+}
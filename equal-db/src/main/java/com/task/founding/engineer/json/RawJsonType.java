@@ -0,0 +1,84 @@
+package com.task.founding.engineer.json;
+
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.type.descriptor.WrapperOptions;
+import org.hibernate.usertype.UserType;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Objects;
+
+/**
+ * Hibernate mapping for {@link RawJson} attributes stored in JSONB columns.
+ * <p>
+ * The JSON text is bound and read as-is, bypassing Hibernate's JSON {@code FormatMapper}
+ * (which would parse it into an object tree on every read and re-serialize it on every write).
+ */
+public class RawJsonType implements UserType<RawJson> {
+
+    @Override
+    public int getSqlType() {
+        return Types.OTHER;
+    }
+
+    @Override
+    public Class<RawJson> returnedClass() {
+        return RawJson.class;
+    }
+
+    /**
+     * Dirty checking by reference. Values are immutable, so an attribute only changes when a new
+     * {@link RawJson} is assigned; comparing large documents character by character at flush is never needed.
+     */
+    @Override
+    public boolean equals(RawJson x, RawJson y) {
+        return x == y;
+    }
+
+    @Override
+    public int hashCode(RawJson x) {
+        return System.identityHashCode(x);
+    }
+
+    @Override
+    public RawJson nullSafeGet(ResultSet rs, int position, WrapperOptions options) throws SQLException {
+        return RawJson.of(rs.getString(position));
+    }
+
+    @Override
+    public void nullSafeSet(PreparedStatement st, RawJson value, int index, WrapperOptions options)
+            throws SQLException {
+        if (Objects.isNull(value)) {
+            st.setNull(index, Types.OTHER);
+        } else if (options.getDialect() instanceof H2Dialect) {
+            // H2 treats a string parameter as a JSON string literal; UTF-8 bytes are parsed as JSON text
+            st.setBytes(index, value.json().getBytes(StandardCharsets.UTF_8));
+        } else {
+            st.setObject(index, value.json(), Types.OTHER);
+        }
+    }
+
+    @Override
+    public RawJson deepCopy(RawJson value) {
+        return value;
+    }
+
+    @Override
+    public boolean isMutable() {
+        return false;
+    }
+
+    @Override
+    public Serializable disassemble(RawJson value) {
+        return Objects.nonNull(value) ? value.json() : null;
+    }
+
+    @Override
+    public RawJson assemble(Serializable cached, Object owner) {
+        return RawJson.of((String) cached);
+    }
+}
@@ -0,0 +1,89 @@
+package com.task.founding.engineer.lineage;
+
+import com.task.founding.engineer.json.RawJson;
+import com.task.founding.engineer.search.JsonContainment;
+import jakarta.annotation.Nullable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.core.ObjectReadContext;
+import tools.jackson.core.json.JsonFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Extracts the business key of a candidate (the id the pipeline's own domain uses, e.g. a product
+ * id) from its {@code data} at ingest time, so lineage lookups can use an index instead of JSON.
+ * <p>
+ * The key is the first of the configured {@code data} paths holding a string or integer. The
+ * document is streamed and unrelated subtrees are skipped, so no tree is built per candidate.
+ */
+@Component
+public class BusinessKeyExtractor {
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    // Paths without the leading "data" segment
+    private final List<String[]> paths = new ArrayList<>();
+
+    public BusinessKeyExtractor(@Value("${xray.lineage.business-key-paths:data.id}") String[] paths) {
+        for (String path : paths) {
+            String[] segments = JsonContainment.parsePath(path);
+            if (!JsonContainment.DATA.equals(segments[0])) {
+                throw new IllegalArgumentException("Business key paths must be data paths: " + path);
+            }
+            this.paths.add(Arrays.copyOfRange(segments, 1, segments.length));
+        }
+    }
+
+    /**
+     * Returns the business key of {@code data}, or null when no path holds a usable value; keys
+     * longer than {@value #MAX_KEY_LENGTH} characters are not indexed.
+     */
+    @Nullable
+    public String extract(@Nullable RawJson data) {
+        if (Objects.isNull(data)) {
+            return null;
+        }
+        for (String[] path : paths) {
+            String key = find(data.json(), path);
+            if (Objects.nonNull(key) && !key.isEmpty() && key.length() <= MAX_KEY_LENGTH) {
+                return key;
+            }
+        }
+        return null;
+    }
+
+    private static String find(String json, String[] path) {
+        try (JsonParser parser = FACTORY.createParser(ObjectReadContext.empty(), json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            int segment = 0;
+            for (JsonToken token = parser.nextToken(); token == JsonToken.PROPERTY_NAME; token = parser.nextToken()) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (!path[segment].equals(name)) {
+                    parser.skipChildren();
+                    continue;
+                }
+                if (segment == path.length - 1) {
+                    return value == JsonToken.VALUE_STRING || value == JsonToken.VALUE_NUMBER_INT
+                            ? parser.getString()
+                            : null;
+                }
+                if (value != JsonToken.START_OBJECT) {
+                    return null;
+                }
+                segment++;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.task.founding.engineer.lineage;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Split block Bloom filter over business keys, the layout Parquet and Impala use.
+ * <p>
+ * The filter is an array of 256-bit blocks of eight 32-bit words. A key selects one block with
+ * the upper half of its hash and sets one bit in each of the block's words, derived from the lower
+ * half by eight fixed salts. A lookup therefore touches a single cache line, and its eight word
+ * checks have no data dependencies between them, so they are branch-free and vectorizable. At
+ * about 10 bits per key the false positive rate is 1%.
+ * <p>
+ * Serialized as {@code [version:1][capacity:4][count:4][words:4*n]}, big-endian. Hashes are
+ * persisted implicitly, so {@link #hash(String)} must never change for version 1.
+ */
+public final class SplitBlockBloomFilter {
+
+    static final byte VERSION = 1;
+    static final int HEADER_BYTES = 1 + Integer.BYTES + Integer.BYTES;
+
+    private static final int WORDS_PER_BLOCK = 8;
+    private static final int[] SALT = {
+            0x47b6137b, 0x44974d91, 0x8824ad5b, 0xa2b7289d, 0x705495c7, 0x2df1424b, 0x9efc4947, 0x5c6bfb31};
+
+    private final int[] words;
+    private final int capacity;
+    private int count;
+
+    private SplitBlockBloomFilter(int[] words, int capacity, int count) {
+        this.words = words;
+        this.capacity = capacity;
+        this.count = count;
+    }
+
+    /**
+     * An empty filter sized for {@code capacity} keys at false positive rate {@code fpp}.
+     */
+    public static SplitBlockBloomFilter create(int capacity, double fpp) {
+        if (capacity < 1 || fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("Invalid Bloom filter capacity or fpp: " + capacity + ", " + fpp);
+        }
+        // Bits for n keys in blocks of k = 8 bits: m = -k * n / ln(1 - p^(1/k))
+        double bits = -WORDS_PER_BLOCK * (double) capacity / Math.log(1 - Math.pow(fpp, 1.0 / WORDS_PER_BLOCK));
+        int blocks = (int) Math.max(1, Math.ceil(bits / (WORDS_PER_BLOCK * Integer.SIZE)));
+        return new SplitBlockBloomFilter(new int[blocks * WORDS_PER_BLOCK], capacity, 0);
+    }
+
+    public static SplitBlockBloomFilter fromBytes(@NotNull byte[] bytes) {
+        ByteBuffer buffer = header(bytes);
+        int capacity = buffer.getInt();
+        int count = buffer.getInt();
+        int[] words = new int[buffer.remaining() / Integer.BYTES];
+        buffer.asIntBuffer().get(words);
+        return new SplitBlockBloomFilter(words, capacity, count);
+    }
+
+    public byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + words.length * Integer.BYTES);
+        buffer.put(VERSION).putInt(capacity).putInt(count);
+        buffer.asIntBuffer().put(words);
+        return buffer.array();
+    }
+
+    public void put(@NotNull String key) {
+        long hash = hash(key);
+        int base = block(hash, words.length / WORDS_PER_BLOCK) * WORDS_PER_BLOCK;
+        int lower = (int) hash;
+        for (int i = 0; i < WORDS_PER_BLOCK; i++) {
+            words[base + i] |= mask(lower, i);
+        }
+        count++;
+    }
+
+    public boolean mightContain(@NotNull String key) {
+        long hash = hash(key);
+        int base = block(hash, words.length / WORDS_PER_BLOCK) * WORDS_PER_BLOCK;
+        int lower = (int) hash;
+        int missing = 0;
+        for (int i = 0; i < WORDS_PER_BLOCK; i++) {
+            missing |= ~words[base + i] & mask(lower, i);
+        }
+        return missing == 0;
+    }
+
+    /**
+     * Probes a serialized filter in place, without copying its words; for scans over many steps,
+     * with the key hashed once by {@link #hash(String)}.
+     */
+    public static boolean mightContain(@NotNull byte[] bytes, long hash) {
+        ByteBuffer buffer = header(bytes);
+        int blocks = (bytes.length - HEADER_BYTES) / (WORDS_PER_BLOCK * Integer.BYTES);
+        int offset = HEADER_BYTES + block(hash, blocks) * WORDS_PER_BLOCK * Integer.BYTES;
+        int lower = (int) hash;
+        int missing = 0;
+        for (int i = 0; i < WORDS_PER_BLOCK; i++) {
+            missing |= ~buffer.getInt(offset + i * Integer.BYTES) & mask(lower, i);
+        }
+        return missing == 0;
+    }
+
+    /**
+     * Keys the filter was sized for; past it the false positive rate grows.
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Keys put so far, counting repeated keys every time.
+     */
+    public int count() {
+        return count;
+    }
+
+    // FNV-1a over the UTF-16 code units, finished with the splitmix64 mixer for avalanche
+    public static long hash(@NotNull String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+
+    private static ByteBuffer header(byte[] bytes) {
+        if (bytes.length < HEADER_BYTES + WORDS_PER_BLOCK * Integer.BYTES
+                || (bytes.length - HEADER_BYTES) % (WORDS_PER_BLOCK * Integer.BYTES) != 0
+                || bytes[0] != VERSION) {
+            throw new IllegalStateException("Unsupported Bloom filter encoding of " + bytes.length + " bytes");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.position(1);
+        return buffer;
+    }
+
+    // Multiply-shift range reduction of the upper 32 bits onto [0, blocks)
+    private static int block(long hash, int blocks) {
+        return (int) (((hash >>> 32) * blocks) >>> 32);
+    }
+
+    private static int mask(int lower, int word) {
+        return 1 << ((lower * SALT[word]) >>> 27);
+    }
+}
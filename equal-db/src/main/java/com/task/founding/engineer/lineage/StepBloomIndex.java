@@ -0,0 +1,58 @@
+package com.task.founding.engineer.lineage;
+
+import com.task.founding.engineer.model.XRayCandidateBloom;
+import com.task.founding.engineer.repository.XRayCandidateBloomRepository;
+import com.task.founding.engineer.repository.XRayStepRepository;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Maintains the Bloom filters over the business keys of each step's candidates, so membership
+ * scans can skip steps without reading candidates.
+ * <p>
+ * Each batch of candidates gets its own filter in {@code xray_candidate_blooms}, sized for the
+ * batch and inserted in the transaction that inserts the candidates. Nothing is read or locked, so
+ * concurrent batches into one step never wait for each other, and a filter never outgrows its
+ * capacity or has to be rebuilt from the step's keys. Readers probe the union of a step's batch
+ * filters: false positives are possible, false negatives are not. Steps written before batch
+ * filters keep their single filter in {@code xray_steps.candidate_bloom}, which is still probed.
+ */
+@Component
+public class StepBloomIndex {
+
+    private final XRayCandidateBloomRepository bloomRepository;
+    private final XRayStepRepository stepRepository;
+    private final double fpp;
+
+    public StepBloomIndex(
+            XRayCandidateBloomRepository bloomRepository,
+            XRayStepRepository stepRepository,
+            @Value("${xray.lineage.bloom-fpp:0.01}") double fpp) {
+        this.bloomRepository = bloomRepository;
+        this.stepRepository = stepRepository;
+        this.fpp = fpp;
+    }
+
+    /**
+     * Adds the business keys of candidates just written to the step, as the filter of their batch;
+     * must run in the transaction that saves them.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void add(@NotNull UUID stepId, @NotNull Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        SplitBlockBloomFilter filter = SplitBlockBloomFilter.create(keys.size(), fpp);
+        keys.forEach(filter::put);
+        bloomRepository.save(XRayCandidateBloom.builder()
+                .step(stepRepository.getReferenceById(stepId))
+                .candidateBloom(filter.toBytes())
+                .build());
+    }
+}
@@ -0,0 +1,171 @@
+package com.task.founding.engineer.live;
+
+import com.task.founding.engineer.bus.ChangeListener;
+import com.task.founding.engineer.dictionary.ValueDictionary;
+import com.task.founding.engineer.dto.response.RunEventDTO;
+import com.task.founding.engineer.enums.RunStatus;
+import com.task.founding.engineer.model.XRayRun;
+import com.task.founding.engineer.repository.ActiveRunRow;
+import com.task.founding.engineer.repository.XRayRunRepository;
+import com.task.founding.engineer.transaction.AfterCommit;
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+
+/**
+ * In-memory view of the runs in progress, so checking or listing active runs needs no query.
+ * <p>
+ * Runs enter when they are created, or get a step, on this instance, and leave when completed or
+ * failed here; both take effect once the transaction commits. Runs started, stepped or finished
+ * on another instance are applied as their events arrive over the change bus. A timer reloads the
+ * in-progress runs, so runs reaped, or whose events were lost, are picked up within
+ * {@code refresh-interval}. A run's activity is the latest of its start and the starts and
+ * completions of its steps, and of candidate batches ingested here.
+ */
+@Component
+@RequiredArgsConstructor
+public class ActiveRunRegistry implements ChangeListener {
+
+    private final XRayRunRepository runRepository;
+    private final ValueDictionary valueDictionary;
+
+    private final ConcurrentMap<UUID, ActiveRun> runs = new ConcurrentHashMap<>();
+    // When this instance last wrote each tracked run's last_activity_at
+    private final ConcurrentMap<UUID, LocalDateTime> activityWrittenAt = new ConcurrentHashMap<>();
+
+    public record ActiveRun(UUID runId, String pipelineType, LocalDateTime startedAt, LocalDateTime lastActivityAt) {
+
+        ActiveRun activeAt(LocalDateTime at) {
+            return at.isAfter(lastActivityAt) ? new ActiveRun(runId, pipelineType, startedAt, at) : this;
+        }
+    }
+
+    /**
+     * Tracks a run in progress, active now.
+     */
+    public void register(@NotNull XRayRun run) {
+        LocalDateTime now = LocalDateTime.now();
+        ActiveRun active = new ActiveRun(
+                run.getRunId(),
+                run.getPipelineType(),
+                Objects.nonNull(run.getStartedAt()) ? run.getStartedAt() : now,
+                now);
+        AfterCommit.run(() -> runs.merge(active.runId(), active, (tracked, ignored) -> tracked.activeAt(now)));
+    }
+
+    /**
+     * Marks a tracked run active now; false when the run is not tracked here.
+     */
+    public boolean touch(@NotNull UUID runId) {
+        LocalDateTime now = LocalDateTime.now();
+        return Objects.nonNull(runs.computeIfPresent(runId, (id, run) -> run.activeAt(now)));
+    }
+
+    /**
+     * Marks a run active at {@code now} and tells whether its {@code last_activity_at} is due to be
+     * written: at most once per {@code resolution} for a run tracked here, always for any other.
+     */
+    public boolean activityDue(@NotNull UUID runId, @NotNull LocalDateTime now, @NotNull Duration resolution) {
+        if (Objects.isNull(runs.computeIfPresent(runId, (id, run) -> run.activeAt(now)))) {
+            return true;
+        }
+        LocalDateTime written = activityWrittenAt.get(runId);
+        if (Objects.isNull(written)) {
+            return Objects.isNull(activityWrittenAt.putIfAbsent(runId, now));
+        }
+        // Only the batch that moves the time forward writes it
+        return written.isBefore(now.minus(resolution)) && activityWrittenAt.replace(runId, written, now);
+    }
+
+    public void remove(@NotNull UUID runId) {
+        AfterCommit.run(() -> {
+            runs.remove(runId);
+            activityWrittenAt.remove(runId);
+        });
+    }
+
+    public Optional<ActiveRun> get(@NotNull UUID runId) {
+        return Optional.ofNullable(runs.get(runId));
+    }
+
+    /**
+     * Tracked runs, oldest first, optionally of one pipeline type only.
+     */
+    public List<ActiveRun> activeRuns(@Nullable String pipelineType) {
+        Stream<ActiveRun> active = runs.values().stream();
+        if (Objects.nonNull(pipelineType)) {
+            active = active.filter(run -> pipelineType.equals(run.pipelineType()));
+        }
+        return active
+                .sorted(Comparator.comparing(ActiveRun::startedAt).thenComparing(ActiveRun::runId))
+                .toList();
+    }
+
+    // A step created elsewhere for a run not tracked here is left to the next refresh
+    @Override
+    public void onRemoteEvents(@NotNull List<RunEventDTO> events) {
+        LocalDateTime now = LocalDateTime.now();
+        for (RunEventDTO event : events) {
+            switch (event.getType()) {
+                case RUN_STARTED -> runs.putIfAbsent(event.getRunId(), new ActiveRun(
+                        event.getRunId(),
+                        event.getPipelineType(),
+                        Objects.nonNull(event.getOccurredAt()) ? event.getOccurredAt() : now,
+                        now));
+                case STEP_CREATED, CANDIDATES_APPENDED -> touch(event.getRunId());
+                case RUN_COMPLETED, RUN_FAILED -> {
+                    runs.remove(event.getRunId());
+                    activityWrittenAt.remove(event.getRunId());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onResync() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${xray.active-runs.refresh-interval:PT1M}")
+    public void refresh() {
+        LocalDateTime loadedAt = LocalDateTime.now();
+        Map<UUID, ActiveRun> loaded = new HashMap<>();
+        for (ActiveRunRow row : runRepository.findActivity(RunStatus.IN_PROGRESS)) {
+            loaded.put(row.runId(), new ActiveRun(
+                    row.runId(),
+                    valueDictionary.decode(row.pipelineTypeCode()),
+                    row.startedAt(),
+                    latest(row.startedAt(), row.lastStepStartedAt(), row.lastStepCompletedAt())));
+        }
+        // A run missing from the load finished elsewhere, unless it was registered or touched since
+        runs.entrySet().removeIf(entry ->
+                !loaded.containsKey(entry.getKey()) && entry.getValue().lastActivityAt().isBefore(loadedAt));
+        loaded.forEach((runId, run) -> runs.merge(runId, run, (tracked, stored) -> tracked.activeAt(stored.lastActivityAt())));
+        activityWrittenAt.keySet().retainAll(runs.keySet());
+    }
+
+    private static LocalDateTime latest(LocalDateTime startedAt, @Nullable LocalDateTime... others) {
+        LocalDateTime latest = startedAt;
+        for (LocalDateTime other : others) {
+            if (Objects.nonNull(other) && other.isAfter(latest)) {
+                latest = other;
+            }
+        }
+        return latest;
+    }
+}
@@ -0,0 +1,186 @@
+package com.task.founding.engineer.live;
+
+import com.task.founding.engineer.enums.RunStatus;
+import com.task.founding.engineer.transaction.AfterCommit;
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Runs started, completed and failed and candidates ingested per pipeline type, over the last
+ * minute and since startup, held in memory so dashboards can poll them without a query.
+ * <p>
+ * Events are counted once their transaction commits. Counts are per instance: a dashboard over
+ * several instances sums them. Pipeline types beyond {@code max-pipeline-types} are counted under
+ * {@link #OTHER_PIPELINE_TYPE}. Totals across pipeline types are exported over JMX.
+ */
+@Component
+@ManagedResource(objectName = "com.task.founding.engineer:type=LiveCounters")
+public class LiveCounters {
+
+    // Counts pipeline types beyond the cap, so an unbounded set of types cannot grow the map
+    public static final String OTHER_PIPELINE_TYPE = "_other";
+
+    static final int MINUTE = 60;
+    // Candidates per second are averaged over this many whole seconds
+    static final int RATE_SECONDS = 10;
+
+    private final ConcurrentMap<String, PipelineCounters> pipelines = new ConcurrentHashMap<>();
+    private final int maxPipelineTypes;
+
+    /**
+     * Counts of one pipeline type: the last minute's whole seconds, and totals since startup.
+     */
+    public record PipelineSnapshot(
+            String pipelineType,
+            long runsStartedLastMinute,
+            long runsCompletedLastMinute,
+            long runsFailedLastMinute,
+            long candidatesLastMinute,
+            double candidatesPerSecond,
+            long runsStartedTotal,
+            long runsCompletedTotal,
+            long runsFailedTotal,
+            long candidatesTotal) {
+    }
+
+    private record PipelineCounters(
+            WindowedCounter runsStarted,
+            WindowedCounter runsCompleted,
+            WindowedCounter runsFailed,
+            WindowedCounter candidates) {
+
+        PipelineCounters() {
+            this(new WindowedCounter(), new WindowedCounter(), new WindowedCounter(), new WindowedCounter());
+        }
+    }
+
+    public LiveCounters(@Value("${xray.live.max-pipeline-types:1000}") int maxPipelineTypes) {
+        this.maxPipelineTypes = maxPipelineTypes;
+    }
+
+    public void runStarted(@Nullable String pipelineType) {
+        AfterCommit.run(() -> record(pipelineType, RunStatus.IN_PROGRESS, currentSecond()));
+    }
+
+    /**
+     * Counts a run that reached {@code COMPLETED} or {@code FAILED}.
+     */
+    public void runFinished(@Nullable String pipelineType, @NotNull RunStatus status) {
+        if (status == RunStatus.IN_PROGRESS) {
+            return;
+        }
+        AfterCommit.run(() -> record(pipelineType, status, currentSecond()));
+    }
+
+    public void candidatesIngested(@Nullable String pipelineType, int count) {
+        if (count <= 0) {
+            return;
+        }
+        AfterCommit.run(() -> recordCandidates(pipelineType, count, currentSecond()));
+    }
+
+    /**
+     * Counts of every pipeline type seen since startup, by pipeline type.
+     */
+    public List<PipelineSnapshot> snapshot() {
+        return snapshot(currentSecond());
+    }
+
+    List<PipelineSnapshot> snapshot(long second) {
+        return pipelines.entrySet().stream()
+                .map(entry -> snapshotOf(entry.getKey(), entry.getValue(), second))
+                .sorted(Comparator.comparing(PipelineSnapshot::pipelineType))
+                .toList();
+    }
+
+    @ManagedAttribute(description = "Runs started in the last minute, all pipeline types")
+    public long getRunsStartedLastMinute() {
+        return sumLastMinute(PipelineCounters::runsStarted);
+    }
+
+    @ManagedAttribute(description = "Runs completed in the last minute, all pipeline types")
+    public long getRunsCompletedLastMinute() {
+        return sumLastMinute(PipelineCounters::runsCompleted);
+    }
+
+    @ManagedAttribute(description = "Runs failed in the last minute, all pipeline types")
+    public long getRunsFailedLastMinute() {
+        return sumLastMinute(PipelineCounters::runsFailed);
+    }
+
+    @ManagedAttribute(description = "Candidates ingested per second, averaged over the last 10 seconds, all pipeline types")
+    public double getCandidatesPerSecond() {
+        long second = currentSecond();
+        long candidates = 0;
+        for (PipelineCounters counters : pipelines.values()) {
+            candidates += counters.candidates().sum(second, RATE_SECONDS);
+        }
+        return candidates / (double) RATE_SECONDS;
+    }
+
+    // A run entering IN_PROGRESS was started
+    void record(@Nullable String pipelineType, @NotNull RunStatus status, long second) {
+        PipelineCounters counters = countersOf(pipelineType);
+        WindowedCounter counter = switch (status) {
+            case IN_PROGRESS -> counters.runsStarted();
+            case COMPLETED -> counters.runsCompleted();
+            case FAILED -> counters.runsFailed();
+        };
+        counter.add(second, 1);
+    }
+
+    void recordCandidates(@Nullable String pipelineType, int count, long second) {
+        countersOf(pipelineType).candidates().add(second, count);
+    }
+
+    private PipelineCounters countersOf(@Nullable String pipelineType) {
+        String key = Objects.nonNull(pipelineType) ? pipelineType : OTHER_PIPELINE_TYPE;
+        PipelineCounters counters = pipelines.get(key);
+        if (Objects.nonNull(counters)) {
+            return counters;
+        }
+        // Approximate under races: a few types past the cap may still get their own entry
+        if (pipelines.size() >= maxPipelineTypes) {
+            key = OTHER_PIPELINE_TYPE;
+        }
+        return pipelines.computeIfAbsent(key, ignored -> new PipelineCounters());
+    }
+
+    private long sumLastMinute(Function<PipelineCounters, WindowedCounter> counter) {
+        long second = currentSecond();
+        long sum = 0;
+        for (PipelineCounters counters : pipelines.values()) {
+            sum += counter.apply(counters).sum(second, MINUTE);
+        }
+        return sum;
+    }
+
+    private static PipelineSnapshot snapshotOf(String pipelineType, PipelineCounters counters, long second) {
+        return new PipelineSnapshot(
+                pipelineType,
+                counters.runsStarted().sum(second, MINUTE),
+                counters.runsCompleted().sum(second, MINUTE),
+                counters.runsFailed().sum(second, MINUTE),
+                counters.candidates().sum(second, MINUTE),
+                counters.candidates().sum(second, RATE_SECONDS) / (double) RATE_SECONDS,
+                counters.runsStarted().total(),
+                counters.runsCompleted().total(),
+                counters.runsFailed().total(),
+                counters.candidates().total());
+    }
+
+    private static long currentSecond() {
+        return System.currentTimeMillis() / 1000;
+    }
+}
@@ -0,0 +1,162 @@
+package com.task.founding.engineer.live;
+
+import com.task.founding.engineer.bus.ChangeBus;
+import com.task.founding.engineer.bus.ChangeListener;
+import com.task.founding.engineer.dto.response.RunEventDTO;
+import com.task.founding.engineer.transaction.AfterCommit;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Fans the events of each run out to its live subscribers without blocking the writer.
+ * <p>
+ * Events are published once the writing transaction commits, and sent to the other instances over
+ * the {@link ChangeBus}, whose events reach local subscribers in turn. Every subscriber has its own queue
+ * of at most {@code queue-capacity} events, drained by a virtual thread only while it holds
+ * events: an idle subscriber costs no thread, and a slow one delays no one else. A subscriber
+ * whose queue overflows, or whose listener throws, is closed and has to subscribe again. A run's
+ * subscribers are closed once its completion or failure is delivered.
+ */
+@Component
+public class RunEventBroadcaster implements ChangeListener {
+
+    private final ConcurrentMap<UUID, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final Executor deliveries = Executors.newVirtualThreadPerTaskExecutor();
+    private final ChangeBus changeBus;
+    private final int queueCapacity;
+
+    public RunEventBroadcaster(
+            ChangeBus changeBus,
+            @Value("${xray.run-stream.queue-capacity:1000}") int queueCapacity) {
+        this.changeBus = changeBus;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Passes every later event of the run to {@code listener}, one at a time and in publication
+     * order; {@code onClose} runs once the subscription ends, whichever side ends it.
+     */
+    public Subscription subscribe(@NotNull UUID runId, @NotNull Consumer<RunEventDTO> listener, @NotNull Runnable onClose) {
+        Subscription subscription = new Subscription(runId, listener, onClose);
+        subscriptions.compute(runId, (id, subscribers) -> {
+            Set<Subscription> current = Objects.nonNull(subscribers) ? subscribers : ConcurrentHashMap.newKeySet();
+            current.add(subscription);
+            return current;
+        });
+        return subscription;
+    }
+
+    public void publish(@NotNull RunEventDTO event) {
+        AfterCommit.run(() -> {
+            deliver(event);
+            changeBus.send(event);
+        });
+    }
+
+    /**
+     * Delivers an event to the subscribers of this instance only, for events that record no write.
+     */
+    public void publishLocally(@NotNull RunEventDTO event) {
+        deliver(event);
+    }
+
+    @Override
+    public void onRemoteEvents(@NotNull List<RunEventDTO> events) {
+        events.forEach(this::deliver);
+    }
+
+    public int subscriberCount() {
+        return subscriptions.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private void deliver(RunEventDTO event) {
+        Set<Subscription> subscribers = subscriptions.get(event.getRunId());
+        if (Objects.nonNull(subscribers)) {
+            subscribers.forEach(subscription -> subscription.offer(event));
+        }
+    }
+
+    public final class Subscription {
+
+        private final UUID runId;
+        private final Consumer<RunEventDTO> listener;
+        private final Runnable onClose;
+        private final Queue<RunEventDTO> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        // Set while a delivery task owns the queue, so events are passed on one at a time
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscription(UUID runId, Consumer<RunEventDTO> listener, Runnable onClose) {
+            this.runId = runId;
+            this.listener = listener;
+            this.onClose = onClose;
+        }
+
+        public void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            subscriptions.computeIfPresent(runId, (id, subscribers) -> {
+                subscribers.remove(this);
+                return subscribers.isEmpty() ? null : subscribers;
+            });
+            pending.clear();
+            onClose.run();
+        }
+
+        public boolean isClosed() {
+            return closed.get();
+        }
+
+        private void offer(RunEventDTO event) {
+            if (closed.get()) {
+                return;
+            }
+            if (pendingCount.incrementAndGet() > queueCapacity) {
+                close();
+                return;
+            }
+            pending.add(event);
+            if (draining.compareAndSet(false, true)) {
+                deliveries.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                RunEventDTO event;
+                while (!closed.get() && Objects.nonNull(event = pending.poll())) {
+                    pendingCount.decrementAndGet();
+                    try {
+                        listener.accept(event);
+                    } catch (RuntimeException e) {
+                        close();
+                        return;
+                    }
+                    if (event.getType().isTerminal()) {
+                        close();
+                        return;
+                    }
+                }
+                draining.set(false);
+                // An event offered after the last poll but before the flag was cleared is drained here
+            } while (!closed.get() && !pending.isEmpty() && draining.compareAndSet(false, true));
+        }
+    }
+}
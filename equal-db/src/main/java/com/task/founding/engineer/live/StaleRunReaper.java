@@ -0,0 +1,60 @@
+package com.task.founding.engineer.live;
+
+import com.task.founding.engineer.enums.RunStatus;
+import com.task.founding.engineer.repository.XRayRunRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Fails runs left in progress by pipelines that crashed: runs that neither started, ingested
+ * candidates nor had a step start or complete for {@code stale-after} are set to {@code FAILED} by
+ * one bulk update, without loading them. A reaped run that is completed or failed later still takes that status.
+ * <p>
+ * Safe to run on every instance; concurrent reapers update disjoint or no rows.
+ */
+@Slf4j
+@Component
+public class StaleRunReaper {
+
+    private final XRayRunRepository runRepository;
+    private final ActiveRunRegistry activeRunRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration staleAfter;
+
+    public StaleRunReaper(
+            XRayRunRepository runRepository,
+            ActiveRunRegistry activeRunRegistry,
+            PlatformTransactionManager transactionManager,
+            @Value("${xray.run-reaper.enabled:true}") boolean enabled,
+            @Value("${xray.run-reaper.stale-after:PT1H}") Duration staleAfter) {
+        this.runRepository = runRepository;
+        this.activeRunRegistry = activeRunRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.staleAfter = staleAfter;
+    }
+
+    @Scheduled(
+            initialDelayString = "${xray.run-reaper.initial-delay:PT5M}",
+            fixedDelayString = "${xray.run-reaper.interval:PT5M}")
+    public void reap() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int reaped = transactionTemplate.execute(status ->
+                runRepository.failIdleRuns(RunStatus.IN_PROGRESS, RunStatus.FAILED, now.minus(staleAfter), now));
+        if (reaped > 0) {
+            log.info("Failed {} runs without activity for {}", reaped, staleAfter);
+            activeRunRegistry.refresh();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.task.founding.engineer.live;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Events per second over the last minute, in a ring of {@link #SLOTS} one-second slots, plus a
+ * running total.
+ * <p>
+ * Updates are lock-free: each slot is a {@link LongAdder}, so writers of the same second add to
+ * different cells, and the first writer of a new second swaps a fresh slot in with a CAS. Reads
+ * sum the slots of the requested seconds and may miss increments still in flight.
+ */
+final class WindowedCounter {
+
+    // A power of two above 60, so a full minute plus the current second fit in the ring
+    static final int SLOTS = 64;
+
+    private final AtomicReferenceArray<Slot> slots = new AtomicReferenceArray<>(SLOTS);
+    private final LongAdder total = new LongAdder();
+
+    private record Slot(long second, LongAdder count) {
+    }
+
+    void add(long second, long delta) {
+        total.add(delta);
+        int index = (int) (second & (SLOTS - 1));
+        Slot slot = slots.get(index);
+        while (Objects.isNull(slot) || slot.second() != second) {
+            if (Objects.nonNull(slot) && slot.second() > second) {
+                // A writer stalled for over a minute; its second has left the window
+                return;
+            }
+            Slot fresh = new Slot(second, new LongAdder());
+            if (slots.compareAndSet(index, slot, fresh)) {
+                slot = fresh;
+            } else {
+                slot = slots.get(index);
+            }
+        }
+        slot.count().add(delta);
+    }
+
+    /**
+     * Events in the {@code seconds} whole seconds before {@code second}, which is excluded.
+     */
+    long sum(long second, int seconds) {
+        if (seconds > SLOTS - 1) {
+            throw new IllegalArgumentException("A window spans at most " + (SLOTS - 1) + " seconds: " + seconds);
+        }
+        long sum = 0;
+        for (long past = second - seconds; past < second; past++) {
+            Slot slot = slots.get((int) (past & (SLOTS - 1)));
+            if (Objects.nonNull(slot) && slot.second() == past) {
+                sum += slot.count().sum();
+            }
+        }
+        return sum;
+    }
+
+    long total() {
+        return total.sum();
+    }
+}
@@ -1,12 +1,13 @@
 package com.task.founding.engineer.model;
 
+import com.task.founding.engineer.json.RawJson;
+import com.task.founding.engineer.json.RawJsonType;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.hibernate.annotations.JdbcTypeCode;
-import org.hibernate.type.SqlTypes;
+import org.hibernate.annotations.Type;
 
 import java.util.UUID;
 
@@ -14,7 +15,12 @@ import java.util.UUID;
 @Table(name = "xray_candidates", indexes = {
     @Index(name = "idx_candidate_step_id", columnList = "step_id"),
     @Index(name = "idx_candidate_selected", columnList = "selected"),
-    @Index(name = "idx_candidate_score", columnList = "score")
+    @Index(name = "idx_candidate_score", columnList = "score"),
+    @Index(name = "idx_candidate_step_reason", columnList = "step_id, rejection_reason_code"),
+    @Index(name = "idx_candidate_step_template", columnList = "step_id, rejection_template_id"),
+    @Index(name = "idx_candidate_template", columnList = "rejection_template_id"),
+    @Index(name = "idx_candidate_reason_template", columnList = "rejection_reason_code, rejection_template_id"),
+    @Index(name = "idx_candidate_business_key", columnList = "business_key, step_id")
 })
 @Data
 @Builder
@@ -34,9 +40,9 @@ public class XRayCandidate {
     @Column(name = "step_id", insertable = false, updatable = false)
     private UUID stepId;
 
-    @JdbcTypeCode(SqlTypes.JSON)
+    @Type(RawJsonType.class)
     @Column(name = "data", nullable = false, columnDefinition = "jsonb")
-    private Object data;
+    private RawJson data;
 
     @Column(name = "score")
     private Double score;
@@ -48,8 +54,24 @@ public class XRayCandidate {
     @Column(name = "rejection_reason", columnDefinition = "TEXT")
     private String rejectionReason;
 
-    @JdbcTypeCode(SqlTypes.JSON)
+    // zstd frame written instead of rejectionReason when compression is enabled; see TextCompressor
+    @Column(name = "rejection_reason_zstd", columnDefinition = "bytea")
+    private byte[] rejectionReasonCompressed;
+
+    // Interned rejectionReason, set whether or not the text is compressed; see ValueDictionary
+    @Column(name = "rejection_reason_code")
+    private Integer rejectionReasonCode;
+
+    // Near-duplicate cluster of the rejection reason, assigned in the background by ReasonClusteringJob
+    @Column(name = "rejection_template_id")
+    private Long rejectionTemplateId;
+
+    // Extracted from data at ingest time for lineage lookups; see BusinessKeyExtractor
+    @Column(name = "business_key")
+    private String businessKey;
+
+    @Type(RawJsonType.class)
     @Column(name = "metadata", columnDefinition = "jsonb")
-    private Object metadata;
+    private RawJson metadata;
 }
 
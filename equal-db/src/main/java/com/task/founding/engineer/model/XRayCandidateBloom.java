@@ -0,0 +1,43 @@
+package com.task.founding.engineer.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.util.UUID;
+
+/**
+ * Bloom filter over the business keys of one batch of a step's candidates; a step's keys are the
+ * union of its batches' filters. See StepBloomIndex.
+ */
+@Entity
+@Table(name = "xray_candidate_blooms",
+    indexes = @Index(name = "idx_candidate_bloom_step_id", columnList = "step_id"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class XRayCandidateBloom {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "bloom_id")
+    private Long bloomId;
+
+    // Removed with the step by the database, as nothing maps the filters from the step
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "step_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private XRayStep step;
+
+    @Column(name = "step_id", insertable = false, updatable = false)
+    private UUID stepId;
+
+    // SplitBlockBloomFilter.toBytes()
+    @Column(name = "candidate_bloom", nullable = false, columnDefinition = "bytea")
+    private byte[] candidateBloom;
+}
@@ -0,0 +1,53 @@
+package com.task.founding.engineer.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * A zstd dictionary trained on the reasoning / rejection-reason texts of one step name.
+ * Compressed frames record the dictionary's zstd id, so every dictionary ever used must be kept,
+ * and no two dictionaries may share an id.
+ */
+@Entity
+@Table(name = "xray_compression_dictionaries",
+    uniqueConstraints = @UniqueConstraint(name = "uk_compression_dictionary_dict_id", columnNames = "dict_id"),
+    indexes = {
+        @Index(name = "idx_dictionary_step_name", columnList = "step_name")
+    })
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class XRayCompressionDictionary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "dictionary_id")
+    private Long dictionaryId;
+
+    // Hashed by zstd from the dictionary's content into 31 bits, so two dictionaries can share it
+    @Column(name = "dict_id", nullable = false)
+    private Long dictId;
+
+    @Column(name = "step_name", nullable = false, length = 100)
+    private String stepName;
+
+    @Column(name = "dictionary", nullable = false, columnDefinition = "bytea")
+    private byte[] dictionary;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (Objects.isNull(createdAt)) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
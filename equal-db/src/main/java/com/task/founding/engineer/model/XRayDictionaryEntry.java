@@ -0,0 +1,46 @@
+package com.task.founding.engineer.model;
+
+import com.task.founding.engineer.enums.DictionaryKind;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One interned string value. Codes are unique across kinds and never reused, so a code column
+ * can be decoded without knowing its kind. A value is unique per kind through its
+ * {@link com.task.founding.engineer.dictionary.ValueDigest digest}, since the value itself may be
+ * too long for a B-tree index entry.
+ */
+@Entity
+@Table(name = "xray_dictionary", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_dictionary_kind_digest", columnNames = {"kind", "entry_digest"})
+}, indexes = {
+    @Index(name = "idx_dictionary_template", columnList = "template_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class XRayDictionaryEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "code")
+    private Integer code;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "kind", nullable = false, length = 20)
+    private DictionaryKind kind;
+
+    @Column(name = "entry_value", nullable = false, columnDefinition = "TEXT")
+    private String value;
+
+    @Column(name = "entry_digest", nullable = false, length = 64)
+    private String digest;
+
+    // Rejection reasons only: the near-duplicate cluster this reason belongs to; see ReasonClusteringJob
+    @Column(name = "template_id")
+    private Long templateId;
+}
@@ -0,0 +1,51 @@
+package com.task.founding.engineer.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Checkpoint of one instance's HyperLogLog sketch of business keys, for one pipeline type, step
+ * name and hourly window; see DistinctKeySketches.
+ */
+@Entity
+@Table(name = "xray_distinct_key_sketches",
+    uniqueConstraints = @UniqueConstraint(
+        name = "uk_distinct_key_sketch_window",
+        columnNames = {"pipeline_type_code", "window_start", "step_name_code", "instance_id"}),
+    indexes = @Index(name = "idx_distinct_key_sketch_window_start", columnList = "window_start"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class XRayDistinctKeySketch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "sketch_id")
+    private Long sketchId;
+
+    @Column(name = "pipeline_type_code", nullable = false)
+    private Integer pipelineTypeCode;
+
+    @Column(name = "step_name_code", nullable = false)
+    private Integer stepNameCode;
+
+    @Column(name = "window_start", nullable = false)
+    private LocalDateTime windowStart;
+
+    @Column(name = "instance_id", nullable = false)
+    private UUID instanceId;
+
+    // HyperLogLog.toBytes()
+    @Column(name = "sketch", nullable = false, columnDefinition = "bytea")
+    private byte[] sketch;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,59 @@
+package com.task.founding.engineer.model;
+
+import com.task.founding.engineer.enums.PromotionStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * A {@code data} key of {@code xray_candidates} promoted to a B-tree expression index on
+ * {@code data #>> '{...}'}, e.g. {@code data.sku} to {@code idx_dk_sku}. Candidate search and
+ * what-if compare on that expression once the key is {@link PromotionStatus#READY}.
+ */
+@Entity
+@Table(name = "xray_promoted_keys", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_promoted_key_path", columnNames = "path"),
+    @UniqueConstraint(name = "uk_promoted_key_index", columnNames = "index_name")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class XRayPromotedKey {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "promoted_key_id")
+    private Long promotedKeyId;
+
+    @Column(name = "path", nullable = false)
+    private String path;
+
+    @Column(name = "index_name", nullable = false, length = 63)
+    private String indexName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private PromotionStatus status;
+
+    @Column(name = "error", columnDefinition = "TEXT")
+    private String error;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "ready_at")
+    private LocalDateTime readyAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (Objects.isNull(createdAt)) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.task.founding.engineer.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * A cluster of near-duplicate rejection reasons, e.g. all "price ... exceeds max ..." variants.
+ * Created by {@code ReasonClusteringJob}; the pattern is the masked text of its first reason.
+ */
+@Entity
+@Table(name = "xray_reason_templates")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class XRayReasonTemplate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "template_id")
+    private Long templateId;
+
+    @Column(name = "pattern", nullable = false, columnDefinition = "TEXT")
+    private String pattern;
+
+    // MinHash signature of the pattern, compared against new reasons that share an LSH band
+    @Column(name = "signature", nullable = false, columnDefinition = "bytea")
+    private byte[] signature;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (Objects.isNull(createdAt)) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.task.founding.engineer.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * LSH index of the templates: one row per band of a template's signature. A band hash can be
+ * shared by several templates.
+ */
+@Entity
+@Table(name = "xray_reason_template_bands", indexes = {
+    @Index(name = "idx_template_band_hash", columnList = "band_hash")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class XRayReasonTemplateBand {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "band_id")
+    private Long bandId;
+
+    @Column(name = "band_hash", nullable = false)
+    private Long bandHash;
+
+    @Column(name = "template_id", nullable = false)
+    private Long templateId;
+}
@@ -0,0 +1,48 @@
+package com.task.founding.engineer.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Checkpoint of one instance's heavy-hitter sketch of rejected business keys, for one step name
+ * and one hourly window; see RejectedKeySketches.
+ */
+@Entity
+@Table(name = "xray_rejected_key_sketches",
+    uniqueConstraints = @UniqueConstraint(
+        name = "uk_rejected_key_sketch_window",
+        columnNames = {"step_name_code", "window_start", "instance_id"}),
+    indexes = @Index(name = "idx_rejected_key_sketch_window_start", columnList = "window_start"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class XRayRejectedKeySketch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "sketch_id")
+    private Long sketchId;
+
+    @Column(name = "step_name_code", nullable = false)
+    private Integer stepNameCode;
+
+    @Column(name = "window_start", nullable = false)
+    private LocalDateTime windowStart;
+
+    @Column(name = "instance_id", nullable = false)
+    private UUID instanceId;
+
+    // SpaceSavingSketch.toBytes()
+    @Column(name = "sketch", nullable = false, columnDefinition = "bytea")
+    private byte[] sketch;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -1,13 +1,16 @@
 package com.task.founding.engineer.model;
 
 import com.task.founding.engineer.enums.RunStatus;
+import com.task.founding.engineer.json.RawJson;
+import com.task.founding.engineer.json.RawJsonType;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.hibernate.annotations.JdbcTypeCode;
-import org.hibernate.type.SqlTypes;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.LazyGroup;
+import org.hibernate.annotations.Type;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -18,6 +21,7 @@ import java.util.UUID;
 @Entity
 @Table(name = "xray_runs", indexes = {
     @Index(name = "idx_pipeline_type", columnList = "pipeline_type"),
+    @Index(name = "idx_pipeline_type_code", columnList = "pipeline_type_code"),
     @Index(name = "idx_pipeline_id", columnList = "pipeline_id"),
     @Index(name = "idx_status", columnList = "status"),
     @Index(name = "idx_started_at", columnList = "started_at")
@@ -36,6 +40,10 @@ public class XRayRun {
     @Column(name = "pipeline_type", nullable = false, length = 100)
     private String pipelineType;
 
+    // Interned pipelineType; see ValueDictionary
+    @Column(name = "pipeline_type_code")
+    private Integer pipelineTypeCode;
+
     @Column(name = "pipeline_id", nullable = false, length = 255)
     private String pipelineId;
 
@@ -45,21 +53,30 @@ public class XRayRun {
     @Column(name = "completed_at")
     private LocalDateTime completedAt;
 
+    // Last candidate ingest, to within a minute; see XRayRunRepository#touchActivity
+    @Column(name = "last_activity_at")
+    private LocalDateTime lastActivityAt;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false, length = 20)
     @Builder.Default
     private RunStatus status = RunStatus.IN_PROGRESS;
 
-    @JdbcTypeCode(SqlTypes.JSON)
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("input")
+    @Type(RawJsonType.class)
     @Column(name = "input", columnDefinition = "jsonb")
-    private Object input;
+    private RawJson input;
 
-    @JdbcTypeCode(SqlTypes.JSON)
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("output")
+    @Type(RawJsonType.class)
     @Column(name = "output", columnDefinition = "jsonb")
-    private Object output;
+    private RawJson output;
 
     @OneToMany(mappedBy = "run", cascade = CascadeType.ALL, orphanRemoval = true)
     @OrderBy("order ASC")
+    @BatchSize(size = 100)
     @Builder.Default
     private List<XRayStep> steps = new ArrayList<>();
 
@@ -1,13 +1,16 @@
 package com.task.founding.engineer.model;
 
 import com.task.founding.engineer.enums.StepStatus;
+import com.task.founding.engineer.json.RawJson;
+import com.task.founding.engineer.json.RawJsonType;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.hibernate.annotations.JdbcTypeCode;
-import org.hibernate.type.SqlTypes;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.LazyGroup;
+import org.hibernate.annotations.Type;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -20,7 +23,11 @@ import java.util.UUID;
     @Index(name = "idx_step_run_id", columnList = "run_id"),
     @Index(name = "idx_step_type", columnList = "step_type"),
     @Index(name = "idx_step_name", columnList = "step_name"),
-    @Index(name = "idx_step_status", columnList = "status")
+    @Index(name = "idx_step_type_code", columnList = "step_type_code"),
+    @Index(name = "idx_step_name_code", columnList = "step_name_code"),
+    @Index(name = "idx_step_status", columnList = "status"),
+    @Index(name = "idx_step_started_at", columnList = "started_at"),
+    @Index(name = "idx_step_name_code_started_at", columnList = "step_name_code, started_at")
 })
 @Data
 @Builder
@@ -46,6 +53,13 @@ public class XRayStep {
     @Column(name = "step_type", nullable = false, length = 50)
     private String stepType;
 
+    // Interned stepName / stepType; see ValueDictionary
+    @Column(name = "step_name_code")
+    private Integer stepNameCode;
+
+    @Column(name = "step_type_code")
+    private Integer stepTypeCode;
+
     @Column(name = "order_index", nullable = false)
     private Integer order;
 
@@ -60,22 +74,44 @@ public class XRayStep {
     @Builder.Default
     private StepStatus status = StepStatus.SUCCESS;
 
-    @JdbcTypeCode(SqlTypes.JSON)
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("input")
+    @Type(RawJsonType.class)
     @Column(name = "input", columnDefinition = "jsonb")
-    private Object input;
+    private RawJson input;
 
-    @JdbcTypeCode(SqlTypes.JSON)
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("output")
+    @Type(RawJsonType.class)
     @Column(name = "output", columnDefinition = "jsonb")
-    private Object output;
+    private RawJson output;
 
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("reasoning")
     @Column(name = "reasoning", columnDefinition = "TEXT")
     private String reasoning;
 
-    @JdbcTypeCode(SqlTypes.JSON)
+    // zstd frame written instead of reasoning when compression is enabled; see TextCompressor
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("reasoning")
+    @Column(name = "reasoning_zstd", columnDefinition = "bytea")
+    private byte[] reasoningCompressed;
+
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("metadata")
+    @Type(RawJsonType.class)
     @Column(name = "metadata", columnDefinition = "jsonb")
-    private Object metadata;
+    private RawJson metadata;
+
+    // SplitBlockBloomFilter over the business keys of the step's candidates, written before they got one
+    // filter per batch in xray_candidate_blooms; still probed, see StepBloomIndex
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("candidateBloom")
+    @Column(name = "candidate_bloom", columnDefinition = "bytea")
+    private byte[] candidateBloom;
 
     @OneToMany(mappedBy = "step", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 100)
     @Builder.Default
     private List<XRayCandidate> candidates = new ArrayList<>();
 
@@ -0,0 +1,58 @@
+package com.task.founding.engineer.promotion;
+
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how often each {@code data} path is used in candidate search predicates, per pipeline
+ * type, to tell which keys are worth promoting. Counts are in memory, per instance and since
+ * startup; the number of tracked paths per pipeline type is capped so arbitrary client paths
+ * cannot grow it without bound.
+ */
+@Component
+public class DataKeyUsageTracker {
+
+    public static final String ALL_PIPELINES = "*";
+    static final int MAX_PATHS_PER_PIPELINE = 1000;
+
+    private final ConcurrentMap<String, ConcurrentMap<String, LongAdder>> counts = new ConcurrentHashMap<>();
+
+    public record Usage(String pipelineType, String path, long queries) {
+    }
+
+    public void record(@Nullable String pipelineType, @NotNull String path) {
+        ConcurrentMap<String, LongAdder> paths = counts.computeIfAbsent(
+                Objects.nonNull(pipelineType) ? pipelineType : ALL_PIPELINES, key -> new ConcurrentHashMap<>());
+        LongAdder count = paths.get(path);
+        if (Objects.isNull(count)) {
+            if (paths.size() >= MAX_PATHS_PER_PIPELINE) {
+                return;
+            }
+            count = paths.computeIfAbsent(path, key -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    /**
+     * Usage of every tracked path, most queried first, optionally for one pipeline type.
+     */
+    public List<Usage> snapshot(@Nullable String pipelineType) {
+        List<Usage> usages = new ArrayList<>();
+        counts.forEach((pipeline, paths) -> {
+            if (Objects.isNull(pipelineType) || pipelineType.equals(pipeline)) {
+                paths.forEach((path, count) -> usages.add(new Usage(pipeline, path, count.sum())));
+            }
+        });
+        usages.sort(Comparator.comparingLong(Usage::queries).reversed());
+        return usages;
+    }
+}
@@ -0,0 +1,89 @@
+package com.task.founding.engineer.promotion;
+
+import com.task.founding.engineer.enums.PromotionStatus;
+import com.task.founding.engineer.model.XRayPromotedKey;
+import com.task.founding.engineer.repository.XRayPromotedKeyRepository;
+import com.task.founding.engineer.search.JsonContainment;
+import com.task.founding.engineer.search.PostgresDdl;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Builds the indexes of requested key promotions in the background: a B-tree expression index on
+ * {@code data #>> '{path}'} of {@code xray_candidates}, built concurrently so candidate writes go
+ * on while it builds. No column is added, so the table is never rewritten. The build is
+ * idempotent, so a key interrupted while {@code BUILDING} is simply built again on the next run.
+ * PostgreSQL only; elsewhere keys stay {@code PENDING}.
+ */
+@Slf4j
+@Component
+public class PromotedKeyMigrator {
+
+    private final XRayPromotedKeyRepository promotedKeyRepository;
+    private final PromotedKeyRegistry promotedKeyRegistry;
+    private final DataSource dataSource;
+    private final boolean enabled;
+
+    public PromotedKeyMigrator(
+            XRayPromotedKeyRepository promotedKeyRepository,
+            PromotedKeyRegistry promotedKeyRegistry,
+            DataSource dataSource,
+            @Value("${xray.promotion.enabled:true}") boolean enabled) {
+        this.promotedKeyRepository = promotedKeyRepository;
+        this.promotedKeyRegistry = promotedKeyRegistry;
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+    }
+
+    @Scheduled(
+            initialDelayString = "${xray.promotion.initial-delay:PT30S}",
+            fixedDelayString = "${xray.promotion.interval:PT1M}")
+    public void run() throws SQLException {
+        if (!enabled) {
+            return;
+        }
+        List<XRayPromotedKey> keys = promotedKeyRepository.findByStatusInOrderByCreatedAtAsc(
+                EnumSet.of(PromotionStatus.PENDING, PromotionStatus.BUILDING));
+        if (keys.isEmpty()) {
+            return;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            if (!PostgresDdl.isPostgres(connection)) {
+                return;
+            }
+            connection.setAutoCommit(true);
+            for (XRayPromotedKey key : keys) {
+                migrate(connection, key);
+            }
+        }
+        promotedKeyRegistry.refresh();
+    }
+
+    private void migrate(Connection connection, XRayPromotedKey key) {
+        key.setStatus(PromotionStatus.BUILDING);
+        key.setError(null);
+        promotedKeyRepository.save(key);
+        try {
+            // The same expression search and what-if compare on, or the planner will not use the index
+            PostgresDdl.createIndexConcurrently(connection, key.getIndexName(),
+                    "ON xray_candidates ((" + JsonContainment.textExpression(key.getPath()) + "))");
+            key.setStatus(PromotionStatus.READY);
+            key.setReadyAt(LocalDateTime.now());
+            log.info("Promoted {} with index {}", key.getPath(), key.getIndexName());
+        } catch (SQLException e) {
+            key.setStatus(PromotionStatus.FAILED);
+            key.setError(e.getMessage());
+            log.warn("Promoting {} failed", key.getPath(), e);
+        }
+        promotedKeyRepository.save(key);
+    }
+}
@@ -0,0 +1,37 @@
+package com.task.founding.engineer.promotion;
+
+import com.task.founding.engineer.enums.PromotionStatus;
+import com.task.founding.engineer.model.XRayPromotedKey;
+import com.task.founding.engineer.repository.XRayPromotedKeyRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory view of the promoted keys whose index is ready, read by every candidate search.
+ * Refreshed on a timer, so indexes built by another instance's migrator are picked up too.
+ */
+@Component
+@RequiredArgsConstructor
+public class PromotedKeyRegistry {
+
+    private final XRayPromotedKeyRepository promotedKeyRepository;
+
+    private volatile Map<String, String> indexes = Map.of();
+
+    /**
+     * {@code data} path (e.g. {@code data.sku}) to its index name, for ready keys only.
+     */
+    public Map<String, String> indexes() {
+        return indexes;
+    }
+
+    @Scheduled(fixedDelayString = "${xray.promotion.refresh-interval:PT30S}")
+    public void refresh() {
+        indexes = promotedKeyRepository.findByStatus(PromotionStatus.READY).stream()
+                .collect(Collectors.toUnmodifiableMap(XRayPromotedKey::getPath, XRayPromotedKey::getIndexName));
+    }
+}
@@ -0,0 +1,15 @@
+package com.task.founding.engineer.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * An in-progress run and the latest start and completion among its steps, without any payload column.
+ */
+public record ActiveRunRow(
+        UUID runId,
+        Integer pipelineTypeCode,
+        LocalDateTime startedAt,
+        LocalDateTime lastStepStartedAt,
+        LocalDateTime lastStepCompletedAt) {
+}
@@ -0,0 +1,9 @@
+package com.task.founding.engineer.repository;
+
+import java.util.UUID;
+
+/**
+ * The serialized Bloom filter of one candidate batch and the step it belongs to.
+ */
+public record CandidateBloomRow(UUID stepId, byte[] candidateBloom) {
+}
@@ -0,0 +1,26 @@
+package com.task.founding.engineer.repository;
+
+import com.task.founding.engineer.enums.RunStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One appearance of a business key: the candidate with its step and run, without any payload column.
+ */
+public record CandidateLineageRow(
+        UUID runId,
+        String pipelineType,
+        String pipelineId,
+        RunStatus runStatus,
+        LocalDateTime runStartedAt,
+        UUID stepId,
+        String stepName,
+        String stepType,
+        Integer stepOrder,
+        UUID candidateId,
+        Boolean selected,
+        Double score,
+        Integer rejectionReasonCode,
+        String rejectionReason) {
+}
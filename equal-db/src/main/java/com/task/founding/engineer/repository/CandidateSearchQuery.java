@@ -0,0 +1,108 @@
+package com.task.founding.engineer.repository;
+
+import com.task.founding.engineer.model.XRayCandidate;
+import jakarta.annotation.Nullable;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Native candidate search. Only the predicates that are set are written into the SQL, so the
+ * planner sees plain conditions it can serve from the step time index, the code indexes and the
+ * {@code jsonb_path_ops} GIN indexes on {@code data}/{@code metadata} (see
+ * {@code CandidateSearchIndexes}), rather than {@code :x IS NULL OR ...} branches that a generic
+ * plan cannot use indexes for. String equality on a promoted {@code data} key is compared on the
+ * same {@code data #>> '{...}'} expression its B-tree index is built on, instead of through
+ * containment.
+ * <p>
+ * A {@code @Repository} so a statement timeout surfaces as Spring's {@code QueryTimeoutException}.
+ */
+@Repository
+public class CandidateSearchQuery {
+
+    private final EntityManager entityManager;
+    private final Duration timeout;
+
+    public CandidateSearchQuery(
+            EntityManager entityManager,
+            @Value("${xray.candidate-search.timeout:PT10S}") Duration timeout) {
+        this.entityManager = entityManager;
+        this.timeout = timeout;
+    }
+
+    @Builder
+    public record Filter(
+            @NotNull LocalDateTime startDate,
+            @NotNull LocalDateTime endDate,
+            @Nullable Integer pipelineTypeCode,
+            @Nullable Integer stepNameCode,
+            @Nullable Boolean selected,
+            @Nullable Double minScore,
+            @Nullable Double maxScore,
+            @Nullable String dataContains,
+            @Nullable String metadataContains,
+            // Text expression of a promoted key to the value it must equal; see JsonContainment#textExpression
+            @Nullable Map<String, String> promotedEquals) {
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<XRayCandidate> search(@NotNull Filter filter, int offset, int limit) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        String sql = toSql(filter, parameters);
+
+        Query query = entityManager.createNativeQuery(sql, XRayCandidate.class)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint("jakarta.persistence.query.timeout", (int) timeout.toMillis())
+                .setFirstResult(offset)
+                .setMaxResults(limit);
+        parameters.forEach(query::setParameter);
+        return query.getResultList();
+    }
+
+    static String toSql(Filter filter, Map<String, Object> parameters) {
+        StringBuilder sql = new StringBuilder("SELECT c.* FROM xray_candidates c ")
+                .append("JOIN xray_steps s ON s.step_id = c.step_id ");
+        if (Objects.nonNull(filter.pipelineTypeCode())) {
+            sql.append("JOIN xray_runs r ON r.run_id = s.run_id ");
+        }
+        sql.append("WHERE s.started_at >= :startDate AND s.started_at <= :endDate");
+        parameters.put("startDate", filter.startDate());
+        parameters.put("endDate", filter.endDate());
+
+        condition(sql, parameters, "r.pipeline_type_code = :pipelineTypeCode", "pipelineTypeCode", filter.pipelineTypeCode());
+        condition(sql, parameters, "s.step_name_code = :stepNameCode", "stepNameCode", filter.stepNameCode());
+        condition(sql, parameters, "c.selected = :selected", "selected", filter.selected());
+        condition(sql, parameters, "c.score >= :minScore", "minScore", filter.minScore());
+        condition(sql, parameters, "c.score <= :maxScore", "maxScore", filter.maxScore());
+        condition(sql, parameters, "c.data @> CAST(:dataContains AS jsonb)", "dataContains", filter.dataContains());
+        condition(sql, parameters, "c.metadata @> CAST(:metadataContains AS jsonb)", "metadataContains", filter.metadataContains());
+        if (Objects.nonNull(filter.promotedEquals())) {
+            // Expressions are built from validated path segments only
+            int index = 0;
+            for (Map.Entry<String, String> promoted : filter.promotedEquals().entrySet()) {
+                String name = "promoted" + index++;
+                condition(sql, parameters, "(c." + promoted.getKey() + ") = :" + name, name, promoted.getValue());
+            }
+        }
+
+        return sql.append(" ORDER BY s.started_at DESC, c.candidate_id").toString();
+    }
+
+    private static void condition(StringBuilder sql, Map<String, Object> parameters, String condition, String name, Object value) {
+        if (Objects.nonNull(value)) {
+            sql.append(" AND ").append(condition);
+            parameters.put(name, value);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.task.founding.engineer.repository;
+
+import java.util.UUID;
+
+/**
+ * One candidate of a run as a decision-matrix cell, without any payload column.
+ */
+public record DecisionMatrixEntry(
+        UUID stepId,
+        String businessKey,
+        UUID candidateId,
+        Boolean selected,
+        Double score,
+        Integer rejectionReasonCode,
+        String rejectionReason) {
+}
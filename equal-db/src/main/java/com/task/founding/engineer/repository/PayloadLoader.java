@@ -0,0 +1,123 @@
+package com.task.founding.engineer.repository;
+
+import com.task.founding.engineer.enums.PayloadField;
+import com.task.founding.engineer.json.RawJson;
+import com.task.founding.engineer.model.XRayRun;
+import com.task.founding.engineer.model.XRayStep;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Loads the lazy payload columns of already-loaded runs and steps in one query per chunk of ids.
+ * <p>
+ * Touching a lazy attribute on an enhanced entity issues one select per entity; for lists this
+ * selects only the requested columns for all entities at once and writes them back through the
+ * setters, which marks the attributes as initialized.
+ */
+@Component
+@RequiredArgsConstructor
+public class PayloadLoader {
+
+    private static final int CHUNK_SIZE = 500;
+    private static final Set<PayloadField> RUN_FIELDS = EnumSet.of(PayloadField.INPUT, PayloadField.OUTPUT);
+    // Shares the "reasoning" lazy group; loaded alongside it so TextCompressor can read either column.
+    private static final String REASONING_COMPRESSED = "reasoningCompressed";
+
+    private final EntityManager entityManager;
+
+    public void loadRunPayloads(@NotNull Collection<XRayRun> runs, @NotNull Set<PayloadField> include) {
+        List<String> attributes = include.stream()
+                .filter(RUN_FIELDS::contains)
+                .map(PayloadField::getAttributeName)
+                .collect(Collectors.toList());
+        load("XRayRun", "runId", runs, XRayRun::getRunId, attributes, PayloadLoader::setRunPayload);
+    }
+
+    public void loadStepPayloads(@NotNull Collection<XRayStep> steps, @NotNull Set<PayloadField> include) {
+        List<String> attributes = new ArrayList<>();
+        for (PayloadField field : include) {
+            attributes.add(field.getAttributeName());
+            if (field == PayloadField.REASONING) {
+                attributes.add(REASONING_COMPRESSED);
+            }
+        }
+        load("XRayStep", "stepId", steps, XRayStep::getStepId, attributes, PayloadLoader::setStepPayload);
+    }
+
+    private <E> void load(
+            String entityName,
+            String idAttribute,
+            Collection<E> entities,
+            Function<E, UUID> idOf,
+            List<String> attributes,
+            PayloadSetter<E> setter) {
+        if (attributes.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, E> pending = new LinkedHashMap<>();
+        for (E entity : entities) {
+            if (attributes.stream().anyMatch(attribute -> !Hibernate.isPropertyInitialized(entity, attribute))) {
+                pending.put(idOf.apply(entity), entity);
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        String jpql = "SELECT e." + idAttribute
+                + attributes.stream().map(attribute -> ", e." + attribute).collect(Collectors.joining())
+                + " FROM " + entityName + " e WHERE e." + idAttribute + " IN :ids";
+
+        List<UUID> ids = new ArrayList<>(pending.keySet());
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            List<Object[]> rows = entityManager.createQuery(jpql, Object[].class)
+                    .setParameter("ids", ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size())))
+                    .getResultList();
+            for (Object[] row : rows) {
+                E entity = pending.get((UUID) row[0]);
+                for (int i = 0; i < attributes.size(); i++) {
+                    setter.set(entity, attributes.get(i), row[i + 1]);
+                }
+            }
+        }
+    }
+
+    private static void setRunPayload(XRayRun run, String attribute, Object value) {
+        switch (attribute) {
+            case "input" -> run.setInput((RawJson) value);
+            case "output" -> run.setOutput((RawJson) value);
+            default -> throw new IllegalArgumentException("Runs have no " + attribute + " column");
+        }
+    }
+
+    private static void setStepPayload(XRayStep step, String attribute, Object value) {
+        switch (attribute) {
+            case "input" -> step.setInput((RawJson) value);
+            case "output" -> step.setOutput((RawJson) value);
+            case "metadata" -> step.setMetadata((RawJson) value);
+            case "reasoning" -> step.setReasoning((String) value);
+            case REASONING_COMPRESSED -> step.setReasoningCompressed((byte[]) value);
+            default -> throw new IllegalArgumentException("Steps have no " + attribute + " column");
+        }
+    }
+
+    @FunctionalInterface
+    private interface PayloadSetter<E> {
+        void set(E entity, String attribute, Object value);
+    }
+}
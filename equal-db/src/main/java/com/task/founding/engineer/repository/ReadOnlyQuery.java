@@ -0,0 +1,30 @@
+package com.task.founding.engineer.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a repository finder whose results are only ever read.
+ * <p>
+ * Entities come back read-only (Hibernate keeps no loaded-state snapshot for dirty checking),
+ * the query skips the auto-flush before executing, and rows are streamed from the driver in
+ * batches of {@link #FETCH_SIZE} instead of the driver default. Do not use on finders whose
+ * results are modified and expected to be flushed.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@QueryHints({
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL"),
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ReadOnlyQuery.FETCH_SIZE)
+})
+public @interface ReadOnlyQuery {
+
+    String FETCH_SIZE = "500";
+}
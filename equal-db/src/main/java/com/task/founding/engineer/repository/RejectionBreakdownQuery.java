@@ -0,0 +1,132 @@
+package com.task.founding.engineer.repository;
+
+import com.task.founding.engineer.enums.RejectionReasonGrouping;
+import jakarta.annotation.Nullable;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Native rejection breakdown: rejected candidates of a step time window counted per reason code or
+ * per template. Only the top {@code limit} groups leave the database; the rejected total and the
+ * count without a reason ride along on every row as window aggregates over all groups. As in
+ * {@code CandidateSearchQuery}, only the filters that are set are written into the SQL. Step name
+ * and pipeline type match on the interned code, and on the string for rows not coded yet, as in
+ * {@code XRayStepRepository}; a name without a code matches the uncoded rows only.
+ * <p>
+ * A {@code @Repository} so a statement timeout surfaces as Spring's {@code QueryTimeoutException}.
+ */
+@Repository
+public class RejectionBreakdownQuery {
+
+    private final EntityManager entityManager;
+    private final Duration timeout;
+
+    public RejectionBreakdownQuery(
+            EntityManager entityManager,
+            @Value("${xray.rejection-breakdown.timeout:PT30S}") Duration timeout) {
+        this.entityManager = entityManager;
+        this.timeout = timeout;
+    }
+
+    @Builder
+    public record Filter(
+            @NotNull LocalDateTime startDate,
+            @NotNull LocalDateTime endDate,
+            @Nullable String stepName,
+            @Nullable Integer stepNameCode,
+            @Nullable String pipelineType,
+            @Nullable Integer pipelineTypeCode,
+            @NotNull RejectionReasonGrouping groupBy) {
+    }
+
+    /**
+     * A reason code or template id and its rejected candidates.
+     */
+    public record Group(long key, long count) {
+    }
+
+    /**
+     * The top groups, most rejected first, and the totals over all groups.
+     */
+    public record Breakdown(long totalRejected, long unspecifiedCount, List<Group> groups) {
+    }
+
+    public Breakdown breakdown(@NotNull Filter filter, int limit) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        Query query = entityManager.createNativeQuery(toSql(filter, parameters))
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint("jakarta.persistence.query.timeout", (int) timeout.toMillis())
+                .setMaxResults(limit);
+        parameters.forEach(query::setParameter);
+
+        long totalRejected = 0;
+        long unspecifiedCount = 0;
+        List<Group> groups = new ArrayList<>(limit);
+        for (Object result : query.getResultList()) {
+            Object[] row = (Object[]) result;
+            totalRejected = ((Number) row[2]).longValue();
+            unspecifiedCount = Objects.isNull(row[3]) ? 0 : ((Number) row[3]).longValue();
+            // The group without a key sorts last, so it is only returned when every keyed group fits
+            if (Objects.nonNull(row[0])) {
+                groups.add(new Group(((Number) row[0]).longValue(), ((Number) row[1]).longValue()));
+            }
+        }
+        return new Breakdown(totalRejected, unspecifiedCount, groups);
+    }
+
+    static String toSql(Filter filter, Map<String, Object> parameters) {
+        String key = filter.groupBy() == RejectionReasonGrouping.TEMPLATE
+                ? "c.rejection_template_id"
+                : "c.rejection_reason_code";
+        StringBuilder sql = new StringBuilder("SELECT ").append(key).append(", COUNT(*), ")
+                .append("SUM(COUNT(*)) OVER (), ")
+                .append("SUM(CASE WHEN ").append(key).append(" IS NULL THEN COUNT(*) END) OVER () ")
+                .append("FROM xray_candidates c JOIN xray_steps s ON s.step_id = c.step_id ");
+        if (Objects.nonNull(filter.pipelineType())) {
+            sql.append("JOIN xray_runs r ON r.run_id = s.run_id ");
+        }
+        sql.append("WHERE c.selected = false AND s.started_at >= :startDate AND s.started_at <= :endDate");
+        parameters.put("startDate", filter.startDate());
+        parameters.put("endDate", filter.endDate());
+        if (Objects.nonNull(filter.stepName())) {
+            appendMatch(sql, parameters, "s.step_name", "stepName", filter.stepName(), filter.stepNameCode());
+        }
+        if (Objects.nonNull(filter.pipelineType())) {
+            appendMatch(sql, parameters, "r.pipeline_type", "pipelineType", filter.pipelineType(), filter.pipelineTypeCode());
+        }
+        return sql.append(" GROUP BY ").append(key)
+                .append(" ORDER BY CASE WHEN ").append(key).append(" IS NULL THEN 1 ELSE 0 END, COUNT(*) DESC, ").append(key)
+                .toString();
+    }
+
+    // (column_code = :code OR (column_code IS NULL AND column = :value)); no code, no code branch
+    private static void appendMatch(
+            StringBuilder sql,
+            Map<String, Object> parameters,
+            String column,
+            String parameter,
+            String value,
+            @Nullable Integer code) {
+        if (Objects.nonNull(code)) {
+            sql.append(" AND (").append(column).append("_code = :").append(parameter).append("Code OR (")
+                    .append(column).append("_code IS NULL AND ").append(column).append(" = :").append(parameter).append("))");
+            parameters.put(parameter + "Code", code);
+        } else {
+            sql.append(" AND ").append(column).append("_code IS NULL AND ").append(column).append(" = :").append(parameter);
+        }
+        parameters.put(parameter, value);
+    }
+}
@@ -0,0 +1,10 @@
+package com.task.founding.engineer.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One checkpointed sketch: the step name and hour it covers and the instance that wrote it.
+ */
+public record SketchRow(Integer stepNameCode, LocalDateTime windowStart, UUID instanceId, byte[] sketch) {
+}
@@ -0,0 +1,15 @@
+package com.task.founding.engineer.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A step with the serialized candidate Bloom filter it kept before batch filters, null for steps
+ * written since and for steps without a keyed candidate.
+ */
+public record StepBloomFilter(
+        UUID stepId,
+        UUID runId,
+        LocalDateTime startedAt,
+        byte[] candidateBloom) {
+}
@@ -0,0 +1,13 @@
+package com.task.founding.engineer.repository;
+
+import java.util.UUID;
+
+/**
+ * The columns of one candidate kept by the step column cache, without any payload column.
+ */
+public record StepColumnRow(
+        UUID stepId,
+        Double score,
+        Boolean selected,
+        Integer rejectionReasonCode) {
+}
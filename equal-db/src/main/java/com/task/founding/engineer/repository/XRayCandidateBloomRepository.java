@@ -0,0 +1,21 @@
+package com.task.founding.engineer.repository;
+
+import com.task.founding.engineer.model.XRayCandidateBloom;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface XRayCandidateBloomRepository extends JpaRepository<XRayCandidateBloom, Long> {
+
+    // Every batch filter of the steps, through idx_candidate_bloom_step_id
+    @ReadOnlyQuery
+    @Query("SELECT new com.task.founding.engineer.repository.CandidateBloomRow(b.stepId, b.candidateBloom) " +
+           "FROM XRayCandidateBloom b WHERE b.stepId IN :stepIds")
+    List<CandidateBloomRow> findByStepIds(@Param("stepIds") Collection<UUID> stepIds);
+}
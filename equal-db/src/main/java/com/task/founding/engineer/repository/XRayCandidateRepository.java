@@ -1,21 +1,29 @@
 package com.task.founding.engineer.repository;
 
 import com.task.founding.engineer.model.XRayCandidate;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface XRayCandidateRepository extends JpaRepository<XRayCandidate, UUID> {
 
+    @ReadOnlyQuery
     List<XRayCandidate> findByStepId(UUID stepId);
 
+    @ReadOnlyQuery
     List<XRayCandidate> findByStepIdAndSelectedTrue(UUID stepId);
 
+    @ReadOnlyQuery
     List<XRayCandidate> findByStepIdAndSelectedFalse(UUID stepId);
 
     long countByStepId(UUID stepId);
@@ -30,5 +38,73 @@ public interface XRayCandidateRepository extends JpaRepository<XRayCandidate, UU
            "END " +
            "FROM XRayCandidate c WHERE c.stepId = :stepId")
     Double calculateRejectionRate(@Param("stepId") UUID stepId);
+
+    // Copies the template of each reason to its candidates that have none, joined to the dictionary
+    // by primary key; idx_candidate_reason_template finds the candidates of the given codes
+    @Modifying
+    @Query("UPDATE XRayCandidate c SET c.rejectionTemplateId = " +
+           "  (SELECT e.templateId FROM XRayDictionaryEntry e WHERE e.code = c.rejectionReasonCode) " +
+           "WHERE c.rejectionReasonCode IN :reasonCodes AND c.rejectionTemplateId IS NULL")
+    int assignRejectionTemplates(@Param("reasonCodes") Collection<Integer> reasonCodes);
+
+    // Most recent runs in which the business key appeared; served by idx_candidate_business_key
+    @Query("SELECT s.runId FROM XRayCandidate c JOIN c.step s JOIN s.run r " +
+           "WHERE c.businessKey = :businessKey " +
+           "AND (:startDate IS NULL OR r.startedAt >= :startDate) " +
+           "AND (:endDate IS NULL OR r.startedAt <= :endDate) " +
+           "GROUP BY s.runId, r.startedAt " +
+           "ORDER BY r.startedAt DESC")
+    List<UUID> findLineageRunIds(
+            @Param("businessKey") String businessKey,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            Limit limit);
+
+    @Query("SELECT new com.task.founding.engineer.repository.CandidateLineageRow(" +
+           "r.runId, r.pipelineType, r.pipelineId, r.status, r.startedAt, " +
+           "s.stepId, s.stepName, s.stepType, s.order, " +
+           "c.candidateId, c.selected, c.score, c.rejectionReasonCode, c.rejectionReason) " +
+           "FROM XRayCandidate c JOIN c.step s JOIN s.run r " +
+           "WHERE c.businessKey = :businessKey AND s.runId IN :runIds " +
+           "ORDER BY r.startedAt DESC, r.runId, s.order, s.startedAt")
+    List<CandidateLineageRow> findLineage(
+            @Param("businessKey") String businessKey,
+            @Param("runIds") Collection<UUID> runIds);
+
+    // Exact check of Bloom filter hits, on idx_candidate_business_key
+    @Query("SELECT DISTINCT c.stepId FROM XRayCandidate c WHERE c.businessKey = :businessKey AND c.stepId IN :stepIds")
+    List<UUID> findStepIdsWithBusinessKey(
+            @Param("businessKey") String businessKey,
+            @Param("stepIds") Collection<UUID> stepIds);
+
+    // All candidates of a run, grouped by business key for a single-pass pivot. Must be consumed
+    // inside a transaction; the fetch size of ReadOnlyQuery keeps the driver from buffering all rows.
+    @ReadOnlyQuery
+    @Query("SELECT new com.task.founding.engineer.repository.DecisionMatrixEntry(" +
+           "c.stepId, c.businessKey, c.candidateId, c.selected, c.score, c.rejectionReasonCode, c.rejectionReason) " +
+           "FROM XRayCandidate c JOIN c.step s " +
+           "WHERE s.runId = :runId " +
+           "ORDER BY c.businessKey NULLS LAST, s.order, c.candidateId")
+    Stream<DecisionMatrixEntry> streamDecisionMatrix(@Param("runId") UUID runId);
+
+    // Candidates of the given steps for the step column cache, without any payload column.
+    // Must be consumed inside a transaction.
+    @ReadOnlyQuery
+    @Query("SELECT new com.task.founding.engineer.repository.StepColumnRow(" +
+           "c.stepId, c.score, c.selected, c.rejectionReasonCode) " +
+           "FROM XRayCandidate c " +
+           "WHERE c.stepId IN :stepIds")
+    Stream<StepColumnRow> streamStepColumns(@Param("stepIds") Collection<UUID> stepIds);
+
+    long countByStepIdIn(Collection<UUID> stepIds);
+
+    // Scores of the candidates of the given steps whose id is at most the bound. Ids are random
+    // UUIDs, so a bound keeps a uniform share of them and only that share leaves the database.
+    @ReadOnlyQuery
+    @Query("SELECT c.score FROM XRayCandidate c " +
+           "WHERE c.stepId IN :stepIds AND c.score IS NOT NULL AND c.candidateId <= :maxCandidateId")
+    List<Double> findSampledScores(
+            @Param("stepIds") Collection<UUID> stepIds,
+            @Param("maxCandidateId") UUID maxCandidateId);
 }
 
@@ -0,0 +1,17 @@
+package com.task.founding.engineer.repository;
+
+import com.task.founding.engineer.model.XRayCompressionDictionary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface XRayCompressionDictionaryRepository extends JpaRepository<XRayCompressionDictionary, Long> {
+
+    Optional<XRayCompressionDictionary> findFirstByStepNameOrderByCreatedAtDesc(String stepName);
+
+    Optional<XRayCompressionDictionary> findByDictId(Long dictId);
+
+    boolean existsByDictId(Long dictId);
+}
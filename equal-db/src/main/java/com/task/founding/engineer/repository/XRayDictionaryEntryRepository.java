@@ -0,0 +1,24 @@
+package com.task.founding.engineer.repository;
+
+import com.task.founding.engineer.enums.DictionaryKind;
+import com.task.founding.engineer.model.XRayDictionaryEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface XRayDictionaryEntryRepository extends JpaRepository<XRayDictionaryEntry, Integer> {
+
+    Optional<XRayDictionaryEntry> findByKindAndDigest(DictionaryKind kind, String digest);
+
+    List<XRayDictionaryEntry> findByKindAndDigestIn(DictionaryKind kind, Collection<String> digests);
+
+    List<XRayDictionaryEntry> findByCodeInAndTemplateIdIsNotNull(Collection<Integer> codes);
+
+    List<XRayDictionaryEntry> findByKindAndTemplateIdIsNullAndCodeGreaterThanOrderByCodeAsc(
+            DictionaryKind kind, Integer code, Limit limit);
+}
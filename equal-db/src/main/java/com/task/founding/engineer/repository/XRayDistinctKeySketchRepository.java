@@ -0,0 +1,38 @@
+package com.task.founding.engineer.repository;
+
+import com.task.founding.engineer.model.XRayDistinctKeySketch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Repository
+public interface XRayDistinctKeySketchRepository extends JpaRepository<XRayDistinctKeySketch, Long> {
+
+    Optional<XRayDistinctKeySketch> findByPipelineTypeCodeAndStepNameCodeAndWindowStartAndInstanceId(
+            Integer pipelineTypeCode, Integer stepNameCode, LocalDateTime windowStart, UUID instanceId);
+
+    // Uses the unique constraint's index, which leads with pipeline_type_code and window_start
+    @ReadOnlyQuery
+    @Query("SELECT new com.task.founding.engineer.repository.SketchRow(s.stepNameCode, s.windowStart, s.instanceId, s.sketch) " +
+           "FROM XRayDistinctKeySketch s " +
+           "WHERE s.pipelineTypeCode = :pipelineTypeCode " +
+           "AND (:stepNameCode IS NULL OR s.stepNameCode = :stepNameCode) " +
+           "AND s.windowStart >= :from AND s.windowStart < :to " +
+           "ORDER BY s.windowStart")
+    Stream<SketchRow> streamSketches(
+            @Param("pipelineTypeCode") Integer pipelineTypeCode,
+            @Param("stepNameCode") Integer stepNameCode,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("DELETE FROM XRayDistinctKeySketch s WHERE s.windowStart < :before")
+    int deleteByWindowStartBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,24 @@
+package com.task.founding.engineer.repository;
+
+import com.task.founding.engineer.enums.PromotionStatus;
+import com.task.founding.engineer.model.XRayPromotedKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface XRayPromotedKeyRepository extends JpaRepository<XRayPromotedKey, Long> {
+
+    Optional<XRayPromotedKey> findByPath(String path);
+
+    boolean existsByIndexName(String indexName);
+
+    List<XRayPromotedKey> findByStatus(PromotionStatus status);
+
+    List<XRayPromotedKey> findByStatusInOrderByCreatedAtAsc(Collection<PromotionStatus> statuses);
+
+    List<XRayPromotedKey> findAllByOrderByCreatedAtAsc();
+}
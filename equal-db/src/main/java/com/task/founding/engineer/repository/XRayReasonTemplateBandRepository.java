@@ -0,0 +1,14 @@
+package com.task.founding.engineer.repository;
+
+import com.task.founding.engineer.model.XRayReasonTemplateBand;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface XRayReasonTemplateBandRepository extends JpaRepository<XRayReasonTemplateBand, Long> {
+
+    List<XRayReasonTemplateBand> findByBandHashIn(Collection<Long> bandHashes);
+}
@@ -0,0 +1,9 @@
+package com.task.founding.engineer.repository;
+
+import com.task.founding.engineer.model.XRayReasonTemplate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface XRayReasonTemplateRepository extends JpaRepository<XRayReasonTemplate, Long> {
+}
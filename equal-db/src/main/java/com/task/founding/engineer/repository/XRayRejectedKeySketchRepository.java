@@ -0,0 +1,33 @@
+package com.task.founding.engineer.repository;
+
+import com.task.founding.engineer.model.XRayRejectedKeySketch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface XRayRejectedKeySketchRepository extends JpaRepository<XRayRejectedKeySketch, Long> {
+
+    Optional<XRayRejectedKeySketch> findByStepNameCodeAndWindowStartAndInstanceId(
+            Integer stepNameCode, LocalDateTime windowStart, UUID instanceId);
+
+    // Uses the unique constraint's index, which leads with step_name_code
+    @Query("SELECT new com.task.founding.engineer.repository.SketchRow(s.stepNameCode, s.windowStart, s.instanceId, s.sketch) " +
+           "FROM XRayRejectedKeySketch s " +
+           "WHERE s.stepNameCode = :stepNameCode AND s.windowStart >= :from AND s.windowStart < :to")
+    List<SketchRow> findSketches(
+            @Param("stepNameCode") Integer stepNameCode,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("DELETE FROM XRayRejectedKeySketch s WHERE s.windowStart < :before")
+    int deleteByWindowStartBefore(@Param("before") LocalDateTime before);
+}
@@ -1,8 +1,10 @@
 package com.task.founding.engineer.repository;
 
+import com.task.founding.engineer.json.RawJson;
 import com.task.founding.engineer.model.XRayRun;
 import com.task.founding.engineer.enums.RunStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -15,22 +17,115 @@ import java.util.UUID;
 @Repository
 public interface XRayRunRepository extends JpaRepository<XRayRun, UUID> {
 
+    @Override
+    @ReadOnlyQuery
+    List<XRayRun> findAll();
+
+    @ReadOnlyQuery
     List<XRayRun> findByPipelineType(String pipelineType);
 
+    @ReadOnlyQuery
     List<XRayRun> findByPipelineTypeAndStatus(String pipelineType, RunStatus status);
 
+    // Matches on the interned code. Rows written before codes existed have none until
+    // DictionaryBackfill reaches them, and match on the string instead; a null code (a type that
+    // was never interned) only matches those.
+    String PIPELINE_TYPE_MATCH = "(r.pipelineTypeCode = :pipelineTypeCode " +
+            "OR (r.pipelineTypeCode IS NULL AND r.pipelineType = :pipelineType))";
+
+    @ReadOnlyQuery
+    @Query("SELECT r FROM XRayRun r WHERE " + PIPELINE_TYPE_MATCH)
+    List<XRayRun> findByPipelineTypeOrCode(
+            @Param("pipelineType") String pipelineType,
+            @Param("pipelineTypeCode") Integer pipelineTypeCode);
+
+    @ReadOnlyQuery
+    @Query("SELECT r FROM XRayRun r WHERE " + PIPELINE_TYPE_MATCH + " AND r.status = :status")
+    List<XRayRun> findByPipelineTypeOrCodeAndStatus(
+            @Param("pipelineType") String pipelineType,
+            @Param("pipelineTypeCode") Integer pipelineTypeCode,
+            @Param("status") RunStatus status);
+
+    @ReadOnlyQuery
     List<XRayRun> findByStartedAtBetween(LocalDateTime start, LocalDateTime end);
 
+    @ReadOnlyQuery
     List<XRayRun> findByPipelineTypeAndStartedAtBetween(
             String pipelineType, 
             LocalDateTime start, 
             LocalDateTime end
     );
 
+    @ReadOnlyQuery
+    @Query("SELECT r FROM XRayRun r WHERE " + PIPELINE_TYPE_MATCH + " AND r.startedAt BETWEEN :start AND :end")
+    List<XRayRun> findByPipelineTypeOrCodeAndStartedAtBetween(
+            @Param("pipelineType") String pipelineType,
+            @Param("pipelineTypeCode") Integer pipelineTypeCode,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end
+    );
+
+    @ReadOnlyQuery
+    @Query("SELECT new com.task.founding.engineer.repository.ActiveRunRow(" +
+           "r.runId, r.pipelineTypeCode, r.startedAt, MAX(s.startedAt), MAX(s.completedAt)) " +
+           "FROM XRayRun r LEFT JOIN r.steps s " +
+           "WHERE r.status = :status " +
+           "GROUP BY r.runId, r.pipelineTypeCode, r.startedAt")
+    List<ActiveRunRow> findActivity(@Param("status") RunStatus status);
+
+    @Query("SELECT r.status FROM XRayRun r WHERE r.runId = :runId")
+    Optional<RunStatus> findStatusById(@Param("runId") UUID runId);
+
+    @Query("SELECT r.pipelineTypeCode FROM XRayRun r WHERE r.runId = :runId")
+    Optional<Integer> findPipelineTypeCodeById(@Param("runId") UUID runId);
+
+    // Steps and candidates are both bags, so only steps can be join-fetched; candidates are
+    // batch-loaded per step (see @BatchSize on XRayStep.candidates).
+    @ReadOnlyQuery
     @Query("SELECT DISTINCT r FROM XRayRun r " +
-           "LEFT JOIN FETCH r.steps s " +
-           "LEFT JOIN FETCH s.candidates " +
+           "LEFT JOIN FETCH r.steps " +
+           "WHERE r.runId = :runId")
+    Optional<XRayRun> findByIdWithSteps(@Param("runId") UUID runId);
+
+    // Targeted updates: the run row is never loaded, so its JSONB columns are not read or snapshotted.
+    @Modifying
+    @Query("UPDATE XRayRun r SET r.status = :status, r.completedAt = :completedAt, r.output = :output " +
            "WHERE r.runId = :runId")
-    Optional<XRayRun> findByIdWithStepsAndCandidates(@Param("runId") UUID runId);
+    int updateCompletion(
+            @Param("runId") UUID runId,
+            @Param("status") RunStatus status,
+            @Param("completedAt") LocalDateTime completedAt,
+            @Param("output") RawJson output);
+
+    @Modifying
+    @Query("UPDATE XRayRun r SET r.status = :status, r.completedAt = :completedAt WHERE r.runId = :runId")
+    int updateStatus(
+            @Param("runId") UUID runId,
+            @Param("status") RunStatus status,
+            @Param("completedAt") LocalDateTime completedAt);
+
+    // Written only when the recorded activity is older than touchedBefore, so batches of one run
+    // update its row at most once per interval instead of queueing on it with every batch.
+    @Modifying
+    @Query("UPDATE XRayRun r SET r.lastActivityAt = :now WHERE r.runId = :runId " +
+           "AND (r.lastActivityAt IS NULL OR r.lastActivityAt < :touchedBefore)")
+    int touchActivity(
+            @Param("runId") UUID runId,
+            @Param("now") LocalDateTime now,
+            @Param("touchedBefore") LocalDateTime touchedBefore);
+
+    // One set-based update: a run is stale when it neither started nor ingested candidates, and
+    // none of its steps started or completed, since idleSince.
+    @Modifying
+    @Query("UPDATE XRayRun r SET r.status = :failed, r.completedAt = :failedAt " +
+           "WHERE r.status = :inProgress AND r.startedAt < :idleSince " +
+           "AND (r.lastActivityAt IS NULL OR r.lastActivityAt < :idleSince) " +
+           "AND NOT EXISTS (SELECT 1 FROM XRayStep s WHERE s.runId = r.runId " +
+           "AND (s.startedAt >= :idleSince OR s.completedAt >= :idleSince))")
+    int failIdleRuns(
+            @Param("inProgress") RunStatus inProgress,
+            @Param("failed") RunStatus failed,
+            @Param("idleSince") LocalDateTime idleSince,
+            @Param("failedAt") LocalDateTime failedAt);
 }
 
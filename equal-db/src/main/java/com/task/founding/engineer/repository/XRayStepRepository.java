@@ -1,28 +1,47 @@
 package com.task.founding.engineer.repository;
 
+import com.task.founding.engineer.json.RawJson;
 import com.task.founding.engineer.model.XRayStep;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface XRayStepRepository
         extends JpaRepository<XRayStep, UUID>
 {
 
+    @ReadOnlyQuery
     List<XRayStep> findByRunIdOrderByOrderAsc(UUID runId);
 
+    @ReadOnlyQuery
     List<XRayStep> findByStepType(String stepType);
 
+    // Matches on the interned code, and on the string for rows written before codes existed,
+    // until DictionaryBackfill codes them; see XRayRunRepository.PIPELINE_TYPE_MATCH
+    @ReadOnlyQuery
+    @Query("SELECT s FROM XRayStep s WHERE s.stepTypeCode = :stepTypeCode " +
+           "OR (s.stepTypeCode IS NULL AND s.stepType = :stepType)")
+    List<XRayStep> findByStepTypeOrCode(
+            @Param("stepType") String stepType,
+            @Param("stepTypeCode") Integer stepTypeCode);
+
+    @ReadOnlyQuery
     List<XRayStep> findByStepName(String stepName);
 
+    @ReadOnlyQuery
     List<XRayStep> findByStepTypeAndStepName(String stepType, String stepName);
 
+    @ReadOnlyQuery
     @Query(value = "SELECT s.* FROM xray_steps s " +
            "WHERE s.step_type = :stepType " +
            "AND EXISTS (SELECT 1 FROM xray_candidates c WHERE c.step_id = s.step_id) " +
@@ -35,20 +54,72 @@ public interface XRayStepRepository
             @Param("rejectionRate") double rejectionRate
     );
 
+    @ReadOnlyQuery
     @Query("SELECT s FROM XRayStep s " +
            "JOIN FETCH s.run r " +
            "WHERE s.stepType = :stepType")
     List<XRayStep> findByStepTypeWithRun(@Param("stepType") String stepType);
 
+    @ReadOnlyQuery
     @Query("SELECT s FROM XRayStep s " +
             "JOIN s.run r " +
-            "WHERE s.stepType = 'filter' " +
-            "AND (:pipelineType IS NULL OR r.pipelineType = :pipelineType) " +
+            "WHERE (s.stepTypeCode = :filterTypeCode OR (s.stepTypeCode IS NULL AND s.stepType = :filterType)) " +
+            "AND (:pipelineType IS NULL OR " + XRayRunRepository.PIPELINE_TYPE_MATCH + ") " +
             "AND (:startDate IS NULL OR s.startedAt >= :startDate) " +
             "AND (:endDate IS NULL OR s.startedAt <= :endDate)")
     List<XRayStep> findFilteringSteps(
+            @Param("filterType") String filterType,
+            @Param("filterTypeCode") Integer filterTypeCode,
             @Param("pipelineType") String pipelineType,
+            @Param("pipelineTypeCode") Integer pipelineTypeCode,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+
+    // Steps of one name started in [startDate, endDate), on idx_step_name_code_started_at
+    @ReadOnlyQuery
+    @Query("SELECT s FROM XRayStep s " +
+           "WHERE s.stepNameCode = :stepNameCode " +
+           "AND s.startedAt >= :startDate AND s.startedAt < :endDate")
+    List<XRayStep> findByStepNameCodeInWindow(
+            @Param("stepNameCode") Integer stepNameCode,
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
+
+    // Latest steps of a name with the single Bloom filter of steps written before batch filters, for membership scans
+    @ReadOnlyQuery
+    @Query("SELECT new com.task.founding.engineer.repository.StepBloomFilter(s.stepId, s.runId, s.startedAt, s.candidateBloom) " +
+           "FROM XRayStep s JOIN s.run r " +
+           "WHERE s.stepNameCode = :stepNameCode " +
+           "AND (:pipelineTypeCode IS NULL OR r.pipelineTypeCode = :pipelineTypeCode) " +
+           "ORDER BY s.startedAt DESC")
+    Stream<StepBloomFilter> streamBloomFilters(
+            @Param("stepNameCode") Integer stepNameCode,
+            @Param("pipelineTypeCode") Integer pipelineTypeCode,
+            Limit limit);
+
+    @Query("SELECT s.stepName FROM XRayStep s WHERE s.stepId = :stepId")
+    Optional<String> findStepNameById(@Param("stepId") UUID stepId);
+
+    // Targeted update: the step row is never loaded, so its JSONB columns are not read or snapshotted.
+    @Modifying
+    @Query("UPDATE XRayStep s SET s.completedAt = :completedAt, s.output = :output, " +
+           "s.reasoning = COALESCE(:reasoning, s.reasoning) " +
+           "WHERE s.stepId = :stepId")
+    int updateCompletion(
+            @Param("stepId") UUID stepId,
+            @Param("completedAt") LocalDateTime completedAt,
+            @Param("output") RawJson output,
+            @Param("reasoning") String reasoning);
+
+    // Compressed variant of updateCompletion; clears any plain reasoning so reads take the frame.
+    @Modifying
+    @Query("UPDATE XRayStep s SET s.completedAt = :completedAt, s.output = :output, " +
+           "s.reasoning = NULL, s.reasoningCompressed = :reasoningCompressed " +
+           "WHERE s.stepId = :stepId")
+    int updateCompletionCompressed(
+            @Param("stepId") UUID stepId,
+            @Param("completedAt") LocalDateTime completedAt,
+            @Param("output") RawJson output,
+            @Param("reasoningCompressed") byte[] reasoningCompressed);
 }
 
@@ -0,0 +1,67 @@
+package com.task.founding.engineer.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Creates the {@code jsonb_path_ops} GIN indexes that serve candidate search containment
+ * predicates. JPA index annotations cannot express an index method or operator class, so they are
+ * created here, concurrently so writes to {@code xray_candidates} keep flowing while a large table
+ * is indexed. The build runs on the scheduler, so startup does not wait for it and searches run
+ * without the indexes until it finishes; a failed build is retried on the next run. PostgreSQL
+ * only; a no-op once the indexes exist.
+ */
+@Slf4j
+@Component
+public class CandidateSearchIndexes {
+
+    private static final List<GinIndex> INDEXES = List.of(
+            new GinIndex("idx_candidate_data_gin", "data"),
+            new GinIndex("idx_candidate_metadata_gin", "metadata"));
+
+    private final DataSource dataSource;
+    private final boolean enabled;
+
+    // Only touched by the scheduler thread
+    private boolean done;
+
+    public CandidateSearchIndexes(
+            DataSource dataSource,
+            @Value("${xray.candidate-search.create-indexes:true}") boolean enabled) {
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+    }
+
+    @Scheduled(
+            initialDelayString = "${xray.candidate-search.index-initial-delay:PT10S}",
+            fixedDelayString = "${xray.candidate-search.index-interval:PT5M}")
+    public void run() {
+        if (!enabled || done) {
+            return;
+        }
+        // CONCURRENTLY cannot run inside a transaction, so this uses a plain auto-commit connection
+        try (Connection connection = dataSource.getConnection()) {
+            if (PostgresDdl.isPostgres(connection)) {
+                connection.setAutoCommit(true);
+                for (GinIndex index : INDEXES) {
+                    PostgresDdl.createIndexConcurrently(connection, index.name(),
+                            "ON xray_candidates USING gin (" + index.column() + " jsonb_path_ops)");
+                }
+                log.info("Candidate search GIN indexes are in place");
+            }
+            done = true;
+        } catch (SQLException e) {
+            log.warn("Building the candidate search GIN indexes failed; will retry", e);
+        }
+    }
+
+    private record GinIndex(String name, String column) {
+    }
+}
@@ -0,0 +1,140 @@
+package com.task.founding.engineer.search;
+
+import com.task.founding.engineer.dto.request.JsonPathPredicateDTO;
+import com.task.founding.engineer.json.RawJson;
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.NotNull;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * Turns JSON-path equality predicates into one JSONB containment document per column, e.g.
+ * {@code data.attributes.color = "red"} and {@code data.category = "shoes"} become
+ * {@code {"attributes":{"color":"red"},"category":"shoes"}}, matched with {@code data @> ...}.
+ * <p>
+ * Containment is what a {@code jsonb_path_ops} GIN index answers, so every predicate is served by
+ * the index; range or pattern predicates on JSON are deliberately not supported. String equality
+ * on a promoted {@code data} path is compared on its indexed {@link #textExpression} instead.
+ */
+public final class JsonContainment {
+
+    public static final String DATA = "data";
+    public static final String METADATA = "metadata";
+
+    private static final Pattern SEGMENT = Pattern.compile("[A-Za-z0-9_-]+");
+    private static final JsonMapper MAPPER = JsonMapper.builder().build();
+
+    private JsonContainment() {
+    }
+
+    /**
+     * @param data             containment document for {@code data}, if any predicate needs one
+     * @param metadata         containment document for {@code metadata}, if any predicate needs one
+     * @param promotedEquals   text expression of a promoted path to the string it must equal
+     */
+    public record Documents(
+            @Nullable String data,
+            @Nullable String metadata,
+            @NotNull Map<String, String> promotedEquals) {
+    }
+
+    public static Documents of(@NotNull List<JsonPathPredicateDTO> predicates) {
+        return of(predicates, Map.of());
+    }
+
+    /**
+     * @param promotedIndexes {@code data} paths (e.g. {@code data.category}) that are promoted, to their index names
+     */
+    public static Documents of(@NotNull List<JsonPathPredicateDTO> predicates, @NotNull Map<String, String> promotedIndexes) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        Map<String, String> promotedEquals = new LinkedHashMap<>();
+        for (JsonPathPredicateDTO predicate : predicates) {
+            String[] segments = parsePath(predicate.getPath());
+            String path = String.join(".", segments);
+            if (promotedIndexes.containsKey(path) && isString(predicate.getValue())) {
+                if (Objects.nonNull(promotedEquals.put(textExpression(path), MAPPER.readValue(predicate.getValue().json(), String.class)))) {
+                    throw new IllegalArgumentException("Conflicting predicates on path: " + predicate.getPath());
+                }
+                continue;
+            }
+            put(DATA.equals(segments[0]) ? data : metadata, segments, predicate);
+        }
+        return new Documents(
+                data.isEmpty() ? null : write(data),
+                metadata.isEmpty() ? null : write(metadata),
+                promotedEquals);
+    }
+
+    /**
+     * Splits and validates a predicate path: rooted at {@code data} or {@code metadata}, at least one
+     * field, every field made of letters, digits, {@code _} or {@code -}.
+     */
+    public static String[] parsePath(@NotNull String path) {
+        String[] segments = path.trim().split("\\.", -1);
+        if (!DATA.equals(segments[0]) && !METADATA.equals(segments[0])) {
+            throw new IllegalArgumentException("Predicate path must start with data. or metadata.: " + path);
+        }
+        if (segments.length < 2) {
+            throw new IllegalArgumentException("Predicate path names no field: " + path);
+        }
+        for (int i = 1; i < segments.length; i++) {
+            if (!SEGMENT.matcher(segments[i]).matches()) {
+                throw new IllegalArgumentException("Invalid predicate path: " + path);
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * The text at a path as SQL, e.g. {@code data #>> '{attributes,color}'} for
+     * {@code data.attributes.color}. Promoted keys are indexed on this expression, and a query only
+     * uses such an index when it compares on exactly the same expression. Segments are validated
+     * by {@link #parsePath}, so the literal needs no escaping.
+     */
+    public static String textExpression(@NotNull String path) {
+        String[] segments = parsePath(path);
+        return segments[0] + " #>> '{" + String.join(",", Arrays.copyOfRange(segments, 1, segments.length)) + "}'";
+    }
+
+    private static boolean isString(RawJson value) {
+        return value.json().startsWith("\"");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void put(Map<String, Object> root, String[] segments, JsonPathPredicateDTO predicate) {
+        Map<String, Object> node = root;
+        for (int i = 1; i < segments.length; i++) {
+            boolean leaf = i == segments.length - 1;
+            Object existing = node.get(segments[i]);
+            if (leaf ? Objects.nonNull(existing) : existing instanceof RawJson) {
+                throw new IllegalArgumentException("Conflicting predicates on path: " + predicate.getPath());
+            }
+            if (leaf) {
+                node.put(segments[i], predicate.getValue());
+            } else {
+                node = (Map<String, Object>) node.computeIfAbsent(segments[i], key -> new LinkedHashMap<>());
+            }
+        }
+    }
+
+    // Keys are restricted to SEGMENT and values are already serialized, so no escaping is needed
+    @SuppressWarnings("unchecked")
+    private static String write(Map<String, Object> node) {
+        StringBuilder json = new StringBuilder("{");
+        node.forEach((key, value) -> {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append('"').append(key).append("\":");
+            json.append(value instanceof RawJson raw ? raw.json() : write((Map<String, Object>) value));
+        });
+        return json.append('}').toString();
+    }
+}
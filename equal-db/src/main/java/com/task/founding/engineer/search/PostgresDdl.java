@@ -0,0 +1,50 @@
+package com.task.founding.engineer.search;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Helpers for the online DDL run outside of Hibernate's schema management: indexes that JPA
+ * annotations cannot express. All statements run on an auto-commit connection.
+ */
+public final class PostgresDdl {
+
+    private PostgresDdl() {
+    }
+
+    public static boolean isPostgres(Connection connection) throws SQLException {
+        return "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+    }
+
+    /**
+     * Creates an index with {@code CREATE INDEX CONCURRENTLY}, so writes to the table keep flowing.
+     * An interrupted concurrent build leaves an invalid index that {@code IF NOT EXISTS} would
+     * keep, so such an index is dropped and built again.
+     */
+    public static void createIndexConcurrently(Connection connection, String indexName, String definition)
+            throws SQLException {
+        if (isInvalidIndex(connection, indexName)) {
+            execute(connection, "DROP INDEX CONCURRENTLY IF EXISTS " + indexName);
+        }
+        execute(connection, "CREATE INDEX CONCURRENTLY IF NOT EXISTS " + indexName + " " + definition);
+    }
+
+    public static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static boolean isInvalidIndex(Connection connection, String indexName) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT NOT i.indisvalid FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid WHERE c.relname = ?")) {
+            statement.setString(1, indexName);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getBoolean(1);
+            }
+        }
+    }
+}
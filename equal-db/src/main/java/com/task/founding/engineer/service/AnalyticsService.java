@@ -1,6 +1,15 @@
 package com.task.founding.engineer.service;
 
+import com.task.founding.engineer.dto.request.WhatIfRequestDTO;
+import com.task.founding.engineer.dto.response.DistinctKeyCountResponseDTO;
 import com.task.founding.engineer.dto.response.FilteringStatsResponseDTO;
+import com.task.founding.engineer.dto.response.LiveCountersResponseDTO;
+import com.task.founding.engineer.dto.response.RejectedKeysResponseDTO;
+import com.task.founding.engineer.dto.response.RejectionReasonBreakdownResponseDTO;
+import com.task.founding.engineer.dto.response.ScoreDriftResponseDTO;
+import com.task.founding.engineer.dto.response.WhatIfResponseDTO;
+import com.task.founding.engineer.enums.RejectionReasonGrouping;
+import com.task.founding.engineer.enums.TimeBucket;
 import jakarta.annotation.Nullable;
 
 import java.time.LocalDateTime;
@@ -10,5 +19,36 @@ public interface AnalyticsService {
             @Nullable String pipelineType,
             @Nullable LocalDateTime startDate,
             @Nullable LocalDateTime endDate);
+
+    RejectionReasonBreakdownResponseDTO getRejectionReasonBreakdown(
+            @Nullable String stepName,
+            @Nullable String pipelineType,
+            @Nullable LocalDateTime startDate,
+            @Nullable LocalDateTime endDate,
+            RejectionReasonGrouping groupBy,
+            int limit);
+
+    RejectedKeysResponseDTO getTopRejectedKeys(
+            String stepName,
+            int hours,
+            int limit);
+
+    DistinctKeyCountResponseDTO getDistinctKeyCounts(
+            String pipelineType,
+            @Nullable String stepName,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            TimeBucket bucket);
+
+    WhatIfResponseDTO simulateWhatIf(WhatIfRequestDTO request);
+
+    ScoreDriftResponseDTO getScoreDrift(
+            String stepName,
+            LocalDateTime baselineStart,
+            LocalDateTime baselineEnd,
+            LocalDateTime currentStart,
+            LocalDateTime currentEnd);
+
+    LiveCountersResponseDTO getLiveCounters();
 }
 
@@ -1,9 +1,11 @@
 package com.task.founding.engineer.service;
 
+import com.task.founding.engineer.dto.request.CandidateSearchRequestDTO;
 import com.task.founding.engineer.dto.request.CreateCandidateRequestDTO;
 import com.task.founding.engineer.model.XRayCandidate;
 import jakarta.annotation.Nullable;
 import jakarta.validation.constraints.NotNull;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 import java.util.UUID;
@@ -25,4 +27,6 @@ public interface CandidateService {
     List<XRayCandidate> getSelectedCandidates(@NotNull UUID stepId);
 
     List<XRayCandidate> getRejectedCandidates(@NotNull UUID stepId);
+
+    Slice<XRayCandidate> searchCandidates(@NotNull CandidateSearchRequestDTO request);
 }
@@ -0,0 +1,14 @@
+package com.task.founding.engineer.service;
+
+import com.task.founding.engineer.dto.response.DecisionMatrixHeaderDTO;
+import com.task.founding.engineer.dto.response.DecisionMatrixRowDTO;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+public interface DecisionMatrixService {
+
+    DecisionMatrixHeaderDTO getDecisionMatrixHeader(UUID runId);
+
+    long streamDecisionMatrix(DecisionMatrixHeaderDTO header, Consumer<DecisionMatrixRowDTO> consumer);
+}
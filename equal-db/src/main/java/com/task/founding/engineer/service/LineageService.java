@@ -0,0 +1,13 @@
+package com.task.founding.engineer.service;
+
+import com.task.founding.engineer.dto.response.LineageResponseDTO;
+import com.task.founding.engineer.dto.response.StepMembershipResponseDTO;
+
+import java.time.LocalDateTime;
+
+public interface LineageService {
+
+    LineageResponseDTO getLineage(String businessKey, LocalDateTime startDate, LocalDateTime endDate, int limit);
+
+    StepMembershipResponseDTO getStepMembership(String businessKey, String stepName, String pipelineType, int limit);
+}
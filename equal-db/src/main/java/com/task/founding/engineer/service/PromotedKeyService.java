@@ -0,0 +1,17 @@
+package com.task.founding.engineer.service;
+
+import com.task.founding.engineer.dto.response.DataKeyUsageDTO;
+import com.task.founding.engineer.model.XRayPromotedKey;
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public interface PromotedKeyService {
+
+    List<DataKeyUsageDTO> getDataKeyUsage(@Nullable String pipelineType);
+
+    XRayPromotedKey promoteKey(@NotNull String path);
+
+    List<XRayPromotedKey> getPromotedKeys();
+}
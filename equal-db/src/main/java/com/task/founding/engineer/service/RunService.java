@@ -1,30 +1,45 @@
 package com.task.founding.engineer.service;
 
 import com.task.founding.engineer.dto.request.CreateRunRequestDTO;
+import com.task.founding.engineer.dto.response.ActiveRunDTO;
+import com.task.founding.engineer.dto.response.RunEventDTO;
+import com.task.founding.engineer.enums.PayloadField;
 import com.task.founding.engineer.enums.RunStatus;
+import com.task.founding.engineer.json.RawJson;
+import com.task.founding.engineer.live.RunEventBroadcaster;
 import com.task.founding.engineer.model.XRayRun;
 import jakarta.annotation.Nullable;
 import jakarta.validation.constraints.NotNull;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface RunService {
 
     UUID createRun(@NotNull CreateRunRequestDTO request);
 
-    XRayRun getRunById(@NotNull UUID runId);
+    XRayRun getRunById(@NotNull UUID runId, @NotNull Set<PayloadField> include);
 
     List<XRayRun> getAllRuns(
             @Nullable String pipelineType,
             @Nullable RunStatus status,
             @Nullable LocalDateTime startDate,
-            @Nullable LocalDateTime endDate);
+            @Nullable LocalDateTime endDate,
+            @NotNull Set<PayloadField> include);
+
+    List<ActiveRunDTO> getActiveRuns(@Nullable String pipelineType);
+
+    RunEventBroadcaster.Subscription streamRun(
+            @NotNull UUID runId,
+            @NotNull Consumer<RunEventDTO> listener,
+            @NotNull Runnable onClose);
 
     void completeRun(
             @NotNull UUID runId,
-            @NotNull Object output);
+            @NotNull RawJson output);
 
     void failRun(@NotNull UUID runId);
 }
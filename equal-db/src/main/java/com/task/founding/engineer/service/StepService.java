@@ -1,25 +1,28 @@
 package com.task.founding.engineer.service;
 
 import com.task.founding.engineer.dto.request.CreateStepRequestDTO;
+import com.task.founding.engineer.enums.PayloadField;
+import com.task.founding.engineer.json.RawJson;
 import com.task.founding.engineer.model.XRayStep;
 import jakarta.annotation.Nullable;
 import jakarta.validation.constraints.NotNull;
 
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 public interface StepService {
 
     UUID createStep(@NotNull UUID runId, @NotNull CreateStepRequestDTO request);
 
-    XRayStep getStepById(@NotNull UUID stepId);
+    XRayStep getStepById(@NotNull UUID stepId, @NotNull Set<PayloadField> include);
 
-    List<XRayStep> getStepsByRunId(@NotNull UUID runId);
+    List<XRayStep> getStepsByRunId(@NotNull UUID runId, @NotNull Set<PayloadField> include);
 
-    List<XRayStep> getStepsByType(@NotNull String stepType);
+    List<XRayStep> getStepsByType(@NotNull String stepType, @NotNull Set<PayloadField> include);
 
     void completeStep(
             @NotNull UUID stepId,
-            @NotNull Object output,
+            @NotNull RawJson output,
             @Nullable String reasoning);
 }
@@ -1,35 +1,98 @@
 package com.task.founding.engineer.service.impl;
 
+import com.task.founding.engineer.columnar.StepColumnCache;
+import com.task.founding.engineer.dictionary.ValueDictionary;
+import com.task.founding.engineer.drift.ScoreDrift;
+import com.task.founding.engineer.drift.ScoreSampler;
+import com.task.founding.engineer.dto.request.WhatIfRequestDTO;
+import com.task.founding.engineer.dto.request.WhatIfRuleDTO;
+import com.task.founding.engineer.dto.response.DistinctKeyBucketDTO;
+import com.task.founding.engineer.dto.response.DistinctKeyCountResponseDTO;
 import com.task.founding.engineer.dto.response.FilteringStatsResponseDTO;
+import com.task.founding.engineer.dto.response.LiveCountersResponseDTO;
+import com.task.founding.engineer.dto.response.LivePipelineCountersDTO;
+import com.task.founding.engineer.dto.response.RejectedKeyCountDTO;
+import com.task.founding.engineer.dto.response.RejectedKeysResponseDTO;
+import com.task.founding.engineer.dto.response.RejectionReasonBreakdownResponseDTO;
+import com.task.founding.engineer.dto.response.RejectionReasonCountDTO;
+import com.task.founding.engineer.dto.response.ScoreDriftResponseDTO;
+import com.task.founding.engineer.dto.response.ScoreQuantileDeltaDTO;
+import com.task.founding.engineer.dto.response.ScoreWindowDTO;
+import com.task.founding.engineer.dto.response.WhatIfResponseDTO;
+import com.task.founding.engineer.dto.response.WhatIfScenarioDTO;
+import com.task.founding.engineer.enums.DictionaryKind;
+import com.task.founding.engineer.enums.RejectionReasonGrouping;
+import com.task.founding.engineer.enums.TimeBucket;
+import com.task.founding.engineer.enums.WhatIfOperator;
+import com.task.founding.engineer.live.LiveCounters;
+import com.task.founding.engineer.model.XRayReasonTemplate;
 import com.task.founding.engineer.model.XRayStep;
+import com.task.founding.engineer.promotion.DataKeyUsageTracker;
+import com.task.founding.engineer.promotion.PromotedKeyRegistry;
+import com.task.founding.engineer.repository.RejectionBreakdownQuery;
 import com.task.founding.engineer.repository.XRayCandidateRepository;
+import com.task.founding.engineer.repository.XRayReasonTemplateRepository;
 import com.task.founding.engineer.repository.XRayStepRepository;
+import com.task.founding.engineer.search.JsonContainment;
 import com.task.founding.engineer.service.AnalyticsService;
+import com.task.founding.engineer.sketch.DistinctKeySketches;
+import com.task.founding.engineer.sketch.HyperLogLog;
+import com.task.founding.engineer.sketch.RejectedKeySketches;
+import com.task.founding.engineer.sketch.SpaceSavingSketch;
+import com.task.founding.engineer.whatif.CandidateColumnLoader;
+import com.task.founding.engineer.whatif.CandidateColumns;
+import com.task.founding.engineer.whatif.WhatIfEvaluator;
 import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class AnalyticsServiceImpl implements AnalyticsService {
 
+    private static final String FILTER_STEP_TYPE = "filter";
+    private static final double[] DRIFT_QUANTILES = {0.01, 0.05, 0.1, 0.25, 0.5, 0.75, 0.9, 0.95, 0.99};
+
     private final XRayStepRepository stepRepository;
     private final XRayCandidateRepository candidateRepository;
+    private final RejectionBreakdownQuery rejectionBreakdownQuery;
+    private final ValueDictionary valueDictionary;
+    private final XRayReasonTemplateRepository templateRepository;
+    private final RejectedKeySketches rejectedKeySketches;
+    private final DistinctKeySketches distinctKeySketches;
+    private final CandidateColumnLoader candidateColumnLoader;
+    private final PromotedKeyRegistry promotedKeyRegistry;
+    private final DataKeyUsageTracker dataKeyUsageTracker;
+    private final StepColumnCache stepColumnCache;
+    private final ScoreSampler scoreSampler;
+    private final LiveCounters liveCounters;
 
     @Override
+    @Transactional(readOnly = true)
     public FilteringStatsResponseDTO getFilteringStats(
             @Nullable String pipelineType,
             @Nullable LocalDateTime startDate,
             @Nullable LocalDateTime endDate) {
         
         // Find all filtering steps matching the criteria
-        List<XRayStep> filteringSteps =
-                stepRepository.findFilteringSteps(pipelineType, startDate, endDate);
+        List<XRayStep> filteringSteps = findFilteringSteps(pipelineType, startDate, endDate);
 
         if (filteringSteps.isEmpty()) {
             return FilteringStatsResponseDTO.builder()
@@ -49,12 +112,21 @@ public class AnalyticsServiceImpl implements AnalyticsService {
         double maxRejectionRate = 0.0;
         int stepsWithCandidates = 0;
 
+        // Cached steps are counted from their columns, the rest with two count queries each
+        StepColumnCache.Scan<SelectionCount> scan = stepColumnCache.scan(filteringSteps,
+                columns -> new SelectionCount(columns.size(), columns.selectedCount()));
+
         for (XRayStep step : filteringSteps) {
             UUID stepId = step.getStepId();
-            long inputCount = candidateRepository.countByStepId(stepId);
+            SelectionCount cached = scan.results().get(stepId);
+            long inputCount = Objects.nonNull(cached)
+                    ? cached.candidates()
+                    : candidateRepository.countByStepId(stepId);
             
             if (inputCount > 0) {
-                long outputCount = candidateRepository.countByStepIdAndSelectedTrue(stepId);
+                long outputCount = Objects.nonNull(cached)
+                        ? cached.selected()
+                        : candidateRepository.countByStepIdAndSelectedTrue(stepId);
                 double rejectionRate = (inputCount - outputCount) / (double) inputCount;
                 
                 totalInputCandidates += inputCount;
@@ -83,5 +155,403 @@ public class AnalyticsServiceImpl implements AnalyticsService {
                 .maxRejectionRate(maxRejectionRate)
                 .build();
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RejectionReasonBreakdownResponseDTO getRejectionReasonBreakdown(
+            @Nullable String stepName,
+            @Nullable String pipelineType,
+            @Nullable LocalDateTime startDate,
+            @Nullable LocalDateTime endDate,
+            RejectionReasonGrouping groupBy,
+            int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive: " + limit);
+        }
+        if (Objects.isNull(startDate)) {
+            throw new IllegalArgumentException("startDate is required");
+        }
+        LocalDateTime windowEnd = Objects.nonNull(endDate) ? endDate : LocalDateTime.now();
+        if (windowEnd.isBefore(startDate)) {
+            throw new IllegalArgumentException("endDate must not be before startDate");
+        }
+        if (Duration.between(startDate, windowEnd).compareTo(QueryWindows.MAX_WINDOW) > 0) {
+            throw new IllegalArgumentException(
+                    "Breakdown window must not exceed " + QueryWindows.MAX_WINDOW.toDays() + " days");
+        }
+
+        // A name or type without a code can still match rows written before codes existed
+        Optional<Integer> stepNameCode = Objects.nonNull(stepName)
+                ? valueDictionary.find(DictionaryKind.STEP_NAME, stepName)
+                : Optional.empty();
+        Optional<Integer> pipelineTypeCode = Objects.nonNull(pipelineType)
+                ? valueDictionary.find(DictionaryKind.PIPELINE_TYPE, pipelineType)
+                : Optional.empty();
+
+        // In template mode the null group also holds reasons that are not clustered yet
+        RejectionBreakdownQuery.Breakdown breakdown = rejectionBreakdownQuery.breakdown(
+                RejectionBreakdownQuery.Filter.builder()
+                        .startDate(startDate)
+                        .endDate(windowEnd)
+                        .stepName(stepName)
+                        .stepNameCode(stepNameCode.orElse(null))
+                        .pipelineType(pipelineType)
+                        .pipelineTypeCode(pipelineTypeCode.orElse(null))
+                        .groupBy(groupBy)
+                        .build(),
+                limit);
+
+        List<RejectionBreakdownQuery.Group> groups = breakdown.groups();
+        Map<Long, String> patterns = groupBy == RejectionReasonGrouping.TEMPLATE
+                ? templateRepository.findAllById(groups.stream().map(RejectionBreakdownQuery.Group::key).toList()).stream()
+                        .collect(Collectors.toMap(XRayReasonTemplate::getTemplateId, XRayReasonTemplate::getPattern))
+                : Map.of();
+        Function<Long, String> label = groupBy == RejectionReasonGrouping.TEMPLATE
+                ? patterns::get
+                : key -> valueDictionary.decode(key.intValue());
+
+        List<RejectionReasonCountDTO> reasons = new ArrayList<>(groups.size());
+        for (RejectionBreakdownQuery.Group group : groups) {
+            reasons.add(RejectionReasonCountDTO.builder()
+                    .templateId(groupBy == RejectionReasonGrouping.TEMPLATE ? group.key() : null)
+                    .reason(label.apply(group.key()))
+                    .count(group.count())
+                    .share(group.count() / (double) breakdown.totalRejected())
+                    .build());
+        }
+
+        return RejectionReasonBreakdownResponseDTO.builder()
+                .totalRejected(breakdown.totalRejected())
+                .unspecifiedCount(breakdown.unspecifiedCount())
+                .reasons(reasons)
+                .build();
+    }
+
+    @Override
+    public RejectedKeysResponseDTO getTopRejectedKeys(
+            @NotNull String stepName,
+            int hours,
+            int limit) {
+        long maxHours = rejectedKeySketches.retention().toHours();
+        if (hours < 1 || hours > maxHours) {
+            throw new IllegalArgumentException("hours must be between 1 and " + maxHours + ": " + hours);
+        }
+        if (limit < 1 || limit > rejectedKeySketches.capacity()) {
+            throw new IllegalArgumentException(
+                    "limit must be between 1 and " + rejectedKeySketches.capacity() + ": " + limit);
+        }
+        // Whole hours up to and including the current one
+        LocalDateTime windowEnd = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).plusHours(1);
+        LocalDateTime windowStart = windowEnd.minusHours(hours);
+        RejectedKeysResponseDTO response = RejectedKeysResponseDTO.builder()
+                .stepName(stepName)
+                .windowStart(windowStart)
+                .windowEnd(windowEnd)
+                .totalRejections(0L)
+                .keys(List.of())
+                .build();
+
+        Optional<Integer> stepNameCode = valueDictionary.find(DictionaryKind.STEP_NAME, stepName);
+        if (stepNameCode.isEmpty()) {
+            return response;
+        }
+        SpaceSavingSketch sketch = rejectedKeySketches.merged(stepNameCode.get(), windowStart, windowEnd);
+        response.setTotalRejections(sketch.total());
+        response.setKeys(sketch.top(limit).stream()
+                .map(counter -> RejectedKeyCountDTO.builder()
+                        .businessKey(counter.key())
+                        .count(counter.count())
+                        .guaranteedCount(counter.count() - counter.error())
+                        .build())
+                .collect(Collectors.toList()));
+        return response;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DistinctKeyCountResponseDTO getDistinctKeyCounts(
+            @NotNull String pipelineType,
+            @Nullable String stepName,
+            @NotNull LocalDateTime startDate,
+            @NotNull LocalDateTime endDate,
+            @NotNull TimeBucket bucket) {
+        // Sketches cover whole hours, so the window is widened to the hours it touches
+        LocalDateTime windowStart = startDate.truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime windowEnd = endDate.truncatedTo(ChronoUnit.HOURS);
+        if (windowEnd.isBefore(endDate)) {
+            windowEnd = windowEnd.plusHours(1);
+        }
+        if (!windowEnd.isAfter(windowStart)) {
+            throw new IllegalArgumentException("endDate must be after startDate");
+        }
+        if (Duration.between(windowStart, windowEnd).compareTo(distinctKeySketches.retention()) > 0) {
+            throw new IllegalArgumentException(
+                    "Window must not exceed the sketch retention of " + distinctKeySketches.retention());
+        }
+
+        AtomicReference<HyperLogLog> total = new AtomicReference<>(new HyperLogLog(distinctKeySketches.precision()));
+        Map<LocalDateTime, HyperLogLog> buckets = new LinkedHashMap<>();
+        Optional<Integer> pipelineTypeCode = valueDictionary.find(DictionaryKind.PIPELINE_TYPE, pipelineType);
+        Optional<Integer> stepNameCode = Objects.isNull(stepName)
+                ? Optional.empty()
+                : valueDictionary.find(DictionaryKind.STEP_NAME, stepName);
+        // A pipeline type or step name that was never written has no keys
+        if (pipelineTypeCode.isPresent() && (Objects.isNull(stepName) || stepNameCode.isPresent())) {
+            distinctKeySketches.forEachSketch(
+                    pipelineTypeCode.get(), stepNameCode.orElse(null), windowStart, windowEnd, (hour, sketch) -> {
+                        total.accumulateAndGet(sketch, HyperLogLog::union);
+                        if (bucket != TimeBucket.NONE) {
+                            buckets.merge(bucket.truncate(hour), sketch, HyperLogLog::union);
+                        }
+                    });
+        }
+
+        return DistinctKeyCountResponseDTO.builder()
+                .pipelineType(pipelineType)
+                .stepName(stepName)
+                .windowStart(windowStart)
+                .windowEnd(windowEnd)
+                .distinctKeys(total.get().estimate())
+                .standardError(total.get().standardError())
+                .buckets(buckets.entrySet().stream()
+                        .map(entry -> DistinctKeyBucketDTO.builder()
+                                .bucketStart(entry.getKey())
+                                .distinctKeys(entry.getValue().estimate())
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public WhatIfResponseDTO simulateWhatIf(@NotNull WhatIfRequestDTO request) {
+        if (Objects.isNull(request.getStepName()) || Objects.isNull(request.getStartDate())) {
+            throw new IllegalArgumentException("stepName and startDate are required");
+        }
+        LocalDateTime endDate = Objects.nonNull(request.getEndDate()) ? request.getEndDate() : LocalDateTime.now();
+        if (endDate.isBefore(request.getStartDate())) {
+            throw new IllegalArgumentException("endDate must not be before startDate");
+        }
+        if (Duration.between(request.getStartDate(), endDate).compareTo(QueryWindows.MAX_WINDOW) > 0) {
+            throw new IllegalArgumentException("What-if window must not exceed " + QueryWindows.MAX_WINDOW.toDays() + " days");
+        }
+        List<Double> minScores = Objects.nonNull(request.getMinScores()) ? request.getMinScores() : List.of();
+        List<WhatIfRuleDTO> rules = Objects.nonNull(request.getRules()) ? request.getRules() : List.of();
+        if (minScores.isEmpty() && rules.isEmpty()) {
+            throw new IllegalArgumentException("A what-if needs at least one minScore or rule");
+        }
+        if (minScores.stream().anyMatch(minScore -> Objects.isNull(minScore) || !Double.isFinite(minScore))) {
+            throw new IllegalArgumentException("minScores must be finite numbers");
+        }
+        // A scenario without a threshold evaluates the rules alone
+        double[] thresholds = minScores.isEmpty()
+                ? new double[] {Double.NaN}
+                : minScores.stream().mapToDouble(Double::doubleValue).toArray();
+
+        // Rules are evaluated on promoted keys only, loaded as their indexed text expressions
+        List<String> columns = new ArrayList<>();
+        List<String> ruleColumns = new ArrayList<>(rules.size());
+        for (WhatIfRuleDTO rule : rules) {
+            String path = String.join(".", JsonContainment.parsePath(rule.getPath()));
+            if (path.startsWith(JsonContainment.DATA + ".")) {
+                dataKeyUsageTracker.record(request.getPipelineType(), path);
+            }
+            if (!promotedKeyRegistry.indexes().containsKey(path)) {
+                throw new IllegalArgumentException(
+                        "Rules are only supported on promoted data keys; " + path + " is not promoted");
+            }
+            String column = JsonContainment.textExpression(path);
+            if (WhatIfOperator.parse(rule.getOperator()).isNumeric()) {
+                parseOperand(rule);
+            }
+            ruleColumns.add(column);
+            if (!columns.contains(column)) {
+                columns.add(column);
+            }
+        }
+
+        WhatIfEvaluator.Counts counts;
+        Optional<Integer> stepNameCode = valueDictionary.find(DictionaryKind.STEP_NAME, request.getStepName());
+        Optional<Integer> pipelineTypeCode = Objects.nonNull(request.getPipelineType())
+                ? valueDictionary.find(DictionaryKind.PIPELINE_TYPE, request.getPipelineType())
+                : Optional.empty();
+        if (stepNameCode.isEmpty() || (Objects.nonNull(request.getPipelineType()) && pipelineTypeCode.isEmpty())) {
+            // A name or type that was never written has no candidates
+            counts = new WhatIfEvaluator.Counts(0, 0, 0, new long[thresholds.length], new long[thresholds.length]);
+        } else {
+            CandidateColumns loaded = candidateColumnLoader.load(
+                    stepNameCode.get(), pipelineTypeCode.orElse(null), request.getStartDate(), endDate, columns);
+            List<WhatIfEvaluator.Rule> evaluatorRules = new ArrayList<>(rules.size());
+            for (int i = 0; i < rules.size(); i++) {
+                WhatIfRuleDTO rule = rules.get(i);
+                WhatIfOperator operator = WhatIfOperator.parse(rule.getOperator());
+                evaluatorRules.add(WhatIfEvaluator.Rule.of(
+                        loaded, columns.indexOf(ruleColumns.get(i)), value -> operator.matches(value, rule.getValue())));
+            }
+            counts = WhatIfEvaluator.evaluate(loaded, evaluatorRules, thresholds);
+        }
+
+        double historicalRate = rate(counts.historicalSelected(), counts.candidates());
+        List<WhatIfScenarioDTO> scenarios = new ArrayList<>(thresholds.length);
+        for (int t = 0; t < thresholds.length; t++) {
+            long selected = counts.selected()[t];
+            long kept = counts.keptSelected()[t];
+            long newlySelected = selected - kept;
+            long newlyRejected = counts.historicalSelected() - kept;
+            scenarios.add(WhatIfScenarioDTO.builder()
+                    .minScore(minScores.isEmpty() ? null : minScores.get(t))
+                    .selected(selected)
+                    .selectionRate(rate(selected, counts.candidates()))
+                    .selectionRateChange(rate(selected, counts.candidates()) - historicalRate)
+                    .keptSelected(kept)
+                    .newlySelected(newlySelected)
+                    .newlyRejected(newlyRejected)
+                    .agreementRate(rate(counts.candidates() - newlySelected - newlyRejected, counts.candidates()))
+                    .build());
+        }
+        return WhatIfResponseDTO.builder()
+                .stepName(request.getStepName())
+                .startDate(request.getStartDate())
+                .endDate(endDate)
+                .candidates(counts.candidates())
+                .unscoredCandidates(counts.unscored())
+                .historicalSelected(counts.historicalSelected())
+                .historicalSelectionRate(historicalRate)
+                .scenarios(scenarios)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ScoreDriftResponseDTO getScoreDrift(
+            @NotNull String stepName,
+            @NotNull LocalDateTime baselineStart,
+            @NotNull LocalDateTime baselineEnd,
+            @NotNull LocalDateTime currentStart,
+            @NotNull LocalDateTime currentEnd) {
+        checkDriftWindow("baseline", baselineStart, baselineEnd);
+        checkDriftWindow("current", currentStart, currentEnd);
+
+        // A step name that was never written has no scores
+        Optional<Integer> stepNameCode = valueDictionary.find(DictionaryKind.STEP_NAME, stepName);
+        List<XRayStep> baselineSteps = stepNameCode
+                .map(code -> stepRepository.findByStepNameCodeInWindow(code, baselineStart, baselineEnd))
+                .orElse(List.of());
+        List<XRayStep> currentSteps = stepNameCode
+                .map(code -> stepRepository.findByStepNameCodeInWindow(code, currentStart, currentEnd))
+                .orElse(List.of());
+        ScoreSampler.ScoreSample baseline = scoreSampler.sample(baselineSteps);
+        ScoreSampler.ScoreSample current = scoreSampler.sample(currentSteps);
+
+        ScoreDriftResponseDTO.ScoreDriftResponseDTOBuilder response = ScoreDriftResponseDTO.builder()
+                .stepName(stepName)
+                .baseline(scoreWindow(baselineStart, baselineEnd, baselineSteps.size(), baseline))
+                .current(scoreWindow(currentStart, currentEnd, currentSteps.size(), current))
+                .quantiles(List.of());
+        double[] baselineScores = baseline.scores();
+        double[] currentScores = current.scores();
+        if (baselineScores.length == 0 || currentScores.length == 0) {
+            return response.build();
+        }
+
+        double ksStatistic = ScoreDrift.ksStatistic(baselineScores, currentScores);
+        List<ScoreQuantileDeltaDTO> quantiles = new ArrayList<>(DRIFT_QUANTILES.length);
+        for (double quantile : DRIFT_QUANTILES) {
+            double baselineScore = ScoreDrift.quantile(baselineScores, quantile);
+            double currentScore = ScoreDrift.quantile(currentScores, quantile);
+            quantiles.add(ScoreQuantileDeltaDTO.builder()
+                    .quantile(quantile)
+                    .baseline(baselineScore)
+                    .current(currentScore)
+                    .delta(currentScore - baselineScore)
+                    .build());
+        }
+        return response
+                .ksStatistic(ksStatistic)
+                .ksPValue(ScoreDrift.ksPValue(ksStatistic, baselineScores.length, currentScores.length))
+                .psi(ScoreDrift.psi(baselineScores, currentScores))
+                .quantiles(quantiles)
+                .build();
+    }
+
+    // Served from memory only; no transaction and no query
+    @Override
+    public LiveCountersResponseDTO getLiveCounters() {
+        LocalDateTime asOf = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        List<LivePipelineCountersDTO> pipelines = liveCounters.snapshot().stream()
+                .map(snapshot -> LivePipelineCountersDTO.builder()
+                        .pipelineType(snapshot.pipelineType())
+                        .runsStartedPerMinute(snapshot.runsStartedLastMinute())
+                        .runsCompletedPerMinute(snapshot.runsCompletedLastMinute())
+                        .runsFailedPerMinute(snapshot.runsFailedLastMinute())
+                        .candidatesPerMinute(snapshot.candidatesLastMinute())
+                        .candidatesPerSecond(snapshot.candidatesPerSecond())
+                        .runsStartedTotal(snapshot.runsStartedTotal())
+                        .runsCompletedTotal(snapshot.runsCompletedTotal())
+                        .runsFailedTotal(snapshot.runsFailedTotal())
+                        .candidatesTotal(snapshot.candidatesTotal())
+                        .build())
+                .toList();
+        return LiveCountersResponseDTO.builder()
+                .asOf(asOf)
+                .pipelines(pipelines)
+                .build();
+    }
+
+    private static void checkDriftWindow(String name, LocalDateTime start, LocalDateTime end) {
+        if (!end.isAfter(start)) {
+            throw new IllegalArgumentException(name + " window must end after it starts");
+        }
+        if (Duration.between(start, end).compareTo(QueryWindows.MAX_WINDOW) > 0) {
+            throw new IllegalArgumentException(
+                    name + " window must not exceed " + QueryWindows.MAX_WINDOW.toDays() + " days");
+        }
+    }
+
+    private static ScoreWindowDTO scoreWindow(
+            LocalDateTime start,
+            LocalDateTime end,
+            int steps,
+            ScoreSampler.ScoreSample sample) {
+        double[] scores = sample.scores();
+        return ScoreWindowDTO.builder()
+                .windowStart(start)
+                .windowEnd(end)
+                .steps((long) steps)
+                .candidates(sample.candidates())
+                .sampledScores((long) scores.length)
+                .meanScore(scores.length == 0 ? null : Arrays.stream(scores).average().orElseThrow())
+                .build();
+    }
+
+    private static void parseOperand(WhatIfRuleDTO rule) {
+        try {
+            Double.parseDouble(rule.getValue());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(
+                    "Rule " + rule.getOperator() + " on " + rule.getPath() + " needs a numeric value: " + rule.getValue());
+        }
+    }
+
+    private static double rate(long count, long total) {
+        return total == 0 ? 0.0 : count / (double) total;
+    }
+
+    private record SelectionCount(long candidates, long selected) {
+    }
+
+    // Filters run on the interned codes, and on the strings for rows not coded yet; a type that was
+    // never interned only matches rows not coded yet.
+    private List<XRayStep> findFilteringSteps(
+            @Nullable String pipelineType,
+            @Nullable LocalDateTime startDate,
+            @Nullable LocalDateTime endDate) {
+        Integer filterTypeCode = valueDictionary.find(DictionaryKind.STEP_TYPE, FILTER_STEP_TYPE).orElse(null);
+        Integer pipelineTypeCode = Objects.nonNull(pipelineType)
+                ? valueDictionary.find(DictionaryKind.PIPELINE_TYPE, pipelineType).orElse(null)
+                : null;
+        return stepRepository.findFilteringSteps(
+                FILTER_STEP_TYPE, filterTypeCode, pipelineType, pipelineTypeCode, startDate, endDate);
+    }
 }
 
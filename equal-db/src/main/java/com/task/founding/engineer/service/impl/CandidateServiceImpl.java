@@ -1,19 +1,47 @@
 package com.task.founding.engineer.service.impl;
 
+import com.task.founding.engineer.columnar.StepColumnCache;
+import com.task.founding.engineer.compression.TextCompressor;
+import com.task.founding.engineer.dictionary.ValueDictionary;
+import com.task.founding.engineer.dto.request.CandidateSearchRequestDTO;
 import com.task.founding.engineer.dto.request.CreateCandidateRequestDTO;
+import com.task.founding.engineer.dto.request.JsonPathPredicateDTO;
+import com.task.founding.engineer.dto.response.RunEventDTO;
+import com.task.founding.engineer.enums.DictionaryKind;
+import com.task.founding.engineer.enums.RunEventType;
+import com.task.founding.engineer.lineage.BusinessKeyExtractor;
+import com.task.founding.engineer.lineage.StepBloomIndex;
+import com.task.founding.engineer.live.ActiveRunRegistry;
+import com.task.founding.engineer.live.LiveCounters;
+import com.task.founding.engineer.live.RunEventBroadcaster;
 import com.task.founding.engineer.model.XRayCandidate;
 import com.task.founding.engineer.model.XRayStep;
+import com.task.founding.engineer.promotion.DataKeyUsageTracker;
+import com.task.founding.engineer.promotion.PromotedKeyRegistry;
+import com.task.founding.engineer.repository.CandidateSearchQuery;
 import com.task.founding.engineer.repository.XRayCandidateRepository;
+import com.task.founding.engineer.repository.XRayRunRepository;
 import com.task.founding.engineer.repository.XRayStepRepository;
+import com.task.founding.engineer.search.JsonContainment;
 import com.task.founding.engineer.service.CandidateService;
+import com.task.founding.engineer.sketch.DistinctKeySketches;
+import com.task.founding.engineer.sketch.RejectedKeySketches;
 import jakarta.annotation.Nullable;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -21,8 +49,28 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class CandidateServiceImpl implements CandidateService {
 
+    // Bounds of search paging; the window is bounded by QueryWindows
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_SEARCH_OFFSET = 10_000;
+    // Resolution of a run's last activity; finer would write the run row with every batch
+    private static final Duration ACTIVITY_RESOLUTION = Duration.ofMinutes(1);
+
     private final XRayCandidateRepository candidateRepository;
+    private final CandidateSearchQuery candidateSearchQuery;
+    private final BusinessKeyExtractor businessKeyExtractor;
+    private final DataKeyUsageTracker dataKeyUsageTracker;
+    private final StepBloomIndex stepBloomIndex;
+    private final RejectedKeySketches rejectedKeySketches;
+    private final DistinctKeySketches distinctKeySketches;
+    private final StepColumnCache stepColumnCache;
+    private final LiveCounters liveCounters;
+    private final RunEventBroadcaster runEventBroadcaster;
+    private final ActiveRunRegistry activeRunRegistry;
+    private final PromotedKeyRegistry promotedKeyRegistry;
     private final XRayStepRepository stepRepository;
+    private final XRayRunRepository runRepository;
+    private final TextCompressor textCompressor;
+    private final ValueDictionary valueDictionary;
 
     @Override
     @Transactional
@@ -32,16 +80,12 @@ public class CandidateServiceImpl implements CandidateService {
         XRayStep step = stepRepository.findById(stepId)
                 .orElseThrow(() -> new RuntimeException("Step not found with id: " + stepId));
 
-        XRayCandidate candidate = XRayCandidate.builder()
-                .step(step)
-                .data(request.getData())
-                .score(request.getScore())
-                .selected(Objects.nonNull(request.getSelected()) ? request.getSelected() : false)
-                .rejectionReason(request.getRejectionReason())
-                .metadata(request.getMetadata())
-                .build();
+        Integer reasonCode = valueDictionary.encode(DictionaryKind.REJECTION_REASON, request.getRejectionReason());
+        Long templateId = Objects.isNull(reasonCode) ? null : valueDictionary.templateIds(List.of(reasonCode)).get(reasonCode);
+        XRayCandidate candidate = toCandidate(step, request, reasonCode, templateId);
 
         candidate = candidateRepository.save(candidate);
+        recordIngest(step, List.of(candidate));
         return candidate.getCandidateId();
     }
 
@@ -53,24 +97,30 @@ public class CandidateServiceImpl implements CandidateService {
         XRayStep step = stepRepository.findById(stepId)
                 .orElseThrow(() -> new RuntimeException("Step not found with id: " + stepId));
 
+        // New reasons of the whole batch are interned with one insert, and reasons that are
+        // already clustered carry their template from the start
+        Map<String, Integer> reasonCodes = valueDictionary.encodeAll(DictionaryKind.REJECTION_REASON, requests.stream()
+                .map(CreateCandidateRequestDTO::getRejectionReason)
+                .toList());
+        Map<Integer, Long> templateIds = valueDictionary.templateIds(reasonCodes.values());
         List<XRayCandidate> candidates = requests.stream()
-                .map(request -> XRayCandidate.builder()
-                        .step(step)
-                        .data(request.getData())
-                        .score(request.getScore())
-                        .selected(Objects.nonNull(request.getSelected()) ? request.getSelected() : false)
-                        .rejectionReason(request.getRejectionReason())
-                        .metadata(request.getMetadata())
-                        .build())
+                .map(request -> {
+                    Integer reasonCode = Objects.isNull(request.getRejectionReason())
+                            ? null
+                            : reasonCodes.get(request.getRejectionReason());
+                    return toCandidate(step, request, reasonCode, Objects.isNull(reasonCode) ? null : templateIds.get(reasonCode));
+                })
                 .collect(Collectors.toList());
 
         candidates = candidateRepository.saveAll(candidates);
+        recordIngest(step, candidates);
         return candidates.stream()
                 .map(XRayCandidate::getCandidateId)
                 .collect(Collectors.toList());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<XRayCandidate> getCandidatesByStepId(
             @NotNull UUID stepId,
             @Nullable Boolean selected) {
@@ -86,13 +136,181 @@ public class CandidateServiceImpl implements CandidateService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<XRayCandidate> getSelectedCandidates(@NotNull UUID stepId) {
         return candidateRepository.findByStepIdAndSelectedTrue(stepId);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<XRayCandidate> getRejectedCandidates(@NotNull UUID stepId) {
         return candidateRepository.findByStepIdAndSelectedFalse(stepId);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<XRayCandidate> searchCandidates(@NotNull CandidateSearchRequestDTO request) {
+        int page = Objects.nonNull(request.getPage()) ? request.getPage() : 0;
+        int size = Objects.nonNull(request.getSize()) ? request.getSize() : 50;
+        List<JsonPathPredicateDTO> predicates = Objects.nonNull(request.getPredicates()) ? request.getPredicates() : List.of();
+        if (Objects.isNull(request.getStartDate())) {
+            throw new IllegalArgumentException("startDate is required");
+        }
+        LocalDateTime endDate = Objects.nonNull(request.getEndDate()) ? request.getEndDate() : LocalDateTime.now();
+        PageRequest pageRequest = validateSearch(request, predicates, endDate, page, size);
+
+        // A name or type that was never written matches nothing
+        Optional<Integer> pipelineTypeCode = Objects.nonNull(request.getPipelineType())
+                ? valueDictionary.find(DictionaryKind.PIPELINE_TYPE, request.getPipelineType())
+                : Optional.empty();
+        Optional<Integer> stepNameCode = Objects.nonNull(request.getStepName())
+                ? valueDictionary.find(DictionaryKind.STEP_NAME, request.getStepName())
+                : Optional.empty();
+        JsonContainment.Documents containment = JsonContainment.of(predicates, promotedKeyRegistry.indexes());
+        for (JsonPathPredicateDTO predicate : predicates) {
+            String[] segments = JsonContainment.parsePath(predicate.getPath());
+            if (JsonContainment.DATA.equals(segments[0])) {
+                dataKeyUsageTracker.record(request.getPipelineType(), String.join(".", segments));
+            }
+        }
+        if ((Objects.nonNull(request.getPipelineType()) && pipelineTypeCode.isEmpty())
+                || (Objects.nonNull(request.getStepName()) && stepNameCode.isEmpty())) {
+            return new SliceImpl<>(List.of(), pageRequest, false);
+        }
+
+        CandidateSearchQuery.Filter filter = CandidateSearchQuery.Filter.builder()
+                .startDate(request.getStartDate())
+                .endDate(endDate)
+                .pipelineTypeCode(pipelineTypeCode.orElse(null))
+                .stepNameCode(stepNameCode.orElse(null))
+                .selected(request.getSelected())
+                .minScore(request.getMinScore())
+                .maxScore(request.getMaxScore())
+                .dataContains(containment.data())
+                .metadataContains(containment.metadata())
+                .promotedEquals(containment.promotedEquals())
+                .build();
+        // One extra row tells whether there is a next page without counting all matches
+        List<XRayCandidate> candidates = new ArrayList<>(
+                candidateSearchQuery.search(filter, (int) pageRequest.getOffset(), size + 1));
+        boolean hasNext = candidates.size() > size;
+        if (hasNext) {
+            candidates.removeLast();
+        }
+        return new SliceImpl<>(candidates, pageRequest, hasNext);
+    }
+
+    private PageRequest validateSearch(
+            CandidateSearchRequestDTO request,
+            List<JsonPathPredicateDTO> predicates,
+            LocalDateTime endDate,
+            int page,
+            int size) {
+        if (endDate.isBefore(request.getStartDate())) {
+            throw new IllegalArgumentException("endDate must not be before startDate");
+        }
+        if (Duration.between(request.getStartDate(), endDate).compareTo(QueryWindows.MAX_WINDOW) > 0) {
+            throw new IllegalArgumentException("Search window must not exceed " + QueryWindows.MAX_WINDOW.toDays() + " days");
+        }
+        if (predicates.isEmpty()
+                && Objects.isNull(request.getPipelineType())
+                && Objects.isNull(request.getStepName())) {
+            throw new IllegalArgumentException(
+                    "Candidate search needs a data/metadata predicate, a pipelineType or a stepName");
+        }
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("page must not be negative and size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if ((long) page * size > MAX_SEARCH_OFFSET) {
+            throw new IllegalArgumentException("Search pages beyond " + MAX_SEARCH_OFFSET + " results are not served; narrow the search");
+        }
+        return PageRequest.of(page, size);
+    }
+
+    // Keeps the run from being reaped and feeds every in-memory structure derived from ingested candidates
+    private void recordIngest(XRayStep step, List<XRayCandidate> candidates) {
+        UUID runId = runIdOf(step);
+        Integer pipelineTypeCode = null;
+        if (Objects.nonNull(runId)) {
+            LocalDateTime now = LocalDateTime.now();
+            if (activeRunRegistry.activityDue(runId, now, ACTIVITY_RESOLUTION)) {
+                runRepository.touchActivity(runId, now, now.minus(ACTIVITY_RESOLUTION));
+            }
+            pipelineTypeCode = pipelineTypeCode(runId);
+        }
+        indexBusinessKeys(step, pipelineTypeCode, candidates);
+        stepColumnCache.append(step, candidates);
+        liveCounters.candidatesIngested(valueDictionary.decode(pipelineTypeCode), candidates.size());
+        if (Objects.nonNull(runId)) {
+            runEventBroadcaster.publish(RunEventDTO.builder()
+                    .type(RunEventType.CANDIDATES_APPENDED)
+                    .runId(runId)
+                    .stepId(step.getStepId())
+                    .stepName(step.getStepName())
+                    .order(step.getOrder())
+                    .candidates(candidates.size())
+                    .selected((int) candidates.stream().filter(candidate -> Boolean.TRUE.equals(candidate.getSelected())).count())
+                    .occurredAt(LocalDateTime.now())
+                    .build());
+        }
+    }
+
+    // A run in progress here carries its pipeline type, whose code the dictionary has cached; any
+    // other run is read
+    @Nullable
+    private Integer pipelineTypeCode(UUID runId) {
+        return activeRunRegistry.get(runId)
+                .map(ActiveRunRegistry.ActiveRun::pipelineType)
+                .flatMap(pipelineType -> valueDictionary.find(DictionaryKind.PIPELINE_TYPE, pipelineType))
+                .or(() -> runRepository.findPipelineTypeCodeById(runId))
+                .orElse(null);
+    }
+
+    // The run_id column is read-only on the step, so a step saved in this transaction only has its run
+    @Nullable
+    private static UUID runIdOf(XRayStep step) {
+        if (Objects.nonNull(step.getRunId())) {
+            return step.getRunId();
+        }
+        return Objects.nonNull(step.getRun()) ? step.getRun().getRunId() : null;
+    }
+
+    private void indexBusinessKeys(XRayStep step, @Nullable Integer pipelineTypeCode, List<XRayCandidate> candidates) {
+        List<String> keys = new ArrayList<>();
+        List<String> rejectedKeys = new ArrayList<>();
+        for (XRayCandidate candidate : candidates) {
+            if (Objects.nonNull(candidate.getBusinessKey())) {
+                keys.add(candidate.getBusinessKey());
+                if (!candidate.getSelected()) {
+                    rejectedKeys.add(candidate.getBusinessKey());
+                }
+            }
+        }
+        stepBloomIndex.add(step.getStepId(), keys);
+        rejectedKeySketches.record(step.getStepNameCode(), rejectedKeys);
+        if (Objects.nonNull(pipelineTypeCode) && !keys.isEmpty()) {
+            distinctKeySketches.add(pipelineTypeCode, step.getStepNameCode(), keys);
+        }
+    }
+
+    private XRayCandidate toCandidate(
+            XRayStep step,
+            CreateCandidateRequestDTO request,
+            Integer rejectionReasonCode,
+            Long rejectionTemplateId) {
+        byte[] rejectionReasonCompressed = textCompressor.compress(step.getStepName(), request.getRejectionReason());
+        return XRayCandidate.builder()
+                .step(step)
+                .data(request.getData())
+                .businessKey(businessKeyExtractor.extract(request.getData()))
+                .score(request.getScore())
+                .selected(Objects.nonNull(request.getSelected()) ? request.getSelected() : false)
+                .rejectionReason(Objects.isNull(rejectionReasonCompressed) ? request.getRejectionReason() : null)
+                .rejectionReasonCompressed(rejectionReasonCompressed)
+                .rejectionReasonCode(rejectionReasonCode)
+                .rejectionTemplateId(rejectionTemplateId)
+                .metadata(request.getMetadata())
+                .build();
+    }
 }
 
@@ -0,0 +1,133 @@
+package com.task.founding.engineer.service.impl;
+
+import com.task.founding.engineer.dictionary.ValueDictionary;
+import com.task.founding.engineer.dto.response.DecisionMatrixCellDTO;
+import com.task.founding.engineer.dto.response.DecisionMatrixHeaderDTO;
+import com.task.founding.engineer.dto.response.DecisionMatrixRowDTO;
+import com.task.founding.engineer.dto.response.DecisionMatrixStepDTO;
+import com.task.founding.engineer.model.XRayRun;
+import com.task.founding.engineer.repository.DecisionMatrixEntry;
+import com.task.founding.engineer.repository.XRayCandidateRepository;
+import com.task.founding.engineer.repository.XRayRunRepository;
+import com.task.founding.engineer.repository.XRayStepRepository;
+import com.task.founding.engineer.service.DecisionMatrixService;
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Pivots the candidates of a run into one row per business key with one cell per step.
+ * <p>
+ * Candidates are read in business key order, so a row is complete as soon as the key changes and
+ * is handed to the consumer right away; only the current row is held in memory, however large
+ * the run.
+ */
+@Service
+@RequiredArgsConstructor
+public class DecisionMatrixServiceImpl implements DecisionMatrixService {
+
+    private final XRayRunRepository runRepository;
+    private final XRayStepRepository stepRepository;
+    private final XRayCandidateRepository candidateRepository;
+    private final ValueDictionary valueDictionary;
+
+    @Override
+    @Transactional(readOnly = true)
+    public DecisionMatrixHeaderDTO getDecisionMatrixHeader(@NotNull UUID runId) {
+        XRayRun run = runRepository.findById(runId)
+                .orElseThrow(() -> new RuntimeException("Run not found with id: " + runId));
+        List<DecisionMatrixStepDTO> steps = stepRepository.findByRunIdOrderByOrderAsc(runId).stream()
+                .map(step -> DecisionMatrixStepDTO.builder()
+                        .stepId(step.getStepId())
+                        .stepName(step.getStepName())
+                        .stepType(step.getStepType())
+                        .order(step.getOrder())
+                        .build())
+                .collect(Collectors.toList());
+        return DecisionMatrixHeaderDTO.builder()
+                .runId(runId)
+                .pipelineType(run.getPipelineType())
+                .steps(steps)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long streamDecisionMatrix(
+            @NotNull DecisionMatrixHeaderDTO header,
+            @NotNull Consumer<DecisionMatrixRowDTO> consumer) {
+        Map<UUID, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.getSteps().size(); i++) {
+            columns.put(header.getSteps().get(i).getStepId(), i);
+        }
+
+        long rows = 0;
+        String key = null;
+        DecisionMatrixCellDTO[] cells = null;
+        try (Stream<DecisionMatrixEntry> entries = candidateRepository.streamDecisionMatrix(header.getRunId())) {
+            for (DecisionMatrixEntry entry : (Iterable<DecisionMatrixEntry>) entries::iterator) {
+                Integer column = columns.get(entry.stepId());
+                if (Objects.isNull(column)) {
+                    // Step added after the header was read
+                    continue;
+                }
+                if (Objects.isNull(entry.businessKey())) {
+                    if (Objects.nonNull(cells)) {
+                        consumer.accept(toRow(key, null, cells));
+                        rows++;
+                        cells = null;
+                    }
+                    DecisionMatrixCellDTO[] single = new DecisionMatrixCellDTO[columns.size()];
+                    single[column] = toCell(entry);
+                    consumer.accept(toRow(null, entry.candidateId(), single));
+                    rows++;
+                    continue;
+                }
+                // A key seen twice in one step gets a second row rather than overwriting the first
+                if (Objects.isNull(cells) || !entry.businessKey().equals(key) || Objects.nonNull(cells[column])) {
+                    if (Objects.nonNull(cells)) {
+                        consumer.accept(toRow(key, null, cells));
+                        rows++;
+                    }
+                    key = entry.businessKey();
+                    cells = new DecisionMatrixCellDTO[columns.size()];
+                }
+                cells[column] = toCell(entry);
+            }
+        }
+        if (Objects.nonNull(cells)) {
+            consumer.accept(toRow(key, null, cells));
+            rows++;
+        }
+        return rows;
+    }
+
+    private DecisionMatrixCellDTO toCell(DecisionMatrixEntry entry) {
+        return DecisionMatrixCellDTO.builder()
+                .selected(entry.selected())
+                .score(entry.score())
+                .rejectionReason(Objects.nonNull(entry.rejectionReasonCode())
+                        ? valueDictionary.decode(entry.rejectionReasonCode())
+                        : entry.rejectionReason())
+                .build();
+    }
+
+    private static DecisionMatrixRowDTO toRow(String businessKey, UUID candidateId, DecisionMatrixCellDTO[] cells) {
+        return DecisionMatrixRowDTO.builder()
+                .businessKey(businessKey)
+                .candidateId(candidateId)
+                .cells(Arrays.asList(cells))
+                .build();
+    }
+}
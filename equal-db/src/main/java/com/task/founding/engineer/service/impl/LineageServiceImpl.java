@@ -0,0 +1,192 @@
+package com.task.founding.engineer.service.impl;
+
+import com.task.founding.engineer.dictionary.ValueDictionary;
+import com.task.founding.engineer.dto.response.LineageResponseDTO;
+import com.task.founding.engineer.dto.response.LineageRunDTO;
+import com.task.founding.engineer.dto.response.LineageStepDTO;
+import com.task.founding.engineer.dto.response.StepMembershipDTO;
+import com.task.founding.engineer.dto.response.StepMembershipResponseDTO;
+import com.task.founding.engineer.enums.DictionaryKind;
+import com.task.founding.engineer.lineage.SplitBlockBloomFilter;
+import com.task.founding.engineer.repository.CandidateBloomRow;
+import com.task.founding.engineer.repository.CandidateLineageRow;
+import com.task.founding.engineer.repository.StepBloomFilter;
+import com.task.founding.engineer.repository.XRayCandidateBloomRepository;
+import com.task.founding.engineer.repository.XRayCandidateRepository;
+import com.task.founding.engineer.repository.XRayStepRepository;
+import com.task.founding.engineer.service.LineageService;
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class LineageServiceImpl implements LineageService {
+
+    private static final int MAX_RUNS = 100;
+    private static final int MAX_MEMBERSHIP_STEPS = 50_000;
+    // Bound on the IN list of one filter lookup or exact check
+    private static final int CHECK_CHUNK = 1000;
+
+    private final XRayCandidateRepository candidateRepository;
+    private final XRayStepRepository stepRepository;
+    private final XRayCandidateBloomRepository bloomRepository;
+    private final ValueDictionary valueDictionary;
+
+    @Override
+    @Transactional(readOnly = true)
+    public LineageResponseDTO getLineage(
+            @NotNull String businessKey,
+            @Nullable LocalDateTime startDate,
+            @Nullable LocalDateTime endDate,
+            int limit) {
+        if (businessKey.isBlank()) {
+            throw new IllegalArgumentException("businessKey must not be blank");
+        }
+        if (limit < 1 || limit > MAX_RUNS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_RUNS + ": " + limit);
+        }
+
+        // Two index lookups: the latest runs of the key, then its candidates in those runs only
+        List<UUID> runIds = candidateRepository.findLineageRunIds(businessKey, startDate, endDate, Limit.of(limit));
+        Map<UUID, LineageRunDTO> runs = new LinkedHashMap<>();
+        if (!runIds.isEmpty()) {
+            for (CandidateLineageRow row : candidateRepository.findLineage(businessKey, runIds)) {
+                runs.computeIfAbsent(row.runId(), runId -> LineageRunDTO.builder()
+                        .runId(runId)
+                        .pipelineType(row.pipelineType())
+                        .pipelineId(row.pipelineId())
+                        .status(row.runStatus())
+                        .startedAt(row.runStartedAt())
+                        .steps(new ArrayList<>())
+                        .build())
+                        .getSteps().add(toStep(row));
+            }
+        }
+
+        return LineageResponseDTO.builder()
+                .businessKey(businessKey)
+                .runs(new ArrayList<>(runs.values()))
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StepMembershipResponseDTO getStepMembership(
+            @NotNull String businessKey,
+            @NotNull String stepName,
+            @Nullable String pipelineType,
+            int limit) {
+        if (businessKey.isBlank()) {
+            throw new IllegalArgumentException("businessKey must not be blank");
+        }
+        if (limit < 1 || limit > MAX_MEMBERSHIP_STEPS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_MEMBERSHIP_STEPS + ": " + limit);
+        }
+        StepMembershipResponseDTO response = StepMembershipResponseDTO.builder()
+                .businessKey(businessKey)
+                .stepName(stepName)
+                .stepsScanned(0)
+                .probableHits(0)
+                .steps(List.of())
+                .build();
+        // A name or type that was never written matches nothing
+        Optional<Integer> stepNameCode = valueDictionary.find(DictionaryKind.STEP_NAME, stepName);
+        Optional<Integer> pipelineTypeCode = Objects.nonNull(pipelineType)
+                ? valueDictionary.find(DictionaryKind.PIPELINE_TYPE, pipelineType)
+                : Optional.empty();
+        if (stepNameCode.isEmpty() || (Objects.nonNull(pipelineType) && pipelineTypeCode.isEmpty())) {
+            return response;
+        }
+
+        // Steps stream in and have their filters probed in place a chunk at a time; steps without
+        // any filter have no keyed candidates
+        long hash = SplitBlockBloomFilter.hash(businessKey);
+        int scanned = 0;
+        List<StepBloomFilter> probable = new ArrayList<>();
+        List<StepBloomFilter> chunk = new ArrayList<>(CHECK_CHUNK);
+        try (Stream<StepBloomFilter> filters = stepRepository.streamBloomFilters(
+                stepNameCode.get(), pipelineTypeCode.orElse(null), Limit.of(limit))) {
+            for (StepBloomFilter filter : (Iterable<StepBloomFilter>) filters::iterator) {
+                scanned++;
+                chunk.add(filter);
+                if (chunk.size() == CHECK_CHUNK) {
+                    probable.addAll(probe(chunk, hash));
+                    chunk.clear();
+                }
+            }
+        }
+        probable.addAll(probe(chunk, hash));
+
+        Set<UUID> confirmed = new HashSet<>();
+        for (int from = 0; from < probable.size(); from += CHECK_CHUNK) {
+            List<UUID> stepIds = probable.subList(from, Math.min(from + CHECK_CHUNK, probable.size())).stream()
+                    .map(StepBloomFilter::stepId)
+                    .toList();
+            confirmed.addAll(candidateRepository.findStepIdsWithBusinessKey(businessKey, stepIds));
+        }
+        response.setStepsScanned(scanned);
+        response.setProbableHits(probable.size());
+        response.setSteps(probable.stream()
+                .filter(filter -> confirmed.contains(filter.stepId()))
+                .map(filter -> StepMembershipDTO.builder()
+                        .runId(filter.runId())
+                        .stepId(filter.stepId())
+                        .startedAt(filter.startedAt())
+                        .build())
+                .collect(Collectors.toList()));
+        return response;
+    }
+
+    // A step might contain the key if any of its batch filters, or the filter it kept before them, does
+    private List<StepBloomFilter> probe(List<StepBloomFilter> steps, long hash) {
+        if (steps.isEmpty()) {
+            return List.of();
+        }
+        Set<UUID> hits = new HashSet<>();
+        for (CandidateBloomRow row : bloomRepository.findByStepIds(
+                steps.stream().map(StepBloomFilter::stepId).toList())) {
+            if (SplitBlockBloomFilter.mightContain(row.candidateBloom(), hash)) {
+                hits.add(row.stepId());
+            }
+        }
+        return steps.stream()
+                .filter(step -> hits.contains(step.stepId())
+                        || (Objects.nonNull(step.candidateBloom())
+                        && SplitBlockBloomFilter.mightContain(step.candidateBloom(), hash)))
+                .toList();
+    }
+
+    private LineageStepDTO toStep(CandidateLineageRow row) {
+        // The code is set whether or not the reason text was compressed, so no frame is inflated here
+        String rejectionReason = Objects.nonNull(row.rejectionReasonCode())
+                ? valueDictionary.decode(row.rejectionReasonCode())
+                : row.rejectionReason();
+        return LineageStepDTO.builder()
+                .stepId(row.stepId())
+                .stepName(row.stepName())
+                .stepType(row.stepType())
+                .order(row.stepOrder())
+                .candidateId(row.candidateId())
+                .selected(row.selected())
+                .score(row.score())
+                .rejectionReason(rejectionReason)
+                .build();
+    }
+}
@@ -0,0 +1,99 @@
+package com.task.founding.engineer.service.impl;
+
+import com.task.founding.engineer.dto.response.DataKeyUsageDTO;
+import com.task.founding.engineer.enums.PromotionStatus;
+import com.task.founding.engineer.model.XRayPromotedKey;
+import com.task.founding.engineer.promotion.DataKeyUsageTracker;
+import com.task.founding.engineer.promotion.PromotedKeyRegistry;
+import com.task.founding.engineer.repository.XRayPromotedKeyRepository;
+import com.task.founding.engineer.search.JsonContainment;
+import com.task.founding.engineer.service.PromotedKeyService;
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class PromotedKeyServiceImpl implements PromotedKeyService {
+
+    private static final String INDEX_PREFIX = "idx_dk_";
+    // PostgreSQL identifier limit
+    private static final int MAX_INDEX_NAME_LENGTH = 63;
+
+    private final XRayPromotedKeyRepository promotedKeyRepository;
+    private final DataKeyUsageTracker dataKeyUsageTracker;
+    private final PromotedKeyRegistry promotedKeyRegistry;
+
+    @Override
+    public List<DataKeyUsageDTO> getDataKeyUsage(@Nullable String pipelineType) {
+        Map<String, String> indexes = promotedKeyRegistry.indexes();
+        return dataKeyUsageTracker.snapshot(pipelineType).stream()
+                .map(usage -> DataKeyUsageDTO.builder()
+                        .pipelineType(usage.pipelineType())
+                        .path(usage.path())
+                        .queries(usage.queries())
+                        .promotedIndex(indexes.get(usage.path()))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Requests a promotion; the index is built by {@code PromotedKeyMigrator}. Promoting a path
+     * again returns the existing request, and retries it if it failed.
+     */
+    @Override
+    @Transactional
+    public XRayPromotedKey promoteKey(@NotNull String path) {
+        String[] segments = JsonContainment.parsePath(path);
+        if (!JsonContainment.DATA.equals(segments[0])) {
+            throw new IllegalArgumentException("Only data keys can be promoted: " + path);
+        }
+        String normalizedPath = String.join(".", segments);
+
+        Optional<XRayPromotedKey> existing = promotedKeyRepository.findByPath(normalizedPath);
+        if (existing.isPresent()) {
+            XRayPromotedKey key = existing.get();
+            if (key.getStatus() == PromotionStatus.FAILED) {
+                key.setStatus(PromotionStatus.PENDING);
+                key.setError(null);
+            }
+            return key;
+        }
+
+        String indexName = indexName(segments);
+        if (promotedKeyRepository.existsByIndexName(indexName)) {
+            throw new IllegalArgumentException("Index " + indexName + " is already used by another promoted key");
+        }
+        return promotedKeyRepository.save(XRayPromotedKey.builder()
+                .path(normalizedPath)
+                .indexName(indexName)
+                .status(PromotionStatus.PENDING)
+                .build());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<XRayPromotedKey> getPromotedKeys() {
+        return promotedKeyRepository.findAllByOrderByCreatedAtAsc();
+    }
+
+    // data.attributes.Color -> idx_dk_attributes_color
+    private static String indexName(String[] segments) {
+        String indexName = INDEX_PREFIX + Arrays.stream(segments, 1, segments.length)
+                .map(segment -> segment.toLowerCase(Locale.ROOT).replace('-', '_'))
+                .collect(Collectors.joining("_"));
+        if (indexName.length() > MAX_INDEX_NAME_LENGTH) {
+            throw new IllegalArgumentException("Path is too long to promote: " + String.join(".", segments));
+        }
+        return indexName;
+    }
+}
@@ -0,0 +1,15 @@
+package com.task.founding.engineer.service.impl;
+
+import java.time.Duration;
+
+/**
+ * Bound of the step time window of candidate search, what-if, rejection breakdown and each score
+ * drift window, so no request can turn into a scan of the whole candidate table.
+ */
+final class QueryWindows {
+
+    static final Duration MAX_WINDOW = Duration.ofDays(31);
+
+    private QueryWindows() {
+    }
+}
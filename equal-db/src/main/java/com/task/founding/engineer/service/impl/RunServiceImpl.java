@@ -1,97 +1,227 @@
 package com.task.founding.engineer.service.impl;
 
+import com.task.founding.engineer.dictionary.ValueDictionary;
 import com.task.founding.engineer.dto.request.CreateRunRequestDTO;
+import com.task.founding.engineer.dto.response.ActiveRunDTO;
+import com.task.founding.engineer.dto.response.RunEventDTO;
+import com.task.founding.engineer.enums.DictionaryKind;
+import com.task.founding.engineer.enums.PayloadField;
+import com.task.founding.engineer.enums.RunEventType;
 import com.task.founding.engineer.enums.RunStatus;
+import com.task.founding.engineer.json.RawJson;
+import com.task.founding.engineer.live.ActiveRunRegistry;
+import com.task.founding.engineer.live.LiveCounters;
+import com.task.founding.engineer.live.RunEventBroadcaster;
 import com.task.founding.engineer.model.XRayRun;
+import com.task.founding.engineer.repository.PayloadLoader;
 import com.task.founding.engineer.repository.XRayRunRepository;
 import com.task.founding.engineer.service.RunService;
 import jakarta.annotation.Nullable;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class RunServiceImpl implements RunService {
 
     private final XRayRunRepository runRepository;
+    private final PayloadLoader payloadLoader;
+    private final ValueDictionary valueDictionary;
+    private final LiveCounters liveCounters;
+    private final ActiveRunRegistry activeRunRegistry;
+    private final RunEventBroadcaster runEventBroadcaster;
 
     @Override
     @Transactional
     public UUID createRun(@NotNull CreateRunRequestDTO request) {
         XRayRun run = XRayRun.builder()
                 .pipelineType(request.getPipelineType())
+                .pipelineTypeCode(valueDictionary.encode(DictionaryKind.PIPELINE_TYPE, request.getPipelineType()))
                 .pipelineId(request.getPipelineId())
                 .status(RunStatus.IN_PROGRESS)
                 .input(request.getInput())
                 .build();
 
         run = runRepository.save(run);
+        liveCounters.runStarted(run.getPipelineType());
+        activeRunRegistry.register(run);
+        runEventBroadcaster.publish(RunEventDTO.builder()
+                .type(RunEventType.RUN_STARTED)
+                .runId(run.getRunId())
+                .pipelineType(run.getPipelineType())
+                .occurredAt(run.getStartedAt())
+                .build());
         return run.getRunId();
     }
 
     @Override
-    public XRayRun getRunById(@NotNull UUID runId) {
-        return runRepository.findByIdWithStepsAndCandidates(runId)
+    @Transactional(readOnly = true)
+    public XRayRun getRunById(@NotNull UUID runId, @NotNull Set<PayloadField> include) {
+        XRayRun run = runRepository.findByIdWithSteps(runId)
                 .orElseThrow(() -> new RuntimeException("Run not found with id: " + runId));
+        initializeSteps(run);
+        loadPayloads(List.of(run), include);
+        return run;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<XRayRun> getAllRuns(
+            @Nullable String pipelineType,
+            @Nullable RunStatus status,
+            @Nullable LocalDateTime startDate,
+            @Nullable LocalDateTime endDate,
+            @NotNull Set<PayloadField> include) {
+
+        List<XRayRun> runs = findRuns(pipelineType, status, startDate, endDate);
+        runs.forEach(RunServiceImpl::initializeSteps);
+        loadPayloads(runs, include);
+        return runs;
+    }
+
+    // Served from the registry; no transaction and no query
+    @Override
+    public List<ActiveRunDTO> getActiveRuns(@Nullable String pipelineType) {
+        return activeRunRegistry.activeRuns(pipelineType).stream()
+                .map(run -> ActiveRunDTO.builder()
+                        .runId(run.runId())
+                        .pipelineType(run.pipelineType())
+                        .startedAt(run.startedAt())
+                        .lastActivityAt(run.lastActivityAt())
+                        .build())
+                .toList();
+    }
+
+    // Subscribes before reading the status, so a completion committed in between is not missed
+    @Override
+    public RunEventBroadcaster.Subscription streamRun(
+            @NotNull UUID runId,
+            @NotNull Consumer<RunEventDTO> listener,
+            @NotNull Runnable onClose) {
+        RunEventBroadcaster.Subscription subscription = runEventBroadcaster.subscribe(runId, listener, onClose);
+        if (activeRunRegistry.get(runId).isPresent()) {
+            return subscription;
+        }
+        Optional<RunStatus> status = runRepository.findStatusById(runId);
+        if (status.isEmpty()) {
+            subscription.close();
+            throw new RuntimeException("Run not found with id: " + runId);
+        }
+        if (status.get() != RunStatus.IN_PROGRESS) {
+            // Already finished: the stream only reports how
+            runEventBroadcaster.publishLocally(runEvent(runId, null, status.get()));
+        }
+        return subscription;
+    }
+
+    private List<XRayRun> findRuns(
             @Nullable String pipelineType,
             @Nullable RunStatus status,
             @Nullable LocalDateTime startDate,
             @Nullable LocalDateTime endDate) {
 
+        // Pipeline types are matched on their interned code, and on the string for runs not coded yet.
+        // A type that was never interned has no code, and only matches runs not coded yet.
+        Integer pipelineTypeCode = Objects.nonNull(pipelineType)
+                ? valueDictionary.find(DictionaryKind.PIPELINE_TYPE, pipelineType).orElse(null)
+                : null;
+
         if (Objects.nonNull(startDate) || Objects.nonNull(endDate)) {
             LocalDateTime start = Objects.nonNull(startDate) ? startDate : LocalDateTime.MIN;
             LocalDateTime end = Objects.nonNull(endDate) ? endDate : LocalDateTime.MAX;
 
             if (Objects.nonNull(pipelineType)) {
-                return runRepository.findByPipelineTypeAndStartedAtBetween(pipelineType, start, end);
+                return runRepository.findByPipelineTypeOrCodeAndStartedAtBetween(pipelineType, pipelineTypeCode, start, end);
             } else {
                 return runRepository.findByStartedAtBetween(start, end);
             }
         }
 
         if (Objects.nonNull(pipelineType) && Objects.nonNull(status)) {
-            return runRepository.findByPipelineTypeAndStatus(pipelineType, status);
+            return runRepository.findByPipelineTypeOrCodeAndStatus(pipelineType, pipelineTypeCode, status);
         } else if (Objects.nonNull(pipelineType)) {
-            return runRepository.findByPipelineType(pipelineType);
+            return runRepository.findByPipelineTypeOrCode(pipelineType, pipelineTypeCode);
         } else {
             return runRepository.findAll();
         }
     }
 
+    // Payload columns are lazy; only the requested ones are fetched, in bulk, for the runs and their steps.
+    private void loadPayloads(List<XRayRun> runs, Set<PayloadField> include) {
+        if (include.isEmpty()) {
+            return;
+        }
+        payloadLoader.loadRunPayloads(runs, include);
+        payloadLoader.loadStepPayloads(
+                runs.stream()
+                        .filter(run -> Objects.nonNull(run.getSteps()))
+                        .flatMap(run -> run.getSteps().stream())
+                        .collect(Collectors.toList()),
+                include);
+    }
+
+    // Runs are returned with their steps and candidates. Loading them here keeps them inside the
+    // read-only transaction instead of being lazily loaded, and tracked read-write, during rendering.
+    private static void initializeSteps(XRayRun run) {
+        Hibernate.initialize(run.getSteps());
+        if (Objects.nonNull(run.getSteps())) {
+            run.getSteps().forEach(step -> Hibernate.initialize(step.getCandidates()));
+        }
+    }
+
     @Override
     @Transactional
     public void completeRun(
             @NotNull UUID runId,
-            @NotNull Object output) {
-        XRayRun run = runRepository.findById(runId)
-                .orElseThrow(() -> new RuntimeException("Run not found with id: " + runId));
-
-        run.setStatus(RunStatus.COMPLETED);
-        run.setCompletedAt(LocalDateTime.now());
-        run.setOutput(output);
-        runRepository.save(run);
+            @NotNull RawJson output) {
+        int updated = runRepository.updateCompletion(
+                runId, RunStatus.COMPLETED, LocalDateTime.now(), output);
+        if (updated == 0) {
+            throw new RuntimeException("Run not found with id: " + runId);
+        }
+        recordFinished(runId, RunStatus.COMPLETED);
     }
 
     @Override
     @Transactional
     public void failRun(@NotNull UUID runId) {
-        XRayRun run = runRepository.findById(runId)
-                .orElseThrow(() -> new RuntimeException("Run not found with id: " + runId));
+        int updated = runRepository.updateStatus(runId, RunStatus.FAILED, LocalDateTime.now());
+        if (updated == 0) {
+            throw new RuntimeException("Run not found with id: " + runId);
+        }
+        recordFinished(runId, RunStatus.FAILED);
+    }
+
+    // The targeted updates never load the run, so its pipeline type comes from the registry, or else
+    // is read by its interned code
+    private void recordFinished(UUID runId, RunStatus status) {
+        String pipelineType = activeRunRegistry.get(runId)
+                .map(ActiveRunRegistry.ActiveRun::pipelineType)
+                .orElseGet(() -> runRepository.findPipelineTypeCodeById(runId).map(valueDictionary::decode).orElse(null));
+        liveCounters.runFinished(pipelineType, status);
+        activeRunRegistry.remove(runId);
+        runEventBroadcaster.publish(runEvent(runId, pipelineType, status));
+    }
 
-        run.setStatus(RunStatus.FAILED);
-        run.setCompletedAt(LocalDateTime.now());
-        runRepository.save(run);
+    private static RunEventDTO runEvent(UUID runId, @Nullable String pipelineType, RunStatus status) {
+        return RunEventDTO.builder()
+                .type(status == RunStatus.COMPLETED ? RunEventType.RUN_COMPLETED : RunEventType.RUN_FAILED)
+                .runId(runId)
+                .pipelineType(pipelineType)
+                .occurredAt(LocalDateTime.now())
+                .build();
     }
 }
 
@@ -1,9 +1,20 @@
 package com.task.founding.engineer.service.impl;
 
+import com.task.founding.engineer.compression.TextCompressor;
+import com.task.founding.engineer.dictionary.ValueDictionary;
 import com.task.founding.engineer.dto.request.CreateStepRequestDTO;
+import com.task.founding.engineer.dto.response.RunEventDTO;
+import com.task.founding.engineer.enums.DictionaryKind;
+import com.task.founding.engineer.enums.PayloadField;
+import com.task.founding.engineer.enums.RunEventType;
+import com.task.founding.engineer.enums.RunStatus;
 import com.task.founding.engineer.enums.StepStatus;
+import com.task.founding.engineer.json.RawJson;
+import com.task.founding.engineer.live.ActiveRunRegistry;
+import com.task.founding.engineer.live.RunEventBroadcaster;
 import com.task.founding.engineer.model.XRayRun;
 import com.task.founding.engineer.model.XRayStep;
+import com.task.founding.engineer.repository.PayloadLoader;
 import com.task.founding.engineer.repository.XRayRunRepository;
 import com.task.founding.engineer.repository.XRayStepRepository;
 import com.task.founding.engineer.service.CandidateService;
@@ -11,12 +22,14 @@ import com.task.founding.engineer.service.StepService;
 import jakarta.annotation.Nullable;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -25,29 +38,45 @@ public class StepServiceImpl implements StepService {
 
     private final XRayStepRepository stepRepository;
     private final XRayRunRepository runRepository;
+    private final PayloadLoader payloadLoader;
     private final CandidateService candidateService;
+    private final TextCompressor textCompressor;
+    private final ValueDictionary valueDictionary;
+    private final ActiveRunRegistry activeRunRegistry;
+    private final RunEventBroadcaster runEventBroadcaster;
 
     @Override
     @Transactional
     public UUID createStep(
             @NotNull UUID runId,
             @NotNull CreateStepRequestDTO request) {
-        XRayRun run = runRepository.findById(runId)
-                .orElseThrow(() -> new RuntimeException("Run not found with id: " + runId));
+        XRayRun run = findRun(runId);
 
+        byte[] reasoningCompressed = textCompressor.compress(request.getStepName(), request.getReasoning());
         XRayStep step = XRayStep.builder()
                 .run(run)
                 .stepName(request.getStepName())
                 .stepType(request.getStepType())
+                .stepNameCode(valueDictionary.encode(DictionaryKind.STEP_NAME, request.getStepName()))
+                .stepTypeCode(valueDictionary.encode(DictionaryKind.STEP_TYPE, request.getStepType()))
                 .order(request.getOrder())
                 .status(StepStatus.SUCCESS)
                 .input(request.getInput())
                 .output(request.getOutput())
-                .reasoning(request.getReasoning())
+                .reasoning(Objects.isNull(reasoningCompressed) ? request.getReasoning() : null)
+                .reasoningCompressed(reasoningCompressed)
                 .metadata(request.getMetadata())
                 .build();
 
         step = stepRepository.save(step);
+        runEventBroadcaster.publish(RunEventDTO.builder()
+                .type(RunEventType.STEP_CREATED)
+                .runId(runId)
+                .stepId(step.getStepId())
+                .stepName(step.getStepName())
+                .order(step.getOrder())
+                .occurredAt(LocalDateTime.now())
+                .build());
 
         // Create candidates if provided
         if (Objects.nonNull(request.getCandidates()) && !request.getCandidates().isEmpty()) {
@@ -57,37 +86,73 @@ public class StepServiceImpl implements StepService {
         return step.getStepId();
     }
 
+    // A run known to be in progress is only referenced; any other run is loaded, and tracked if in progress
+    private XRayRun findRun(UUID runId) {
+        if (activeRunRegistry.touch(runId)) {
+            return runRepository.getReferenceById(runId);
+        }
+        XRayRun run = runRepository.findById(runId)
+                .orElseThrow(() -> new RuntimeException("Run not found with id: " + runId));
+        if (run.getStatus() == RunStatus.IN_PROGRESS) {
+            activeRunRegistry.register(run);
+        }
+        return run;
+    }
+
     @Override
-    public XRayStep getStepById(@NotNull UUID stepId) {
-        return stepRepository.findById(stepId)
+    @Transactional(readOnly = true)
+    public XRayStep getStepById(@NotNull UUID stepId, @NotNull Set<PayloadField> include) {
+        XRayStep step = stepRepository.findById(stepId)
                 .orElseThrow(() -> new RuntimeException("Step not found with id: " + stepId));
+        Hibernate.initialize(step.getCandidates());
+        loadPayloads(List.of(step), include);
+        return step;
     }
 
     @Override
-    public List<XRayStep> getStepsByRunId(@NotNull UUID runId) {
-        return stepRepository.findByRunIdOrderByOrderAsc(runId);
+    @Transactional(readOnly = true)
+    public List<XRayStep> getStepsByRunId(@NotNull UUID runId, @NotNull Set<PayloadField> include) {
+        List<XRayStep> steps = stepRepository.findByRunIdOrderByOrderAsc(runId);
+        steps.forEach(step -> Hibernate.initialize(step.getCandidates()));
+        loadPayloads(steps, include);
+        return steps;
     }
 
     @Override
-    public List<XRayStep> getStepsByType(@NotNull String stepType) {
-        return stepRepository.findByStepType(stepType);
+    @Transactional(readOnly = true)
+    public List<XRayStep> getStepsByType(@NotNull String stepType, @NotNull Set<PayloadField> include) {
+        List<XRayStep> steps = stepRepository.findByStepTypeOrCode(
+                stepType, valueDictionary.find(DictionaryKind.STEP_TYPE, stepType).orElse(null));
+        steps.forEach(step -> Hibernate.initialize(step.getCandidates()));
+        loadPayloads(steps, include);
+        return steps;
     }
 
     @Override
     @Transactional
     public void completeStep(
             @NotNull UUID stepId,
-            @NotNull Object output,
+            @NotNull RawJson output,
             @Nullable String reasoning) {
-        XRayStep step = stepRepository.findById(stepId)
-                .orElseThrow(() -> new RuntimeException("Step not found with id: " + stepId));
+        byte[] reasoningCompressed = null;
+        if (textCompressor.isEnabled() && Objects.nonNull(reasoning)) {
+            String stepName = stepRepository.findStepNameById(stepId)
+                    .orElseThrow(() -> new RuntimeException("Step not found with id: " + stepId));
+            reasoningCompressed = textCompressor.compress(stepName, reasoning);
+        }
 
-        step.setCompletedAt(LocalDateTime.now());
-        step.setOutput(output);
-        if (Objects.nonNull(reasoning)) {
-            step.setReasoning(reasoning);
+        int updated = Objects.isNull(reasoningCompressed)
+                ? stepRepository.updateCompletion(stepId, LocalDateTime.now(), output, reasoning)
+                : stepRepository.updateCompletionCompressed(stepId, LocalDateTime.now(), output, reasoningCompressed);
+        if (updated == 0) {
+            throw new RuntimeException("Step not found with id: " + stepId);
         }
-        stepRepository.save(step);
     }
-}
 
+    // Payload columns are lazy; only the requested ones are fetched, in bulk.
+    private void loadPayloads(List<XRayStep> steps, Set<PayloadField> include) {
+        if (!include.isEmpty()) {
+            payloadLoader.loadStepPayloads(steps, include);
+        }
+    }
+}
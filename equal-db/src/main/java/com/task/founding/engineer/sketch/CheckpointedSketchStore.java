@@ -0,0 +1,158 @@
+package com.task.founding.engineer.sketch;
+
+import com.task.founding.engineer.transaction.AfterCommit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Open sketches of hourly windows, updated in memory when an ingest commits and checkpointed to
+ * one row per window and instance, so instances never overwrite each other. A restart loses at
+ * most the keys since the last checkpoint; the instance's earlier rows stay.
+ * <p>
+ * Reads never checkpoint: they merge the {@link #openSketches open sketches} of this instance with
+ * the rows of the other instances, and with this instance's rows of windows no longer open, which
+ * were checkpointed in full before being dropped from memory.
+ * <p>
+ * Shared by {@link RejectedKeySketches} and {@link DistinctKeySketches}, which supply the sketch
+ * type, their window key and their table, and schedule {@link #checkpoint} and {@link #purge}.
+ *
+ * @param <W> window key, e.g. step name and hour
+ * @param <S> sketch type; guarded by its own monitor
+ */
+@Slf4j
+final class CheckpointedSketchStore<W extends CheckpointedSketchStore.HourlyWindow, S> {
+
+    interface HourlyWindow {
+
+        LocalDateTime start();
+    }
+
+    /**
+     * The checkpoint table of one sketch type.
+     */
+    interface Rows<W> {
+
+        // Inserts or updates the instance's row of the window
+        void save(W window, UUID instanceId, byte[] sketch);
+
+        int deleteByWindowStartBefore(LocalDateTime before);
+    }
+
+    private final String name;
+    private final Supplier<S> newSketch;
+    private final BiConsumer<S, String> add;
+    private final Function<S, byte[]> toBytes;
+    private final Rows<W> rows;
+    private final TransactionTemplate checkpointTransaction;
+    private final Duration retention;
+    private final UUID instanceId = UUID.randomUUID();
+
+    private final ConcurrentMap<W, S> open = new ConcurrentHashMap<>();
+    private final Set<W> dirty = ConcurrentHashMap.newKeySet();
+
+    CheckpointedSketchStore(
+            String name,
+            Supplier<S> newSketch,
+            BiConsumer<S, String> add,
+            Function<S, byte[]> toBytes,
+            Rows<W> rows,
+            PlatformTransactionManager transactionManager,
+            Duration retention) {
+        this.name = name;
+        this.newSketch = newSketch;
+        this.add = add;
+        this.toBytes = toBytes;
+        this.rows = rows;
+        this.checkpointTransaction = new TransactionTemplate(transactionManager);
+        // Independent of any read-only transaction of the caller
+        this.checkpointTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.retention = retention;
+    }
+
+    /**
+     * Adds the keys to the window once the caller's transaction commits, so a rolled back or
+     * retried batch is never counted; immediately without a transaction.
+     */
+    void addAfterCommit(W window, Collection<String> keys) {
+        AfterCommit.run(() -> add(window, keys));
+    }
+
+    void add(W window, Collection<String> keys) {
+        S sketch = open.computeIfAbsent(window, key -> newSketch.get());
+        synchronized (sketch) {
+            keys.forEach(key -> add.accept(sketch, key));
+        }
+        dirty.add(window);
+    }
+
+    /**
+     * Serialized copies of the open sketches of the matching windows, including keys not
+     * checkpointed yet. A row this instance wrote for one of these windows is superseded by it.
+     */
+    Map<W, byte[]> openSketches(Predicate<W> filter) {
+        return open.entrySet().stream()
+                .filter(entry -> filter.test(entry.getKey()))
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> {
+                    S sketch = entry.getValue();
+                    synchronized (sketch) {
+                        return toBytes.apply(sketch);
+                    }
+                }));
+    }
+
+    UUID instanceId() {
+        return instanceId;
+    }
+
+    Duration retention() {
+        return retention;
+    }
+
+    synchronized void checkpoint() {
+        LocalDateTime current = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        for (W window : List.copyOf(open.keySet())) {
+            if (dirty.remove(window)) {
+                S sketch = open.get(window);
+                byte[] bytes;
+                synchronized (sketch) {
+                    bytes = toBytes.apply(sketch);
+                }
+                try {
+                    checkpointTransaction.executeWithoutResult(status -> rows.save(window, instanceId, bytes));
+                } catch (RuntimeException e) {
+                    dirty.add(window);
+                    log.warn("Checkpoint of {} sketch {} failed; retrying next run", name, window, e);
+                }
+            } else if (window.start().isBefore(current.minusHours(1))) {
+                // Kept for an hour after it ends, so an ingest racing the hour boundary still lands in it
+                open.remove(window);
+            }
+        }
+    }
+
+    void purge() {
+        int deleted = checkpointTransaction.execute(status ->
+                rows.deleteByWindowStartBefore(LocalDateTime.now().minus(retention)));
+        if (deleted > 0) {
+            log.info("Purged {} {} sketches older than {}", deleted, name, retention);
+        }
+    }
+}
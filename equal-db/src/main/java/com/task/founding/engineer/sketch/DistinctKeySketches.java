@@ -0,0 +1,164 @@
+package com.task.founding.engineer.sketch;
+
+import com.task.founding.engineer.model.XRayDistinctKeySketch;
+import com.task.founding.engineer.repository.SketchRow;
+import com.task.founding.engineer.repository.XRayDistinctKeySketchRepository;
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Distinct business keys per pipeline type, step name and hour, as {@link HyperLogLog} sketches.
+ * <p>
+ * Works like {@link RejectedKeySketches}: sketches are updated in memory when an ingest commits
+ * and checkpointed to {@code xray_distinct_key_sketches} every {@code checkpoint-interval} by a
+ * {@link CheckpointedSketchStore}, one row per pipeline type, step name, hour and instance. Reads
+ * stream the rows of the requested window alongside this instance's open sketches and write
+ * nothing, so a distinct count never touches {@code xray_candidates}.
+ */
+@Component
+public class DistinctKeySketches {
+
+    private final XRayDistinctKeySketchRepository sketchRepository;
+    private final CheckpointedSketchStore<Window, HyperLogLog> store;
+    private final int precision;
+
+    record Window(int pipelineTypeCode, int stepNameCode, LocalDateTime start) implements CheckpointedSketchStore.HourlyWindow {
+    }
+
+    public DistinctKeySketches(
+            XRayDistinctKeySketchRepository sketchRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${xray.distinct-keys.precision:12}") int precision,
+            @Value("${xray.distinct-keys.retention:P90D}") Duration retention) {
+        this.sketchRepository = sketchRepository;
+        // Fails at startup on an invalid precision rather than on the first ingest
+        this.precision = new HyperLogLog(precision).precision();
+        this.store = new CheckpointedSketchStore<>(
+                "distinct key",
+                () -> new HyperLogLog(precision),
+                HyperLogLog::add,
+                HyperLogLog::toBytes,
+                new CheckpointedSketchStore.Rows<>() {
+                    @Override
+                    public void save(Window window, UUID instanceId, byte[] sketch) {
+                        DistinctKeySketches.this.save(window, instanceId, sketch);
+                    }
+
+                    @Override
+                    public int deleteByWindowStartBefore(LocalDateTime before) {
+                        return sketchRepository.deleteByWindowStartBefore(before);
+                    }
+                },
+                transactionManager,
+                retention);
+    }
+
+    /**
+     * Adds the keys to the current hour of the pipeline type and step name, once the caller's
+     * transaction commits.
+     */
+    public void add(
+            @Nullable Integer pipelineTypeCode,
+            @Nullable Integer stepNameCode,
+            @NotNull Collection<String> keys) {
+        if (Objects.isNull(pipelineTypeCode) || Objects.isNull(stepNameCode) || keys.isEmpty()) {
+            return;
+        }
+        store.addAfterCommit(
+                new Window(pipelineTypeCode, stepNameCode, LocalDateTime.now().truncatedTo(ChronoUnit.HOURS)), keys);
+    }
+
+    void add(Window window, Collection<String> keys) {
+        store.add(window, keys);
+    }
+
+    /**
+     * Passes each sketch of the hours starting in {@code [from, to)} to {@code action}, in hour
+     * order, across all instances and, without a step name, all steps of the pipeline type. This
+     * instance's open sketches stand in for its rows of the same windows, so keys not
+     * checkpointed yet are included.
+     */
+    @Transactional(readOnly = true)
+    public void forEachSketch(
+            int pipelineTypeCode,
+            @Nullable Integer stepNameCode,
+            @NotNull LocalDateTime from,
+            @NotNull LocalDateTime to,
+            @NotNull BiConsumer<LocalDateTime, HyperLogLog> action) {
+        Map<Window, byte[]> open = store.openSketches(window -> window.pipelineTypeCode() == pipelineTypeCode
+                && (Objects.isNull(stepNameCode) || window.stepNameCode() == stepNameCode)
+                && !window.start().isBefore(from) && window.start().isBefore(to));
+        Deque<Map.Entry<Window, byte[]>> pending = open.entrySet().stream()
+                .sorted(Comparator.comparing(entry -> entry.getKey().start()))
+                .collect(Collectors.toCollection(ArrayDeque::new));
+        Consumer<LocalDateTime> emitOpenUpTo = hour -> {
+            while (!pending.isEmpty() && !pending.peekFirst().getKey().start().isAfter(hour)) {
+                Map.Entry<Window, byte[]> entry = pending.pollFirst();
+                action.accept(entry.getKey().start(), HyperLogLog.fromBytes(entry.getValue()));
+            }
+        };
+
+        try (Stream<SketchRow> rows = sketchRepository.streamSketches(pipelineTypeCode, stepNameCode, from, to)) {
+            rows.filter(row -> !row.instanceId().equals(store.instanceId())
+                            || !open.containsKey(new Window(pipelineTypeCode, row.stepNameCode(), row.windowStart())))
+                    .forEach(row -> {
+                        emitOpenUpTo.accept(row.windowStart());
+                        action.accept(row.windowStart(), HyperLogLog.fromBytes(row.sketch()));
+                    });
+        }
+        emitOpenUpTo.accept(LocalDateTime.MAX);
+    }
+
+    public int precision() {
+        return precision;
+    }
+
+    public Duration retention() {
+        return store.retention();
+    }
+
+    @Scheduled(fixedDelayString = "${xray.distinct-keys.checkpoint-interval:PT1M}")
+    public void checkpoint() {
+        store.checkpoint();
+    }
+
+    @Scheduled(fixedDelayString = "${xray.distinct-keys.purge-interval:PT1H}")
+    public void purge() {
+        store.purge();
+    }
+
+    private void save(Window window, UUID instanceId, byte[] bytes) {
+        XRayDistinctKeySketch row = sketchRepository
+                .findByPipelineTypeCodeAndStepNameCodeAndWindowStartAndInstanceId(
+                        window.pipelineTypeCode(), window.stepNameCode(), window.start(), instanceId)
+                .orElseGet(() -> XRayDistinctKeySketch.builder()
+                        .pipelineTypeCode(window.pipelineTypeCode())
+                        .stepNameCode(window.stepNameCode())
+                        .windowStart(window.start())
+                        .instanceId(instanceId)
+                        .build());
+        row.setSketch(bytes);
+        row.setUpdatedAt(LocalDateTime.now());
+        sketchRepository.save(row);
+    }
+}
@@ -0,0 +1,133 @@
+package com.task.founding.engineer.sketch;
+
+import com.task.founding.engineer.model.XRayRejectedKeySketch;
+import com.task.founding.engineer.repository.SketchRow;
+import com.task.founding.engineer.repository.XRayRejectedKeySketchRepository;
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Heavy hitters of rejected business keys, one {@link SpaceSavingSketch} per step name and hour.
+ * <p>
+ * Sketches are updated in memory when an ingest commits and checkpointed to
+ * {@code xray_rejected_key_sketches} every {@code checkpoint-interval} by a
+ * {@link CheckpointedSketchStore}, one row per step name, hour and instance. Reads merge the rows
+ * of the requested hours with this instance's open sketches, never candidate rows, and write
+ * nothing.
+ */
+@Component
+public class RejectedKeySketches {
+
+    private final XRayRejectedKeySketchRepository sketchRepository;
+    private final CheckpointedSketchStore<Window, SpaceSavingSketch> store;
+    private final int capacity;
+
+    record Window(int stepNameCode, LocalDateTime start) implements CheckpointedSketchStore.HourlyWindow {
+    }
+
+    public RejectedKeySketches(
+            XRayRejectedKeySketchRepository sketchRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${xray.heavy-hitters.capacity:1000}") int capacity,
+            @Value("${xray.heavy-hitters.retention:P7D}") Duration retention) {
+        this.sketchRepository = sketchRepository;
+        this.capacity = capacity;
+        this.store = new CheckpointedSketchStore<>(
+                "rejected key",
+                () -> new SpaceSavingSketch(capacity),
+                SpaceSavingSketch::offer,
+                SpaceSavingSketch::toBytes,
+                new CheckpointedSketchStore.Rows<>() {
+                    @Override
+                    public void save(Window window, UUID instanceId, byte[] sketch) {
+                        RejectedKeySketches.this.save(window, instanceId, sketch);
+                    }
+
+                    @Override
+                    public int deleteByWindowStartBefore(LocalDateTime before) {
+                        return sketchRepository.deleteByWindowStartBefore(before);
+                    }
+                },
+                transactionManager,
+                retention);
+    }
+
+    /**
+     * Counts one rejection of each key (repeats included) in the current hour of the step name,
+     * once the caller's transaction commits.
+     */
+    public void record(@Nullable Integer stepNameCode, @NotNull Collection<String> keys) {
+        if (Objects.isNull(stepNameCode) || keys.isEmpty()) {
+            return;
+        }
+        store.addAfterCommit(new Window(stepNameCode, LocalDateTime.now().truncatedTo(ChronoUnit.HOURS)), keys);
+    }
+
+    void offer(Window window, Collection<String> keys) {
+        store.add(window, keys);
+    }
+
+    /**
+     * Merged sketch of the hours starting in {@code [from, to)}, across all instances; this
+     * instance's open sketches stand in for its rows of the same hours, so offers not
+     * checkpointed yet are included.
+     */
+    public SpaceSavingSketch merged(int stepNameCode, @NotNull LocalDateTime from, @NotNull LocalDateTime to) {
+        Map<Window, byte[]> open = store.openSketches(window -> window.stepNameCode() == stepNameCode
+                && !window.start().isBefore(from) && window.start().isBefore(to));
+        List<SpaceSavingSketch> sketches = Stream.concat(
+                        open.values().stream(),
+                        sketchRepository.findSketches(stepNameCode, from, to).stream()
+                                .filter(row -> !row.instanceId().equals(store.instanceId())
+                                        || !open.containsKey(new Window(stepNameCode, row.windowStart())))
+                                .map(SketchRow::sketch))
+                .map(SpaceSavingSketch::fromBytes)
+                .toList();
+        return SpaceSavingSketch.merge(capacity, sketches);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public Duration retention() {
+        return store.retention();
+    }
+
+    @Scheduled(fixedDelayString = "${xray.heavy-hitters.checkpoint-interval:PT1M}")
+    public void checkpoint() {
+        store.checkpoint();
+    }
+
+    @Scheduled(fixedDelayString = "${xray.heavy-hitters.purge-interval:PT1H}")
+    public void purge() {
+        store.purge();
+    }
+
+    private void save(Window window, UUID instanceId, byte[] bytes) {
+        XRayRejectedKeySketch row = sketchRepository
+                .findByStepNameCodeAndWindowStartAndInstanceId(window.stepNameCode(), window.start(), instanceId)
+                .orElseGet(() -> XRayRejectedKeySketch.builder()
+                        .stepNameCode(window.stepNameCode())
+                        .windowStart(window.start())
+                        .instanceId(instanceId)
+                        .build());
+        row.setSketch(bytes);
+        row.setUpdatedAt(LocalDateTime.now());
+        sketchRepository.save(row);
+    }
+}
@@ -0,0 +1,216 @@
+package com.task.founding.engineer.sketch;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+
+/**
+ * Space-Saving heavy-hitter sketch: at most {@code capacity} counters, each an upper bound on its
+ * key's frequency with a recorded maximum overestimate ({@code error}).
+ * <p>
+ * A new key takes over the smallest counter and inherits its count as error, so any key occurring
+ * more than {@code total / capacity} times is guaranteed to hold a counter. Counters live in an
+ * indexed min-heap, making every offer O(log capacity).
+ * <p>
+ * Sketches are mergeable (Agarwal et al., "Mergeable Summaries"): a key missing from a full sketch
+ * is assumed to have that sketch's minimum count, which keeps counts upper bounds after a merge.
+ */
+public final class SpaceSavingSketch {
+
+    private static final byte VERSION = 1;
+
+    /**
+     * @param count upper bound on the key's frequency
+     * @param error maximum overestimate; {@code count - error} occurrences are guaranteed
+     */
+    public record Counter(String key, long count, long error) {
+    }
+
+    private final int capacity;
+    private final String[] keys;
+    private final long[] counts;
+    private final long[] errors;
+    private final Map<String, Integer> positions;
+    private int size;
+    private long total;
+
+    public SpaceSavingSketch(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Sketch capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.keys = new String[capacity];
+        this.counts = new long[capacity];
+        this.errors = new long[capacity];
+        this.positions = new HashMap<>(capacity * 2);
+    }
+
+    public void offer(@NotNull String key) {
+        total++;
+        Integer position = positions.get(key);
+        if (Objects.nonNull(position)) {
+            counts[position]++;
+            siftDown(position);
+        } else if (size < capacity) {
+            set(size, key, 1, 0);
+            siftUp(size++);
+        } else {
+            // Evict the smallest counter; the new key may have occurred up to that many times unseen
+            positions.remove(keys[0]);
+            set(0, key, counts[0] + 1, counts[0]);
+            siftDown(0);
+        }
+    }
+
+    /**
+     * The {@code limit} largest counters, largest first.
+     */
+    public List<Counter> top(int limit) {
+        List<Counter> counters = counters();
+        counters.sort(Comparator.comparingLong(Counter::count).reversed().thenComparing(Counter::key));
+        return new ArrayList<>(counters.subList(0, Math.min(limit, counters.size())));
+    }
+
+    /**
+     * Number of keys offered, including those that no longer hold a counter.
+     */
+    public long total() {
+        return total;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Merges sketches into a new one of {@code capacity} counters; the inputs are not modified.
+     */
+    public static SpaceSavingSketch merge(int capacity, @NotNull Collection<SpaceSavingSketch> sketches) {
+        long minimums = 0;
+        long total = 0;
+        Map<String, long[]> merged = new HashMap<>();
+        for (SpaceSavingSketch sketch : sketches) {
+            // Only a full sketch may have dropped a key; a missing key of a partial one is really zero
+            long minimum = sketch.size == sketch.capacity ? sketch.counts[0] : 0;
+            minimums += minimum;
+            total += sketch.total;
+            for (int i = 0; i < sketch.size; i++) {
+                long[] counter = merged.computeIfAbsent(sketch.keys[i], key -> new long[2]);
+                counter[0] += sketch.counts[i] - minimum;
+                counter[1] += sketch.errors[i] - minimum;
+            }
+        }
+        long missing = minimums;
+        List<Counter> counters = new ArrayList<>(merged.size());
+        merged.forEach((key, counter) -> counters.add(new Counter(key, counter[0] + missing, counter[1] + missing)));
+        counters.sort(Comparator.comparingLong(Counter::count).reversed().thenComparing(Counter::key));
+
+        SpaceSavingSketch result = new SpaceSavingSketch(capacity);
+        for (Counter counter : counters.subList(0, Math.min(capacity, counters.size()))) {
+            result.set(result.size, counter.key(), counter.count(), counter.error());
+            result.siftUp(result.size++);
+        }
+        result.total = total;
+        return result;
+    }
+
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + size * 32);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeInt(capacity);
+            out.writeLong(total);
+            out.writeInt(size);
+            for (int i = 0; i < size; i++) {
+                out.writeUTF(keys[i]);
+                out.writeLong(counts[i]);
+                out.writeLong(errors[i]);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static SpaceSavingSketch fromBytes(@NotNull byte[] bytes) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            byte version = in.readByte();
+            if (version != VERSION) {
+                throw new IllegalStateException("Unsupported sketch version: " + version);
+            }
+            SpaceSavingSketch sketch = new SpaceSavingSketch(in.readInt());
+            sketch.total = in.readLong();
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                sketch.set(sketch.size, in.readUTF(), in.readLong(), in.readLong());
+                sketch.siftUp(sketch.size++);
+            }
+            return sketch;
+        } catch (IOException e) {
+            throw new IllegalStateException("Corrupt sketch of " + bytes.length + " bytes", e);
+        }
+    }
+
+    private List<Counter> counters() {
+        List<Counter> counters = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            counters.add(new Counter(keys[i], counts[i], errors[i]));
+        }
+        return counters;
+    }
+
+    private void set(int position, String key, long count, long error) {
+        keys[position] = key;
+        counts[position] = count;
+        errors[position] = error;
+        positions.put(key, position);
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (counts[parent] <= counts[position]) {
+                return;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int smallest = position;
+            int left = 2 * position + 1;
+            int right = left + 1;
+            if (left < size && counts[left] < counts[smallest]) {
+                smallest = left;
+            }
+            if (right < size && counts[right] < counts[smallest]) {
+                smallest = right;
+            }
+            if (smallest == position) {
+                return;
+            }
+            swap(position, smallest);
+            position = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        String key = keys[a];
+        long count = counts[a];
+        long error = errors[a];
+        set(a, keys[b], counts[b], errors[b]);
+        set(b, key, count, error);
+    }
+}
@@ -0,0 +1,29 @@
+package com.task.founding.engineer.transaction;
+
+import jakarta.validation.constraints.NotNull;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers in-memory effects of a write until the surrounding transaction commits, so a rolled back
+ * write never reaches a cache, counter or subscriber. Without a transaction the effect is applied
+ * at once.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    public static void run(@NotNull Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.task.founding.engineer.whatif;
+
+import jakarta.annotation.Nullable;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.constraints.NotNull;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Loads the candidates of one step name and window into {@link CandidateColumns} with a single
+ * forward-only JDBC cursor: score, selected and the requested promoted keys only, no payload
+ * and no entities. Runs on the connection of the caller's transaction, so PostgreSQL streams the
+ * rows in fetches of {@link #FETCH_SIZE}.
+ * <p>
+ * A {@code @Repository} so a statement timeout surfaces as Spring's {@code QueryTimeoutException}.
+ */
+@Repository
+public class CandidateColumnLoader {
+
+    static final int FETCH_SIZE = 10_000;
+
+    private final EntityManager entityManager;
+    private final Duration timeout;
+    private final int maxCandidates;
+
+    public CandidateColumnLoader(
+            EntityManager entityManager,
+            @Value("${xray.what-if.timeout:PT60S}") Duration timeout,
+            @Value("${xray.what-if.max-candidates:20000000}") int maxCandidates) {
+        this.entityManager = entityManager;
+        this.timeout = timeout;
+        this.maxCandidates = maxCandidates;
+    }
+
+    /**
+     * @param promotedKeys text expressions of the promoted keys to load (see
+     *                     {@code JsonContainment#textExpression}), in the order of their column index
+     */
+    public CandidateColumns load(
+            int stepNameCode,
+            @Nullable Integer pipelineTypeCode,
+            @NotNull LocalDateTime startDate,
+            @NotNull LocalDateTime endDate,
+            @NotNull List<String> promotedKeys) {
+        List<Object> parameters = new ArrayList<>();
+        String sql = toSql(stepNameCode, pipelineTypeCode, startDate, endDate, promotedKeys, parameters);
+        CandidateColumns columns = new CandidateColumns(promotedKeys.size());
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(FETCH_SIZE);
+                statement.setQueryTimeout((int) Math.max(1, timeout.toSeconds()));
+                for (int i = 0; i < parameters.size(); i++) {
+                    statement.setObject(i + 1, parameters.get(i));
+                }
+                try (ResultSet rows = statement.executeQuery()) {
+                    String[] keys = new String[promotedKeys.size()];
+                    while (rows.next()) {
+                        if (columns.size() == maxCandidates) {
+                            throw new IllegalArgumentException(
+                                    "What-if windows are limited to " + maxCandidates + " candidates; narrow the window");
+                        }
+                        double score = rows.getDouble(1);
+                        if (rows.wasNull()) {
+                            score = Double.NaN;
+                        }
+                        for (int column = 0; column < keys.length; column++) {
+                            keys[column] = rows.getString(3 + column);
+                        }
+                        columns.append(score, rows.getBoolean(2), keys);
+                    }
+                }
+            }
+        });
+        return columns;
+    }
+
+    static String toSql(
+            int stepNameCode,
+            @Nullable Integer pipelineTypeCode,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            List<String> promotedKeys,
+            List<Object> parameters) {
+        StringBuilder sql = new StringBuilder("SELECT c.score, c.selected");
+        // Expressions are built from validated path segments only
+        for (String key : promotedKeys) {
+            sql.append(", c.").append(key);
+        }
+        sql.append(" FROM xray_candidates c JOIN xray_steps s ON s.step_id = c.step_id ");
+        if (Objects.nonNull(pipelineTypeCode)) {
+            sql.append("JOIN xray_runs r ON r.run_id = s.run_id ");
+        }
+        sql.append("WHERE s.step_name_code = ? AND s.started_at >= ? AND s.started_at <= ?");
+        parameters.add(stepNameCode);
+        parameters.add(startDate);
+        parameters.add(endDate);
+        if (Objects.nonNull(pipelineTypeCode)) {
+            sql.append(" AND r.pipeline_type_code = ?");
+            parameters.add(pipelineTypeCode);
+        }
+        return sql.toString();
+    }
+}
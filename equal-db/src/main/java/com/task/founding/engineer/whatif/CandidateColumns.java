@@ -0,0 +1,98 @@
+package com.task.founding.engineer.whatif;
+
+import jakarta.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Column-oriented copy of the candidates of a what-if window: scores in a {@code double[]}
+ * ({@code NaN} for no score), the historical {@code selected} flags in a bitset of 64-row words,
+ * and each loaded promoted {@code data} key dictionary-encoded into an {@code int[]} of codes
+ * ({@code -1} for no value). No candidate objects are created.
+ */
+public final class CandidateColumns {
+
+    static final int NULL_CODE = -1;
+
+    private static final int INITIAL_CAPACITY = 1 << 16;
+
+    private double[] scores;
+    private long[] selected;
+    private final int[][] codes;
+    private final List<List<String>> values;
+    private final List<Map<String, Integer>> lookups;
+    private int size;
+
+    public CandidateColumns(int keyColumns) {
+        this.scores = new double[INITIAL_CAPACITY];
+        this.selected = new long[INITIAL_CAPACITY / Long.SIZE];
+        this.codes = new int[keyColumns][INITIAL_CAPACITY];
+        this.values = new ArrayList<>(keyColumns);
+        this.lookups = new ArrayList<>(keyColumns);
+        for (int column = 0; column < keyColumns; column++) {
+            values.add(new ArrayList<>());
+            lookups.add(new HashMap<>());
+        }
+    }
+
+    public void append(double score, boolean isSelected, @Nullable String[] keys) {
+        if (size == scores.length) {
+            grow();
+        }
+        scores[size] = score;
+        if (isSelected) {
+            selected[size >>> 6] |= 1L << size;
+        }
+        for (int column = 0; column < codes.length; column++) {
+            codes[column][size] = encode(column, keys[column]);
+        }
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Distinct values of a key column, indexed by code.
+     */
+    public List<String> values(int column) {
+        return values.get(column);
+    }
+
+    double[] scores() {
+        return scores;
+    }
+
+    long[] selected() {
+        return selected;
+    }
+
+    int[] codes(int column) {
+        return codes[column];
+    }
+
+    private int encode(int column, String value) {
+        if (Objects.isNull(value)) {
+            return NULL_CODE;
+        }
+        return lookups.get(column).computeIfAbsent(value, key -> {
+            values.get(column).add(key);
+            return values.get(column).size() - 1;
+        });
+    }
+
+    private void grow() {
+        int capacity = scores.length * 2;
+        scores = Arrays.copyOf(scores, capacity);
+        selected = Arrays.copyOf(selected, capacity / Long.SIZE);
+        for (int column = 0; column < codes.length; column++) {
+            codes[column] = Arrays.copyOf(codes[column], capacity);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.task.founding.engineer.whatif;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/**
+ * Evaluates score thresholds and key rules over {@link CandidateColumns}.
+ * <p>
+ * Rows are processed 64 at a time: each predicate becomes one {@code long} of match bits, the
+ * bits of all rules and a threshold are combined with {@code &}, and counts are popcounts against
+ * the historical {@code selected} word. The inner loops are branch-free array scans the JIT can
+ * vectorize. Chunks of {@link #CHUNK_WORDS} words run in parallel on the common fork-join pool.
+ * A rule is decided once per distinct value of its key, not once per row.
+ */
+public final class WhatIfEvaluator {
+
+    static final int CHUNK_WORDS = 1024;
+
+    private WhatIfEvaluator() {
+    }
+
+    /**
+     * A rule on one key column, as the set of dictionary codes whose value matches.
+     */
+    public record Rule(int column, boolean[] matchingCodes) {
+
+        public static Rule of(@NotNull CandidateColumns columns, int column, @NotNull Predicate<String> matches) {
+            List<String> values = columns.values(column);
+            boolean[] matchingCodes = new boolean[values.size()];
+            for (int code = 0; code < matchingCodes.length; code++) {
+                matchingCodes[code] = matches.test(values.get(code));
+            }
+            return new Rule(column, matchingCodes);
+        }
+    }
+
+    /**
+     * @param selected     per threshold, rows that pass it and every rule
+     * @param keptSelected per threshold, of those the rows that were selected historically
+     */
+    public record Counts(long candidates, long unscored, long historicalSelected, long[] selected, long[] keptSelected) {
+    }
+
+    /**
+     * Counts, for each threshold, the rows with {@code score >= threshold} that match every rule;
+     * a {@code NaN} threshold applies the rules only. Rows without a score never pass a threshold.
+     */
+    public static Counts evaluate(@NotNull CandidateColumns columns, @NotNull List<Rule> rules, @NotNull double[] thresholds) {
+        int words = (columns.size() + Long.SIZE - 1) / Long.SIZE;
+        int chunks = (words + CHUNK_WORDS - 1) / CHUNK_WORDS;
+        long[] totals = IntStream.range(0, chunks)
+                .parallel()
+                .mapToObj(chunk -> evaluateChunk(columns, rules, thresholds,
+                        chunk * CHUNK_WORDS, Math.min(words, (chunk + 1) * CHUNK_WORDS)))
+                .reduce(new long[2 + 2 * thresholds.length], WhatIfEvaluator::add);
+
+        long[] selected = new long[thresholds.length];
+        long[] keptSelected = new long[thresholds.length];
+        for (int t = 0; t < thresholds.length; t++) {
+            selected[t] = totals[2 + 2 * t];
+            keptSelected[t] = totals[3 + 2 * t];
+        }
+        return new Counts(columns.size(), totals[0], totals[1], selected, keptSelected);
+    }
+
+    // [unscored, historicalSelected, then selected and keptSelected per threshold]
+    private static long[] evaluateChunk(
+            CandidateColumns columns,
+            List<Rule> rules,
+            double[] thresholds,
+            int fromWord,
+            int toWord) {
+        double[] scores = columns.scores();
+        long[] selectedWords = columns.selected();
+        long[] counts = new long[2 + 2 * thresholds.length];
+        for (int word = fromWord; word < toWord; word++) {
+            int base = word * Long.SIZE;
+            int rows = Math.min(Long.SIZE, columns.size() - base);
+            long valid = rows == Long.SIZE ? -1L : (1L << rows) - 1;
+
+            long ruleBits = valid;
+            for (Rule rule : rules) {
+                ruleBits &= ruleBits(columns.codes(rule.column()), rule.matchingCodes(), base, rows);
+            }
+            long unscored = 0;
+            for (int i = 0; i < rows; i++) {
+                unscored |= (Double.isNaN(scores[base + i]) ? 1L : 0L) << i;
+            }
+            long historical = selectedWords[word];
+            counts[0] += Long.bitCount(unscored);
+            counts[1] += Long.bitCount(historical);
+
+            for (int t = 0; t < thresholds.length; t++) {
+                long passing = Double.isNaN(thresholds[t]) ? ruleBits : ruleBits & scoreBits(scores, thresholds[t], base, rows);
+                counts[2 + 2 * t] += Long.bitCount(passing);
+                counts[3 + 2 * t] += Long.bitCount(passing & historical);
+            }
+        }
+        return counts;
+    }
+
+    // NaN scores compare false, so unscored rows never pass
+    private static long scoreBits(double[] scores, double threshold, int base, int rows) {
+        long bits = 0;
+        for (int i = 0; i < rows; i++) {
+            bits |= (scores[base + i] >= threshold ? 1L : 0L) << i;
+        }
+        return bits;
+    }
+
+    private static long ruleBits(int[] codes, boolean[] matchingCodes, int base, int rows) {
+        long bits = 0;
+        for (int i = 0; i < rows; i++) {
+            int code = codes[base + i];
+            bits |= (code != CandidateColumns.NULL_CODE && matchingCodes[code] ? 1L : 0L) << i;
+        }
+        return bits;
+    }
+
+    private static long[] add(long[] a, long[] b) {
+        long[] sum = new long[a.length];
+        for (int i = 0; i < a.length; i++) {
+            sum[i] = a[i] + b[i];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,84 @@
+package com.task.founding.engineer.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates step reasoning and candidate rejection reasons in the shape the competitor-selection
+ * pipeline writes them: templated sentences from an LLM or rule engine with the numbers, product
+ * names and categories filled in.
+ */
+final class DecisionTextCorpus {
+
+    static final String[] STEP_NAMES = {"keyword_generation", "filter_by_price", "relevance_ranking"};
+
+    private static final String[] CATEGORIES = {
+            "Laptop Stands", "Phone Cases", "Water Bottles", "Desk Lamps", "USB-C Hubs", "Yoga Mats"
+    };
+    private static final String[] ATTRIBUTES = {"material", "color", "size", "brand", "compatibility"};
+
+    private DecisionTextCorpus() {
+    }
+
+    static List<String> reasoning(String stepName, int count, long seed) {
+        Random random = new Random(seed);
+        List<String> texts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            texts.add(reasoning(stepName, random));
+        }
+        return texts;
+    }
+
+    static List<String> rejectionReasons(int count, long seed) {
+        Random random = new Random(seed);
+        List<String> texts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            texts.add(rejectionReason(random));
+        }
+        return texts;
+    }
+
+    private static String reasoning(String stepName, Random random) {
+        String category = pick(CATEGORIES, random);
+        int evaluated = 20 + random.nextInt(400);
+        int rejected = random.nextInt(evaluated);
+        return switch (stepName) {
+            case "keyword_generation" -> "Analyzed the reference product title and attributes for the " + category
+                    + " category. The title emphasizes " + pick(ATTRIBUTES, random) + " and " + pick(ATTRIBUTES, random)
+                    + ", so the generated keywords focus on those attributes while dropping brand-specific terms "
+                    + "that would bias the search toward the seller's own listings. Generated "
+                    + (3 + random.nextInt(8)) + " keywords; the most specific one is expected to return fewer than "
+                    + (50 + random.nextInt(200)) + " results.";
+            case "filter_by_price" -> "Applied the price band $" + (10 + random.nextInt(30)) + ".00-$"
+                    + (60 + random.nextInt(90)) + ".00 derived from the reference price of $"
+                    + (20 + random.nextInt(80)) + "." + random.nextInt(10) + "9 with a tolerance of "
+                    + (20 + random.nextInt(40)) + "%. Evaluated " + evaluated + " candidates and rejected " + rejected
+                    + " of them: most rejected listings were bundles or multi-packs priced well above the band, and a "
+                    + "few were accessories priced far below it. Candidates without a price were rejected as well.";
+            default -> "Ranked " + (evaluated - rejected) + " remaining " + category + " candidates by a weighted "
+                    + "score of title similarity (0." + (3 + random.nextInt(4)) + "), rating (0."
+                    + (1 + random.nextInt(3)) + ") and review count (0." + (1 + random.nextInt(3)) + "). The top "
+                    + "candidate matches the reference on " + pick(ATTRIBUTES, random) + " and has "
+                    + (100 + random.nextInt(9000)) + " reviews with an average rating of "
+                    + (3 + random.nextInt(2)) + "." + random.nextInt(10) + ", which outweighs its slightly lower title "
+                    + "similarity. Selected the top candidate as the competitor.";
+        };
+    }
+
+    private static String rejectionReason(Random random) {
+        return switch (random.nextInt(4)) {
+            case 0 -> "Price $" + (80 + random.nextInt(200)) + "." + (10 + random.nextInt(90))
+                    + " exceeds maximum allowed $" + (60 + random.nextInt(40)) + ".00";
+            case 1 -> "Rating " + (2 + random.nextInt(2)) + "." + random.nextInt(10)
+                    + " is below the minimum rating of 4.0";
+            case 2 -> "Category '" + pick(CATEGORIES, random) + "' does not match the reference category '"
+                    + pick(CATEGORIES, random) + "'";
+            default -> "Only " + random.nextInt(50) + " reviews; at least 100 reviews are required";
+        };
+    }
+
+    private static String pick(String[] values, Random random) {
+        return values[random.nextInt(values.length)];
+    }
+}
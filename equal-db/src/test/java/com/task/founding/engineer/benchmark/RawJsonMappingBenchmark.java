@@ -0,0 +1,94 @@
+package com.task.founding.engineer.benchmark;
+
+import com.task.founding.engineer.json.RawJson;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request body -> JSONB column -> response body for a single JSON attribute.
+ * <p>
+ * {@code mapRoundTrip} mirrors the old {@code Map<String, Object>} mapping: Jackson builds a map for the
+ * request, Hibernate's format mapper writes it, reads it back into a map and the response serializes it again.
+ * {@code rawJsonPassthrough} is the {@link RawJson} path, where {@code RawJsonType} binds and reads the text as-is.
+ * <p>
+ * Run with {@code mvn -pl equal-db test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.task.founding.engineer.benchmark.RawJsonMappingBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RawJsonMappingBenchmark {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() { };
+
+    @Param({"1024", "51200"})
+    public int payloadBytes;
+
+    private JsonMapper mapper;
+    private byte[] requestBody;
+
+    @Setup
+    public void setUp() {
+        mapper = JsonMapper.builder().build();
+        requestBody = payload(payloadBytes).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String mapRoundTrip() {
+        Map<String, Object> request = mapper.readValue(requestBody, MAP_TYPE);
+        String column = mapper.writeValueAsString(request);
+        Object loaded = mapper.readValue(column, Object.class);
+        return mapper.writeValueAsString(loaded);
+    }
+
+    @Benchmark
+    public String rawJsonPassthrough() {
+        RawJson request = mapper.readValue(requestBody, RawJson.class);
+        String column = request.json();
+        RawJson loaded = RawJson.of(column);
+        return mapper.writeValueAsString(loaded);
+    }
+
+    /**
+     * Builds a candidate-like document of roughly {@code targetBytes}: nested objects, arrays,
+     * numbers and free text, the usual shape of pipeline inputs and outputs.
+     */
+    static String payload(int targetBytes) {
+        Random random = new Random(42);
+        StringBuilder json = new StringBuilder("{\"items\":[");
+        int i = 0;
+        while (json.length() < targetBytes - 2) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":\"sku-").append(100000 + random.nextInt(900000))
+                    .append("\",\"title\":\"Product ").append(i).append(" with a fairly descriptive name\"")
+                    .append(",\"price\":").append(random.nextInt(10000) / 100.0)
+                    .append(",\"rating\":").append(random.nextInt(50) / 10.0)
+                    .append(",\"tags\":[\"tag").append(random.nextInt(20)).append("\",\"tag")
+                    .append(random.nextInt(20)).append("\"]")
+                    .append(",\"attributes\":{\"inStock\":").append(random.nextBoolean())
+                    .append(",\"category\":\"cat-").append(random.nextInt(12)).append("\"}}");
+            i++;
+        }
+        return json.append("]}").toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RawJsonMappingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,129 @@
+package com.task.founding.engineer.benchmark;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+import com.github.luben.zstd.ZstdDictTrainer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stored size and per-text compress / decompress cost of step reasoning and candidate rejection
+ * reasons, with the settings {@code TextCompressor} uses: zstd level 3, and a 16 KiB dictionary
+ * trained from the first 200 texts of a step name.
+ * <p>
+ * {@code codec=plain} is zstd without a dictionary, {@code codec=dictionary} the trained one. The
+ * texts measured are generated with a different seed than the training samples. Stored sizes for
+ * the whole corpus are printed once per trial.
+ * <p>
+ * Run with {@code mvn -pl equal-db test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.task.founding.engineer.benchmark.TextCompressionBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TextCompressionBenchmark {
+
+    private static final int LEVEL = 3;
+    private static final int DICTIONARY_SIZE = 16 * 1024;
+    private static final int TRAINING_SAMPLES = 200;
+    private static final int CORPUS_SIZE = 1000;
+
+    @Param({"reasoning", "rejection_reason"})
+    public String text;
+
+    @Param({"plain", "dictionary"})
+    public String codec;
+
+    private byte[][] texts;
+    private byte[][] frames;
+    private ZstdDictCompress compressDictionary;
+    private ZstdDictDecompress decompressDictionary;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        String stepName = "filter_by_price";
+        List<String> training = "reasoning".equals(text)
+                ? DecisionTextCorpus.reasoning(stepName, TRAINING_SAMPLES, 1)
+                : DecisionTextCorpus.rejectionReasons(TRAINING_SAMPLES, 1);
+        List<String> corpus = "reasoning".equals(text)
+                ? DecisionTextCorpus.reasoning(stepName, CORPUS_SIZE, 2)
+                : DecisionTextCorpus.rejectionReasons(CORPUS_SIZE, 2);
+
+        if ("dictionary".equals(codec)) {
+            byte[] dictionary = train(training);
+            compressDictionary = new ZstdDictCompress(dictionary, LEVEL);
+            decompressDictionary = new ZstdDictDecompress(dictionary);
+        }
+
+        texts = new byte[CORPUS_SIZE][];
+        frames = new byte[CORPUS_SIZE][];
+        long rawBytes = 0;
+        long storedBytes = 0;
+        for (int i = 0; i < CORPUS_SIZE; i++) {
+            texts[i] = corpus.get(i).getBytes(StandardCharsets.UTF_8);
+            frames[i] = compress(texts[i]);
+            rawBytes += texts[i].length;
+            storedBytes += frames[i].length;
+        }
+        System.out.printf("%n%s/%s: %d texts, %d B raw, %d B stored (%.1f%%), %.1f B per text%n",
+                text, codec, CORPUS_SIZE, rawBytes, storedBytes, 100.0 * storedBytes / rawBytes,
+                storedBytes / (double) CORPUS_SIZE);
+    }
+
+    @Benchmark
+    public byte[] compress() {
+        return compress(texts[advance()]);
+    }
+
+    @Benchmark
+    public String decompress() {
+        byte[] frame = frames[advance()];
+        int size = (int) Zstd.getFrameContentSize(frame);
+        byte[] bytes = Objects.isNull(decompressDictionary)
+                ? Zstd.decompress(frame, size)
+                : Zstd.decompress(frame, decompressDictionary, size);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private byte[] compress(byte[] bytes) {
+        return Objects.isNull(compressDictionary) ? Zstd.compress(bytes, LEVEL) : Zstd.compress(bytes, compressDictionary);
+    }
+
+    private int advance() {
+        next = next + 1 == CORPUS_SIZE ? 0 : next + 1;
+        return next;
+    }
+
+    private static byte[] train(List<String> samples) {
+        byte[][] encoded = samples.stream()
+                .map(sample -> sample.getBytes(StandardCharsets.UTF_8))
+                .toArray(byte[][]::new);
+        int totalBytes = 0;
+        for (byte[] sample : encoded) {
+            totalBytes += sample.length;
+        }
+        ZstdDictTrainer trainer = new ZstdDictTrainer(totalBytes, DICTIONARY_SIZE);
+        for (byte[] sample : encoded) {
+            trainer.addSample(sample);
+        }
+        return trainer.trainSamples();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TextCompressionBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,197 @@
+package com.task.founding.engineer.bus;
+
+import com.task.founding.engineer.dto.response.RunEventDTO;
+import com.task.founding.engineer.enums.RunEventType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeBusTest {
+
+    private static final String URL = "jdbc:postgresql://localhost:5432/xray";
+
+    @Mock
+    private ObjectProvider<ChangeListener> senderListeners;
+
+    @Mock
+    private ObjectProvider<ChangeListener> receiverListeners;
+
+    @Mock
+    private ChangeListener listener;
+
+    private ChangeBus sender;
+    private ChangeBus receiver;
+    private final UUID runId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        sender = bus(senderListeners, URL, 10_000);
+        receiver = bus(receiverListeners, URL, 10_000);
+        lenient().when(receiverListeners.orderedStream()).thenAnswer(invocation -> Stream.of(listener));
+    }
+
+    @Test
+    void testSend_CoalescesAppendsToOneStep() {
+        UUID stepId = UUID.randomUUID();
+        sender.send(appended(stepId, 10, 2));
+        sender.send(step(1));
+        sender.send(appended(stepId, 5, 1));
+
+        List<String> payloads = sender.drainPayloads();
+        payloads.forEach(receiver::receive);
+
+        assertEquals(1, payloads.size());
+        List<RunEventDTO> events = received(1).getFirst();
+        assertEquals(2, events.size());
+        assertEquals(RunEventType.CANDIDATES_APPENDED, events.get(0).getType());
+        assertEquals(stepId, events.get(0).getStepId());
+        assertEquals("filter_by_price", events.get(0).getStepName());
+        assertEquals(2, events.get(0).getOrder());
+        assertEquals(15, events.get(0).getCandidates());
+        assertEquals(3, events.get(0).getSelected());
+        assertEquals(RunEventType.STEP_CREATED, events.get(1).getType());
+        assertTrue(sender.drainPayloads().isEmpty());
+    }
+
+    @Test
+    void testDrainPayloads_SplitsBatchesOverThePayloadLimit() {
+        IntStream.range(0, 200).forEach(order -> sender.send(step(order)));
+
+        List<String> payloads = sender.drainPayloads();
+        payloads.forEach(receiver::receive);
+
+        assertTrue(payloads.size() > 1);
+        payloads.forEach(payload -> assertTrue(payload.getBytes(StandardCharsets.UTF_8).length <= ChangeBus.MAX_PAYLOAD_BYTES));
+        List<Integer> orders = received(payloads.size()).stream()
+                .flatMap(List::stream)
+                .map(RunEventDTO::getOrder)
+                .toList();
+        assertEquals(IntStream.range(0, 200).boxed().toList(), orders);
+        verify(listener, never()).onResync();
+    }
+
+    @Test
+    void testDrainPayloads_EventTooLargeForAPayloadAsksForResync() {
+        sender.send(RunEventDTO.builder()
+                .type(RunEventType.STEP_CREATED)
+                .runId(runId)
+                .stepId(UUID.randomUUID())
+                .stepName("x".repeat(ChangeBus.MAX_PAYLOAD_BYTES))
+                .build());
+
+        sender.drainPayloads().forEach(receiver::receive);
+
+        verify(listener).onResync();
+        verify(listener, never()).onRemoteEvents(anyList());
+    }
+
+    @Test
+    void testSend_OverflowAsksForResync() {
+        sender = bus(senderListeners, URL, 2);
+        IntStream.range(0, 3).forEach(order -> sender.send(step(order)));
+
+        sender.drainPayloads().forEach(receiver::receive);
+
+        verify(listener).onResync();
+        assertEquals(2, received(1).getFirst().size());
+    }
+
+    @Test
+    void testReceive_IgnoresOwnNotifications() {
+        sender.send(step(1));
+
+        sender.drainPayloads().forEach(sender::receive);
+
+        verifyNoInteractions(senderListeners);
+    }
+
+    @Test
+    void testReceive_FailingListenerDoesNotStopOthers() {
+        ChangeListener failing = mock(ChangeListener.class);
+        doThrow(new IllegalStateException("boom")).when(failing).onRemoteEvents(anyList());
+        when(receiverListeners.orderedStream()).thenAnswer(invocation -> Stream.of(failing, listener));
+        sender.send(step(1));
+
+        sender.drainPayloads().forEach(receiver::receive);
+
+        assertEquals(1, received(1).getFirst().size());
+    }
+
+    @Test
+    void testReceive_IgnoresMalformedPayload() {
+        receiver.receive("not json");
+
+        verifyNoInteractions(listener);
+    }
+
+    @Test
+    void testSend_DisabledWithoutPostgres() {
+        ChangeBus h2 = bus(senderListeners, "jdbc:h2:mem:xray", 10_000);
+
+        h2.send(step(1));
+
+        assertFalse(h2.isEnabled());
+        assertTrue(h2.drainPayloads().isEmpty());
+    }
+
+    @Test
+    void testConstructor_RejectsInvalidChannel() {
+        assertThrows(IllegalArgumentException.class, () -> new ChangeBus(
+                senderListeners, true, URL, "xray", "xray", "changes; DROP TABLE xray_runs",
+                Duration.ofMillis(200), 10_000, Duration.ofSeconds(5)));
+    }
+
+    private List<List<RunEventDTO>> received(int times) {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<RunEventDTO>> captor = ArgumentCaptor.forClass(List.class);
+        verify(listener, times(times)).onRemoteEvents(captor.capture());
+        return new ArrayList<>(captor.getAllValues());
+    }
+
+    private RunEventDTO step(int order) {
+        return RunEventDTO.builder()
+                .type(RunEventType.STEP_CREATED)
+                .runId(runId)
+                .stepId(UUID.randomUUID())
+                .stepName("rank-candidates")
+                .order(order)
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+
+    private RunEventDTO appended(UUID stepId, int candidates, int selected) {
+        return RunEventDTO.builder()
+                .type(RunEventType.CANDIDATES_APPENDED)
+                .runId(runId)
+                .stepId(stepId)
+                .stepName("filter_by_price")
+                .order(2)
+                .candidates(candidates)
+                .selected(selected)
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static ChangeBus bus(ObjectProvider<ChangeListener> listeners, String url, int maxPending) {
+        return new ChangeBus(listeners, true, url, "xray", "xray", "xray_changes",
+                Duration.ofMillis(200), maxPending, Duration.ofSeconds(5));
+    }
+}
@@ -0,0 +1,170 @@
+package com.task.founding.engineer.clustering;
+
+import com.task.founding.engineer.enums.DictionaryKind;
+import com.task.founding.engineer.model.XRayDictionaryEntry;
+import com.task.founding.engineer.model.XRayReasonTemplate;
+import com.task.founding.engineer.model.XRayReasonTemplateBand;
+import com.task.founding.engineer.repository.XRayCandidateRepository;
+import com.task.founding.engineer.repository.XRayDictionaryEntryRepository;
+import com.task.founding.engineer.repository.XRayReasonTemplateBandRepository;
+import com.task.founding.engineer.repository.XRayReasonTemplateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReasonClusteringJobTest {
+
+    @Mock
+    private XRayDictionaryEntryRepository entryRepository;
+
+    @Mock
+    private XRayReasonTemplateRepository templateRepository;
+
+    @Mock
+    private XRayReasonTemplateBandRepository bandRepository;
+
+    @Mock
+    private XRayCandidateRepository candidateRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ReasonClusteringJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = new ReasonClusteringJob(entryRepository, templateRepository, bandRepository, candidateRepository,
+            transactionManager, true, 100, 1000, 0.6);
+    }
+
+    @Test
+    void testClusterBatch_GroupsNearDuplicatesIntoNewTemplates() {
+        List<XRayDictionaryEntry> entries = List.of(
+            reason(1, "Price $120.50 exceeds maximum allowed $80.00"),
+            reason(2, "Only 12 reviews; at least 100 reviews are required"),
+            reason(3, "Price $99.99 exceeds maximum allowed $60.00"));
+        when(entryRepository.findByKindAndTemplateIdIsNullAndCodeGreaterThanOrderByCodeAsc(
+                DictionaryKind.REJECTION_REASON, 0, Limit.of(100)))
+            .thenReturn(entries);
+        AtomicLong ids = new AtomicLong(40);
+        when(templateRepository.save(any(XRayReasonTemplate.class))).thenAnswer(invocation -> {
+            XRayReasonTemplate template = invocation.getArgument(0);
+            template.setTemplateId(ids.incrementAndGet());
+            return template;
+        });
+
+        ReasonClusteringJob.Batch batch = job.clusterBatch(0);
+
+        assertEquals(3, batch.reasons());
+        assertEquals(3, batch.lastCode());
+        ArgumentCaptor<XRayReasonTemplate> templates = ArgumentCaptor.forClass(XRayReasonTemplate.class);
+        verify(templateRepository, times(2)).save(templates.capture());
+        assertEquals("price <num> exceeds maximum allowed <num>", templates.getAllValues().get(0).getPattern());
+        assertEquals(41L, entries.get(0).getTemplateId());
+        assertEquals(42L, entries.get(1).getTemplateId());
+        assertEquals(41L, entries.get(2).getTemplateId());
+        assertEquals(List.of(1, 2, 3), batch.codes());
+        InOrder order = inOrder(entryRepository, candidateRepository);
+        order.verify(entryRepository).flush();
+        order.verify(candidateRepository).assignRejectionTemplates(List.of(1, 2, 3));
+        verifyNoMoreInteractions(candidateRepository);
+        verify(bandRepository).saveAll(argThat(bands -> ((List<?>) bands).size() == 2 * ReasonMinHash.BANDS));
+    }
+
+    @Test
+    void testClusterBatch_JoinsExistingTemplateThroughBands() {
+        String pattern = ReasonMinHash.mask("Rating 3.4 is below the minimum rating of 4.0");
+        int[] signature = ReasonMinHash.signature(pattern);
+        List<XRayReasonTemplateBand> bands = new ArrayList<>();
+        for (long band : ReasonMinHash.bandHashes(signature)) {
+            bands.add(XRayReasonTemplateBand.builder().bandHash(band).templateId(7L).build());
+        }
+        XRayDictionaryEntry entry = reason(15, "Rating 2.1 is below the minimum rating of 3.5");
+        when(entryRepository.findByKindAndTemplateIdIsNullAndCodeGreaterThanOrderByCodeAsc(
+                DictionaryKind.REJECTION_REASON, 10, Limit.of(100)))
+            .thenReturn(List.of(entry));
+        when(bandRepository.findByBandHashIn(anyCollection())).thenReturn(bands);
+        when(templateRepository.findAllById(List.of(7L))).thenReturn(List.of(XRayReasonTemplate.builder()
+            .templateId(7L)
+            .pattern(pattern)
+            .signature(ReasonMinHash.toBytes(signature))
+            .build()));
+
+        job.clusterBatch(10);
+
+        assertEquals(7L, entry.getTemplateId());
+        verify(templateRepository, never()).save(any());
+        verify(candidateRepository).assignRejectionTemplates(List.of(15));
+    }
+
+    @Test
+    void testClusterBatch_NothingToCluster() {
+        when(entryRepository.findByKindAndTemplateIdIsNullAndCodeGreaterThanOrderByCodeAsc(any(), anyInt(), any()))
+            .thenReturn(List.of());
+
+        ReasonClusteringJob.Batch batch = job.clusterBatch(25);
+
+        assertEquals(0, batch.reasons());
+        assertEquals(25, batch.lastCode());
+        verifyNoInteractions(templateRepository, bandRepository, candidateRepository);
+    }
+
+    @Test
+    void testRun_CatchesUpReasonsOfPreviousRun() {
+        when(entryRepository.findByKindAndTemplateIdIsNullAndCodeGreaterThanOrderByCodeAsc(
+                DictionaryKind.REJECTION_REASON, 0, Limit.of(100)))
+            .thenReturn(List.of(reason(5, "Out of stock in 3 warehouses")))
+            .thenReturn(List.of());
+        when(entryRepository.findByKindAndTemplateIdIsNullAndCodeGreaterThanOrderByCodeAsc(
+                DictionaryKind.REJECTION_REASON, 5, Limit.of(100)))
+            .thenReturn(List.of());
+        when(templateRepository.save(any(XRayReasonTemplate.class))).thenAnswer(invocation -> {
+            XRayReasonTemplate template = invocation.getArgument(0);
+            template.setTemplateId(8L);
+            return template;
+        });
+
+        job.run();
+        verify(candidateRepository, times(1)).assignRejectionTemplates(List.of(5));
+
+        job.run();
+        // Candidates committed while reason 5 was clustered are caught up once
+        verify(candidateRepository, times(2)).assignRejectionTemplates(List.of(5));
+
+        job.run();
+        verify(candidateRepository, times(2)).assignRejectionTemplates(List.of(5));
+    }
+
+    @Test
+    void testRun_Disabled() {
+        ReasonClusteringJob disabled = new ReasonClusteringJob(entryRepository, templateRepository, bandRepository,
+            candidateRepository, transactionManager, false, 100, 1000, 0.6);
+
+        disabled.run();
+
+        verifyNoInteractions(entryRepository, candidateRepository);
+    }
+
+    private static XRayDictionaryEntry reason(int code, String value) {
+        return XRayDictionaryEntry.builder()
+            .code(code)
+            .kind(DictionaryKind.REJECTION_REASON)
+            .value(value)
+            .build();
+    }
+}
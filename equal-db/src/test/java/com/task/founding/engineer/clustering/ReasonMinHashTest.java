@@ -0,0 +1,61 @@
+package com.task.founding.engineer.clustering;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReasonMinHashTest {
+
+    @Test
+    void testMask_ReplacesIdsNumbersAndQuotedValues() {
+        assertEquals("price <num> exceeds maximum allowed <num>",
+            ReasonMinHash.mask("Price $120.50 exceeds  maximum allowed $80.00"));
+        assertEquals("product <id> is out of stock",
+            ReasonMinHash.mask("Product 3f2b8c1e-5a4d-4e6f-9a7b-1c2d3e4f5a6b is out of stock"));
+        assertEquals("brand <str> is blocked", ReasonMinHash.mask("Brand 'Acme Co' is blocked"));
+    }
+
+    @Test
+    void testSignature_SameMaskedTextIsIdentical() {
+        int[] a = ReasonMinHash.signature(ReasonMinHash.mask("Only 12 reviews; at least 100 reviews are required"));
+        int[] b = ReasonMinHash.signature(ReasonMinHash.mask("Only 7 reviews; at least 50 reviews are required"));
+
+        assertEquals(1.0, ReasonMinHash.similarity(a, b));
+        assertArrayEquals(ReasonMinHash.bandHashes(a), ReasonMinHash.bandHashes(b));
+    }
+
+    @Test
+    void testSimilarity_NearDuplicatesShareABand() {
+        int[] a = ReasonMinHash.signature(ReasonMinHash.mask(
+            "Rating 3.4 is below the minimum rating of 4.0 required for this category"));
+        int[] b = ReasonMinHash.signature(ReasonMinHash.mask(
+            "Rating 2.9 is below the minimum rating of 4.0 required for this marketplace category"));
+
+        assertTrue(ReasonMinHash.similarity(a, b) >= 0.6);
+        assertTrue(shareBand(ReasonMinHash.bandHashes(a), ReasonMinHash.bandHashes(b)));
+    }
+
+    @Test
+    void testSimilarity_UnrelatedReasonsAreFar() {
+        int[] a = ReasonMinHash.signature(ReasonMinHash.mask("Price $120.50 exceeds maximum allowed $80.00"));
+        int[] b = ReasonMinHash.signature(ReasonMinHash.mask("Product is a bundle, not comparable to the reference"));
+
+        assertTrue(ReasonMinHash.similarity(a, b) < 0.2);
+    }
+
+    @Test
+    void testSignatureBytesRoundTrip() {
+        int[] signature = ReasonMinHash.signature("price <num> exceeds maximum allowed <num>");
+
+        assertArrayEquals(signature, ReasonMinHash.fromBytes(ReasonMinHash.toBytes(signature)));
+    }
+
+    private static boolean shareBand(long[] a, long[] b) {
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
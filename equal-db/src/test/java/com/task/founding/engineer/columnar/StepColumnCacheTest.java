@@ -0,0 +1,296 @@
+package com.task.founding.engineer.columnar;
+
+import com.task.founding.engineer.dto.response.RunEventDTO;
+import com.task.founding.engineer.enums.RunEventType;
+import com.task.founding.engineer.model.XRayCandidate;
+import com.task.founding.engineer.model.XRayStep;
+import com.task.founding.engineer.repository.StepColumnRow;
+import com.task.founding.engineer.repository.XRayCandidateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StepColumnCacheTest {
+
+    @Mock
+    private XRayCandidateRepository candidateRepository;
+
+    private StepColumnCache cache;
+    private XRayStep settled;
+    private XRayStep open;
+
+    @BeforeEach
+    void setUp() {
+        cache = new StepColumnCache(candidateRepository, true, DataSize.ofMegabytes(1), Duration.ofMinutes(15));
+        settled = step(LocalDateTime.now().minusHours(2));
+        open = step(LocalDateTime.now());
+    }
+
+    @Test
+    void testScan_BackfillsSettledStepsAndLeavesOpenOnesToSql() {
+        when(candidateRepository.streamStepColumns(List.of(settled.getStepId()))).thenReturn(Stream.of(
+                new StepColumnRow(settled.getStepId(), 0.9, true, null),
+                new StepColumnRow(settled.getStepId(), null, false, 7),
+                new StepColumnRow(settled.getStepId(), 0.2, false, 7)));
+
+        StepColumnCache.Scan<StepColumns> scan = cache.scan(List.of(settled, open), columns -> columns);
+
+        StepColumns columns = scan.results().get(settled.getStepId());
+        assertEquals(3, columns.size());
+        assertEquals(1, columns.selectedCount());
+        assertEquals(0.9, columns.score(0));
+        assertTrue(Double.isNaN(columns.score(1)));
+        assertTrue(columns.selected(0));
+        assertFalse(columns.selected(2));
+        assertEquals(StepColumns.NO_REASON, columns.reasonCode(0));
+        assertEquals(7, columns.reasonCode(2));
+        assertEquals(List.of(open), scan.uncached());
+        assertEquals(1, cache.residentSteps());
+    }
+
+    @Test
+    void testScan_ResidentChunkIsNotReloaded() {
+        when(candidateRepository.streamStepColumns(anyCollection()))
+                .thenReturn(Stream.of(new StepColumnRow(settled.getStepId(), 0.5, true, null)));
+
+        cache.scan(List.of(settled), StepColumns::size);
+        StepColumnCache.Scan<Integer> scan = cache.scan(List.of(settled), StepColumns::size);
+
+        assertEquals(1, scan.results().get(settled.getStepId()));
+        verify(candidateRepository, times(1)).streamStepColumns(anyCollection());
+    }
+
+    @Test
+    void testScanResident_NeverBackfills() {
+        when(candidateRepository.streamStepColumns(anyCollection()))
+                .thenReturn(Stream.of(new StepColumnRow(settled.getStepId(), 0.5, true, null)));
+        XRayStep otherSettled = step(LocalDateTime.now().minusHours(2));
+        cache.scan(List.of(settled), StepColumns::size);
+
+        StepColumnCache.Scan<Integer> scan = cache.scanResident(List.of(settled, otherSettled, open), StepColumns::size);
+
+        assertEquals(1, scan.results().get(settled.getStepId()));
+        assertEquals(List.of(otherSettled, open), scan.uncached());
+        verify(candidateRepository, times(1)).streamStepColumns(anyCollection());
+    }
+
+    @Test
+    void testScan_StepWithoutCandidatesIsCachedEmpty() {
+        when(candidateRepository.streamStepColumns(anyCollection())).thenReturn(Stream.empty());
+
+        StepColumnCache.Scan<Long> scan = cache.scan(List.of(settled), StepColumns::selectedCount);
+
+        assertEquals(0L, scan.results().get(settled.getStepId()));
+        assertTrue(scan.uncached().isEmpty());
+    }
+
+    @Test
+    void testScan_SplitsLargeScansAcrossTasks() {
+        List<XRayStep> steps = new ArrayList<>();
+        List<StepColumnRow> rows = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            XRayStep step = step(LocalDateTime.now().minusDays(1));
+            steps.add(step);
+            // 20,000 candidates per step, every fourth one selected
+            IntStream.range(0, 20_000).forEach(j -> rows.add(new StepColumnRow(step.getStepId(), (double) j, j % 4 == 0, null)));
+        }
+        cache = new StepColumnCache(candidateRepository, true, DataSize.ofMegabytes(64), Duration.ofMinutes(15));
+        when(candidateRepository.streamStepColumns(anyCollection())).thenReturn(rows.stream());
+
+        StepColumnCache.Scan<Long> scan = cache.scan(steps, StepColumns::selectedCount);
+
+        assertEquals(8, scan.results().size());
+        scan.results().values().forEach(selected -> assertEquals(5_000L, selected));
+        assertEquals(steps.stream().map(XRayStep::getStepId).toList(), List.copyOf(scan.results().keySet()));
+    }
+
+    @Test
+    void testScan_EvictsLeastRecentlyScannedChunk() {
+        XRayStep other = step(LocalDateTime.now().minusHours(3));
+        XRayStep third = step(LocalDateTime.now().minusHours(4));
+        // Room for two empty chunks only
+        cache = new StepColumnCache(candidateRepository, true, DataSize.ofBytes(2 * StepChunk.bytes(64)), Duration.ofMinutes(15));
+        when(candidateRepository.streamStepColumns(anyCollection())).thenAnswer(invocation -> Stream.empty());
+
+        cache.scan(List.of(settled), StepColumns::size);
+        cache.scan(List.of(other), StepColumns::size);
+        cache.scan(List.of(settled), StepColumns::size);
+        cache.scan(List.of(third), StepColumns::size);
+
+        assertEquals(2, cache.residentSteps());
+        assertEquals(2 * StepChunk.bytes(64), cache.residentBytes());
+        cache.scan(List.of(settled), StepColumns::size);
+        // settled was scanned after other, so other was evicted and only it is reloaded
+        verify(candidateRepository, times(3)).streamStepColumns(anyCollection());
+        cache.scan(List.of(other), StepColumns::size);
+        verify(candidateRepository, times(4)).streamStepColumns(anyCollection());
+    }
+
+    @Test
+    void testScan_StopsBackfillingAtTheCap() {
+        XRayStep other = step(LocalDateTime.now().minusHours(3));
+        cache = new StepColumnCache(candidateRepository, true, DataSize.ofBytes(StepChunk.bytes(64)), Duration.ofMinutes(15));
+        List<XRayStep> steps = new ArrayList<>();
+        steps.add(settled);
+        // More steps than one backfill query takes; the cap holds one empty chunk, so the second query never runs
+        List<XRayStep> rest = new ArrayList<>();
+        IntStream.range(0, 499).forEach(i -> rest.add(step(LocalDateTime.now().minusDays(1))));
+        rest.add(other);
+        steps.addAll(rest);
+        when(candidateRepository.streamStepColumns(anyCollection())).thenReturn(Stream.empty());
+
+        StepColumnCache.Scan<Integer> scan = cache.scan(steps, StepColumns::size);
+
+        assertEquals(List.of(settled.getStepId()), List.copyOf(scan.results().keySet()));
+        assertEquals(rest, scan.uncached());
+        assertEquals(StepChunk.bytes(64), cache.residentBytes());
+        verify(candidateRepository, times(1)).streamStepColumns(anyCollection());
+    }
+
+    @Test
+    void testScan_StepOutgrowingTheCapWhileStreamingIsLeftToSql() {
+        XRayStep large = step(LocalDateTime.now().minusHours(3));
+        // Room for two empty chunks, so the large step cannot grow past 64 rows
+        cache = new StepColumnCache(candidateRepository, true, DataSize.ofBytes(2 * StepChunk.bytes(64)), Duration.ofMinutes(15));
+        List<StepColumnRow> rows = new ArrayList<>();
+        rows.add(new StepColumnRow(settled.getStepId(), 0.5, true, null));
+        IntStream.range(0, 100).forEach(i -> rows.add(new StepColumnRow(large.getStepId(), 0.1, false, 3)));
+        when(candidateRepository.streamStepColumns(anyCollection())).thenReturn(rows.stream());
+
+        StepColumnCache.Scan<Integer> scan = cache.scan(List.of(settled, large), StepColumns::size);
+
+        assertEquals(1, scan.results().get(settled.getStepId()));
+        assertFalse(scan.results().containsKey(large.getStepId()));
+        assertEquals(List.of(large), scan.uncached());
+        assertEquals(1, cache.residentSteps());
+        assertEquals(StepChunk.bytes(64), cache.residentBytes());
+    }
+
+    @Test
+    void testAppend_GrowsResidentChunk() {
+        when(candidateRepository.streamStepColumns(anyCollection())).thenReturn(Stream.empty());
+        cache.scan(List.of(settled), StepColumns::size);
+        StepColumns before = cache.scan(List.of(settled), columns -> columns).results().get(settled.getStepId());
+        List<XRayCandidate> candidates = IntStream.range(0, 100)
+                .mapToObj(i -> candidate(i % 2 == 0, i % 2 == 0 ? null : 3))
+                .toList();
+
+        cache.append(settled, candidates);
+
+        StepColumns after = cache.scan(List.of(settled), columns -> columns).results().get(settled.getStepId());
+        assertEquals(0, before.size());
+        assertEquals(0, before.selectedCount());
+        assertEquals(100, after.size());
+        assertEquals(50, after.selectedCount());
+        assertEquals(3, after.reasonCode(99));
+        assertEquals(StepChunk.bytes(128), cache.residentBytes());
+    }
+
+    @Test
+    void testAppend_IgnoredForStepsNotResident() {
+        cache.append(open, List.of(candidate(true, null)));
+
+        assertEquals(0, cache.residentSteps());
+        verifyNoInteractions(candidateRepository);
+    }
+
+    @Test
+    void testScan_BackfillRacingALateWriteIsNotKept() {
+        when(candidateRepository.streamStepColumns(anyCollection())).thenAnswer(invocation -> {
+            // A batch for the settled step commits while its rows are being read
+            cache.append(settled, List.of(candidate(true, null)));
+            return Stream.empty();
+        });
+
+        StepColumnCache.Scan<Integer> scan = cache.scan(List.of(settled), StepColumns::size);
+
+        assertEquals(0, scan.results().get(settled.getStepId()));
+        assertEquals(0, cache.residentSteps());
+    }
+
+    @Test
+    void testOnRemoteEvents_DropsChunkOfStepWrittenElsewhere() {
+        XRayStep other = step(LocalDateTime.now().minusHours(3));
+        when(candidateRepository.streamStepColumns(anyCollection())).thenAnswer(invocation -> Stream.empty());
+        cache.scan(List.of(settled, other), StepColumns::size);
+
+        cache.onRemoteEvents(List.of(RunEventDTO.builder()
+                .type(RunEventType.CANDIDATES_APPENDED)
+                .stepId(settled.getStepId())
+                .candidates(10)
+                .build()));
+
+        assertEquals(1, cache.residentSteps());
+        assertEquals(StepChunk.bytes(64), cache.residentBytes());
+        cache.scan(List.of(settled, other), StepColumns::size);
+        verify(candidateRepository).streamStepColumns(List.of(settled.getStepId()));
+    }
+
+    @Test
+    void testOnRemoteEvents_BackfillRacingARemoteWriteIsNotKept() {
+        when(candidateRepository.streamStepColumns(anyCollection())).thenAnswer(invocation -> {
+            cache.onRemoteEvents(List.of(RunEventDTO.builder()
+                    .type(RunEventType.CANDIDATES_APPENDED)
+                    .stepId(settled.getStepId())
+                    .build()));
+            return Stream.empty();
+        });
+
+        cache.scan(List.of(settled), StepColumns::size);
+
+        assertEquals(0, cache.residentSteps());
+    }
+
+    @Test
+    void testOnResync_DropsEveryChunk() {
+        when(candidateRepository.streamStepColumns(anyCollection())).thenAnswer(invocation -> Stream.empty());
+        cache.scan(List.of(settled), StepColumns::size);
+
+        cache.onResync();
+
+        assertEquals(0, cache.residentSteps());
+        assertEquals(0, cache.residentBytes());
+    }
+
+    @Test
+    void testScan_DisabledLeavesEveryStepToSql() {
+        cache = new StepColumnCache(candidateRepository, false, DataSize.ofMegabytes(1), Duration.ofMinutes(15));
+
+        StepColumnCache.Scan<Integer> scan = cache.scan(List.of(settled, open), StepColumns::size);
+
+        assertTrue(scan.results().isEmpty());
+        assertEquals(List.of(settled, open), scan.uncached());
+        verifyNoInteractions(candidateRepository);
+    }
+
+    private static XRayStep step(LocalDateTime startedAt) {
+        return XRayStep.builder()
+                .stepId(UUID.randomUUID())
+                .startedAt(startedAt)
+                .build();
+    }
+
+    private static XRayCandidate candidate(boolean selected, Integer reasonCode) {
+        return XRayCandidate.builder()
+                .score(0.5)
+                .selected(selected)
+                .rejectionReasonCode(reasonCode)
+                .build();
+    }
+}
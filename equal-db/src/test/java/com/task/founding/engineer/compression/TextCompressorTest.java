@@ -0,0 +1,224 @@
+package com.task.founding.engineer.compression;
+
+import com.github.luben.zstd.Zstd;
+import com.task.founding.engineer.model.XRayCompressionDictionary;
+import com.task.founding.engineer.repository.XRayCompressionDictionaryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TextCompressorTest {
+
+    private static final int TRAINING_SAMPLES = 100;
+
+    @Mock
+    private XRayCompressionDictionaryRepository dictionaryRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    // Training tasks run when the test calls runTraining(), as the trainer thread would later
+    private final Queue<Runnable> trainingTasks = new ArrayDeque<>();
+    private final Executor trainer = trainingTasks::add;
+
+    private TextCompressor textCompressor;
+
+    @BeforeEach
+    void setUp() {
+        textCompressor = new TextCompressor(dictionaryRepository, transactionManager, true, 3, 4096, TRAINING_SAMPLES, trainer);
+    }
+
+    @Test
+    void testCompress_DisabledReturnsNull() {
+        TextCompressor disabled = new TextCompressor(dictionaryRepository, transactionManager, false, 3, 4096, TRAINING_SAMPLES, trainer);
+
+        assertNull(disabled.compress("filter_by_price", "Price $120.00 exceeds maximum allowed $80.00"));
+        assertFalse(disabled.isEnabled());
+        verifyNoInteractions(dictionaryRepository);
+    }
+
+    @Test
+    void testCompress_NullTextReturnsNull() {
+        assertNull(textCompressor.compress("filter_by_price", null));
+    }
+
+    @Test
+    void testCompress_KeepsShortTextPlainWithoutDictionary() {
+        when(dictionaryRepository.findFirstByStepNameOrderByCreatedAtDesc("filter_by_price"))
+            .thenReturn(Optional.empty());
+
+        // A dictionary-less frame of a short reason is larger than the text itself
+        assertNull(textCompressor.compress("filter_by_price", "Rating 3.4 is below the minimum rating of 4.0"));
+    }
+
+    @Test
+    void testRead_PrefersPlainText() {
+        assertEquals("plain", textCompressor.read("plain", new byte[] {1, 2, 3}));
+        assertNull(textCompressor.read(null, null));
+    }
+
+    @Test
+    void testRoundTrip_WithoutDictionary() {
+        when(dictionaryRepository.findFirstByStepNameOrderByCreatedAtDesc("filter_by_price"))
+            .thenReturn(Optional.empty());
+        String text = "Applied the price band $20.00-$80.00. Most rejected listings were bundles priced above "
+                + "the band; bundles and multi-packs are not comparable to the reference product.";
+
+        byte[] frame = textCompressor.compress("filter_by_price", text);
+
+        assertEquals(0, Zstd.getDictIdFromFrame(frame));
+        assertEquals(text, textCompressor.read(null, frame));
+    }
+
+    @Test
+    void testTrainsAndPersistsDictionaryAfterSamples() {
+        when(dictionaryRepository.findFirstByStepNameOrderByCreatedAtDesc("filter_by_price"))
+            .thenReturn(Optional.empty());
+        Random random = new Random(7);
+
+        for (int i = 0; i < TRAINING_SAMPLES; i++) {
+            textCompressor.compress("filter_by_price", rejectionReason(random));
+        }
+        // Trained off the calling thread; nothing is saved while the ingest transaction is open
+        verify(dictionaryRepository, never()).save(any());
+        String untrained = rejectionReason(random);
+        assertNotDictionaryFrame(textCompressor.compress("filter_by_price", untrained));
+        runTraining();
+
+        ArgumentCaptor<XRayCompressionDictionary> captor = ArgumentCaptor.forClass(XRayCompressionDictionary.class);
+        verify(dictionaryRepository, times(1)).save(captor.capture());
+        XRayCompressionDictionary dictionary = captor.getValue();
+        assertEquals("filter_by_price", dictionary.getStepName());
+        assertNotEquals(0, dictionary.getDictId());
+
+        String text = rejectionReason(random);
+        byte[] frame = textCompressor.compress("filter_by_price", text);
+        assertEquals(dictionary.getDictId(), Zstd.getDictIdFromFrame(frame));
+        assertEquals(text, textCompressor.read(null, frame));
+        // Looked up once, then trained locally
+        verify(dictionaryRepository, times(1)).findFirstByStepNameOrderByCreatedAtDesc("filter_by_price");
+    }
+
+    @Test
+    void testRead_LoadsDictionaryByFrameId() {
+        when(dictionaryRepository.findFirstByStepNameOrderByCreatedAtDesc("filter_by_price"))
+            .thenReturn(Optional.empty());
+        Random random = new Random(7);
+        for (int i = 0; i < TRAINING_SAMPLES; i++) {
+            textCompressor.compress("filter_by_price", rejectionReason(random));
+        }
+        runTraining();
+        ArgumentCaptor<XRayCompressionDictionary> captor = ArgumentCaptor.forClass(XRayCompressionDictionary.class);
+        verify(dictionaryRepository).save(captor.capture());
+        String text = rejectionReason(random);
+        byte[] frame = textCompressor.compress("filter_by_price", text);
+
+        // A fresh instance (e.g. another node, or after a restart) has no dictionaries cached
+        TextCompressor reader = new TextCompressor(dictionaryRepository, transactionManager, false, 3, 4096, TRAINING_SAMPLES, trainer);
+        when(dictionaryRepository.findByDictId(captor.getValue().getDictId())).thenReturn(Optional.of(captor.getValue()));
+
+        assertEquals(text, reader.read(null, frame));
+        assertEquals(text, reader.read(null, frame));
+        verify(dictionaryRepository, times(1)).findByDictId(any());
+    }
+
+    @Test
+    void testRead_MissingDictionary() {
+        when(dictionaryRepository.findFirstByStepNameOrderByCreatedAtDesc("filter_by_price"))
+            .thenReturn(Optional.empty());
+        Random random = new Random(7);
+        byte[] frame = null;
+        for (int i = 0; i < TRAINING_SAMPLES; i++) {
+            textCompressor.compress("filter_by_price", rejectionReason(random));
+        }
+        runTraining();
+        frame = textCompressor.compress("filter_by_price", rejectionReason(random));
+        TextCompressor reader = new TextCompressor(dictionaryRepository, transactionManager, false, 3, 4096, TRAINING_SAMPLES, trainer);
+        when(dictionaryRepository.findByDictId(any())).thenReturn(Optional.empty());
+        byte[] trainedFrame = frame;
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> reader.read(null, trainedFrame));
+
+        assertTrue(exception.getMessage().contains("Compression dictionary not found"));
+    }
+
+    private static String rejectionReason(Random random) {
+        return switch (random.nextInt(3)) {
+            case 0 -> "Price $" + (80 + random.nextInt(200)) + "." + (10 + random.nextInt(90))
+                    + " exceeds maximum allowed $" + (60 + random.nextInt(40)) + ".00";
+            case 1 -> "Rating " + (2 + random.nextInt(2)) + "." + random.nextInt(10)
+                    + " is below the minimum rating of 4.0";
+            default -> "Only " + random.nextInt(50) + " reviews; at least 100 reviews are required";
+        };
+    }
+
+    @Test
+    void testTraining_FailedSaveKeepsWritingWithoutDictionary() {
+        when(dictionaryRepository.findFirstByStepNameOrderByCreatedAtDesc("filter_by_price"))
+            .thenReturn(Optional.empty());
+        when(dictionaryRepository.save(any())).thenThrow(new IllegalStateException("connection lost"));
+        Random random = new Random(7);
+        for (int i = 0; i < TRAINING_SAMPLES; i++) {
+            textCompressor.compress("filter_by_price", rejectionReason(random));
+        }
+
+        runTraining();
+
+        assertNotDictionaryFrame(textCompressor.compress("filter_by_price", rejectionReason(random)));
+        // Samples are collected again and a second training is scheduled
+        for (int i = 0; i < TRAINING_SAMPLES; i++) {
+            textCompressor.compress("filter_by_price", rejectionReason(random));
+        }
+        assertEquals(1, trainingTasks.size());
+    }
+
+    @Test
+    void testTraining_DictIdOfAStoredDictionaryIsNeitherSavedNorUsed() {
+        when(dictionaryRepository.findFirstByStepNameOrderByCreatedAtDesc("filter_by_price"))
+            .thenReturn(Optional.empty());
+        when(dictionaryRepository.existsByDictId(any())).thenReturn(true);
+        Random random = new Random(7);
+        for (int i = 0; i < TRAINING_SAMPLES; i++) {
+            textCompressor.compress("filter_by_price", rejectionReason(random));
+        }
+
+        runTraining();
+
+        verify(dictionaryRepository, never()).save(any());
+        assertNotDictionaryFrame(textCompressor.compress("filter_by_price", rejectionReason(random)));
+        // Not trained again into the same collision
+        for (int i = 0; i < TRAINING_SAMPLES; i++) {
+            textCompressor.compress("filter_by_price", rejectionReason(random));
+        }
+        assertTrue(trainingTasks.isEmpty());
+    }
+
+    private void runTraining() {
+        while (!trainingTasks.isEmpty()) {
+            trainingTasks.poll().run();
+        }
+    }
+
+    // Either kept plain (null) or compressed without a dictionary
+    private static void assertNotDictionaryFrame(byte[] frame) {
+        if (Objects.nonNull(frame)) {
+            assertEquals(0, Zstd.getDictIdFromFrame(frame));
+        }
+    }
+}
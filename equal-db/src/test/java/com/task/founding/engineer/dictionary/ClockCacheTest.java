@@ -0,0 +1,60 @@
+package com.task.founding.engineer.dictionary;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClockCacheTest {
+
+    @Test
+    void testPut_EvictsAnEntryNotReadSinceTheLastSweep() {
+        ClockCache<String, Integer> cache = new ClockCache<>(2);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        assertEquals(1, cache.get("a"));
+
+        cache.put("c", 3);
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get("b"));
+        assertEquals(1, cache.get("a"));
+        assertEquals(3, cache.get("c"));
+    }
+
+    @Test
+    void testPut_NeverEvictsTheEntryJustWritten() {
+        ClockCache<String, Integer> cache = new ClockCache<>(1);
+        cache.put("a", 1);
+        cache.get("a");
+
+        cache.put("b", 2);
+
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.get("b"));
+    }
+
+    @Test
+    void testConcurrentReadsAndWrites_NextWriteTrimsToTheBound() throws InterruptedException {
+        ClockCache<Integer, Integer> cache = new ClockCache<>(100);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        IntStream.range(0, 8).forEach(thread -> executor.execute(() -> {
+            for (int i = 0; i < 10_000; i++) {
+                int key = (i * 31 + thread) % 1_000;
+                if (cache.get(key) == null) {
+                    cache.put(key, key);
+                }
+            }
+        }));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        // A writer that lost the eviction lock left its entry to the next sweep, which trims to the bound
+        cache.put(-1, -1);
+        assertEquals(100, cache.size());
+    }
+}
@@ -0,0 +1,228 @@
+package com.task.founding.engineer.dictionary;
+
+import com.task.founding.engineer.enums.DictionaryKind;
+import com.task.founding.engineer.model.XRayDictionaryEntry;
+import com.task.founding.engineer.repository.XRayDictionaryEntryRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ValueDictionaryTest {
+
+    private static final String REASON = "Price exceeds maximum allowed";
+
+    @Mock
+    private XRayDictionaryEntryRepository entryRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Query insert;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ValueDictionary valueDictionary;
+
+    @BeforeEach
+    void setUp() {
+        valueDictionary = new ValueDictionary(entryRepository, entityManager, transactionManager, 100);
+    }
+
+    @Test
+    void testEncode_NullValue() {
+        assertNull(valueDictionary.encode(DictionaryKind.REJECTION_REASON, null));
+        verifyNoInteractions(entryRepository, entityManager);
+    }
+
+    @Test
+    void testEncode_ExistingEntryIsCached() {
+        when(entryRepository.findByKindAndDigestIn(DictionaryKind.REJECTION_REASON, digests(REASON)))
+            .thenReturn(List.of(entry(5, DictionaryKind.REJECTION_REASON, REASON)));
+
+        assertEquals(5, valueDictionary.encode(DictionaryKind.REJECTION_REASON, REASON));
+        assertEquals(5, valueDictionary.encode(DictionaryKind.REJECTION_REASON, REASON));
+        assertEquals(REASON, valueDictionary.decode(5));
+
+        verify(entryRepository, times(1)).findByKindAndDigestIn(any(), any());
+        verify(entryRepository, never()).findById(any());
+        verifyNoInteractions(entityManager);
+    }
+
+    @Test
+    void testEncode_CreatesMissingEntry() {
+        stubInsert();
+        when(entryRepository.findByKindAndDigestIn(DictionaryKind.STEP_TYPE, digests("filter")))
+            .thenReturn(List.of())
+            .thenReturn(List.of(entry(9, DictionaryKind.STEP_TYPE, "filter")));
+
+        assertEquals(9, valueDictionary.encode(DictionaryKind.STEP_TYPE, "filter"));
+        assertEquals(Optional.of(9), valueDictionary.find(DictionaryKind.STEP_TYPE, "filter"));
+        verify(insert, times(1)).executeUpdate();
+        verify(entryRepository, never()).findByKindAndDigest(any(), any());
+    }
+
+    @Test
+    void testEncodeAll_InsertsNewValuesInOneStatement() {
+        stubInsert();
+        when(entryRepository.findByKindAndDigestIn(DictionaryKind.REJECTION_REASON, digests("cached")))
+            .thenReturn(List.of(entry(1, DictionaryKind.REJECTION_REASON, "cached")));
+        valueDictionary.encode(DictionaryKind.REJECTION_REASON, "cached");
+        when(entryRepository.findByKindAndDigestIn(DictionaryKind.REJECTION_REASON, digests("existing", "new a", "new b")))
+            .thenReturn(List.of(entry(2, DictionaryKind.REJECTION_REASON, "existing")));
+        when(entryRepository.findByKindAndDigestIn(DictionaryKind.REJECTION_REASON, digests("new a", "new b")))
+            .thenReturn(List.of(
+                entry(3, DictionaryKind.REJECTION_REASON, "new a"),
+                entry(4, DictionaryKind.REJECTION_REASON, "new b")));
+
+        Map<String, Integer> codes = valueDictionary.encodeAll(DictionaryKind.REJECTION_REASON,
+            Arrays.asList("new b", "cached", null, "existing", "new a", "new b"));
+
+        assertEquals(Map.of("cached", 1, "existing", 2, "new a", 3, "new b", 4), codes);
+        verify(entityManager, times(1)).createNativeQuery(
+            "INSERT INTO xray_dictionary (kind, entry_digest, entry_value) VALUES (:kind, :d0, :v0), (:kind, :d1, :v1) ON CONFLICT DO NOTHING");
+        // Sorted, so concurrent batches lock the same values in the same order
+        verify(insert).setParameter("v0", "new a");
+        verify(insert).setParameter("v1", "new b");
+        verify(insert).setParameter("d0", ValueDigest.of("new a"));
+        verify(insert, times(1)).executeUpdate();
+    }
+
+    @Test
+    void testEncode_ConcurrentInsertRereads() {
+        stubInsert();
+        when(entryRepository.findByKindAndDigestIn(DictionaryKind.STEP_NAME, digests("filter_by_price")))
+            .thenReturn(List.of())
+            .thenReturn(List.of(entry(12, DictionaryKind.STEP_NAME, "filter_by_price")));
+        // Another writer committed the value first; the insert skips it
+        when(insert.executeUpdate()).thenReturn(0);
+
+        assertEquals(12, valueDictionary.encode(DictionaryKind.STEP_NAME, "filter_by_price"));
+    }
+
+    @Test
+    void testEncode_SameValueDifferentKinds() {
+        when(entryRepository.findByKindAndDigestIn(DictionaryKind.STEP_NAME, digests("filter")))
+            .thenReturn(List.of(entry(1, DictionaryKind.STEP_NAME, "filter")));
+        when(entryRepository.findByKindAndDigestIn(DictionaryKind.STEP_TYPE, digests("filter")))
+            .thenReturn(List.of(entry(2, DictionaryKind.STEP_TYPE, "filter")));
+
+        assertEquals(1, valueDictionary.encode(DictionaryKind.STEP_NAME, "filter"));
+        assertEquals(2, valueDictionary.encode(DictionaryKind.STEP_TYPE, "filter"));
+    }
+
+    @Test
+    void testEncode_CacheEvictsLeastRecentlyUsed() {
+        valueDictionary = new ValueDictionary(entryRepository, entityManager, transactionManager, 2);
+        for (int code = 1; code <= 3; code++) {
+            String reason = "reason " + code;
+            when(entryRepository.findByKindAndDigestIn(DictionaryKind.REJECTION_REASON, digests(reason)))
+                .thenReturn(List.of(entry(code, DictionaryKind.REJECTION_REASON, reason)));
+        }
+
+        valueDictionary.encode(DictionaryKind.REJECTION_REASON, "reason 1");
+        valueDictionary.encode(DictionaryKind.REJECTION_REASON, "reason 2");
+        valueDictionary.encode(DictionaryKind.REJECTION_REASON, "reason 1");
+        valueDictionary.encode(DictionaryKind.REJECTION_REASON, "reason 3");
+        valueDictionary.encode(DictionaryKind.REJECTION_REASON, "reason 1");
+        valueDictionary.encode(DictionaryKind.REJECTION_REASON, "reason 2");
+
+        verify(entryRepository, times(1)).findByKindAndDigestIn(DictionaryKind.REJECTION_REASON, digests("reason 1"));
+        verify(entryRepository, times(2)).findByKindAndDigestIn(DictionaryKind.REJECTION_REASON, digests("reason 2"));
+    }
+
+    @Test
+    void testTemplateIds_CachesOnlyClusteredReasons() {
+        XRayDictionaryEntry clustered = entry(5, DictionaryKind.REJECTION_REASON, REASON);
+        clustered.setTemplateId(41L);
+        when(entryRepository.findByCodeInAndTemplateIdIsNotNull(any())).thenReturn(List.of(clustered));
+
+        assertEquals(Map.of(5, 41L), valueDictionary.templateIds(Arrays.asList(5, 6, null)));
+        assertEquals(Map.of(5, 41L), valueDictionary.templateIds(List.of(5)));
+        valueDictionary.templateIds(List.of(6));
+
+        verify(entryRepository, times(1)).findByCodeInAndTemplateIdIsNotNull(argThat(codes -> codes.containsAll(List.of(5, 6))));
+        // A reason without a template is looked up again, since clustering may have set it since
+        verify(entryRepository, times(1)).findByCodeInAndTemplateIdIsNotNull(List.of(6));
+        verify(entryRepository, times(2)).findByCodeInAndTemplateIdIsNotNull(any());
+    }
+
+    @Test
+    void testFind_DoesNotCreate() {
+        when(entryRepository.findByKindAndDigest(DictionaryKind.PIPELINE_TYPE, ValueDigest.of("unknown"))).thenReturn(Optional.empty());
+
+        assertTrue(valueDictionary.find(DictionaryKind.PIPELINE_TYPE, "unknown").isEmpty());
+        verifyNoInteractions(entityManager);
+    }
+
+    @Test
+    void testDecode_LoadsOnceById() {
+        when(entryRepository.findById(5)).thenReturn(Optional.of(entry(5, DictionaryKind.REJECTION_REASON, REASON)));
+
+        assertEquals(REASON, valueDictionary.decode(5));
+        assertEquals(REASON, valueDictionary.decode(5));
+        assertNull(valueDictionary.decode(null));
+        verify(entryRepository, times(1)).findById(5);
+    }
+
+    @Test
+    void testDecode_UnknownCode() {
+        when(entryRepository.findById(404)).thenReturn(Optional.empty());
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> valueDictionary.decode(404));
+
+        assertTrue(exception.getMessage().contains("Dictionary entry not found"));
+    }
+
+    @Test
+    void testEncode_LongReasonIsUniqueOnItsDigest() {
+        // Far beyond the ~2.7 KB a B-tree index entry can hold
+        String reason = "Rejected because " + "the listing title does not match the query. ".repeat(250);
+        assertTrue(reason.length() > 10_000);
+        stubInsert();
+        when(entryRepository.findByKindAndDigestIn(DictionaryKind.REJECTION_REASON, digests(reason)))
+            .thenReturn(List.of())
+            .thenReturn(List.of(entry(21, DictionaryKind.REJECTION_REASON, reason)));
+
+        assertEquals(21, valueDictionary.encode(DictionaryKind.REJECTION_REASON, reason));
+        assertEquals(reason, valueDictionary.decode(21));
+
+        verify(insert).setParameter("d0", ValueDigest.of(reason));
+        verify(insert).setParameter("v0", reason);
+        assertEquals(64, ValueDigest.of(reason).length());
+    }
+
+    private void stubInsert() {
+        when(entityManager.createNativeQuery(anyString())).thenReturn(insert);
+        when(insert.setParameter(anyString(), any())).thenReturn(insert);
+    }
+
+    private static List<String> digests(String... values) {
+        return Arrays.stream(values).map(ValueDigest::of).toList();
+    }
+
+    private static XRayDictionaryEntry entry(int code, DictionaryKind kind, String value) {
+        return XRayDictionaryEntry.builder()
+            .code(code)
+            .kind(kind)
+            .value(value)
+            .build();
+    }
+}
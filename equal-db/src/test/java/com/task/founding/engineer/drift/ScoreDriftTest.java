@@ -0,0 +1,73 @@
+package com.task.founding.engineer.drift;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScoreDriftTest {
+
+    @Test
+    void testKsStatistic_IdenticalSamples() {
+        double[] scores = {0.1, 0.2, 0.2, 0.7};
+
+        assertEquals(0.0, ScoreDrift.ksStatistic(scores, scores.clone()));
+    }
+
+    @Test
+    void testKsStatistic_ShiftedSamples() {
+        assertEquals(0.5, ScoreDrift.ksStatistic(new double[] {1, 2, 3, 4}, new double[] {3, 4, 5, 6}), 1e-12);
+    }
+
+    @Test
+    void testKsStatistic_DisjointSamples() {
+        assertEquals(1.0, ScoreDrift.ksStatistic(uniform(100, 0.0, 0.5), uniform(50, 0.5, 1.0)), 1e-12);
+    }
+
+    @Test
+    void testKsStatistic_TiesMoveTogether() {
+        assertEquals(0.0, ScoreDrift.ksStatistic(new double[] {1, 1, 1, 1}, new double[] {1, 1}));
+    }
+
+    @Test
+    void testKsPValue() {
+        assertEquals(1.0, ScoreDrift.ksPValue(0.0, 1000, 1000));
+        assertTrue(ScoreDrift.ksPValue(0.02, 1000, 1000) > 0.9);
+        assertTrue(ScoreDrift.ksPValue(0.1, 1000, 1000) < 0.001);
+    }
+
+    @Test
+    void testPsi_StableDistribution() {
+        assertEquals(0.0, ScoreDrift.psi(uniform(1000, 0.0, 1.0), uniform(500, 0.0, 1.0)), 0.01);
+    }
+
+    @Test
+    void testPsi_ShiftedDistribution() {
+        assertTrue(ScoreDrift.psi(uniform(1000, 0.0, 1.0), uniform(1000, 0.95, 1.0)) > 0.25);
+    }
+
+    @Test
+    void testPsi_ConstantBaselineStaysFinite() {
+        double[] constant = {0.5, 0.5, 0.5, 0.5};
+
+        assertEquals(0.0, ScoreDrift.psi(constant, constant.clone()), 1e-12);
+        assertTrue(Double.isFinite(ScoreDrift.psi(constant, new double[] {0.1, 0.2})));
+    }
+
+    @Test
+    void testQuantile_InterpolatesBetweenRanks() {
+        double[] sorted = {0, 1, 2, 3, 4};
+
+        assertEquals(0.0, ScoreDrift.quantile(sorted, 0.0));
+        assertEquals(0.4, ScoreDrift.quantile(sorted, 0.1), 1e-12);
+        assertEquals(2.0, ScoreDrift.quantile(sorted, 0.5));
+        assertEquals(4.0, ScoreDrift.quantile(sorted, 1.0));
+        assertEquals(7.0, ScoreDrift.quantile(new double[] {7}, 0.9));
+    }
+
+    // Sorted, evenly spaced scores in [from, to)
+    private static double[] uniform(int count, double from, double to) {
+        return IntStream.range(0, count).mapToDouble(i -> from + (to - from) * i / count).toArray();
+    }
+}
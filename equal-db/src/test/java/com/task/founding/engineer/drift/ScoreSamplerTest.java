@@ -0,0 +1,113 @@
+package com.task.founding.engineer.drift;
+
+import com.task.founding.engineer.columnar.StepColumnCache;
+import com.task.founding.engineer.columnar.StepColumns;
+import com.task.founding.engineer.model.XRayStep;
+import com.task.founding.engineer.repository.XRayCandidateRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ScoreSamplerTest {
+
+    @Mock
+    private StepColumnCache stepColumnCache;
+
+    @Mock
+    private XRayCandidateRepository candidateRepository;
+
+    @Test
+    void testSample_ReadsEveryScoreOfSmallWindows() {
+        XRayStep first = step();
+        XRayStep second = step();
+        Map<UUID, StepColumns> cached = new LinkedHashMap<>();
+        cached.put(first.getStepId(), columns(0.9, Double.NaN, 0.1));
+        cached.put(second.getStepId(), columns(0.5, 0.3));
+        when(stepColumnCache.<StepColumns>scanResident(any(), any())).thenReturn(new StepColumnCache.Scan<>(cached, List.of()));
+
+        ScoreSampler.ScoreSample sample = new ScoreSampler(stepColumnCache, candidateRepository, 100)
+                .sample(List.of(first, second));
+
+        assertArrayEquals(new double[] {0.1, 0.3, 0.5, 0.9}, sample.scores());
+        assertEquals(5, sample.candidates());
+        verifyNoInteractions(candidateRepository);
+    }
+
+    @Test
+    void testSample_StrideRunsAcrossSteps() {
+        XRayStep first = step();
+        XRayStep second = step();
+        Map<UUID, StepColumns> cached = new LinkedHashMap<>();
+        cached.put(first.getStepId(), columns(0, 1, 2, 3, 4));
+        cached.put(second.getStepId(), columns(10, 11, 12, 13, 14, 15, 16));
+        when(stepColumnCache.<StepColumns>scanResident(any(), any())).thenReturn(new StepColumnCache.Scan<>(cached, List.of()));
+
+        // 12 candidates and 4 samples: every third candidate, positions 0, 3, 6 and 9
+        ScoreSampler.ScoreSample sample = new ScoreSampler(stepColumnCache, candidateRepository, 4)
+                .sample(List.of(first, second));
+
+        assertArrayEquals(new double[] {0, 3, 11, 14}, sample.scores());
+        assertEquals(12, sample.candidates());
+    }
+
+    @Test
+    void testSample_UncachedStepsAreSampledInSqlAtTheSameRate() {
+        XRayStep cachedStep = step();
+        XRayStep openStep = step();
+        Map<UUID, StepColumns> cached = new LinkedHashMap<>();
+        cached.put(cachedStep.getStepId(), columns(0.2, 0.4, 0.6));
+        when(stepColumnCache.<StepColumns>scanResident(any(), any()))
+                .thenReturn(new StepColumnCache.Scan<>(cached, List.of(openStep)));
+        when(candidateRepository.countByStepIdIn(List.of(openStep.getStepId()))).thenReturn(5L);
+        // 8 candidates and 4 samples: every other cached candidate and ids in the lower half of the range
+        when(candidateRepository.findSampledScores(List.of(openStep.getStepId()), UUID.fromString("7fffffff-ffff-ffff-ffff-ffffffffffff")))
+                .thenReturn(List.of(0.7, 0.1));
+
+        ScoreSampler.ScoreSample sample = new ScoreSampler(stepColumnCache, candidateRepository, 4)
+                .sample(List.of(cachedStep, openStep));
+
+        assertArrayEquals(new double[] {0.1, 0.2, 0.6, 0.7}, sample.scores());
+        assertEquals(8, sample.candidates());
+        verify(stepColumnCache, never()).scan(any(), any());
+    }
+
+    @Test
+    void testMaxCandidateId_KeepsOneStrideOfTheRange() {
+        assertEquals(UUID.fromString("ffffffff-ffff-ffff-ffff-ffffffffffff"), ScoreSampler.maxCandidateId(1));
+        assertEquals(UUID.fromString("7fffffff-ffff-ffff-ffff-ffffffffffff"), ScoreSampler.maxCandidateId(2));
+        assertEquals(UUID.fromString("00418937-4bc6-a7ef-ffff-ffffffffffff"), ScoreSampler.maxCandidateId(1000));
+    }
+
+    @Test
+    void testSample_NoSteps() {
+        when(stepColumnCache.<StepColumns>scanResident(any(), any())).thenReturn(new StepColumnCache.Scan<>(Map.of(), List.of()));
+
+        ScoreSampler.ScoreSample sample = new ScoreSampler(stepColumnCache, candidateRepository, 100).sample(List.of());
+
+        assertEquals(0, sample.scores().length);
+        assertEquals(0, sample.candidates());
+    }
+
+    private static XRayStep step() {
+        return XRayStep.builder().stepId(UUID.randomUUID()).build();
+    }
+
+    private static StepColumns columns(double... scores) {
+        StepColumns columns = mock(StepColumns.class);
+        lenient().when(columns.size()).thenReturn(scores.length);
+        lenient().when(columns.score(anyInt())).thenAnswer(invocation -> scores[invocation.<Integer>getArgument(0)]);
+        return columns;
+    }
+}
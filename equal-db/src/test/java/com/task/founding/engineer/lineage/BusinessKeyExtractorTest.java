@@ -0,0 +1,53 @@
+package com.task.founding.engineer.lineage;
+
+import com.task.founding.engineer.json.RawJson;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BusinessKeyExtractorTest {
+
+    @Test
+    void testExtract_TopLevelKey() {
+        BusinessKeyExtractor extractor = new BusinessKeyExtractor(new String[] {"data.id"});
+
+        assertEquals("12345", extractor.extract(RawJson.of("{\"title\": \"Phone case\", \"id\": \"12345\"}")));
+        assertEquals("12345", extractor.extract(RawJson.of("{\"id\": 12345}")));
+        assertNull(extractor.extract(null));
+    }
+
+    @Test
+    void testExtract_NestedKeySkipsOtherSubtrees() {
+        BusinessKeyExtractor extractor = new BusinessKeyExtractor(new String[] {"data.product.id"});
+
+        String json = "{\"id\": \"outer\", \"offers\": [{\"product\": {\"id\": \"wrong\"}}], "
+            + "\"seller\": {\"id\": \"s-1\"}, \"product\": {\"name\": \"x\", \"id\": \"p-9\"}}";
+
+        assertEquals("p-9", extractor.extract(RawJson.of(json)));
+    }
+
+    @Test
+    void testExtract_FirstUsablePathWins() {
+        BusinessKeyExtractor extractor = new BusinessKeyExtractor(new String[] {"data.sku", "data.asin", "data.id"});
+
+        assertEquals("B0001", extractor.extract(RawJson.of("{\"id\": 7, \"asin\": \"B0001\"}")));
+        // Objects, arrays, decimals and empty strings are not keys
+        assertEquals("7", extractor.extract(RawJson.of("{\"sku\": {\"v\": 1}, \"asin\": \"\", \"id\": 7}")));
+        assertNull(extractor.extract(RawJson.of("{\"sku\": [1], \"asin\": 1.5}")));
+    }
+
+    @Test
+    void testExtract_OverlongKeyIsNotIndexed() {
+        BusinessKeyExtractor extractor = new BusinessKeyExtractor(new String[] {"data.id"});
+
+        String key = "k".repeat(BusinessKeyExtractor.MAX_KEY_LENGTH + 1);
+
+        assertNull(extractor.extract(RawJson.of("{\"id\": \"" + key + "\"}")));
+    }
+
+    @Test
+    void testConstructor_RejectsMetadataPaths() {
+        assertThrows(IllegalArgumentException.class, () -> new BusinessKeyExtractor(new String[] {"metadata.id"}));
+        assertThrows(IllegalArgumentException.class, () -> new BusinessKeyExtractor(new String[] {"data"}));
+    }
+}
@@ -0,0 +1,74 @@
+package com.task.founding.engineer.lineage;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SplitBlockBloomFilterTest {
+
+    @Test
+    void testPut_NoFalseNegatives() {
+        SplitBlockBloomFilter filter = SplitBlockBloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("product-" + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("product-" + i));
+        }
+        assertEquals(10_000, filter.count());
+    }
+
+    @Test
+    void testMightContain_FalsePositiveRateNearTarget() {
+        SplitBlockBloomFilter filter = SplitBlockBloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("product-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+        // About 10 bits per key
+        assertTrue(filter.toBytes().length < 10_000 * 12 / 8, "bytes: " + filter.toBytes().length);
+    }
+
+    @Test
+    void testToBytes_RoundTripAndInPlaceProbe() {
+        SplitBlockBloomFilter filter = SplitBlockBloomFilter.create(100, 0.01);
+        filter.put("12345");
+        filter.put("67890");
+
+        byte[] bytes = filter.toBytes();
+        SplitBlockBloomFilter restored = SplitBlockBloomFilter.fromBytes(bytes);
+
+        assertEquals(100, restored.capacity());
+        assertEquals(2, restored.count());
+        assertArrayEquals(bytes, restored.toBytes());
+        for (int i = 0; i < 1000; i++) {
+            String key = Integer.toString(i);
+            assertEquals(filter.mightContain(key), SplitBlockBloomFilter.mightContain(bytes, SplitBlockBloomFilter.hash(key)));
+        }
+        assertTrue(SplitBlockBloomFilter.mightContain(bytes, SplitBlockBloomFilter.hash("12345")));
+    }
+
+    @Test
+    void testFromBytes_RejectsUnknownEncoding() {
+        byte[] bytes = SplitBlockBloomFilter.create(10, 0.01).toBytes();
+        bytes[0] = 9;
+
+        assertThrows(IllegalStateException.class, () -> SplitBlockBloomFilter.fromBytes(bytes));
+        assertThrows(IllegalStateException.class, () -> SplitBlockBloomFilter.fromBytes(new byte[] {1, 2, 3}));
+    }
+
+    @Test
+    void testCreate_InvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> SplitBlockBloomFilter.create(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> SplitBlockBloomFilter.create(10, 1.0));
+    }
+}
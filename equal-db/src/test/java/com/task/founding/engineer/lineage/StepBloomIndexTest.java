@@ -0,0 +1,79 @@
+package com.task.founding.engineer.lineage;
+
+import com.task.founding.engineer.model.XRayCandidateBloom;
+import com.task.founding.engineer.model.XRayStep;
+import com.task.founding.engineer.repository.XRayCandidateBloomRepository;
+import com.task.founding.engineer.repository.XRayStepRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StepBloomIndexTest {
+
+    @Mock
+    private XRayCandidateBloomRepository bloomRepository;
+
+    @Mock
+    private XRayStepRepository stepRepository;
+
+    private StepBloomIndex stepBloomIndex;
+    private UUID stepId;
+    private XRayStep step;
+
+    @BeforeEach
+    void setUp() {
+        stepBloomIndex = new StepBloomIndex(bloomRepository, stepRepository, 0.01);
+        stepId = UUID.randomUUID();
+        step = XRayStep.builder().stepId(stepId).build();
+    }
+
+    @Test
+    void testAdd_SavesAFilterOfTheBatch() {
+        when(stepRepository.getReferenceById(stepId)).thenReturn(step);
+
+        stepBloomIndex.add(stepId, List.of("A", "B"));
+
+        XRayCandidateBloom saved = savedBloom();
+        assertSame(step, saved.getStep());
+        SplitBlockBloomFilter filter = SplitBlockBloomFilter.fromBytes(saved.getCandidateBloom());
+        assertTrue(filter.mightContain("A"));
+        assertTrue(filter.mightContain("B"));
+        assertEquals(2, filter.count());
+    }
+
+    @Test
+    void testAdd_SizesTheFilterForTheBatch() {
+        List<String> keys = IntStream.range(0, 5_000).mapToObj(i -> "key-" + i).toList();
+        when(stepRepository.getReferenceById(stepId)).thenReturn(step);
+
+        stepBloomIndex.add(stepId, keys);
+
+        SplitBlockBloomFilter filter = SplitBlockBloomFilter.fromBytes(savedBloom().getCandidateBloom());
+        assertEquals(5_000, filter.capacity());
+        keys.forEach(key -> assertTrue(filter.mightContain(key)));
+    }
+
+    @Test
+    void testAdd_NoKeys() {
+        stepBloomIndex.add(stepId, List.of());
+
+        verifyNoInteractions(bloomRepository, stepRepository);
+    }
+
+    private XRayCandidateBloom savedBloom() {
+        ArgumentCaptor<XRayCandidateBloom> captor = ArgumentCaptor.forClass(XRayCandidateBloom.class);
+        verify(bloomRepository).save(captor.capture());
+        return captor.getValue();
+    }
+}
@@ -0,0 +1,183 @@
+package com.task.founding.engineer.live;
+
+import com.task.founding.engineer.dictionary.ValueDictionary;
+import com.task.founding.engineer.dto.response.RunEventDTO;
+import com.task.founding.engineer.enums.RunEventType;
+import com.task.founding.engineer.enums.RunStatus;
+import com.task.founding.engineer.model.XRayRun;
+import com.task.founding.engineer.repository.ActiveRunRow;
+import com.task.founding.engineer.repository.XRayRunRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ActiveRunRegistryTest {
+
+    @Mock
+    private XRayRunRepository runRepository;
+
+    @Mock
+    private ValueDictionary valueDictionary;
+
+    private ActiveRunRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new ActiveRunRegistry(runRepository, valueDictionary);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testRegister_TracksRunUntilRemoved() {
+        XRayRun ranking = run("ranking", LocalDateTime.now().minusMinutes(5));
+        XRayRun dedup = run("dedup", LocalDateTime.now().minusMinutes(10));
+
+        registry.register(ranking);
+        registry.register(dedup);
+
+        assertTrue(registry.touch(ranking.getRunId()));
+        assertEquals(List.of(dedup.getRunId(), ranking.getRunId()),
+                registry.activeRuns(null).stream().map(ActiveRunRegistry.ActiveRun::runId).toList());
+        assertEquals(List.of(ranking.getRunId()),
+                registry.activeRuns("ranking").stream().map(ActiveRunRegistry.ActiveRun::runId).toList());
+        assertEquals("ranking", registry.get(ranking.getRunId()).orElseThrow().pipelineType());
+
+        registry.remove(ranking.getRunId());
+
+        assertFalse(registry.touch(ranking.getRunId()));
+        assertTrue(registry.get(ranking.getRunId()).isEmpty());
+        verifyNoInteractions(runRepository);
+    }
+
+    @Test
+    void testActivityDue_OncePerResolutionForATrackedRun() {
+        XRayRun ranking = run("ranking", LocalDateTime.now().minusMinutes(5));
+        registry.register(ranking);
+        LocalDateTime now = LocalDateTime.now();
+        Duration resolution = Duration.ofMinutes(1);
+
+        assertTrue(registry.activityDue(ranking.getRunId(), now, resolution));
+        assertFalse(registry.activityDue(ranking.getRunId(), now.plusSeconds(30), resolution));
+        assertEquals(now.plusSeconds(30), registry.get(ranking.getRunId()).orElseThrow().lastActivityAt());
+        assertTrue(registry.activityDue(ranking.getRunId(), now.plusSeconds(61), resolution));
+    }
+
+    @Test
+    void testActivityDue_AlwaysForARunNotTrackedHere() {
+        UUID runId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+
+        assertTrue(registry.activityDue(runId, now, Duration.ofMinutes(1)));
+        assertTrue(registry.activityDue(runId, now, Duration.ofMinutes(1)));
+        assertTrue(registry.get(runId).isEmpty());
+    }
+
+    @Test
+    void testRegister_TakesEffectAfterCommit() {
+        XRayRun ranking = run("ranking", LocalDateTime.now());
+        TransactionSynchronizationManager.initSynchronization();
+
+        registry.register(ranking);
+
+        assertTrue(registry.get(ranking.getRunId()).isEmpty());
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        assertTrue(registry.get(ranking.getRunId()).isPresent());
+    }
+
+    @Test
+    void testRefresh_LoadsRunsOfOtherInstancesAndDropsFinishedOnes() {
+        LocalDateTime startedAt = LocalDateTime.now().minusHours(1);
+        UUID finished = UUID.randomUUID();
+        UUID remote = UUID.randomUUID();
+        LocalDateTime stepCompletedAt = startedAt.plusMinutes(20);
+        ActiveRunRow remoteRow = new ActiveRunRow(remote, 3, startedAt, startedAt.plusMinutes(10), stepCompletedAt);
+        // Chained rather than varargs, which would create a generic List<ActiveRunRow>[]
+        when(runRepository.findActivity(RunStatus.IN_PROGRESS))
+                .thenReturn(List.of(new ActiveRunRow(finished, 3, startedAt, null, null), remoteRow))
+                .thenReturn(List.of(remoteRow));
+        when(valueDictionary.decode(3)).thenReturn("dedup");
+
+        registry.refresh();
+        assertTrue(registry.get(finished).isPresent());
+        registry.refresh();
+
+        assertTrue(registry.get(finished).isEmpty());
+        ActiveRunRegistry.ActiveRun loaded = registry.get(remote).orElseThrow();
+        assertEquals("dedup", loaded.pipelineType());
+        assertEquals(stepCompletedAt, loaded.lastActivityAt());
+    }
+
+    @Test
+    void testRefresh_KeepsLaterLocalActivity() {
+        XRayRun ranking = run("ranking", LocalDateTime.now().minusHours(2));
+        registry.register(ranking);
+        LocalDateTime registeredActivity = registry.get(ranking.getRunId()).orElseThrow().lastActivityAt();
+        when(runRepository.findActivity(RunStatus.IN_PROGRESS)).thenReturn(List.of(
+                new ActiveRunRow(ranking.getRunId(), 3, ranking.getStartedAt(), null, null)));
+        when(valueDictionary.decode(3)).thenReturn("ranking");
+
+        registry.refresh();
+
+        assertEquals(registeredActivity, registry.get(ranking.getRunId()).orElseThrow().lastActivityAt());
+    }
+
+    @Test
+    void testOnRemoteEvents_TracksRunsStartedAndFinishedElsewhere() {
+        UUID started = UUID.randomUUID();
+        XRayRun finished = run("ranking", LocalDateTime.now().minusMinutes(5));
+        registry.register(finished);
+        LocalDateTime startedAt = LocalDateTime.now().minusSeconds(1);
+
+        registry.onRemoteEvents(List.of(
+                RunEventDTO.builder().type(RunEventType.RUN_STARTED).runId(started).pipelineType("dedup").occurredAt(startedAt).build(),
+                RunEventDTO.builder().type(RunEventType.STEP_CREATED).runId(UUID.randomUUID()).build(),
+                RunEventDTO.builder().type(RunEventType.RUN_FAILED).runId(finished.getRunId()).build()));
+
+        List<ActiveRunRegistry.ActiveRun> active = registry.activeRuns(null);
+        assertEquals(1, active.size());
+        assertEquals(started, active.getFirst().runId());
+        assertEquals("dedup", active.getFirst().pipelineType());
+        assertEquals(startedAt, active.getFirst().startedAt());
+        verifyNoInteractions(runRepository);
+    }
+
+    @Test
+    void testOnResync_ReloadsRuns() {
+        when(runRepository.findActivity(RunStatus.IN_PROGRESS)).thenReturn(List.of());
+
+        registry.onResync();
+
+        verify(runRepository).findActivity(RunStatus.IN_PROGRESS);
+    }
+
+    private static XRayRun run(String pipelineType, LocalDateTime startedAt) {
+        return XRayRun.builder()
+                .runId(UUID.randomUUID())
+                .pipelineType(pipelineType)
+                .startedAt(startedAt)
+                .status(RunStatus.IN_PROGRESS)
+                .build();
+    }
+}
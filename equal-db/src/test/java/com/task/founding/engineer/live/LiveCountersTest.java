@@ -0,0 +1,105 @@
+package com.task.founding.engineer.live;
+
+import com.task.founding.engineer.enums.RunStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LiveCountersTest {
+
+    private static final long NOW = 1_700_000_000L;
+
+    private final LiveCounters liveCounters = new LiveCounters(1000);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testSnapshot_CountsByPipelineType() {
+        liveCounters.record("ranking", RunStatus.IN_PROGRESS, NOW - 30);
+        liveCounters.record("ranking", RunStatus.IN_PROGRESS, NOW - 90);
+        liveCounters.record("ranking", RunStatus.COMPLETED, NOW - 5);
+        liveCounters.record("dedup", RunStatus.FAILED, NOW - 5);
+        liveCounters.recordCandidates("ranking", 200, NOW - 3);
+        liveCounters.recordCandidates("ranking", 600, NOW - 40);
+
+        List<LiveCounters.PipelineSnapshot> snapshot = liveCounters.snapshot(NOW);
+
+        assertEquals(List.of("dedup", "ranking"), snapshot.stream().map(LiveCounters.PipelineSnapshot::pipelineType).toList());
+        LiveCounters.PipelineSnapshot dedup = snapshot.get(0);
+        assertEquals(1, dedup.runsFailedLastMinute());
+        assertEquals(0, dedup.runsStartedTotal());
+        LiveCounters.PipelineSnapshot ranking = snapshot.get(1);
+        assertEquals(1, ranking.runsStartedLastMinute());
+        assertEquals(2, ranking.runsStartedTotal());
+        assertEquals(1, ranking.runsCompletedLastMinute());
+        assertEquals(800, ranking.candidatesLastMinute());
+        assertEquals(20.0, ranking.candidatesPerSecond());
+        assertEquals(800, ranking.candidatesTotal());
+    }
+
+    @Test
+    void testRecord_TypesBeyondTheCapShareOneEntry() {
+        LiveCounters capped = new LiveCounters(2);
+        capped.record("a", RunStatus.IN_PROGRESS, NOW - 1);
+        capped.record("b", RunStatus.IN_PROGRESS, NOW - 1);
+        capped.record("c", RunStatus.IN_PROGRESS, NOW - 1);
+        capped.record("d", RunStatus.IN_PROGRESS, NOW - 1);
+        capped.record("a", RunStatus.IN_PROGRESS, NOW - 1);
+
+        List<LiveCounters.PipelineSnapshot> snapshot = capped.snapshot(NOW);
+
+        assertEquals(List.of(LiveCounters.OTHER_PIPELINE_TYPE, "a", "b"),
+                snapshot.stream().map(LiveCounters.PipelineSnapshot::pipelineType).toList());
+        assertEquals(2, snapshot.get(0).runsStartedTotal());
+        assertEquals(2, snapshot.get(1).runsStartedTotal());
+    }
+
+    @Test
+    void testRunFinished_IgnoresRunsStillInProgress() {
+        liveCounters.runFinished("ranking", RunStatus.IN_PROGRESS);
+
+        assertTrue(liveCounters.snapshot().isEmpty());
+    }
+
+    @Test
+    void testCandidatesIngested_CountedOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        liveCounters.runStarted("ranking");
+        liveCounters.candidatesIngested("ranking", 25);
+
+        assertTrue(liveCounters.snapshot().isEmpty());
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        LiveCounters.PipelineSnapshot ranking = liveCounters.snapshot().get(0);
+        assertEquals(1, ranking.runsStartedTotal());
+        assertEquals(25, ranking.candidatesTotal());
+    }
+
+    @Test
+    void testJmxAttributes_SumAcrossPipelineTypes() {
+        long fewSecondsAgo = System.currentTimeMillis() / 1000 - 5;
+        liveCounters.record("ranking", RunStatus.IN_PROGRESS, fewSecondsAgo);
+        liveCounters.record("dedup", RunStatus.IN_PROGRESS, fewSecondsAgo);
+        liveCounters.record("dedup", RunStatus.FAILED, fewSecondsAgo);
+        liveCounters.recordCandidates("ranking", 30, fewSecondsAgo);
+        liveCounters.recordCandidates("dedup", 20, fewSecondsAgo);
+
+        assertEquals(2, liveCounters.getRunsStartedLastMinute());
+        assertEquals(0, liveCounters.getRunsCompletedLastMinute());
+        assertEquals(1, liveCounters.getRunsFailedLastMinute());
+        assertEquals(5.0, liveCounters.getCandidatesPerSecond());
+    }
+}
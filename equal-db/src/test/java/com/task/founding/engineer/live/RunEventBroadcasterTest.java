@@ -0,0 +1,177 @@
+package com.task.founding.engineer.live;
+
+import com.task.founding.engineer.bus.ChangeBus;
+import com.task.founding.engineer.dto.response.RunEventDTO;
+import com.task.founding.engineer.enums.RunEventType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RunEventBroadcasterTest {
+
+    @Mock
+    private ChangeBus changeBus;
+
+    private RunEventBroadcaster broadcaster;
+    private final UUID runId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new RunEventBroadcaster(changeBus, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testPublish_DeliversInOrderAndClosesAfterTerminalEvent() throws InterruptedException {
+        List<RunEventDTO> received = new CopyOnWriteArrayList<>();
+        CountDownLatch closed = new CountDownLatch(1);
+        RunEventBroadcaster.Subscription subscription = broadcaster.subscribe(runId, received::add, closed::countDown);
+
+        IntStream.range(0, 100).forEach(order -> broadcaster.publish(event(RunEventType.STEP_CREATED, order)));
+        broadcaster.publish(event(RunEventType.RUN_COMPLETED, null));
+        broadcaster.publish(event(RunEventType.STEP_CREATED, 100));
+
+        assertTrue(closed.await(10, TimeUnit.SECONDS));
+        assertEquals(101, received.size());
+        assertEquals(IntStream.range(0, 100).boxed().toList(),
+                received.subList(0, 100).stream().map(RunEventDTO::getOrder).toList());
+        assertEquals(RunEventType.RUN_COMPLETED, received.get(100).getType());
+        assertTrue(subscription.isClosed());
+        assertEquals(0, broadcaster.subscriberCount());
+    }
+
+    @Test
+    void testPublish_OnlyReachesSubscribersOfTheRun() throws InterruptedException {
+        List<RunEventDTO> other = new CopyOnWriteArrayList<>();
+        CountDownLatch delivered = new CountDownLatch(1);
+        broadcaster.subscribe(UUID.randomUUID(), other::add, () -> { });
+        broadcaster.subscribe(runId, event -> delivered.countDown(), () -> { });
+
+        broadcaster.publish(event(RunEventType.STEP_CREATED, 1));
+
+        assertTrue(delivered.await(10, TimeUnit.SECONDS));
+        assertTrue(other.isEmpty());
+        assertEquals(2, broadcaster.subscriberCount());
+    }
+
+    @Test
+    void testPublish_WaitsForCommit() {
+        List<RunEventDTO> received = new CopyOnWriteArrayList<>();
+        broadcaster.subscribe(runId, received::add, () -> { });
+        TransactionSynchronizationManager.initSynchronization();
+
+        broadcaster.publish(event(RunEventType.STEP_CREATED, 1));
+
+        assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+        assertTrue(received.isEmpty());
+        verifyNoInteractions(changeBus);
+    }
+
+    @Test
+    void testPublish_SendsToOtherInstances() {
+        RunEventDTO event = event(RunEventType.STEP_CREATED, 1);
+
+        broadcaster.publish(event);
+
+        verify(changeBus).send(event);
+    }
+
+    @Test
+    void testPublishLocally_IsNotSent() throws InterruptedException {
+        CountDownLatch closed = new CountDownLatch(1);
+        broadcaster.subscribe(runId, event -> { }, closed::countDown);
+
+        broadcaster.publishLocally(event(RunEventType.RUN_FAILED, null));
+
+        assertTrue(closed.await(10, TimeUnit.SECONDS));
+        verifyNoInteractions(changeBus);
+    }
+
+    @Test
+    void testOnRemoteEvents_ReachLocalSubscribers() throws InterruptedException {
+        List<RunEventDTO> received = new CopyOnWriteArrayList<>();
+        CountDownLatch closed = new CountDownLatch(1);
+        broadcaster.subscribe(runId, received::add, closed::countDown);
+
+        broadcaster.onRemoteEvents(List.of(event(RunEventType.STEP_CREATED, 1), event(RunEventType.RUN_COMPLETED, null)));
+
+        assertTrue(closed.await(10, TimeUnit.SECONDS));
+        assertEquals(2, received.size());
+        verifyNoInteractions(changeBus);
+    }
+
+    @Test
+    void testOffer_SlowSubscriberIsClosedOnOverflow() throws InterruptedException {
+        RunEventBroadcaster small = new RunEventBroadcaster(changeBus, 2);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch closed = new CountDownLatch(1);
+        RunEventBroadcaster.Subscription subscription = small.subscribe(runId, event -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, closed::countDown);
+
+        IntStream.range(0, 10).forEach(order -> small.publish(event(RunEventType.STEP_CREATED, order)));
+
+        assertTrue(closed.await(10, TimeUnit.SECONDS));
+        assertTrue(subscription.isClosed());
+        release.countDown();
+        assertEquals(0, small.subscriberCount());
+    }
+
+    @Test
+    void testOffer_FailingListenerIsClosed() throws InterruptedException {
+        CountDownLatch closed = new CountDownLatch(1);
+        broadcaster.subscribe(runId, event -> {
+            throw new IllegalStateException("client gone");
+        }, closed::countDown);
+
+        broadcaster.publish(event(RunEventType.STEP_CREATED, 1));
+
+        assertTrue(closed.await(10, TimeUnit.SECONDS));
+        assertEquals(0, broadcaster.subscriberCount());
+    }
+
+    @Test
+    void testClose_RunsOnCloseOnce() {
+        List<String> closes = new CopyOnWriteArrayList<>();
+        RunEventBroadcaster.Subscription subscription = broadcaster.subscribe(runId, event -> { }, () -> closes.add("closed"));
+
+        subscription.close();
+        subscription.close();
+
+        assertEquals(List.of("closed"), closes);
+        assertEquals(0, broadcaster.subscriberCount());
+    }
+
+    private RunEventDTO event(RunEventType type, Integer order) {
+        return RunEventDTO.builder()
+                .type(type)
+                .runId(runId)
+                .order(order)
+                .build();
+    }
+}
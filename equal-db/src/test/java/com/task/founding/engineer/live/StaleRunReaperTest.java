@@ -0,0 +1,65 @@
+package com.task.founding.engineer.live;
+
+import com.task.founding.engineer.enums.RunStatus;
+import com.task.founding.engineer.repository.XRayRunRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StaleRunReaperTest {
+
+    @Mock
+    private XRayRunRepository runRepository;
+
+    @Mock
+    private ActiveRunRegistry activeRunRegistry;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void testReap_FailsIdleRunsInOneUpdateAndRefreshesRegistry() {
+        StaleRunReaper reaper = new StaleRunReaper(runRepository, activeRunRegistry, transactionManager, true, Duration.ofHours(1));
+        when(runRepository.failIdleRuns(eq(RunStatus.IN_PROGRESS), eq(RunStatus.FAILED), any(), any())).thenReturn(2);
+
+        reaper.reap();
+
+        ArgumentCaptor<LocalDateTime> idleSince = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> failedAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(runRepository).failIdleRuns(eq(RunStatus.IN_PROGRESS), eq(RunStatus.FAILED), idleSince.capture(), failedAt.capture());
+        assertEquals(Duration.ofHours(1), Duration.between(idleSince.getValue(), failedAt.getValue()));
+        verify(activeRunRegistry).refresh();
+        verify(runRepository, never()).save(any());
+    }
+
+    @Test
+    void testReap_NothingStaleLeavesRegistryAlone() {
+        StaleRunReaper reaper = new StaleRunReaper(runRepository, activeRunRegistry, transactionManager, true, Duration.ofHours(1));
+        when(runRepository.failIdleRuns(any(), any(), any(), any())).thenReturn(0);
+
+        reaper.reap();
+
+        verifyNoInteractions(activeRunRegistry);
+    }
+
+    @Test
+    void testReap_Disabled() {
+        StaleRunReaper reaper = new StaleRunReaper(runRepository, activeRunRegistry, transactionManager, false, Duration.ofHours(1));
+
+        reaper.reap();
+
+        verifyNoInteractions(runRepository, activeRunRegistry, transactionManager);
+    }
+}
@@ -0,0 +1,71 @@
+package com.task.founding.engineer.live;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WindowedCounterTest {
+
+    private static final long NOW = 1_700_000_000L;
+
+    @Test
+    void testSum_CoversWholeSecondsBeforeTheGivenOne() {
+        WindowedCounter counter = new WindowedCounter();
+        counter.add(NOW - 61, 100);
+        counter.add(NOW - 60, 1);
+        counter.add(NOW - 1, 2);
+        counter.add(NOW, 4);
+
+        assertEquals(3, counter.sum(NOW, 60));
+        assertEquals(2, counter.sum(NOW, 1));
+        assertEquals(107, counter.total());
+    }
+
+    @Test
+    void testAdd_ReusesTheSlotOfASecondLeftBehind() {
+        WindowedCounter counter = new WindowedCounter();
+        counter.add(NOW, 5);
+        counter.add(NOW + WindowedCounter.SLOTS, 1);
+
+        assertEquals(1, counter.sum(NOW + WindowedCounter.SLOTS + 1, 60));
+        assertEquals(0, counter.sum(NOW + 1, 1));
+    }
+
+    @Test
+    void testAdd_StaleSecondOnlyCountsTowardsTheTotal() {
+        WindowedCounter counter = new WindowedCounter();
+        counter.add(NOW + WindowedCounter.SLOTS, 1);
+        counter.add(NOW, 5);
+
+        assertEquals(1, counter.sum(NOW + WindowedCounter.SLOTS + 1, 60));
+        assertEquals(6, counter.total());
+    }
+
+    @Test
+    void testSum_RejectsWindowsLongerThanTheRing() {
+        WindowedCounter counter = new WindowedCounter();
+
+        assertThrows(IllegalArgumentException.class, () -> counter.sum(NOW, WindowedCounter.SLOTS));
+    }
+
+    @Test
+    void testAdd_ConcurrentWritersAreAllCounted() throws InterruptedException {
+        WindowedCounter counter = new WindowedCounter();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        IntStream.range(0, 8).forEach(thread -> executor.execute(() -> {
+            for (int i = 0; i < 10_000; i++) {
+                counter.add(NOW + i % 10, 1);
+            }
+        }));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(80_000, counter.sum(NOW + 10, 10));
+        assertEquals(80_000, counter.total());
+    }
+}
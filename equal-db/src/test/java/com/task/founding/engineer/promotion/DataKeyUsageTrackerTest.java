@@ -0,0 +1,40 @@
+package com.task.founding.engineer.promotion;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataKeyUsageTrackerTest {
+
+    private final DataKeyUsageTracker tracker = new DataKeyUsageTracker();
+
+    @Test
+    void testSnapshot_MostQueriedFirstPerPipeline() {
+        tracker.record("competitor-selection", "data.category");
+        tracker.record("competitor-selection", "data.sku");
+        tracker.record("competitor-selection", "data.sku");
+        tracker.record(null, "data.id");
+
+        List<DataKeyUsageTracker.Usage> usages = tracker.snapshot("competitor-selection");
+
+        assertEquals(List.of(
+            new DataKeyUsageTracker.Usage("competitor-selection", "data.sku", 2),
+            new DataKeyUsageTracker.Usage("competitor-selection", "data.category", 1)), usages);
+        assertEquals(3, tracker.snapshot(null).size());
+        assertEquals(DataKeyUsageTracker.ALL_PIPELINES, tracker.snapshot(DataKeyUsageTracker.ALL_PIPELINES).get(0).pipelineType());
+    }
+
+    @Test
+    void testRecord_CapsTrackedPathsPerPipeline() {
+        for (int i = 0; i < DataKeyUsageTracker.MAX_PATHS_PER_PIPELINE + 10; i++) {
+            tracker.record("p", "data.key" + i);
+        }
+        tracker.record("p", "data.key0");
+
+        List<DataKeyUsageTracker.Usage> usages = tracker.snapshot("p");
+        assertEquals(DataKeyUsageTracker.MAX_PATHS_PER_PIPELINE, usages.size());
+        assertEquals(new DataKeyUsageTracker.Usage("p", "data.key0", 2), usages.get(0));
+    }
+}
@@ -0,0 +1,102 @@
+package com.task.founding.engineer.promotion;
+
+import com.task.founding.engineer.enums.PromotionStatus;
+import com.task.founding.engineer.model.XRayPromotedKey;
+import com.task.founding.engineer.repository.XRayPromotedKeyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PromotedKeyMigratorTest {
+
+    @Mock
+    private XRayPromotedKeyRepository promotedKeyRepository;
+
+    @Mock
+    private PromotedKeyRegistry promotedKeyRegistry;
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private DatabaseMetaData metaData;
+
+    @Mock
+    private Statement statement;
+
+    @Mock
+    private PreparedStatement indexCheck;
+
+    @Mock
+    private ResultSet indexCheckResult;
+
+    private PromotedKeyMigrator migrator;
+    private XRayPromotedKey key;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        migrator = new PromotedKeyMigrator(promotedKeyRepository, promotedKeyRegistry, dataSource, true);
+        key = XRayPromotedKey.builder()
+            .path("data.attributes.category")
+            .indexName("idx_dk_attributes_category")
+            .status(PromotionStatus.PENDING)
+            .build();
+        lenient().when(promotedKeyRepository.findByStatusInOrderByCreatedAtAsc(any())).thenReturn(List.of(key));
+        lenient().when(dataSource.getConnection()).thenReturn(connection);
+        lenient().when(connection.getMetaData()).thenReturn(metaData);
+        lenient().when(metaData.getDatabaseProductName()).thenReturn("PostgreSQL");
+        lenient().when(connection.createStatement()).thenReturn(statement);
+        lenient().when(connection.prepareStatement(anyString())).thenReturn(indexCheck);
+        lenient().when(indexCheck.executeQuery()).thenReturn(indexCheckResult);
+    }
+
+    @Test
+    void testRun_BuildsExpressionIndexWithoutAddingAColumn() throws SQLException {
+        migrator.run();
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(statement, atLeastOnce()).execute(sql.capture());
+        assertEquals(List.of("CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_dk_attributes_category "
+            + "ON xray_candidates ((data #>> '{attributes,category}'))"), sql.getAllValues());
+        assertEquals(PromotionStatus.READY, key.getStatus());
+        assertNotNull(key.getReadyAt());
+        verify(promotedKeyRegistry).refresh();
+    }
+
+    @Test
+    void testRun_FailedBuildFailsTheKey() throws SQLException {
+        when(statement.execute(startsWith("CREATE INDEX"))).thenThrow(new SQLException("out of disk", "53100"));
+
+        migrator.run();
+
+        assertEquals(PromotionStatus.FAILED, key.getStatus());
+        assertEquals("out of disk", key.getError());
+    }
+
+    @Test
+    void testRun_SkipsOtherDatabases() throws SQLException {
+        when(metaData.getDatabaseProductName()).thenReturn("H2");
+
+        migrator.run();
+
+        verify(connection, never()).createStatement();
+        assertEquals(PromotionStatus.PENDING, key.getStatus());
+    }
+}
@@ -0,0 +1,76 @@
+package com.task.founding.engineer.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CandidateSearchQueryTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 10, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2026, 10, 8, 0, 0);
+
+    @Test
+    void testToSql_OnlySetPredicatesAreWritten() {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+
+        String sql = CandidateSearchQuery.toSql(CandidateSearchQuery.Filter.builder()
+            .startDate(START)
+            .endDate(END)
+            .stepNameCode(11)
+            .dataContains("{\"category\":\"shoes\"}")
+            .build(), parameters);
+
+        assertEquals("SELECT c.* FROM xray_candidates c JOIN xray_steps s ON s.step_id = c.step_id "
+            + "WHERE s.started_at >= :startDate AND s.started_at <= :endDate "
+            + "AND s.step_name_code = :stepNameCode "
+            + "AND c.data @> CAST(:dataContains AS jsonb) "
+            + "ORDER BY s.started_at DESC, c.candidate_id", sql);
+        assertEquals(Map.of("startDate", START, "endDate", END, "stepNameCode", 11,
+            "dataContains", "{\"category\":\"shoes\"}"), parameters);
+    }
+
+    @Test
+    void testToSql_PipelineFilterJoinsRuns() {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+
+        String sql = CandidateSearchQuery.toSql(CandidateSearchQuery.Filter.builder()
+            .startDate(START)
+            .endDate(END)
+            .pipelineTypeCode(3)
+            .selected(false)
+            .minScore(0.8)
+            .metadataContains("{\"source\":\"catalog\"}")
+            .build(), parameters);
+
+        assertTrue(sql.contains("JOIN xray_runs r ON r.run_id = s.run_id"));
+        assertTrue(sql.contains("AND r.pipeline_type_code = :pipelineTypeCode"));
+        assertTrue(sql.contains("AND c.selected = :selected AND c.score >= :minScore"));
+        assertTrue(sql.contains("AND c.metadata @> CAST(:metadataContains AS jsonb)"));
+        assertFalse(sql.contains(":maxScore"));
+        assertFalse(sql.contains("IS NULL"));
+        assertEquals(6, parameters.size());
+    }
+
+    @Test
+    void testToSql_PromotedKeys() {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        Map<String, String> promoted = new LinkedHashMap<>();
+        promoted.put("data #>> '{sku}'", "SKU-42");
+        promoted.put("data #>> '{category}'", "shoes");
+
+        String sql = CandidateSearchQuery.toSql(CandidateSearchQuery.Filter.builder()
+            .startDate(START)
+            .endDate(END)
+            .promotedEquals(promoted)
+            .build(), parameters);
+
+        assertTrue(sql.contains("AND (c.data #>> '{sku}') = :promoted0 AND (c.data #>> '{category}') = :promoted1"));
+        assertFalse(sql.contains("@>"));
+        assertEquals("SKU-42", parameters.get("promoted0"));
+        assertEquals("shoes", parameters.get("promoted1"));
+    }
+}
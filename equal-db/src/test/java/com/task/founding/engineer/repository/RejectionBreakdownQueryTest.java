@@ -0,0 +1,76 @@
+package com.task.founding.engineer.repository;
+
+import com.task.founding.engineer.enums.RejectionReasonGrouping;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RejectionBreakdownQueryTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 10, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2026, 10, 8, 0, 0);
+
+    @Test
+    void testToSql_GroupsByReasonWithWindowTotals() {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+
+        String sql = RejectionBreakdownQuery.toSql(RejectionBreakdownQuery.Filter.builder()
+            .startDate(START)
+            .endDate(END)
+            .stepName("filter_by_price")
+            .stepNameCode(11)
+            .groupBy(RejectionReasonGrouping.REASON)
+            .build(), parameters);
+
+        assertEquals("SELECT c.rejection_reason_code, COUNT(*), SUM(COUNT(*)) OVER (), "
+            + "SUM(CASE WHEN c.rejection_reason_code IS NULL THEN COUNT(*) END) OVER () "
+            + "FROM xray_candidates c JOIN xray_steps s ON s.step_id = c.step_id "
+            + "WHERE c.selected = false AND s.started_at >= :startDate AND s.started_at <= :endDate "
+            + "AND (s.step_name_code = :stepNameCode OR (s.step_name_code IS NULL AND s.step_name = :stepName)) "
+            + "GROUP BY c.rejection_reason_code "
+            + "ORDER BY CASE WHEN c.rejection_reason_code IS NULL THEN 1 ELSE 0 END, COUNT(*) DESC, c.rejection_reason_code", sql);
+        assertEquals(Map.of("startDate", START, "endDate", END, "stepNameCode", 11, "stepName", "filter_by_price"), parameters);
+    }
+
+    @Test
+    void testToSql_PipelineFilterJoinsRuns() {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+
+        String sql = RejectionBreakdownQuery.toSql(RejectionBreakdownQuery.Filter.builder()
+            .startDate(START)
+            .endDate(END)
+            .pipelineType("data-processing")
+            .pipelineTypeCode(3)
+            .groupBy(RejectionReasonGrouping.TEMPLATE)
+            .build(), parameters);
+
+        assertTrue(sql.startsWith("SELECT c.rejection_template_id, COUNT(*)"));
+        assertTrue(sql.contains("JOIN xray_runs r ON r.run_id = s.run_id"));
+        assertTrue(sql.contains("AND (r.pipeline_type_code = :pipelineTypeCode "
+            + "OR (r.pipeline_type_code IS NULL AND r.pipeline_type = :pipelineType)) GROUP BY c.rejection_template_id"));
+        assertFalse(sql.contains(":stepName"));
+        assertFalse(sql.contains("IS NULL OR"));
+        assertEquals(4, parameters.size());
+    }
+
+    @Test
+    void testToSql_NameWithoutCodeMatchesUncodedRowsOnly() {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+
+        String sql = RejectionBreakdownQuery.toSql(RejectionBreakdownQuery.Filter.builder()
+            .startDate(START)
+            .endDate(END)
+            .stepName("legacy_step")
+            .groupBy(RejectionReasonGrouping.REASON)
+            .build(), parameters);
+
+        assertTrue(sql.contains("AND s.step_name_code IS NULL AND s.step_name = :stepName GROUP BY"));
+        assertFalse(sql.contains(":stepNameCode"));
+        assertEquals("legacy_step", parameters.get("stepName"));
+        assertEquals(3, parameters.size());
+    }
+}
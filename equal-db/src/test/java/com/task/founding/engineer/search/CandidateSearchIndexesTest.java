@@ -0,0 +1,57 @@
+package com.task.founding.engineer.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CandidateSearchIndexesTest {
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private Connection connection;
+
+    @Mock
+    private Statement statement;
+
+    @Test
+    void testRun_FailedBuildIsRetriedUntilItSucceeds() throws SQLException {
+        when(dataSource.getConnection())
+            .thenThrow(new SQLException("connection refused"))
+            .thenReturn(connection);
+        when(connection.getMetaData().getDatabaseProductName()).thenReturn("PostgreSQL");
+        when(connection.prepareStatement(anyString()).executeQuery().next()).thenReturn(false);
+        when(connection.createStatement()).thenReturn(statement);
+        CandidateSearchIndexes indexes = new CandidateSearchIndexes(dataSource, true);
+
+        indexes.run();
+        indexes.run();
+        indexes.run();
+
+        verify(dataSource, times(2)).getConnection();
+        verify(connection).setAutoCommit(true);
+        verify(statement).execute(
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_candidate_data_gin ON xray_candidates USING gin (data jsonb_path_ops)");
+        verify(statement).execute(
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_candidate_metadata_gin ON xray_candidates USING gin (metadata jsonb_path_ops)");
+    }
+
+    @Test
+    void testRun_Disabled() {
+        new CandidateSearchIndexes(dataSource, false).run();
+
+        verifyNoInteractions(dataSource);
+    }
+}
@@ -0,0 +1,104 @@
+package com.task.founding.engineer.search;
+
+import com.task.founding.engineer.dto.request.JsonPathPredicateDTO;
+import com.task.founding.engineer.json.RawJson;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonContainmentTest {
+
+    @Test
+    void testOf_MergesPredicatesPerColumn() {
+        JsonContainment.Documents documents = JsonContainment.of(List.of(
+            predicate("data.category", "\"shoes\""),
+            predicate("data.attributes.color", "\"red\""),
+            predicate("data.attributes.size", "42"),
+            predicate("metadata.source", "\"catalog\"")));
+
+        assertEquals("{\"category\":\"shoes\",\"attributes\":{\"color\":\"red\",\"size\":42}}", documents.data());
+        assertEquals("{\"source\":\"catalog\"}", documents.metadata());
+    }
+
+    @Test
+    void testOf_NoPredicates() {
+        JsonContainment.Documents documents = JsonContainment.of(List.of());
+
+        assertNull(documents.data());
+        assertNull(documents.metadata());
+    }
+
+    @Test
+    void testOf_ArrayAndObjectValuesAreKeptRaw() {
+        JsonContainment.Documents documents = JsonContainment.of(List.of(
+            predicate("data.tags", "[\"sale\"]"),
+            predicate("data.dimensions", "{\"unit\":\"cm\"}")));
+
+        assertEquals("{\"tags\":[\"sale\"],\"dimensions\":{\"unit\":\"cm\"}}", documents.data());
+        assertNull(documents.metadata());
+    }
+
+    @Test
+    void testOf_StringEqualityOnPromotedKeyUsesTextExpression() {
+        JsonContainment.Documents documents = JsonContainment.of(List.of(
+                predicate("data.sku", "\"SKU-\\\"42\\\"\""),
+                predicate("data.category", "\"shoes\""),
+                predicate("data.rank", "3")),
+            Map.of("data.sku", "idx_dk_sku", "data.rank", "idx_dk_rank"));
+
+        assertEquals(Map.of("data #>> '{sku}'", "SKU-\"42\""), documents.promotedEquals());
+        // Non-string values keep containment, which preserves JSON typing
+        assertEquals("{\"category\":\"shoes\",\"rank\":3}", documents.data());
+    }
+
+    @Test
+    void testTextExpression() {
+        assertEquals("data #>> '{sku}'", JsonContainment.textExpression("data.sku"));
+        assertEquals("data #>> '{attributes,color}'", JsonContainment.textExpression(" data.attributes.color "));
+        assertThrows(IllegalArgumentException.class, () -> JsonContainment.textExpression("data.sku'; DROP TABLE x"));
+    }
+
+    @Test
+    void testParsePath() {
+        assertArrayEquals(new String[] {"data", "attributes", "color"}, JsonContainment.parsePath(" data.attributes.color "));
+        assertThrows(IllegalArgumentException.class, () -> JsonContainment.parsePath("input.color"));
+    }
+
+    @Test
+    void testOf_UnknownRoot() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+            JsonContainment.of(List.of(predicate("input.category", "\"shoes\""))));
+
+        assertTrue(exception.getMessage().contains("must start with data. or metadata."));
+    }
+
+    @Test
+    void testOf_InvalidSegments() {
+        assertThrows(IllegalArgumentException.class, () ->
+            JsonContainment.of(List.of(predicate("data", "\"shoes\""))));
+        assertThrows(IllegalArgumentException.class, () ->
+            JsonContainment.of(List.of(predicate("data..category", "\"shoes\""))));
+        assertThrows(IllegalArgumentException.class, () ->
+            JsonContainment.of(List.of(predicate("data.cat\"egory", "\"shoes\""))));
+    }
+
+    @Test
+    void testOf_ConflictingPredicates() {
+        assertThrows(IllegalArgumentException.class, () -> JsonContainment.of(List.of(
+            predicate("data.category", "\"shoes\""),
+            predicate("data.category", "\"boots\""))));
+        assertThrows(IllegalArgumentException.class, () -> JsonContainment.of(List.of(
+            predicate("data.attributes", "\"none\""),
+            predicate("data.attributes.color", "\"red\""))));
+    }
+
+    private static JsonPathPredicateDTO predicate(String path, String value) {
+        return JsonPathPredicateDTO.builder()
+            .path(path)
+            .value(RawJson.of(value))
+            .build();
+    }
+}
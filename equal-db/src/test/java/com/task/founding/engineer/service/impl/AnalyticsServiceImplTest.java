@@ -1,9 +1,37 @@
 package com.task.founding.engineer.service.impl;
 
+import com.task.founding.engineer.columnar.StepColumnCache;
+import com.task.founding.engineer.columnar.StepColumns;
+import com.task.founding.engineer.dictionary.ValueDictionary;
+import com.task.founding.engineer.drift.ScoreSampler;
+import com.task.founding.engineer.dto.request.WhatIfRequestDTO;
+import com.task.founding.engineer.dto.request.WhatIfRuleDTO;
+import com.task.founding.engineer.dto.response.DistinctKeyCountResponseDTO;
 import com.task.founding.engineer.dto.response.FilteringStatsResponseDTO;
+import com.task.founding.engineer.dto.response.LiveCountersResponseDTO;
+import com.task.founding.engineer.dto.response.RejectedKeysResponseDTO;
+import com.task.founding.engineer.dto.response.RejectionReasonBreakdownResponseDTO;
+import com.task.founding.engineer.dto.response.ScoreDriftResponseDTO;
+import com.task.founding.engineer.dto.response.WhatIfResponseDTO;
+import com.task.founding.engineer.dto.response.WhatIfScenarioDTO;
+import com.task.founding.engineer.enums.DictionaryKind;
+import com.task.founding.engineer.enums.RejectionReasonGrouping;
+import com.task.founding.engineer.enums.TimeBucket;
+import com.task.founding.engineer.live.LiveCounters;
+import com.task.founding.engineer.model.XRayReasonTemplate;
 import com.task.founding.engineer.model.XRayStep;
+import com.task.founding.engineer.promotion.DataKeyUsageTracker;
+import com.task.founding.engineer.promotion.PromotedKeyRegistry;
+import com.task.founding.engineer.repository.RejectionBreakdownQuery;
 import com.task.founding.engineer.repository.XRayCandidateRepository;
+import com.task.founding.engineer.repository.XRayReasonTemplateRepository;
 import com.task.founding.engineer.repository.XRayStepRepository;
+import com.task.founding.engineer.sketch.DistinctKeySketches;
+import com.task.founding.engineer.sketch.HyperLogLog;
+import com.task.founding.engineer.sketch.RejectedKeySketches;
+import com.task.founding.engineer.sketch.SpaceSavingSketch;
+import com.task.founding.engineer.whatif.CandidateColumnLoader;
+import com.task.founding.engineer.whatif.CandidateColumns;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,23 +39,64 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class AnalyticsServiceImplTest {
 
+    private static final int FILTER_CODE = 7;
+    private static final int PIPELINE_CODE = 3;
+
     @Mock
     private XRayStepRepository stepRepository;
 
     @Mock
     private XRayCandidateRepository candidateRepository;
 
+    @Mock
+    private ValueDictionary valueDictionary;
+
+    @Mock
+    private RejectionBreakdownQuery rejectionBreakdownQuery;
+
+    @Mock
+    private XRayReasonTemplateRepository templateRepository;
+
+    @Mock
+    private RejectedKeySketches rejectedKeySketches;
+
+    @Mock
+    private DistinctKeySketches distinctKeySketches;
+
+    @Mock
+    private CandidateColumnLoader candidateColumnLoader;
+
+    @Mock
+    private PromotedKeyRegistry promotedKeyRegistry;
+
+    @Mock
+    private DataKeyUsageTracker dataKeyUsageTracker;
+
+    @Mock
+    private StepColumnCache stepColumnCache;
+
+    @Mock
+    private ScoreSampler scoreSampler;
+
+    @Mock
+    private LiveCounters liveCounters;
+
     @InjectMocks
     private AnalyticsServiceImpl analyticsService;
 
@@ -52,12 +121,44 @@ class AnalyticsServiceImplTest {
             .stepType("filter")
             .stepName("Filter Step 2")
             .build();
+
+        lenient().when(valueDictionary.find(DictionaryKind.STEP_TYPE, "filter")).thenReturn(Optional.of(FILTER_CODE));
+        lenient().when(valueDictionary.find(DictionaryKind.PIPELINE_TYPE, "data-processing"))
+            .thenReturn(Optional.of(PIPELINE_CODE));
+        // Nothing cached unless a test says otherwise
+        lenient().when(stepColumnCache.scan(any(), any()))
+            .thenAnswer(invocation -> new StepColumnCache.Scan<>(
+                Map.of(), List.copyOf(invocation.<Collection<XRayStep>>getArgument(0))));
+    }
+
+    @Test
+    void testGetFilteringStats_CountsCachedStepsFromColumns() {
+        StepColumns cachedColumns = mock(StepColumns.class);
+        when(cachedColumns.size()).thenReturn(100);
+        when(cachedColumns.selectedCount()).thenReturn(60L);
+        when(stepRepository.findFilteringSteps("filter", FILTER_CODE, null, null, null, null))
+            .thenReturn(Arrays.asList(filteringStep1, filteringStep2));
+        doAnswer(invocation -> {
+            Function<StepColumns, ?> perStep = invocation.getArgument(1);
+            return new StepColumnCache.Scan<>(Map.of(stepId1, perStep.apply(cachedColumns)), List.of(filteringStep2));
+        }).when(stepColumnCache).scan(any(), any());
+        when(candidateRepository.countByStepId(stepId2)).thenReturn(200L);
+        when(candidateRepository.countByStepIdAndSelectedTrue(stepId2)).thenReturn(100L);
+
+        FilteringStatsResponseDTO result = analyticsService.getFilteringStats(null, null, null);
+
+        assertEquals(300L, result.getTotalInputCandidates());
+        assertEquals(160L, result.getTotalOutputCandidates());
+        assertEquals(0.4, result.getMinRejectionRate(), 0.001);
+        assertEquals(0.5, result.getMaxRejectionRate(), 0.001);
+        verify(candidateRepository, never()).countByStepId(stepId1);
+        verify(candidateRepository, never()).countByStepIdAndSelectedTrue(stepId1);
     }
 
     @Test
     void testGetFilteringStats_NoFilters() {
         List<XRayStep> steps = Arrays.asList(filteringStep1, filteringStep2);
-        when(stepRepository.findFilteringSteps(null, null, null)).thenReturn(steps);
+        when(stepRepository.findFilteringSteps("filter", FILTER_CODE, null, null, null, null)).thenReturn(steps);
         when(candidateRepository.countByStepId(stepId1)).thenReturn(100L);
         when(candidateRepository.countByStepIdAndSelectedTrue(stepId1)).thenReturn(75L);
         when(candidateRepository.countByStepId(stepId2)).thenReturn(200L);
@@ -77,7 +178,7 @@ class AnalyticsServiceImplTest {
     @Test
     void testGetFilteringStats_WithPipelineType() {
         List<XRayStep> steps = Collections.singletonList(filteringStep1);
-        when(stepRepository.findFilteringSteps("data-processing", null, null)).thenReturn(steps);
+        when(stepRepository.findFilteringSteps("filter", FILTER_CODE, "data-processing", PIPELINE_CODE, null, null)).thenReturn(steps);
         when(candidateRepository.countByStepId(stepId1)).thenReturn(100L);
         when(candidateRepository.countByStepIdAndSelectedTrue(stepId1)).thenReturn(80L);
 
@@ -96,7 +197,7 @@ class AnalyticsServiceImplTest {
         LocalDateTime endDate = LocalDateTime.now();
         
         List<XRayStep> steps = Collections.singletonList(filteringStep1);
-        when(stepRepository.findFilteringSteps(null, startDate, endDate)).thenReturn(steps);
+        when(stepRepository.findFilteringSteps("filter", FILTER_CODE, null, null, startDate, endDate)).thenReturn(steps);
         when(candidateRepository.countByStepId(stepId1)).thenReturn(150L);
         when(candidateRepository.countByStepIdAndSelectedTrue(stepId1)).thenReturn(100L);
 
@@ -115,7 +216,7 @@ class AnalyticsServiceImplTest {
         LocalDateTime endDate = LocalDateTime.now();
         
         List<XRayStep> steps = Collections.singletonList(filteringStep1);
-        when(stepRepository.findFilteringSteps("data-processing", startDate, endDate)).thenReturn(steps);
+        when(stepRepository.findFilteringSteps("filter", FILTER_CODE, "data-processing", PIPELINE_CODE, startDate, endDate)).thenReturn(steps);
         when(candidateRepository.countByStepId(stepId1)).thenReturn(200L);
         when(candidateRepository.countByStepIdAndSelectedTrue(stepId1)).thenReturn(120L);
 
@@ -128,9 +229,23 @@ class AnalyticsServiceImplTest {
         assertEquals(0.40, result.getAverageRejectionRate(), 0.001);
     }
 
+    @Test
+    void testGetFilteringStats_PipelineTypeNotInternedMatchesUncodedRuns() {
+        // Runs written before codes existed, not yet reached by the backfill
+        when(valueDictionary.find(DictionaryKind.PIPELINE_TYPE, "legacy")).thenReturn(Optional.empty());
+        when(stepRepository.findFilteringSteps("filter", FILTER_CODE, "legacy", null, null, null))
+            .thenReturn(Collections.singletonList(filteringStep1));
+        when(candidateRepository.countByStepId(stepId1)).thenReturn(100L);
+        when(candidateRepository.countByStepIdAndSelectedTrue(stepId1)).thenReturn(80L);
+
+        FilteringStatsResponseDTO result = analyticsService.getFilteringStats("legacy", null, null);
+
+        assertEquals(1L, result.getTotalFilteringSteps());
+    }
+
     @Test
     void testGetFilteringStats_EmptySteps() {
-        when(stepRepository.findFilteringSteps(null, null, null)).thenReturn(Collections.emptyList());
+        when(stepRepository.findFilteringSteps("filter", FILTER_CODE, null, null, null, null)).thenReturn(Collections.emptyList());
 
         FilteringStatsResponseDTO result = analyticsService.getFilteringStats(null, null, null);
 
@@ -146,7 +261,7 @@ class AnalyticsServiceImplTest {
     @Test
     void testGetFilteringStats_StepsWithNoCandidates() {
         List<XRayStep> steps = Arrays.asList(filteringStep1, filteringStep2);
-        when(stepRepository.findFilteringSteps(null, null, null)).thenReturn(steps);
+        when(stepRepository.findFilteringSteps("filter", FILTER_CODE, null, null, null, null)).thenReturn(steps);
         when(candidateRepository.countByStepId(stepId1)).thenReturn(0L);
         when(candidateRepository.countByStepId(stepId2)).thenReturn(0L);
 
@@ -164,7 +279,7 @@ class AnalyticsServiceImplTest {
     @Test
     void testGetFilteringStats_DifferentRejectionRates() {
         List<XRayStep> steps = Arrays.asList(filteringStep1, filteringStep2);
-        when(stepRepository.findFilteringSteps(null, null, null)).thenReturn(steps);
+        when(stepRepository.findFilteringSteps("filter", FILTER_CODE, null, null, null, null)).thenReturn(steps);
         
         // Step 1: 100 input, 90 output = 10% rejection
         when(candidateRepository.countByStepId(stepId1)).thenReturn(100L);
@@ -188,7 +303,7 @@ class AnalyticsServiceImplTest {
     @Test
     void testGetFilteringStats_MixedStepsWithAndWithoutCandidates() {
         List<XRayStep> steps = Arrays.asList(filteringStep1, filteringStep2);
-        when(stepRepository.findFilteringSteps(null, null, null)).thenReturn(steps);
+        when(stepRepository.findFilteringSteps("filter", FILTER_CODE, null, null, null, null)).thenReturn(steps);
         
         // Step 1: Has candidates
         when(candidateRepository.countByStepId(stepId1)).thenReturn(100L);
@@ -211,7 +326,7 @@ class AnalyticsServiceImplTest {
     @Test
     void testGetFilteringStats_AllCandidatesSelected() {
         List<XRayStep> steps = Collections.singletonList(filteringStep1);
-        when(stepRepository.findFilteringSteps(null, null, null)).thenReturn(steps);
+        when(stepRepository.findFilteringSteps("filter", FILTER_CODE, null, null, null, null)).thenReturn(steps);
         when(candidateRepository.countByStepId(stepId1)).thenReturn(100L);
         when(candidateRepository.countByStepIdAndSelectedTrue(stepId1)).thenReturn(100L);
 
@@ -229,7 +344,7 @@ class AnalyticsServiceImplTest {
     @Test
     void testGetFilteringStats_AllCandidatesRejected() {
         List<XRayStep> steps = Collections.singletonList(filteringStep1);
-        when(stepRepository.findFilteringSteps(null, null, null)).thenReturn(steps);
+        when(stepRepository.findFilteringSteps("filter", FILTER_CODE, null, null, null, null)).thenReturn(steps);
         when(candidateRepository.countByStepId(stepId1)).thenReturn(100L);
         when(candidateRepository.countByStepIdAndSelectedTrue(stepId1)).thenReturn(0L);
 
@@ -243,5 +358,386 @@ class AnalyticsServiceImplTest {
         assertEquals(1.0, result.getMinRejectionRate());
         assertEquals(1.0, result.getMaxRejectionRate());
     }
-}
 
+    @Test
+    void testGetRejectionReasonBreakdown_TopReasonsWithShare() {
+        LocalDateTime startDate = LocalDateTime.now().minusDays(7);
+        when(valueDictionary.find(DictionaryKind.STEP_NAME, "filter_by_price")).thenReturn(Optional.of(11));
+        when(rejectionBreakdownQuery.breakdown(argThat(filter -> filter.stepNameCode() == 11
+                && "filter_by_price".equals(filter.stepName())
+                && filter.pipelineTypeCode() == PIPELINE_CODE
+                && "data-processing".equals(filter.pipelineType())
+                && filter.startDate().equals(startDate)
+                && Objects.nonNull(filter.endDate())
+                && filter.groupBy() == RejectionReasonGrouping.REASON), eq(2)))
+            .thenReturn(new RejectionBreakdownQuery.Breakdown(100L, 25L, List.of(
+                new RejectionBreakdownQuery.Group(21, 60L),
+                new RejectionBreakdownQuery.Group(22, 10L))));
+        when(valueDictionary.decode(21)).thenReturn("Price exceeds maximum");
+        when(valueDictionary.decode(22)).thenReturn("Rating below minimum");
+
+        RejectionReasonBreakdownResponseDTO result = analyticsService.getRejectionReasonBreakdown(
+            "filter_by_price", "data-processing", startDate, null, RejectionReasonGrouping.REASON, 2);
+
+        assertEquals(100L, result.getTotalRejected());
+        assertEquals(25L, result.getUnspecifiedCount());
+        assertEquals(2, result.getReasons().size());
+        assertEquals("Price exceeds maximum", result.getReasons().get(0).getReason());
+        assertEquals(60L, result.getReasons().get(0).getCount());
+        assertEquals(0.60, result.getReasons().get(0).getShare(), 0.001);
+        assertEquals("Rating below minimum", result.getReasons().get(1).getReason());
+        assertEquals(0.10, result.getReasons().get(1).getShare(), 0.001);
+        verifyNoInteractions(templateRepository);
+    }
+
+    @Test
+    void testGetRejectionReasonBreakdown_GroupedByTemplate() {
+        LocalDateTime startDate = LocalDateTime.of(2026, 10, 1, 0, 0);
+        LocalDateTime endDate = LocalDateTime.of(2026, 10, 8, 0, 0);
+        when(rejectionBreakdownQuery.breakdown(RejectionBreakdownQuery.Filter.builder()
+                .startDate(startDate)
+                .endDate(endDate)
+                .groupBy(RejectionReasonGrouping.TEMPLATE)
+                .build(), 20))
+            .thenReturn(new RejectionBreakdownQuery.Breakdown(100L, 20L, List.of(
+                new RejectionBreakdownQuery.Group(4L, 70L),
+                new RejectionBreakdownQuery.Group(9L, 10L))));
+        when(templateRepository.findAllById(List.of(4L, 9L))).thenReturn(List.of(
+            XRayReasonTemplate.builder().templateId(4L).pattern("price <num> exceeds maximum allowed <num>").build(),
+            XRayReasonTemplate.builder().templateId(9L).pattern("only <num> reviews").build()));
+
+        RejectionReasonBreakdownResponseDTO result = analyticsService.getRejectionReasonBreakdown(
+            null, null, startDate, endDate, RejectionReasonGrouping.TEMPLATE, 20);
+
+        assertEquals(100L, result.getTotalRejected());
+        assertEquals(20L, result.getUnspecifiedCount());
+        assertEquals(2, result.getReasons().size());
+        assertEquals(4L, result.getReasons().get(0).getTemplateId());
+        assertEquals("price <num> exceeds maximum allowed <num>", result.getReasons().get(0).getReason());
+        assertEquals(0.70, result.getReasons().get(0).getShare(), 0.001);
+        assertEquals("only <num> reviews", result.getReasons().get(1).getReason());
+        verify(valueDictionary, never()).decode(any());
+    }
+
+    @Test
+    void testGetRejectionReasonBreakdown_NoRejections() {
+        when(rejectionBreakdownQuery.breakdown(any(), eq(20))).thenReturn(new RejectionBreakdownQuery.Breakdown(0L, 0L, List.of()));
+
+        RejectionReasonBreakdownResponseDTO result = analyticsService.getRejectionReasonBreakdown(
+            null, null, LocalDateTime.now().minusDays(1), null, RejectionReasonGrouping.REASON, 20);
+
+        assertEquals(0L, result.getTotalRejected());
+        assertEquals(0L, result.getUnspecifiedCount());
+        assertTrue(result.getReasons().isEmpty());
+    }
+
+    @Test
+    void testGetRejectionReasonBreakdown_UncodedStepNameStillQueriesTheString() {
+        when(valueDictionary.find(DictionaryKind.STEP_NAME, "legacy_step")).thenReturn(Optional.empty());
+        when(rejectionBreakdownQuery.breakdown(argThat(filter -> "legacy_step".equals(filter.stepName())
+                && Objects.isNull(filter.stepNameCode())), eq(20)))
+            .thenReturn(new RejectionBreakdownQuery.Breakdown(5L, 5L, List.of()));
+
+        RejectionReasonBreakdownResponseDTO result = analyticsService.getRejectionReasonBreakdown(
+            "legacy_step", null, LocalDateTime.now().minusDays(1), null, RejectionReasonGrouping.REASON, 20);
+
+        assertEquals(5L, result.getTotalRejected());
+        assertTrue(result.getReasons().isEmpty());
+    }
+
+    @Test
+    void testGetRejectionReasonBreakdown_InvalidLimit() {
+        assertThrows(IllegalArgumentException.class, () -> analyticsService.getRejectionReasonBreakdown(
+            null, null, LocalDateTime.now().minusDays(1), null, RejectionReasonGrouping.REASON, 0));
+        verifyNoInteractions(rejectionBreakdownQuery);
+    }
+
+    @Test
+    void testGetRejectionReasonBreakdown_RequiresBoundedWindow() {
+        LocalDateTime startDate = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+        assertThrows(IllegalArgumentException.class, () -> analyticsService.getRejectionReasonBreakdown(
+            null, null, null, null, RejectionReasonGrouping.REASON, 20));
+        assertThrows(IllegalArgumentException.class, () -> analyticsService.getRejectionReasonBreakdown(
+            null, null, startDate, startDate.plusDays(32), RejectionReasonGrouping.REASON, 20));
+        assertThrows(IllegalArgumentException.class, () -> analyticsService.getRejectionReasonBreakdown(
+            null, null, startDate, startDate.minusDays(1), RejectionReasonGrouping.REASON, 20));
+        verifyNoInteractions(rejectionBreakdownQuery);
+    }
+
+    @Test
+    void testGetTopRejectedKeys_MapsMergedSketch() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(2);
+        sketch.offer("12345");
+        sketch.offer("12345");
+        sketch.offer("67890");
+        sketch.offer("24680");
+        when(rejectedKeySketches.retention()).thenReturn(Duration.ofDays(7));
+        when(rejectedKeySketches.capacity()).thenReturn(1000);
+        when(valueDictionary.find(DictionaryKind.STEP_NAME, "filter_by_price")).thenReturn(Optional.of(FILTER_CODE));
+        when(rejectedKeySketches.merged(eq(FILTER_CODE), any(), any())).thenReturn(sketch);
+
+        RejectedKeysResponseDTO result = analyticsService.getTopRejectedKeys("filter_by_price", 24, 10);
+
+        assertEquals(24, Duration.between(result.getWindowStart(), result.getWindowEnd()).toHours());
+        assertEquals(4L, result.getTotalRejections());
+        assertEquals(2, result.getKeys().size());
+        assertEquals("12345", result.getKeys().get(0).getBusinessKey());
+        assertEquals(2L, result.getKeys().get(0).getCount());
+        assertEquals(2L, result.getKeys().get(0).getGuaranteedCount());
+        // 24680 took over 67890's counter, so only one of its two occurrences is certain
+        assertEquals("24680", result.getKeys().get(1).getBusinessKey());
+        assertEquals(2L, result.getKeys().get(1).getCount());
+        assertEquals(1L, result.getKeys().get(1).getGuaranteedCount());
+        verify(rejectedKeySketches).merged(FILTER_CODE, result.getWindowStart(), result.getWindowEnd());
+    }
+
+    @Test
+    void testGetTopRejectedKeys_UnknownStepName() {
+        when(rejectedKeySketches.retention()).thenReturn(Duration.ofDays(7));
+        when(rejectedKeySketches.capacity()).thenReturn(1000);
+        when(valueDictionary.find(DictionaryKind.STEP_NAME, "unknown")).thenReturn(Optional.empty());
+
+        RejectedKeysResponseDTO result = analyticsService.getTopRejectedKeys("unknown", 24, 10);
+
+        assertEquals(0L, result.getTotalRejections());
+        assertTrue(result.getKeys().isEmpty());
+        verify(rejectedKeySketches, never()).merged(anyInt(), any(), any());
+    }
+
+    @Test
+    void testGetTopRejectedKeys_InvalidRange() {
+        when(rejectedKeySketches.retention()).thenReturn(Duration.ofDays(7));
+        lenient().when(rejectedKeySketches.capacity()).thenReturn(1000);
+
+        assertThrows(IllegalArgumentException.class, () -> analyticsService.getTopRejectedKeys("filter_by_price", 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> analyticsService.getTopRejectedKeys("filter_by_price", 169, 10));
+        assertThrows(IllegalArgumentException.class, () -> analyticsService.getTopRejectedKeys("filter_by_price", 24, 1001));
+        verify(rejectedKeySketches, never()).merged(anyInt(), any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetDistinctKeyCounts_MergesHoursIntoDays() {
+        LocalDateTime day = LocalDateTime.of(2026, 1, 1, 0, 0);
+        when(distinctKeySketches.retention()).thenReturn(Duration.ofDays(90));
+        when(distinctKeySketches.precision()).thenReturn(12);
+        when(valueDictionary.find(DictionaryKind.PIPELINE_TYPE, "recommendation")).thenReturn(Optional.of(PIPELINE_CODE));
+        doAnswer(invocation -> {
+            BiConsumer<LocalDateTime, HyperLogLog> action = invocation.getArgument(4);
+            action.accept(day.plusHours(1), sketchOf(0, 100));
+            action.accept(day.plusHours(2), sketchOf(50, 150));
+            action.accept(day.plusDays(1), sketchOf(0, 10));
+            return null;
+        }).when(distinctKeySketches).forEachSketch(eq(PIPELINE_CODE), isNull(), any(), any(), any());
+
+        DistinctKeyCountResponseDTO result = analyticsService.getDistinctKeyCounts(
+            "recommendation", null, day.plusMinutes(30), day.plusDays(1).plusMinutes(5), TimeBucket.DAY);
+
+        assertEquals(day, result.getWindowStart());
+        assertEquals(day.plusDays(1).plusHours(1), result.getWindowEnd());
+        // Merging is lossless: the same estimate as one sketch of all keys
+        assertEquals(sketchOf(0, 150).estimate(), result.getDistinctKeys());
+        assertEquals(2, result.getBuckets().size());
+        assertEquals(day, result.getBuckets().get(0).getBucketStart());
+        assertEquals(sketchOf(0, 150).estimate(), result.getBuckets().get(0).getDistinctKeys());
+        assertEquals(day.plusDays(1), result.getBuckets().get(1).getBucketStart());
+        assertEquals(sketchOf(0, 10).estimate(), result.getBuckets().get(1).getDistinctKeys());
+        verify(distinctKeySketches).forEachSketch(
+            eq(PIPELINE_CODE), isNull(), eq(day), eq(day.plusDays(1).plusHours(1)), any());
+    }
+
+    @Test
+    void testGetDistinctKeyCounts_UnknownStepName() {
+        LocalDateTime start = LocalDateTime.of(2026, 1, 1, 0, 0);
+        when(distinctKeySketches.retention()).thenReturn(Duration.ofDays(90));
+        when(distinctKeySketches.precision()).thenReturn(12);
+        when(valueDictionary.find(DictionaryKind.PIPELINE_TYPE, "recommendation")).thenReturn(Optional.of(PIPELINE_CODE));
+        when(valueDictionary.find(DictionaryKind.STEP_NAME, "unknown")).thenReturn(Optional.empty());
+
+        DistinctKeyCountResponseDTO result = analyticsService.getDistinctKeyCounts(
+            "recommendation", "unknown", start, start.plusDays(1), TimeBucket.HOUR);
+
+        assertEquals(0L, result.getDistinctKeys());
+        assertTrue(result.getBuckets().isEmpty());
+        verify(distinctKeySketches, never()).forEachSketch(anyInt(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testGetDistinctKeyCounts_InvalidWindow() {
+        LocalDateTime start = LocalDateTime.of(2026, 1, 1, 0, 0);
+        lenient().when(distinctKeySketches.retention()).thenReturn(Duration.ofDays(90));
+
+        assertThrows(IllegalArgumentException.class, () -> analyticsService.getDistinctKeyCounts(
+            "recommendation", null, start, start, TimeBucket.NONE));
+        assertThrows(IllegalArgumentException.class, () -> analyticsService.getDistinctKeyCounts(
+            "recommendation", null, start, start.plusDays(91), TimeBucket.NONE));
+        verify(distinctKeySketches, never()).forEachSketch(anyInt(), any(), any(), any(), any());
+    }
+
+    private static HyperLogLog sketchOf(int from, int to) {
+        HyperLogLog sketch = new HyperLogLog(12);
+        for (int i = from; i < to; i++) {
+            sketch.add("item-" + i);
+        }
+        return sketch;
+    }
+
+    @Test
+    void testSimulateWhatIf_ThresholdsAndPromotedRule() {
+        LocalDateTime start = LocalDateTime.of(2026, 1, 1, 0, 0);
+        CandidateColumns columns = new CandidateColumns(1);
+        columns.append(0.9, true, new String[] {"20"});
+        columns.append(0.7, true, new String[] {"150"});
+        columns.append(0.6, false, new String[] {"40"});
+        columns.append(0.2, false, new String[] {"10"});
+        when(valueDictionary.find(DictionaryKind.STEP_NAME, "filter_by_price")).thenReturn(Optional.of(FILTER_CODE));
+        when(promotedKeyRegistry.indexes()).thenReturn(Map.of("data.price", "idx_dk_price"));
+        when(candidateColumnLoader.load(FILTER_CODE, null, start, start.plusDays(7), List.of("data #>> '{price}'")))
+            .thenReturn(columns);
+
+        WhatIfResponseDTO result = analyticsService.simulateWhatIf(WhatIfRequestDTO.builder()
+            .stepName("filter_by_price")
+            .startDate(start)
+            .endDate(start.plusDays(7))
+            .minScores(List.of(0.5, 0.8))
+            .rules(List.of(WhatIfRuleDTO.builder().path("data.price").operator("lte").value("100").build()))
+            .build());
+
+        assertEquals(4L, result.getCandidates());
+        assertEquals(2L, result.getHistoricalSelected());
+        assertEquals(0.5, result.getHistoricalSelectionRate());
+        // score >= 0.5 and price <= 100: rows 1 and 3
+        WhatIfScenarioDTO loose = result.getScenarios().get(0);
+        assertEquals(0.5, loose.getMinScore());
+        assertEquals(2L, loose.getSelected());
+        assertEquals(1L, loose.getKeptSelected());
+        assertEquals(1L, loose.getNewlySelected());
+        assertEquals(1L, loose.getNewlyRejected());
+        assertEquals(0.5, loose.getAgreementRate());
+        assertEquals(0.0, loose.getSelectionRateChange());
+        WhatIfScenarioDTO strict = result.getScenarios().get(1);
+        assertEquals(1L, strict.getSelected());
+        assertEquals(-0.25, strict.getSelectionRateChange());
+        assertEquals(0.75, strict.getAgreementRate());
+        verify(dataKeyUsageTracker).record(null, "data.price");
+    }
+
+    @Test
+    void testSimulateWhatIf_RuleOnUnpromotedKey() {
+        when(promotedKeyRegistry.indexes()).thenReturn(Map.of());
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+            analyticsService.simulateWhatIf(WhatIfRequestDTO.builder()
+                .stepName("filter_by_price")
+                .startDate(LocalDateTime.of(2026, 1, 1, 0, 0))
+                .endDate(LocalDateTime.of(2026, 1, 2, 0, 0))
+                .rules(List.of(WhatIfRuleDTO.builder().path("data.brand").operator("eq").value("acme").build()))
+                .build()));
+
+        assertTrue(exception.getMessage().contains("not promoted"));
+        // The key still counts towards promotion
+        verify(dataKeyUsageTracker).record(null, "data.brand");
+        verifyNoInteractions(candidateColumnLoader);
+    }
+
+    @Test
+    void testSimulateWhatIf_InvalidRequests() {
+        LocalDateTime start = LocalDateTime.of(2026, 1, 1, 0, 0);
+        lenient().when(promotedKeyRegistry.indexes()).thenReturn(Map.of("data.price", "idx_dk_price"));
+
+        assertThrows(IllegalArgumentException.class, () -> analyticsService.simulateWhatIf(WhatIfRequestDTO.builder()
+            .stepName("filter_by_price").startDate(start).endDate(start.plusDays(1)).build()));
+        assertThrows(IllegalArgumentException.class, () -> analyticsService.simulateWhatIf(WhatIfRequestDTO.builder()
+            .stepName("filter_by_price").startDate(start).endDate(start.plusDays(40)).minScores(List.of(0.5)).build()));
+        assertThrows(IllegalArgumentException.class, () -> analyticsService.simulateWhatIf(WhatIfRequestDTO.builder()
+            .stepName("filter_by_price").startDate(start).endDate(start.plusDays(1))
+            .rules(List.of(WhatIfRuleDTO.builder().path("data.price").operator("lte").value("cheap").build())).build()));
+        assertThrows(IllegalArgumentException.class, () -> analyticsService.simulateWhatIf(WhatIfRequestDTO.builder()
+            .stepName("filter_by_price").startDate(start).endDate(start.plusDays(1))
+            .rules(List.of(WhatIfRuleDTO.builder().path("data.price").operator("between").value("1").build())).build()));
+        verifyNoInteractions(candidateColumnLoader);
+    }
+
+    @Test
+    void testSimulateWhatIf_UnknownStepName() {
+        LocalDateTime start = LocalDateTime.of(2026, 1, 1, 0, 0);
+        when(valueDictionary.find(DictionaryKind.STEP_NAME, "unknown")).thenReturn(Optional.empty());
+
+        WhatIfResponseDTO result = analyticsService.simulateWhatIf(WhatIfRequestDTO.builder()
+            .stepName("unknown").startDate(start).endDate(start.plusDays(1)).minScores(List.of(0.5)).build());
+
+        assertEquals(0L, result.getCandidates());
+        assertEquals(0L, result.getScenarios().get(0).getSelected());
+        verifyNoInteractions(candidateColumnLoader);
+    }
+
+    @Test
+    void testGetScoreDrift_ComparesSampledWindows() {
+        LocalDateTime baselineStart = LocalDateTime.of(2026, 9, 1, 0, 0);
+        LocalDateTime currentStart = LocalDateTime.of(2026, 10, 1, 0, 0);
+        List<XRayStep> baselineSteps = List.of(filteringStep1);
+        List<XRayStep> currentSteps = List.of(filteringStep2);
+        when(valueDictionary.find(DictionaryKind.STEP_NAME, "rank_by_relevance")).thenReturn(Optional.of(11));
+        when(stepRepository.findByStepNameCodeInWindow(11, baselineStart, baselineStart.plusDays(7))).thenReturn(baselineSteps);
+        when(stepRepository.findByStepNameCodeInWindow(11, currentStart, currentStart.plusDays(7))).thenReturn(currentSteps);
+        when(scoreSampler.sample(baselineSteps)).thenReturn(new ScoreSampler.ScoreSample(new double[] {1, 2, 3, 4}, 5));
+        when(scoreSampler.sample(currentSteps)).thenReturn(new ScoreSampler.ScoreSample(new double[] {3, 4, 5, 6}, 4));
+
+        ScoreDriftResponseDTO result = analyticsService.getScoreDrift(
+                "rank_by_relevance", baselineStart, baselineStart.plusDays(7), currentStart, currentStart.plusDays(7));
+
+        assertEquals(0.5, result.getKsStatistic(), 1e-12);
+        assertTrue(result.getPsi() > 0.25);
+        assertEquals(5L, result.getBaseline().getCandidates());
+        assertEquals(4L, result.getBaseline().getSampledScores());
+        assertEquals(2.5, result.getBaseline().getMeanScore(), 1e-12);
+        assertEquals(1L, result.getCurrent().getSteps());
+        assertEquals(9, result.getQuantiles().size());
+        assertEquals(0.5, result.getQuantiles().get(4).getQuantile());
+        assertEquals(2.0, result.getQuantiles().get(4).getDelta(), 1e-12);
+    }
+
+    @Test
+    void testGetScoreDrift_UnknownStepName() {
+        LocalDateTime start = LocalDateTime.of(2026, 9, 1, 0, 0);
+        when(valueDictionary.find(DictionaryKind.STEP_NAME, "unknown")).thenReturn(Optional.empty());
+        when(scoreSampler.sample(List.of())).thenReturn(new ScoreSampler.ScoreSample(new double[0], 0));
+
+        ScoreDriftResponseDTO result = analyticsService.getScoreDrift(
+                "unknown", start, start.plusDays(1), start.plusDays(1), start.plusDays(2));
+
+        assertNull(result.getKsStatistic());
+        assertNull(result.getBaseline().getMeanScore());
+        assertTrue(result.getQuantiles().isEmpty());
+        verify(stepRepository, never()).findByStepNameCodeInWindow(any(), any(), any());
+    }
+
+    @Test
+    void testGetScoreDrift_InvalidWindows() {
+        LocalDateTime start = LocalDateTime.of(2026, 9, 1, 0, 0);
+
+        assertThrows(IllegalArgumentException.class, () -> analyticsService.getScoreDrift(
+                "rank_by_relevance", start, start, start, start.plusDays(1)));
+        assertThrows(IllegalArgumentException.class, () -> analyticsService.getScoreDrift(
+                "rank_by_relevance", start, start.plusDays(1), start, start.plusDays(32)));
+        verifyNoInteractions(scoreSampler);
+    }
+
+    @Test
+    void testGetLiveCounters_ServedFromMemory() {
+        when(liveCounters.snapshot()).thenReturn(List.of(
+                new LiveCounters.PipelineSnapshot("ranking", 4, 3, 1, 1200, 25.0, 40, 35, 5, 90000)));
+
+        LiveCountersResponseDTO result = analyticsService.getLiveCounters();
+
+        assertNotNull(result.getAsOf());
+        assertEquals(1, result.getPipelines().size());
+        assertEquals("ranking", result.getPipelines().get(0).getPipelineType());
+        assertEquals(4L, result.getPipelines().get(0).getRunsStartedPerMinute());
+        assertEquals(1L, result.getPipelines().get(0).getRunsFailedPerMinute());
+        assertEquals(25.0, result.getPipelines().get(0).getCandidatesPerSecond());
+        assertEquals(90000L, result.getPipelines().get(0).getCandidatesTotal());
+        verifyNoInteractions(stepRepository, candidateRepository);
+    }
+}
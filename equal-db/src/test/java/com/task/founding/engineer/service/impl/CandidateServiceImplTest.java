@@ -1,21 +1,46 @@
 package com.task.founding.engineer.service.impl;
 
+import com.task.founding.engineer.columnar.StepColumnCache;
+import com.task.founding.engineer.compression.TextCompressor;
+import com.task.founding.engineer.dictionary.ValueDictionary;
+import com.task.founding.engineer.dto.request.CandidateSearchRequestDTO;
 import com.task.founding.engineer.dto.request.CreateCandidateRequestDTO;
+import com.task.founding.engineer.dto.request.JsonPathPredicateDTO;
+import com.task.founding.engineer.enums.DictionaryKind;
+import com.task.founding.engineer.enums.RunEventType;
+import com.task.founding.engineer.json.RawJson;
+import com.task.founding.engineer.lineage.BusinessKeyExtractor;
+import com.task.founding.engineer.lineage.StepBloomIndex;
+import com.task.founding.engineer.live.ActiveRunRegistry;
+import com.task.founding.engineer.live.LiveCounters;
+import com.task.founding.engineer.live.RunEventBroadcaster;
 import com.task.founding.engineer.model.XRayCandidate;
+import com.task.founding.engineer.model.XRayRun;
 import com.task.founding.engineer.model.XRayStep;
+import com.task.founding.engineer.promotion.DataKeyUsageTracker;
+import com.task.founding.engineer.promotion.PromotedKeyRegistry;
+import com.task.founding.engineer.repository.CandidateSearchQuery;
 import com.task.founding.engineer.repository.XRayCandidateRepository;
+import com.task.founding.engineer.repository.XRayRunRepository;
 import com.task.founding.engineer.repository.XRayStepRepository;
+import com.task.founding.engineer.sketch.DistinctKeySketches;
+import com.task.founding.engineer.sketch.RejectedKeySketches;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Slice;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -28,6 +53,48 @@ class CandidateServiceImplTest {
     @Mock
     private XRayStepRepository stepRepository;
 
+    @Mock
+    private TextCompressor textCompressor;
+
+    @Mock
+    private ValueDictionary valueDictionary;
+
+    @Mock
+    private CandidateSearchQuery candidateSearchQuery;
+
+    @Mock
+    private BusinessKeyExtractor businessKeyExtractor;
+
+    @Mock
+    private DataKeyUsageTracker dataKeyUsageTracker;
+
+    @Mock
+    private StepBloomIndex stepBloomIndex;
+
+    @Mock
+    private RejectedKeySketches rejectedKeySketches;
+
+    @Mock
+    private DistinctKeySketches distinctKeySketches;
+
+    @Mock
+    private XRayRunRepository runRepository;
+
+    @Mock
+    private PromotedKeyRegistry promotedKeyRegistry;
+
+    @Mock
+    private StepColumnCache stepColumnCache;
+
+    @Mock
+    private LiveCounters liveCounters;
+
+    @Mock
+    private ActiveRunRegistry activeRunRegistry;
+
+    @Mock
+    private RunEventBroadcaster runEventBroadcaster;
+
     @InjectMocks
     private CandidateServiceImpl candidateService;
 
@@ -52,11 +119,11 @@ class CandidateServiceImplTest {
         data.put("price", 29.99);
 
         createRequest = CreateCandidateRequestDTO.builder()
-            .data(data)
+            .data(RawJson.fromValue(data))
             .score(0.85)
             .selected(true)
             .rejectionReason(null)
-            .metadata(Collections.singletonMap("source", "test"))
+            .metadata(RawJson.fromValue(Collections.singletonMap("source", "test")))
             .build();
     }
 
@@ -84,6 +151,24 @@ class CandidateServiceImplTest {
         verify(candidateRepository, times(1)).save(any(XRayCandidate.class));
     }
 
+    @Test
+    void testCreateCandidate_CompressesRejectionReason() {
+        createRequest.setSelected(false);
+        createRequest.setRejectionReason("price above threshold");
+        byte[] frame = {1, 2, 3};
+        when(stepRepository.findById(stepId)).thenReturn(Optional.of(mockStep));
+        when(textCompressor.compress("Test Step", "price above threshold")).thenReturn(frame);
+        when(valueDictionary.encode(DictionaryKind.REJECTION_REASON, "price above threshold")).thenReturn(21);
+        when(candidateRepository.save(any(XRayCandidate.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        candidateService.createCandidate(stepId, createRequest);
+
+        verify(candidateRepository).save(argThat(candidate ->
+            Objects.isNull(candidate.getRejectionReason())
+                && candidate.getRejectionReasonCompressed() == frame
+                && candidate.getRejectionReasonCode() == 21));
+    }
+
     @Test
     void testCreateCandidate_StepNotFound() {
         when(stepRepository.findById(stepId)).thenReturn(Optional.empty());
@@ -100,7 +185,7 @@ class CandidateServiceImplTest {
     @Test
     void testCreateCandidate_SelectedNullDefaultsToFalse() {
         CreateCandidateRequestDTO requestWithNullSelected = CreateCandidateRequestDTO.builder()
-            .data(Collections.singletonMap("key", "value"))
+            .data(RawJson.fromValue(Collections.singletonMap("key", "value")))
             .score(0.75)
             .selected(null)
             .build();
@@ -130,7 +215,7 @@ class CandidateServiceImplTest {
         List<CreateCandidateRequestDTO> requests = Arrays.asList(
             createRequest,
             CreateCandidateRequestDTO.builder()
-                .data(data2)
+                .data(RawJson.fromValue(data2))
                 .score(0.75)
                 .selected(false)
                 .rejectionReason("Price too low")
@@ -157,6 +242,25 @@ class CandidateServiceImplTest {
         verify(candidateRepository, times(1)).saveAll(anyList());
     }
 
+    @Test
+    void testCreateCandidates_InternsReasonsOnceWithTheirTemplates() {
+        CreateCandidateRequestDTO tooHigh = CreateCandidateRequestDTO.builder().selected(false).rejectionReason("Price too high").build();
+        CreateCandidateRequestDTO outOfStock = CreateCandidateRequestDTO.builder().selected(false).rejectionReason("Out of stock").build();
+        when(stepRepository.findById(stepId)).thenReturn(Optional.of(mockStep));
+        when(valueDictionary.encodeAll(DictionaryKind.REJECTION_REASON, Arrays.asList("Price too high", null, "Out of stock", "Price too high")))
+            .thenReturn(Map.of("Price too high", 7, "Out of stock", 8));
+        when(valueDictionary.templateIds(argThat(codes -> codes.size() == 2 && codes.containsAll(List.of(7, 8)))))
+            .thenReturn(Map.of(7, 41L));
+        when(candidateRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        candidateService.createCandidates(stepId, List.of(tooHigh, createRequest, outOfStock, tooHigh));
+
+        verify(valueDictionary, never()).encode(any(), any());
+        verify(candidateRepository).saveAll(argThat((List<XRayCandidate> candidates) ->
+            candidates.stream().map(XRayCandidate::getRejectionReasonCode).toList().equals(Arrays.asList(7, null, 8, 7))
+                && candidates.stream().map(XRayCandidate::getRejectionTemplateId).toList().equals(Arrays.asList(41L, null, null, 41L))));
+    }
+
     @Test
     void testCreateCandidates_StepNotFound() {
         List<CreateCandidateRequestDTO> requests = Collections.singletonList(createRequest);
@@ -249,5 +353,227 @@ class CandidateServiceImplTest {
         assertNotNull(result);
         assertTrue(result.isEmpty());
     }
-}
 
+    @Test
+    void testSearchCandidates_TranslatesPredicatesAndPages() {
+        LocalDateTime startDate = LocalDateTime.now().minusDays(3);
+        when(valueDictionary.find(DictionaryKind.PIPELINE_TYPE, "competitor-selection")).thenReturn(Optional.of(3));
+        XRayCandidate first = XRayCandidate.builder().candidateId(UUID.randomUUID()).build();
+        XRayCandidate second = XRayCandidate.builder().candidateId(UUID.randomUUID()).build();
+        XRayCandidate third = XRayCandidate.builder().candidateId(UUID.randomUUID()).build();
+        when(candidateSearchQuery.search(any(CandidateSearchQuery.Filter.class), eq(2), eq(3)))
+            .thenReturn(List.of(first, second, third));
+
+        Slice<XRayCandidate> result = candidateService.searchCandidates(CandidateSearchRequestDTO.builder()
+            .pipelineType("competitor-selection")
+            .startDate(startDate)
+            .minScore(0.8)
+            .predicates(List.of(JsonPathPredicateDTO.builder()
+                .path("data.category")
+                .value(RawJson.of("\"shoes\""))
+                .build()))
+            .page(1)
+            .size(2)
+            .build());
+
+        assertEquals(List.of(first, second), result.getContent());
+        assertTrue(result.hasNext());
+        assertEquals(1, result.getNumber());
+        ArgumentCaptor<CandidateSearchQuery.Filter> captor = ArgumentCaptor.forClass(CandidateSearchQuery.Filter.class);
+        verify(candidateSearchQuery).search(captor.capture(), eq(2), eq(3));
+        CandidateSearchQuery.Filter filter = captor.getValue();
+        assertEquals(3, filter.pipelineTypeCode());
+        assertNull(filter.stepNameCode());
+        assertEquals(startDate, filter.startDate());
+        assertNotNull(filter.endDate());
+        assertEquals(0.8, filter.minScore());
+        assertEquals("{\"category\":\"shoes\"}", filter.dataContains());
+        assertNull(filter.metadataContains());
+    }
+
+    @Test
+    void testSearchCandidates_LastPage() {
+        when(valueDictionary.find(DictionaryKind.STEP_NAME, "filter_by_price")).thenReturn(Optional.of(11));
+        XRayCandidate only = XRayCandidate.builder().candidateId(UUID.randomUUID()).build();
+        when(candidateSearchQuery.search(any(CandidateSearchQuery.Filter.class), eq(0), eq(51))).thenReturn(List.of(only));
+
+        Slice<XRayCandidate> result = candidateService.searchCandidates(CandidateSearchRequestDTO.builder()
+            .stepName("filter_by_price")
+            .startDate(LocalDateTime.now().minusDays(1))
+            .build());
+
+        assertEquals(List.of(only), result.getContent());
+        assertFalse(result.hasNext());
+    }
+
+    @Test
+    void testSearchCandidates_RejectsUnselectiveSearch() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+            candidateService.searchCandidates(CandidateSearchRequestDTO.builder()
+                .startDate(LocalDateTime.now().minusDays(1))
+                .selected(false)
+                .minScore(0.8)
+                .build()));
+
+        assertTrue(exception.getMessage().contains("needs a data/metadata predicate"));
+        verifyNoInteractions(candidateSearchQuery);
+    }
+
+    @Test
+    void testSearchCandidates_RejectsUnboundedWindow() {
+        LocalDateTime endDate = LocalDateTime.now();
+
+        assertThrows(IllegalArgumentException.class, () ->
+            candidateService.searchCandidates(CandidateSearchRequestDTO.builder()
+                .stepName("filter_by_price")
+                .startDate(endDate.minusDays(60))
+                .endDate(endDate)
+                .build()));
+        assertThrows(IllegalArgumentException.class, () ->
+            candidateService.searchCandidates(CandidateSearchRequestDTO.builder()
+                .stepName("filter_by_price")
+                .build()));
+        assertThrows(IllegalArgumentException.class, () ->
+            candidateService.searchCandidates(CandidateSearchRequestDTO.builder()
+                .stepName("filter_by_price")
+                .startDate(endDate)
+                .endDate(endDate.minusDays(1))
+                .build()));
+        verifyNoInteractions(candidateSearchQuery);
+    }
+
+    @Test
+    void testSearchCandidates_RejectsDeepPages() {
+        assertThrows(IllegalArgumentException.class, () ->
+            candidateService.searchCandidates(CandidateSearchRequestDTO.builder()
+                .stepName("filter_by_price")
+                .startDate(LocalDateTime.now().minusDays(1))
+                .page(500)
+                .size(100)
+                .build()));
+        verifyNoInteractions(candidateSearchQuery);
+    }
+
+    @Test
+    void testSearchCandidates_UnknownStepNameMatchesNothing() {
+        when(valueDictionary.find(DictionaryKind.STEP_NAME, "unknown")).thenReturn(Optional.empty());
+
+        Slice<XRayCandidate> result = candidateService.searchCandidates(CandidateSearchRequestDTO.builder()
+            .stepName("unknown")
+            .startDate(LocalDateTime.now().minusDays(1))
+            .build());
+
+        assertTrue(result.getContent().isEmpty());
+        assertFalse(result.hasNext());
+        verifyNoInteractions(candidateSearchQuery);
+    }
+
+    @Test
+    void testSearchCandidates_UsesPromotedIndexAndRecordsUsage() {
+        when(promotedKeyRegistry.indexes()).thenReturn(Map.of("data.sku", "idx_dk_sku"));
+        when(candidateSearchQuery.search(any(CandidateSearchQuery.Filter.class), eq(0), eq(51))).thenReturn(List.of());
+
+        candidateService.searchCandidates(CandidateSearchRequestDTO.builder()
+            .startDate(LocalDateTime.now().minusDays(1))
+            .predicates(List.of(
+                JsonPathPredicateDTO.builder().path("data.sku").value(RawJson.of("\"SKU-42\"")).build(),
+                JsonPathPredicateDTO.builder().path("metadata.source").value(RawJson.of("\"catalog\"")).build()))
+            .build());
+
+        ArgumentCaptor<CandidateSearchQuery.Filter> captor = ArgumentCaptor.forClass(CandidateSearchQuery.Filter.class);
+        verify(candidateSearchQuery).search(captor.capture(), eq(0), eq(51));
+        assertEquals(Map.of("data #>> '{sku}'", "SKU-42"), captor.getValue().promotedEquals());
+        assertNull(captor.getValue().dataContains());
+        assertEquals("{\"source\":\"catalog\"}", captor.getValue().metadataContains());
+        verify(dataKeyUsageTracker).record(null, "data.sku");
+        verifyNoMoreInteractions(dataKeyUsageTracker);
+    }
+
+    @Test
+    void testCreateCandidates_StoresBusinessKey() {
+        when(stepRepository.findById(stepId)).thenReturn(Optional.of(mockStep));
+        when(businessKeyExtractor.extract(createRequest.getData())).thenReturn("12345");
+        when(candidateRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        candidateService.createCandidates(stepId, List.of(createRequest));
+
+        ArgumentCaptor<List<XRayCandidate>> captor = ArgumentCaptor.forClass(List.class);
+        verify(candidateRepository).saveAll(captor.capture());
+        assertEquals("12345", captor.getValue().get(0).getBusinessKey());
+        verify(stepBloomIndex).add(stepId, List.of("12345"));
+    }
+
+    @Test
+    void testCreateCandidates_RecordsRejectedAndDistinctBusinessKeys() {
+        UUID runId = UUID.randomUUID();
+        mockStep.setRunId(runId);
+        mockStep.setStepNameCode(4);
+        CreateCandidateRequestDTO rejected = CreateCandidateRequestDTO.builder()
+            .data(RawJson.fromValue(Map.of("id", 67890)))
+            .selected(false)
+            .rejectionReason("Price too high")
+            .build();
+        when(stepRepository.findById(stepId)).thenReturn(Optional.of(mockStep));
+        when(businessKeyExtractor.extract(any())).thenReturn("12345", "67890");
+        when(candidateRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(activeRunRegistry.get(runId)).thenReturn(Optional.of(
+            new ActiveRunRegistry.ActiveRun(runId, "data-processing", LocalDateTime.now(), LocalDateTime.now())));
+        when(valueDictionary.find(DictionaryKind.PIPELINE_TYPE, "data-processing")).thenReturn(Optional.of(3));
+        when(valueDictionary.decode(3)).thenReturn("data-processing");
+
+        candidateService.createCandidates(stepId, List.of(createRequest, rejected));
+
+        verify(runRepository, never()).findPipelineTypeCodeById(any());
+
+        verify(stepBloomIndex).add(stepId, List.of("12345", "67890"));
+        verify(rejectedKeySketches).record(4, List.of("67890"));
+        verify(distinctKeySketches).add(3, 4, List.of("12345", "67890"));
+        verify(stepColumnCache).append(eq(mockStep), argThat(candidates -> candidates.size() == 2));
+        verify(liveCounters).candidatesIngested("data-processing", 2);
+        verify(runEventBroadcaster).publish(argThat(event -> event.getType() == RunEventType.CANDIDATES_APPENDED
+            && runId.equals(event.getRunId()) && event.getCandidates() == 2 && event.getSelected() == 1));
+    }
+
+    @Test
+    void testCreateCandidates_TouchesRunActivity() {
+        UUID runId = UUID.randomUUID();
+        mockStep.setRunId(runId);
+        when(stepRepository.findById(stepId)).thenReturn(Optional.of(mockStep));
+        when(candidateRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(activeRunRegistry.activityDue(eq(runId), any(), eq(Duration.ofMinutes(1)))).thenReturn(true);
+
+        candidateService.createCandidates(stepId, List.of(createRequest));
+
+        ArgumentCaptor<LocalDateTime> now = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> touchedBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(runRepository).touchActivity(eq(runId), now.capture(), touchedBefore.capture());
+        assertEquals(Duration.ofMinutes(1), Duration.between(touchedBefore.getValue(), now.getValue()));
+    }
+
+    @Test
+    void testCreateCandidates_ActivityNotDueWritesNoRunRow() {
+        UUID runId = UUID.randomUUID();
+        mockStep.setRunId(runId);
+        when(stepRepository.findById(stepId)).thenReturn(Optional.of(mockStep));
+        when(candidateRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(activeRunRegistry.activityDue(eq(runId), any(), any())).thenReturn(false);
+
+        candidateService.createCandidates(stepId, List.of(createRequest));
+
+        verify(runRepository, never()).touchActivity(any(), any(), any());
+    }
+
+    @Test
+    void testCreateCandidates_StepSavedInThisTransactionUsesItsRun() {
+        UUID runId = UUID.randomUUID();
+        mockStep.setRun(XRayRun.builder().runId(runId).build());
+        when(stepRepository.findById(stepId)).thenReturn(Optional.of(mockStep));
+        when(candidateRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(runRepository.findPipelineTypeCodeById(runId)).thenReturn(Optional.of(3));
+
+        candidateService.createCandidates(stepId, List.of(createRequest));
+
+        verify(runRepository).findPipelineTypeCodeById(runId);
+        verify(runEventBroadcaster).publish(argThat(event -> runId.equals(event.getRunId())));
+    }
+}
@@ -0,0 +1,145 @@
+package com.task.founding.engineer.service.impl;
+
+import com.task.founding.engineer.dictionary.ValueDictionary;
+import com.task.founding.engineer.dto.response.DecisionMatrixHeaderDTO;
+import com.task.founding.engineer.dto.response.DecisionMatrixRowDTO;
+import com.task.founding.engineer.dto.response.DecisionMatrixStepDTO;
+import com.task.founding.engineer.model.XRayRun;
+import com.task.founding.engineer.model.XRayStep;
+import com.task.founding.engineer.repository.DecisionMatrixEntry;
+import com.task.founding.engineer.repository.XRayCandidateRepository;
+import com.task.founding.engineer.repository.XRayRunRepository;
+import com.task.founding.engineer.repository.XRayStepRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DecisionMatrixServiceImplTest {
+
+    @Mock
+    private XRayRunRepository runRepository;
+
+    @Mock
+    private XRayStepRepository stepRepository;
+
+    @Mock
+    private XRayCandidateRepository candidateRepository;
+
+    @Mock
+    private ValueDictionary valueDictionary;
+
+    @InjectMocks
+    private DecisionMatrixServiceImpl decisionMatrixService;
+
+    private UUID runId;
+    private UUID searchStep;
+    private UUID filterStep;
+    private DecisionMatrixHeaderDTO header;
+
+    @BeforeEach
+    void setUp() {
+        runId = UUID.randomUUID();
+        searchStep = UUID.randomUUID();
+        filterStep = UUID.randomUUID();
+        header = DecisionMatrixHeaderDTO.builder()
+            .runId(runId)
+            .steps(List.of(
+                DecisionMatrixStepDTO.builder().stepId(searchStep).order(1).build(),
+                DecisionMatrixStepDTO.builder().stepId(filterStep).order(2).build()))
+            .build();
+    }
+
+    @Test
+    void testGetDecisionMatrixHeader() {
+        when(runRepository.findById(runId)).thenReturn(Optional.of(XRayRun.builder()
+            .runId(runId)
+            .pipelineType("competitor-selection")
+            .build()));
+        when(stepRepository.findByRunIdOrderByOrderAsc(runId)).thenReturn(List.of(
+            XRayStep.builder().stepId(searchStep).stepName("keyword_search").stepType("search").order(1).build(),
+            XRayStep.builder().stepId(filterStep).stepName("filter_by_price").stepType("filter").order(2).build()));
+
+        DecisionMatrixHeaderDTO result = decisionMatrixService.getDecisionMatrixHeader(runId);
+
+        assertEquals("competitor-selection", result.getPipelineType());
+        assertEquals(2, result.getSteps().size());
+        assertEquals("filter_by_price", result.getSteps().get(1).getStepName());
+    }
+
+    @Test
+    void testGetDecisionMatrixHeader_RunNotFound() {
+        when(runRepository.findById(runId)).thenReturn(Optional.empty());
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () ->
+            decisionMatrixService.getDecisionMatrixHeader(runId));
+
+        assertTrue(exception.getMessage().contains("Run not found"));
+    }
+
+    @Test
+    void testStreamDecisionMatrix_OneRowPerKey() {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(candidateRepository.streamDecisionMatrix(runId)).thenReturn(Stream.of(
+                entry(searchStep, "A", true, 0.9, null),
+                entry(filterStep, "A", false, 0.9, 3),
+                entry(searchStep, "B", true, 0.5, null),
+                entry(filterStep, "C", true, 0.7, null))
+            .onClose(() -> closed.set(true)));
+        when(valueDictionary.decode(3)).thenReturn("Price exceeds maximum allowed");
+        List<DecisionMatrixRowDTO> rows = new ArrayList<>();
+
+        long count = decisionMatrixService.streamDecisionMatrix(header, rows::add);
+
+        assertEquals(3, count);
+        assertEquals(List.of("A", "B", "C"), rows.stream().map(DecisionMatrixRowDTO::getBusinessKey).toList());
+        assertTrue(rows.get(0).getCells().get(0).getSelected());
+        assertEquals("Price exceeds maximum allowed", rows.get(0).getCells().get(1).getRejectionReason());
+        assertNull(rows.get(1).getCells().get(1));
+        assertNull(rows.get(2).getCells().get(0));
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void testStreamDecisionMatrix_KeylessAndDuplicateCandidates() {
+        UUID keyless = UUID.randomUUID();
+        when(candidateRepository.streamDecisionMatrix(runId)).thenReturn(Stream.of(
+            entry(searchStep, "A", true, 0.9, null),
+            entry(searchStep, "A", true, 0.8, null),
+            new DecisionMatrixEntry(filterStep, null, keyless, false, 0.1, null, "Out of stock")));
+        List<DecisionMatrixRowDTO> rows = new ArrayList<>();
+
+        decisionMatrixService.streamDecisionMatrix(header, rows::add);
+
+        assertEquals(3, rows.size());
+        assertEquals(0.9, rows.get(0).getCells().get(0).getScore());
+        assertEquals(0.8, rows.get(1).getCells().get(0).getScore());
+        assertNull(rows.get(2).getBusinessKey());
+        assertEquals(keyless, rows.get(2).getCandidateId());
+        assertEquals("Out of stock", rows.get(2).getCells().get(1).getRejectionReason());
+    }
+
+    @Test
+    void testStreamDecisionMatrix_EmptyRun() {
+        when(candidateRepository.streamDecisionMatrix(runId)).thenReturn(Stream.empty());
+
+        assertEquals(0, decisionMatrixService.streamDecisionMatrix(header, row -> fail("no rows expected")));
+    }
+
+    private static DecisionMatrixEntry entry(UUID stepId, String key, boolean selected, double score, Integer reasonCode) {
+        return new DecisionMatrixEntry(stepId, key, UUID.randomUUID(), selected, score, reasonCode, null);
+    }
+}
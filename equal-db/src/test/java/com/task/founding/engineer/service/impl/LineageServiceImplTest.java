@@ -0,0 +1,157 @@
+package com.task.founding.engineer.service.impl;
+
+import com.task.founding.engineer.dictionary.ValueDictionary;
+import com.task.founding.engineer.dto.response.LineageResponseDTO;
+import com.task.founding.engineer.dto.response.LineageRunDTO;
+import com.task.founding.engineer.dto.response.StepMembershipResponseDTO;
+import com.task.founding.engineer.enums.DictionaryKind;
+import com.task.founding.engineer.enums.RunStatus;
+import com.task.founding.engineer.lineage.SplitBlockBloomFilter;
+import com.task.founding.engineer.repository.CandidateBloomRow;
+import com.task.founding.engineer.repository.CandidateLineageRow;
+import com.task.founding.engineer.repository.StepBloomFilter;
+import com.task.founding.engineer.repository.XRayCandidateBloomRepository;
+import com.task.founding.engineer.repository.XRayCandidateRepository;
+import com.task.founding.engineer.repository.XRayStepRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LineageServiceImplTest {
+
+    private static final String KEY = "12345";
+
+    @Mock
+    private XRayCandidateRepository candidateRepository;
+
+    @Mock
+    private XRayStepRepository stepRepository;
+
+    @Mock
+    private XRayCandidateBloomRepository bloomRepository;
+
+    @Mock
+    private ValueDictionary valueDictionary;
+
+    @InjectMocks
+    private LineageServiceImpl lineageService;
+
+    @Test
+    void testGetLineage_GroupsStepsByRun() {
+        UUID latestRun = UUID.randomUUID();
+        UUID earlierRun = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        when(candidateRepository.findLineageRunIds(KEY, null, null, Limit.of(20))).thenReturn(List.of(latestRun, earlierRun));
+        when(candidateRepository.findLineage(KEY, List.of(latestRun, earlierRun))).thenReturn(List.of(
+            row(latestRun, now, "keyword_search", 1, true, 0.9, null, null),
+            row(latestRun, now, "filter_by_price", 2, false, 0.4, 3, null),
+            row(earlierRun, now.minusDays(1), "keyword_search", 1, false, 0.1, null, "legacy reason")));
+        when(valueDictionary.decode(3)).thenReturn("Price exceeds maximum allowed");
+
+        LineageResponseDTO lineage = lineageService.getLineage(KEY, null, null, 20);
+
+        assertEquals(KEY, lineage.getBusinessKey());
+        assertEquals(2, lineage.getRuns().size());
+        LineageRunDTO latest = lineage.getRuns().get(0);
+        assertEquals(latestRun, latest.getRunId());
+        assertEquals("competitor-selection", latest.getPipelineType());
+        assertEquals(2, latest.getSteps().size());
+        assertTrue(latest.getSteps().get(0).getSelected());
+        assertNull(latest.getSteps().get(0).getRejectionReason());
+        assertEquals("filter_by_price", latest.getSteps().get(1).getStepName());
+        assertEquals("Price exceeds maximum allowed", latest.getSteps().get(1).getRejectionReason());
+        assertEquals("legacy reason", lineage.getRuns().get(1).getSteps().get(0).getRejectionReason());
+    }
+
+    @Test
+    void testGetLineage_UnknownKey() {
+        when(candidateRepository.findLineageRunIds(any(), any(), any(), any())).thenReturn(List.of());
+
+        LineageResponseDTO lineage = lineageService.getLineage(KEY, LocalDateTime.now().minusDays(1), null, 5);
+
+        assertTrue(lineage.getRuns().isEmpty());
+        verify(candidateRepository, never()).findLineage(any(), any());
+    }
+
+    @Test
+    void testGetLineage_InvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> lineageService.getLineage(" ", null, null, 20));
+        assertThrows(IllegalArgumentException.class, () -> lineageService.getLineage(KEY, null, null, 0));
+        assertThrows(IllegalArgumentException.class, () -> lineageService.getLineage(KEY, null, null, 101));
+        verifyNoInteractions(candidateRepository);
+    }
+
+    @Test
+    void testGetStepMembership_ChecksOnlyFilterHits() {
+        SplitBlockBloomFilter withKey = SplitBlockBloomFilter.create(64, 0.01);
+        withKey.put(KEY);
+        SplitBlockBloomFilter withoutKey = SplitBlockBloomFilter.create(64, 0.01);
+        withoutKey.put("67890");
+        UUID hitStep = UUID.randomUUID();
+        UUID missStep = UUID.randomUUID();
+        UUID unkeyedStep = UUID.randomUUID();
+        UUID falsePositiveStep = UUID.randomUUID();
+        when(valueDictionary.find(DictionaryKind.STEP_NAME, "filter_by_price")).thenReturn(Optional.of(4));
+        when(stepRepository.streamBloomFilters(4, null, Limit.of(10_000))).thenReturn(Stream.of(
+            new StepBloomFilter(hitStep, UUID.randomUUID(), LocalDateTime.now(), null),
+            new StepBloomFilter(missStep, UUID.randomUUID(), LocalDateTime.now(), withoutKey.toBytes()),
+            new StepBloomFilter(unkeyedStep, UUID.randomUUID(), LocalDateTime.now(), null),
+            new StepBloomFilter(falsePositiveStep, UUID.randomUUID(), LocalDateTime.now(), withKey.toBytes())));
+        // The hit is in the second batch of its step; the false positive is a filter from before batch filters
+        when(bloomRepository.findByStepIds(List.of(hitStep, missStep, unkeyedStep, falsePositiveStep))).thenReturn(List.of(
+            new CandidateBloomRow(hitStep, withoutKey.toBytes()),
+            new CandidateBloomRow(hitStep, withKey.toBytes()),
+            new CandidateBloomRow(missStep, withoutKey.toBytes())));
+        when(candidateRepository.findStepIdsWithBusinessKey(KEY, List.of(hitStep, falsePositiveStep))).thenReturn(List.of(hitStep));
+
+        StepMembershipResponseDTO membership = lineageService.getStepMembership(KEY, "filter_by_price", null, 10_000);
+
+        assertEquals(4, membership.getStepsScanned());
+        assertEquals(2, membership.getProbableHits());
+        assertEquals(1, membership.getSteps().size());
+        assertEquals(hitStep, membership.getSteps().get(0).getStepId());
+    }
+
+    @Test
+    void testGetStepMembership_UnknownStepName() {
+        when(valueDictionary.find(DictionaryKind.STEP_NAME, "unknown")).thenReturn(Optional.empty());
+
+        StepMembershipResponseDTO membership = lineageService.getStepMembership(KEY, "unknown", null, 100);
+
+        assertEquals(0, membership.getStepsScanned());
+        assertTrue(membership.getSteps().isEmpty());
+        verifyNoInteractions(stepRepository);
+    }
+
+    @Test
+    void testGetStepMembership_InvalidLimit() {
+        assertThrows(IllegalArgumentException.class, () -> lineageService.getStepMembership(KEY, "filter_by_price", null, 50_001));
+    }
+
+    private static CandidateLineageRow row(
+            UUID runId,
+            LocalDateTime startedAt,
+            String stepName,
+            int order,
+            boolean selected,
+            double score,
+            Integer reasonCode,
+            String reason) {
+        return new CandidateLineageRow(runId, "competitor-selection", "pipeline-1", RunStatus.COMPLETED, startedAt,
+            UUID.randomUUID(), stepName, "filter", order, UUID.randomUUID(), selected, score, reasonCode, reason);
+    }
+}
@@ -0,0 +1,114 @@
+package com.task.founding.engineer.service.impl;
+
+import com.task.founding.engineer.dto.response.DataKeyUsageDTO;
+import com.task.founding.engineer.enums.PromotionStatus;
+import com.task.founding.engineer.model.XRayPromotedKey;
+import com.task.founding.engineer.promotion.DataKeyUsageTracker;
+import com.task.founding.engineer.promotion.PromotedKeyRegistry;
+import com.task.founding.engineer.repository.XRayPromotedKeyRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PromotedKeyServiceImplTest {
+
+    @Mock
+    private XRayPromotedKeyRepository promotedKeyRepository;
+
+    @Mock
+    private DataKeyUsageTracker dataKeyUsageTracker;
+
+    @Mock
+    private PromotedKeyRegistry promotedKeyRegistry;
+
+    @InjectMocks
+    private PromotedKeyServiceImpl promotedKeyService;
+
+    @Test
+    void testGetDataKeyUsage_MarksPromotedPaths() {
+        when(dataKeyUsageTracker.snapshot("competitor-selection")).thenReturn(List.of(
+            new DataKeyUsageTracker.Usage("competitor-selection", "data.sku", 40),
+            new DataKeyUsageTracker.Usage("competitor-selection", "data.category", 12)));
+        when(promotedKeyRegistry.indexes()).thenReturn(Map.of("data.sku", "idx_dk_sku"));
+
+        List<DataKeyUsageDTO> usage = promotedKeyService.getDataKeyUsage("competitor-selection");
+
+        assertEquals(2, usage.size());
+        assertEquals("data.sku", usage.get(0).getPath());
+        assertEquals(40L, usage.get(0).getQueries());
+        assertEquals("idx_dk_sku", usage.get(0).getPromotedIndex());
+        assertNull(usage.get(1).getPromotedIndex());
+    }
+
+    @Test
+    void testPromoteKey_CreatesPendingKey() {
+        when(promotedKeyRepository.findByPath("data.attributes.sub-category")).thenReturn(Optional.empty());
+        when(promotedKeyRepository.save(any(XRayPromotedKey.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        XRayPromotedKey key = promotedKeyService.promoteKey(" data.attributes.sub-category ");
+
+        assertEquals("data.attributes.sub-category", key.getPath());
+        assertEquals("idx_dk_attributes_sub_category", key.getIndexName());
+        assertEquals(PromotionStatus.PENDING, key.getStatus());
+    }
+
+    @Test
+    void testPromoteKey_ExistingKeyIsReturned() {
+        XRayPromotedKey existing = XRayPromotedKey.builder()
+            .path("data.sku")
+            .indexName("idx_dk_sku")
+            .status(PromotionStatus.READY)
+            .build();
+        when(promotedKeyRepository.findByPath("data.sku")).thenReturn(Optional.of(existing));
+
+        assertSame(existing, promotedKeyService.promoteKey("data.sku"));
+        assertEquals(PromotionStatus.READY, existing.getStatus());
+        verify(promotedKeyRepository, never()).save(any());
+    }
+
+    @Test
+    void testPromoteKey_FailedKeyIsRetried() {
+        XRayPromotedKey failed = XRayPromotedKey.builder()
+            .path("data.sku")
+            .indexName("idx_dk_sku")
+            .status(PromotionStatus.FAILED)
+            .error("boom")
+            .build();
+        when(promotedKeyRepository.findByPath("data.sku")).thenReturn(Optional.of(failed));
+
+        promotedKeyService.promoteKey("data.sku");
+
+        assertEquals(PromotionStatus.PENDING, failed.getStatus());
+        assertNull(failed.getError());
+    }
+
+    @Test
+    void testPromoteKey_InvalidPaths() {
+        assertThrows(IllegalArgumentException.class, () -> promotedKeyService.promoteKey("metadata.source"));
+        assertThrows(IllegalArgumentException.class, () -> promotedKeyService.promoteKey("data.bad key"));
+        assertThrows(IllegalArgumentException.class, () -> promotedKeyService.promoteKey("data." + "k".repeat(57)));
+        verify(promotedKeyRepository, never()).save(any());
+    }
+
+    @Test
+    void testPromoteKey_IndexNameCollision() {
+        when(promotedKeyRepository.findByPath("data.a_b")).thenReturn(Optional.empty());
+        when(promotedKeyRepository.existsByIndexName("idx_dk_a_b")).thenReturn(true);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+            promotedKeyService.promoteKey("data.a_b"));
+
+        assertTrue(exception.getMessage().contains("already used"));
+    }
+}
@@ -1,8 +1,20 @@
 package com.task.founding.engineer.service.impl;
 
+import com.task.founding.engineer.dictionary.ValueDictionary;
 import com.task.founding.engineer.dto.request.CreateRunRequestDTO;
+import com.task.founding.engineer.dto.response.ActiveRunDTO;
+import com.task.founding.engineer.dto.response.RunEventDTO;
+import com.task.founding.engineer.enums.DictionaryKind;
+import com.task.founding.engineer.enums.PayloadField;
+import com.task.founding.engineer.enums.RunEventType;
 import com.task.founding.engineer.enums.RunStatus;
+import com.task.founding.engineer.json.RawJson;
+import com.task.founding.engineer.live.ActiveRunRegistry;
+import com.task.founding.engineer.live.LiveCounters;
+import com.task.founding.engineer.live.RunEventBroadcaster;
 import com.task.founding.engineer.model.XRayRun;
+import com.task.founding.engineer.model.XRayStep;
+import com.task.founding.engineer.repository.PayloadLoader;
 import com.task.founding.engineer.repository.XRayRunRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,6 +29,8 @@ import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,6 +39,21 @@ class RunServiceImplTest {
     @Mock
     private XRayRunRepository runRepository;
 
+    @Mock
+    private PayloadLoader payloadLoader;
+
+    @Mock
+    private ValueDictionary valueDictionary;
+
+    @Mock
+    private LiveCounters liveCounters;
+
+    @Mock
+    private ActiveRunRegistry activeRunRegistry;
+
+    @Mock
+    private RunEventBroadcaster runEventBroadcaster;
+
     @InjectMocks
     private RunServiceImpl runService;
 
@@ -43,7 +72,7 @@ class RunServiceImplTest {
         createRequest = CreateRunRequestDTO.builder()
             .pipelineType("data-processing")
             .pipelineId("pipeline-123")
-            .input(input)
+            .input(RawJson.fromValue(input))
             .build();
 
         mockRun = XRayRun.builder()
@@ -52,7 +81,7 @@ class RunServiceImplTest {
             .pipelineId("pipeline-123")
             .startedAt(LocalDateTime.now())
             .status(RunStatus.IN_PROGRESS)
-            .input(input)
+            .input(RawJson.fromValue(input))
             .build();
     }
 
@@ -67,6 +96,7 @@ class RunServiceImplTest {
             .build();
 
         when(runRepository.save(any(XRayRun.class))).thenReturn(savedRun);
+        when(valueDictionary.encode(DictionaryKind.PIPELINE_TYPE, "data-processing")).thenReturn(3);
 
         UUID result = runService.createRun(createRequest);
 
@@ -78,33 +108,52 @@ class RunServiceImplTest {
         
         XRayRun capturedRun = runCaptor.getValue();
         assertEquals(createRequest.getPipelineType(), capturedRun.getPipelineType());
+        assertEquals(3, capturedRun.getPipelineTypeCode());
         assertEquals(createRequest.getPipelineId(), capturedRun.getPipelineId());
         assertEquals(RunStatus.IN_PROGRESS, capturedRun.getStatus());
         assertEquals(createRequest.getInput(), capturedRun.getInput());
         // Note: startedAt is set by @PrePersist callback in the entity, not by the service
+        verify(liveCounters).runStarted("data-processing");
+        verify(activeRunRegistry).register(savedRun);
+        verify(runEventBroadcaster).publish(argThat(event -> event.getType() == RunEventType.RUN_STARTED
+            && runId.equals(event.getRunId()) && "data-processing".equals(event.getPipelineType())));
     }
 
     @Test
     void testGetRunById_Success() {
-        when(runRepository.findByIdWithStepsAndCandidates(runId)).thenReturn(Optional.of(mockRun));
+        when(runRepository.findByIdWithSteps(runId)).thenReturn(Optional.of(mockRun));
 
-        XRayRun result = runService.getRunById(runId);
+        XRayRun result = runService.getRunById(runId, Set.of());
 
         assertNotNull(result);
         assertEquals(runId, result.getRunId());
-        verify(runRepository, times(1)).findByIdWithStepsAndCandidates(runId);
+        verify(runRepository, times(1)).findByIdWithSteps(runId);
+        verifyNoInteractions(payloadLoader);
+    }
+
+    @Test
+    void testGetRunById_LoadsIncludedPayloadsForRunAndSteps() {
+        XRayStep step = XRayStep.builder().stepId(UUID.randomUUID()).runId(runId).build();
+        mockRun.getSteps().add(step);
+        Set<PayloadField> include = EnumSet.of(PayloadField.INPUT, PayloadField.REASONING);
+        when(runRepository.findByIdWithSteps(runId)).thenReturn(Optional.of(mockRun));
+
+        runService.getRunById(runId, include);
+
+        verify(payloadLoader).loadRunPayloads(List.of(mockRun), include);
+        verify(payloadLoader).loadStepPayloads(List.of(step), include);
     }
 
     @Test
     void testGetRunById_NotFound() {
-        when(runRepository.findByIdWithStepsAndCandidates(runId)).thenReturn(Optional.empty());
+        when(runRepository.findByIdWithSteps(runId)).thenReturn(Optional.empty());
 
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            runService.getRunById(runId);
+            runService.getRunById(runId, Set.of());
         });
 
         assertTrue(exception.getMessage().contains("Run not found"));
-        verify(runRepository, times(1)).findByIdWithStepsAndCandidates(runId);
+        verify(runRepository, times(1)).findByIdWithSteps(runId);
     }
 
     @Test
@@ -112,7 +161,7 @@ class RunServiceImplTest {
         List<XRayRun> runs = Collections.singletonList(mockRun);
         when(runRepository.findAll()).thenReturn(runs);
 
-        List<XRayRun> result = runService.getAllRuns(null, null, null, null);
+        List<XRayRun> result = runService.getAllRuns(null, null, null, null, Set.of());
 
         assertNotNull(result);
         assertEquals(1, result.size());
@@ -122,26 +171,39 @@ class RunServiceImplTest {
     @Test
     void testGetAllRuns_WithPipelineType() {
         List<XRayRun> runs = Collections.singletonList(mockRun);
-        when(runRepository.findByPipelineType("data-processing")).thenReturn(runs);
+        when(valueDictionary.find(DictionaryKind.PIPELINE_TYPE, "data-processing")).thenReturn(Optional.of(3));
+        when(runRepository.findByPipelineTypeOrCode("data-processing", 3)).thenReturn(runs);
 
-        List<XRayRun> result = runService.getAllRuns("data-processing", null, null, null);
+        List<XRayRun> result = runService.getAllRuns("data-processing", null, null, null, Set.of());
 
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(runRepository, times(1)).findByPipelineType("data-processing");
+        verify(runRepository, times(1)).findByPipelineTypeOrCode("data-processing", 3);
+    }
+
+    @Test
+    void testGetAllRuns_PipelineTypeNotInternedMatchesUncodedRuns() {
+        // Runs written before codes existed, not yet reached by the backfill
+        when(valueDictionary.find(DictionaryKind.PIPELINE_TYPE, "legacy")).thenReturn(Optional.empty());
+        when(runRepository.findByPipelineTypeOrCode("legacy", null)).thenReturn(List.of(mockRun));
+
+        List<XRayRun> result = runService.getAllRuns("legacy", null, null, null, Set.of());
+
+        assertEquals(List.of(mockRun), result);
     }
 
     @Test
     void testGetAllRuns_WithStatus() {
         List<XRayRun> runs = Collections.singletonList(mockRun);
-        when(runRepository.findByPipelineTypeAndStatus("data-processing", RunStatus.IN_PROGRESS))
+        when(valueDictionary.find(DictionaryKind.PIPELINE_TYPE, "data-processing")).thenReturn(Optional.of(3));
+        when(runRepository.findByPipelineTypeOrCodeAndStatus("data-processing", 3, RunStatus.IN_PROGRESS))
             .thenReturn(runs);
 
-        List<XRayRun> result = runService.getAllRuns("data-processing", RunStatus.IN_PROGRESS, null, null);
+        List<XRayRun> result = runService.getAllRuns("data-processing", RunStatus.IN_PROGRESS, null, null, Set.of());
 
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(runRepository, times(1)).findByPipelineTypeAndStatus("data-processing", RunStatus.IN_PROGRESS);
+        verify(runRepository, times(1)).findByPipelineTypeOrCodeAndStatus("data-processing", 3, RunStatus.IN_PROGRESS);
     }
 
     @Test
@@ -152,7 +214,7 @@ class RunServiceImplTest {
         
         when(runRepository.findByStartedAtBetween(startDate, endDate)).thenReturn(runs);
 
-        List<XRayRun> result = runService.getAllRuns(null, null, startDate, endDate);
+        List<XRayRun> result = runService.getAllRuns(null, null, startDate, endDate, Set.of());
 
         assertNotNull(result);
         assertEquals(1, result.size());
@@ -165,15 +227,16 @@ class RunServiceImplTest {
         LocalDateTime endDate = LocalDateTime.now();
         List<XRayRun> runs = Collections.singletonList(mockRun);
         
-        when(runRepository.findByPipelineTypeAndStartedAtBetween("data-processing", startDate, endDate))
+        when(valueDictionary.find(DictionaryKind.PIPELINE_TYPE, "data-processing")).thenReturn(Optional.of(3));
+        when(runRepository.findByPipelineTypeOrCodeAndStartedAtBetween("data-processing", 3, startDate, endDate))
             .thenReturn(runs);
 
-        List<XRayRun> result = runService.getAllRuns("data-processing", null, startDate, endDate);
+        List<XRayRun> result = runService.getAllRuns("data-processing", null, startDate, endDate, Set.of());
 
         assertNotNull(result);
         assertEquals(1, result.size());
         verify(runRepository, times(1))
-            .findByPipelineTypeAndStartedAtBetween("data-processing", startDate, endDate);
+            .findByPipelineTypeOrCodeAndStartedAtBetween("data-processing", 3, startDate, endDate);
     }
 
     @Test
@@ -184,7 +247,7 @@ class RunServiceImplTest {
         when(runRepository.findByStartedAtBetween(eq(startDate), any(LocalDateTime.class)))
             .thenReturn(runs);
 
-        List<XRayRun> result = runService.getAllRuns(null, null, startDate, null);
+        List<XRayRun> result = runService.getAllRuns(null, null, startDate, null, Set.of());
 
         assertNotNull(result);
         assertEquals(1, result.size());
@@ -199,7 +262,7 @@ class RunServiceImplTest {
         when(runRepository.findByStartedAtBetween(any(LocalDateTime.class), eq(endDate)))
             .thenReturn(runs);
 
-        List<XRayRun> result = runService.getAllRuns(null, null, null, endDate);
+        List<XRayRun> result = runService.getAllRuns(null, null, null, endDate, Set.of());
 
         assertNotNull(result);
         assertEquals(1, result.size());
@@ -208,27 +271,61 @@ class RunServiceImplTest {
 
     @Test
     void testCompleteRun_Success() {
-        when(runRepository.findById(runId)).thenReturn(Optional.of(mockRun));
-        when(runRepository.save(any(XRayRun.class))).thenReturn(mockRun);
+        RawJson output = RawJson.of("{\"result\":\"success\"}");
+        when(runRepository.updateCompletion(eq(runId), eq(RunStatus.COMPLETED), any(LocalDateTime.class), eq(output)))
+            .thenReturn(1);
+
+        when(runRepository.findPipelineTypeCodeById(runId)).thenReturn(Optional.of(3));
+        when(valueDictionary.decode(3)).thenReturn("data-processing");
 
-        Map<String, Object> output = Collections.singletonMap("result", "success");
         runService.completeRun(runId, output);
 
-        ArgumentCaptor<XRayRun> runCaptor = ArgumentCaptor.forClass(XRayRun.class);
-        verify(runRepository, times(1)).save(runCaptor.capture());
-        
-        XRayRun capturedRun = runCaptor.getValue();
-        assertEquals(RunStatus.COMPLETED, capturedRun.getStatus());
-        assertNotNull(capturedRun.getCompletedAt());
-        assertEquals(output, capturedRun.getOutput());
+        verify(runRepository, times(1))
+            .updateCompletion(eq(runId), eq(RunStatus.COMPLETED), any(LocalDateTime.class), same(output));
+        verify(runRepository, never()).findById(any());
+        verify(runRepository, never()).save(any());
+        verify(liveCounters).runFinished("data-processing", RunStatus.COMPLETED);
+        verify(activeRunRegistry).remove(runId);
+        verify(runEventBroadcaster).publish(argThat(event ->
+            event.getType() == RunEventType.RUN_COMPLETED && runId.equals(event.getRunId())
+                && "data-processing".equals(event.getPipelineType())));
+    }
+
+    @Test
+    void testFailRun_TrackedRunNeedsNoPipelineTypeLookup() {
+        when(runRepository.updateStatus(eq(runId), eq(RunStatus.FAILED), any(LocalDateTime.class)))
+            .thenReturn(1);
+        when(activeRunRegistry.get(runId)).thenReturn(Optional.of(
+            new ActiveRunRegistry.ActiveRun(runId, "data-processing", LocalDateTime.now(), LocalDateTime.now())));
+
+        runService.failRun(runId);
+
+        verify(liveCounters).runFinished("data-processing", RunStatus.FAILED);
+        verify(runRepository, never()).findPipelineTypeCodeById(any());
+        verify(activeRunRegistry).remove(runId);
+    }
+
+    @Test
+    void testGetActiveRuns_ServedFromRegistry() {
+        LocalDateTime startedAt = LocalDateTime.now().minusMinutes(5);
+        when(activeRunRegistry.activeRuns("data-processing")).thenReturn(List.of(
+            new ActiveRunRegistry.ActiveRun(runId, "data-processing", startedAt, startedAt.plusMinutes(1))));
+
+        List<ActiveRunDTO> result = runService.getActiveRuns("data-processing");
+
+        assertEquals(1, result.size());
+        assertEquals(runId, result.get(0).getRunId());
+        assertEquals(startedAt.plusMinutes(1), result.get(0).getLastActivityAt());
+        verifyNoInteractions(runRepository);
     }
 
     @Test
     void testCompleteRun_NotFound() {
-        when(runRepository.findById(runId)).thenReturn(Optional.empty());
+        when(runRepository.updateCompletion(eq(runId), eq(RunStatus.COMPLETED), any(LocalDateTime.class), any()))
+            .thenReturn(0);
 
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            runService.completeRun(runId, Collections.singletonMap("result", "success"));
+            runService.completeRun(runId, RawJson.of("{\"result\":\"success\"}"));
         });
 
         assertTrue(exception.getMessage().contains("Run not found"));
@@ -237,22 +334,24 @@ class RunServiceImplTest {
 
     @Test
     void testFailRun_Success() {
-        when(runRepository.findById(runId)).thenReturn(Optional.of(mockRun));
-        when(runRepository.save(any(XRayRun.class))).thenReturn(mockRun);
+        when(runRepository.updateStatus(eq(runId), eq(RunStatus.FAILED), any(LocalDateTime.class)))
+            .thenReturn(1);
+
+        when(runRepository.findPipelineTypeCodeById(runId)).thenReturn(Optional.of(3));
+        when(valueDictionary.decode(3)).thenReturn("data-processing");
 
         runService.failRun(runId);
 
-        ArgumentCaptor<XRayRun> runCaptor = ArgumentCaptor.forClass(XRayRun.class);
-        verify(runRepository, times(1)).save(runCaptor.capture());
-        
-        XRayRun capturedRun = runCaptor.getValue();
-        assertEquals(RunStatus.FAILED, capturedRun.getStatus());
-        assertNotNull(capturedRun.getCompletedAt());
+        verify(runRepository, times(1)).updateStatus(eq(runId), eq(RunStatus.FAILED), any(LocalDateTime.class));
+        verify(runRepository, never()).findById(any());
+        verify(runRepository, never()).save(any());
+        verify(liveCounters).runFinished("data-processing", RunStatus.FAILED);
     }
 
     @Test
     void testFailRun_NotFound() {
-        when(runRepository.findById(runId)).thenReturn(Optional.empty());
+        when(runRepository.updateStatus(eq(runId), eq(RunStatus.FAILED), any(LocalDateTime.class)))
+            .thenReturn(0);
 
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
             runService.failRun(runId);
@@ -260,16 +359,57 @@ class RunServiceImplTest {
 
         assertTrue(exception.getMessage().contains("Run not found"));
         verify(runRepository, never()).save(any());
+        verifyNoInteractions(liveCounters);
     }
 
     @Test
     void testGetAllRuns_EmptyList() {
         when(runRepository.findAll()).thenReturn(Collections.emptyList());
 
-        List<XRayRun> result = runService.getAllRuns(null, null, null, null);
+        List<XRayRun> result = runService.getAllRuns(null, null, null, null, Set.of());
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
     }
-}
 
+    @Test
+    void testStreamRun_ActiveRunNeedsNoQuery() {
+        RunEventBroadcaster.Subscription subscription = mock(RunEventBroadcaster.Subscription.class);
+        when(runEventBroadcaster.subscribe(eq(runId), any(), any())).thenReturn(subscription);
+        when(activeRunRegistry.get(runId)).thenReturn(Optional.of(
+            new ActiveRunRegistry.ActiveRun(runId, "data-processing", LocalDateTime.now(), LocalDateTime.now())));
+
+        assertSame(subscription, runService.streamRun(runId, event -> { }, () -> { }));
+
+        verifyNoInteractions(runRepository);
+        verify(runEventBroadcaster, never()).publishLocally(any());
+    }
+
+    @Test
+    void testStreamRun_FinishedRunOnlyReportsHowItEnded() {
+        RunEventBroadcaster.Subscription subscription = mock(RunEventBroadcaster.Subscription.class);
+        when(runEventBroadcaster.subscribe(eq(runId), any(), any())).thenReturn(subscription);
+        when(runRepository.findStatusById(runId)).thenReturn(Optional.of(RunStatus.FAILED));
+
+        runService.streamRun(runId, event -> { }, () -> { });
+
+        ArgumentCaptor<RunEventDTO> captor = ArgumentCaptor.forClass(RunEventDTO.class);
+        verify(runEventBroadcaster).publishLocally(captor.capture());
+        verify(runEventBroadcaster, never()).publish(any());
+        assertEquals(RunEventType.RUN_FAILED, captor.getValue().getType());
+        assertEquals(runId, captor.getValue().getRunId());
+    }
+
+    @Test
+    void testStreamRun_NotFound() {
+        RunEventBroadcaster.Subscription subscription = mock(RunEventBroadcaster.Subscription.class);
+        when(runEventBroadcaster.subscribe(eq(runId), any(), any())).thenReturn(subscription);
+        when(runRepository.findStatusById(runId)).thenReturn(Optional.empty());
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> runService.streamRun(runId, event -> { }, () -> { }));
+
+        assertTrue(exception.getMessage().contains("Run not found"));
+        verify(subscription).close();
+    }
+}
@@ -1,10 +1,20 @@
 package com.task.founding.engineer.service.impl;
 
+import com.task.founding.engineer.compression.TextCompressor;
+import com.task.founding.engineer.dictionary.ValueDictionary;
 import com.task.founding.engineer.dto.request.CreateCandidateRequestDTO;
+import com.task.founding.engineer.enums.DictionaryKind;
 import com.task.founding.engineer.dto.request.CreateStepRequestDTO;
+import com.task.founding.engineer.enums.PayloadField;
+import com.task.founding.engineer.enums.RunEventType;
+import com.task.founding.engineer.enums.RunStatus;
 import com.task.founding.engineer.enums.StepStatus;
+import com.task.founding.engineer.json.RawJson;
+import com.task.founding.engineer.live.ActiveRunRegistry;
+import com.task.founding.engineer.live.RunEventBroadcaster;
 import com.task.founding.engineer.model.XRayRun;
 import com.task.founding.engineer.model.XRayStep;
+import com.task.founding.engineer.repository.PayloadLoader;
 import com.task.founding.engineer.repository.XRayRunRepository;
 import com.task.founding.engineer.repository.XRayStepRepository;
 import com.task.founding.engineer.service.CandidateService;
@@ -22,6 +32,8 @@ import java.util.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,6 +48,21 @@ class StepServiceImplTest {
     @Mock
     private CandidateService candidateService;
 
+    @Mock
+    private PayloadLoader payloadLoader;
+
+    @Mock
+    private TextCompressor textCompressor;
+
+    @Mock
+    private ValueDictionary valueDictionary;
+
+    @Mock
+    private ActiveRunRegistry activeRunRegistry;
+
+    @Mock
+    private RunEventBroadcaster runEventBroadcaster;
+
     @InjectMocks
     private StepServiceImpl stepService;
 
@@ -62,8 +89,8 @@ class StepServiceImplTest {
             .stepName("Filter Step")
             .stepType("filter")
             .order(1)
-            .input(input)
-            .metadata(Collections.singletonMap("version", "1.0"))
+            .input(RawJson.fromValue(input))
+            .metadata(RawJson.fromValue(Collections.singletonMap("version", "1.0")))
             .build();
     }
 
@@ -84,6 +111,9 @@ class StepServiceImplTest {
         
         when(stepRepository.save(any(XRayStep.class))).thenReturn(savedStep);
 
+        when(valueDictionary.encode(DictionaryKind.STEP_NAME, "Filter Step")).thenReturn(11);
+        when(valueDictionary.encode(DictionaryKind.STEP_TYPE, "filter")).thenReturn(7);
+
         UUID result = stepService.createStep(runId, createRequest);
 
         assertNotNull(result);
@@ -95,14 +125,46 @@ class StepServiceImplTest {
         XRayStep capturedStep = stepCaptor.getValue();
         assertEquals(createRequest.getStepName(), capturedStep.getStepName());
         assertEquals(createRequest.getStepType(), capturedStep.getStepType());
+        assertEquals(11, capturedStep.getStepNameCode());
+        assertEquals(7, capturedStep.getStepTypeCode());
         assertEquals(StepStatus.SUCCESS, capturedStep.getStatus());
         verify(candidateService, never()).createCandidates(any(), any());
+        verify(runEventBroadcaster).publish(argThat(event -> event.getType() == RunEventType.STEP_CREATED
+            && runId.equals(event.getRunId()) && stepId.equals(event.getStepId())));
+    }
+
+    @Test
+    void testCreateStep_ActiveRunIsReferencedWithoutLoading() {
+        when(activeRunRegistry.touch(runId)).thenReturn(true);
+        when(runRepository.getReferenceById(runId)).thenReturn(mockRun);
+        when(stepRepository.save(any(XRayStep.class))).thenAnswer(invocation -> {
+            XRayStep step = invocation.getArgument(0);
+            step.setStepId(stepId);
+            return step;
+        });
+
+        UUID result = stepService.createStep(runId, createRequest);
+
+        assertEquals(stepId, result);
+        verify(runRepository, never()).findById(any());
+        verify(activeRunRegistry, never()).register(any());
+    }
+
+    @Test
+    void testCreateStep_TracksLoadedRunInProgress() {
+        mockRun.setStatus(RunStatus.IN_PROGRESS);
+        when(runRepository.findById(runId)).thenReturn(Optional.of(mockRun));
+        when(stepRepository.save(any(XRayStep.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        stepService.createStep(runId, createRequest);
+
+        verify(activeRunRegistry).register(mockRun);
     }
 
     @Test
     void testCreateStep_WithCandidates() {
         CreateCandidateRequestDTO candidateRequest = CreateCandidateRequestDTO.builder()
-            .data(Collections.singletonMap("name", "Test"))
+            .data(RawJson.fromValue(Collections.singletonMap("name", "Test")))
             .score(0.85)
             .selected(true)
             .build();
@@ -147,7 +209,7 @@ class StepServiceImplTest {
 
         when(stepRepository.findById(stepId)).thenReturn(Optional.of(mockStep));
 
-        XRayStep result = stepService.getStepById(stepId);
+        XRayStep result = stepService.getStepById(stepId, Set.of());
 
         assertNotNull(result);
         assertEquals(stepId, result.getStepId());
@@ -159,7 +221,7 @@ class StepServiceImplTest {
         when(stepRepository.findById(stepId)).thenReturn(Optional.empty());
 
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            stepService.getStepById(stepId);
+            stepService.getStepById(stepId, Set.of());
         });
 
         assertTrue(exception.getMessage().contains("Step not found"));
@@ -175,81 +237,145 @@ class StepServiceImplTest {
 
         when(stepRepository.findByRunIdOrderByOrderAsc(runId)).thenReturn(steps);
 
-        List<XRayStep> result = stepService.getStepsByRunId(runId);
+        List<XRayStep> result = stepService.getStepsByRunId(runId, Set.of());
 
         assertNotNull(result);
         assertEquals(2, result.size());
         verify(stepRepository, times(1)).findByRunIdOrderByOrderAsc(runId);
     }
 
+    @Test
+    void testGetStepsByRunId_LoadsIncludedPayloads() {
+        List<XRayStep> steps = Collections.singletonList(
+            XRayStep.builder().stepId(stepId).runId(runId).order(1).build()
+        );
+        Set<PayloadField> include = EnumSet.of(PayloadField.REASONING);
+        when(stepRepository.findByRunIdOrderByOrderAsc(runId)).thenReturn(steps);
+
+        stepService.getStepsByRunId(runId, include);
+
+        verify(payloadLoader, times(1)).loadStepPayloads(steps, include);
+    }
+
+    @Test
+    void testGetStepsByRunId_SkipsPayloadLoadWithoutInclude() {
+        when(stepRepository.findByRunIdOrderByOrderAsc(runId)).thenReturn(Collections.emptyList());
+
+        stepService.getStepsByRunId(runId, Set.of());
+
+        verifyNoInteractions(payloadLoader);
+    }
+
     @Test
     void testGetStepsByType() {
         List<XRayStep> steps = Collections.singletonList(
             XRayStep.builder().stepId(stepId).stepType("filter").build()
         );
 
-        when(stepRepository.findByStepType("filter")).thenReturn(steps);
+        when(valueDictionary.find(DictionaryKind.STEP_TYPE, "filter")).thenReturn(Optional.of(7));
+        when(stepRepository.findByStepTypeOrCode("filter", 7)).thenReturn(steps);
 
-        List<XRayStep> result = stepService.getStepsByType("filter");
+        List<XRayStep> result = stepService.getStepsByType("filter", Set.of());
 
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(stepRepository, times(1)).findByStepType("filter");
+        verify(stepRepository, times(1)).findByStepTypeOrCode("filter", 7);
     }
 
     @Test
     void testCompleteStep_WithReasoning() {
-        XRayStep mockStep = XRayStep.builder()
-            .stepId(stepId)
-            .runId(runId)
-            .build();
-
-        when(stepRepository.findById(stepId)).thenReturn(Optional.of(mockStep));
-        when(stepRepository.save(any(XRayStep.class))).thenReturn(mockStep);
-
-        Map<String, Object> output = Collections.singletonMap("result", "success");
+        RawJson output = RawJson.of("{\"result\":\"success\"}");
         String reasoning = "All candidates passed the filter";
+        when(stepRepository.updateCompletion(eq(stepId), any(LocalDateTime.class), eq(output), eq(reasoning)))
+            .thenReturn(1);
 
         stepService.completeStep(stepId, output, reasoning);
 
-        ArgumentCaptor<XRayStep> stepCaptor = ArgumentCaptor.forClass(XRayStep.class);
-        verify(stepRepository, times(1)).save(stepCaptor.capture());
-        
-        XRayStep capturedStep = stepCaptor.getValue();
-        assertNotNull(capturedStep.getCompletedAt());
-        assertEquals(output, capturedStep.getOutput());
-        assertEquals(reasoning, capturedStep.getReasoning());
+        verify(stepRepository, times(1))
+            .updateCompletion(eq(stepId), any(LocalDateTime.class), same(output), eq(reasoning));
+        verify(stepRepository, never()).findById(any());
+        verify(stepRepository, never()).save(any());
     }
 
     @Test
     void testCompleteStep_WithoutReasoning() {
-        XRayStep mockStep = XRayStep.builder()
-            .stepId(stepId)
-            .runId(runId)
-            .build();
+        RawJson output = RawJson.of("{\"result\":\"success\"}");
+        when(stepRepository.updateCompletion(eq(stepId), any(LocalDateTime.class), eq(output), isNull()))
+            .thenReturn(1);
 
-        when(stepRepository.findById(stepId)).thenReturn(Optional.of(mockStep));
-        when(stepRepository.save(any(XRayStep.class))).thenReturn(mockStep);
+        stepService.completeStep(stepId, output, null);
 
-        Map<String, Object> output = Collections.singletonMap("result", "success");
+        // A null reasoning keeps the stored value (COALESCE in the update)
+        verify(stepRepository, times(1))
+            .updateCompletion(eq(stepId), any(LocalDateTime.class), same(output), isNull());
+        verify(stepRepository, never()).save(any());
+    }
 
-        stepService.completeStep(stepId, output, null);
+    @Test
+    void testCreateStep_CompressesReasoning() {
+        createRequest.setReasoning("Kept products priced under the threshold");
+        byte[] frame = {1, 2, 3};
+        when(runRepository.findById(runId)).thenReturn(Optional.of(mockRun));
+        when(textCompressor.compress("Filter Step", "Kept products priced under the threshold")).thenReturn(frame);
+        when(stepRepository.save(any(XRayStep.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        stepService.createStep(runId, createRequest);
 
         ArgumentCaptor<XRayStep> stepCaptor = ArgumentCaptor.forClass(XRayStep.class);
-        verify(stepRepository, times(1)).save(stepCaptor.capture());
-        
-        XRayStep capturedStep = stepCaptor.getValue();
-        assertNotNull(capturedStep.getCompletedAt());
-        assertEquals(output, capturedStep.getOutput());
-        assertNull(capturedStep.getReasoning());
+        verify(stepRepository).save(stepCaptor.capture());
+        assertNull(stepCaptor.getValue().getReasoning());
+        assertSame(frame, stepCaptor.getValue().getReasoningCompressed());
+    }
+
+    @Test
+    void testCompleteStep_CompressesReasoning() {
+        RawJson output = RawJson.of("{\"result\":\"success\"}");
+        String reasoning = "All candidates passed the filter";
+        byte[] frame = {1, 2, 3};
+        when(textCompressor.isEnabled()).thenReturn(true);
+        when(stepRepository.findStepNameById(stepId)).thenReturn(Optional.of("Filter Step"));
+        when(textCompressor.compress("Filter Step", reasoning)).thenReturn(frame);
+        when(stepRepository.updateCompletionCompressed(eq(stepId), any(LocalDateTime.class), same(output), same(frame)))
+            .thenReturn(1);
+
+        stepService.completeStep(stepId, output, reasoning);
+
+        verify(stepRepository, never()).updateCompletion(any(), any(), any(), any());
+    }
+
+    @Test
+    void testCompleteStep_StoresPlainWhenFrameNotSmaller() {
+        RawJson output = RawJson.of("{\"result\":\"success\"}");
+        when(textCompressor.isEnabled()).thenReturn(true);
+        when(stepRepository.findStepNameById(stepId)).thenReturn(Optional.of("Filter Step"));
+        when(stepRepository.updateCompletion(eq(stepId), any(LocalDateTime.class), same(output), eq("ok")))
+            .thenReturn(1);
+
+        stepService.completeStep(stepId, output, "ok");
+
+        verify(stepRepository, never()).updateCompletionCompressed(any(), any(), any(), any());
+    }
+
+    @Test
+    void testCompleteStep_CompressedNotFound() {
+        when(textCompressor.isEnabled()).thenReturn(true);
+        when(stepRepository.findStepNameById(stepId)).thenReturn(Optional.empty());
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+            stepService.completeStep(stepId, RawJson.of("{\"result\":\"success\"}"), "reasoning");
+        });
+
+        assertTrue(exception.getMessage().contains("Step not found"));
+        verify(stepRepository, never()).updateCompletionCompressed(any(), any(), any(), any());
     }
 
     @Test
     void testCompleteStep_NotFound() {
-        when(stepRepository.findById(stepId)).thenReturn(Optional.empty());
+        when(stepRepository.updateCompletion(eq(stepId), any(LocalDateTime.class), any(), any()))
+            .thenReturn(0);
 
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            stepService.completeStep(stepId, Collections.singletonMap("result", "success"), null);
+            stepService.completeStep(stepId, RawJson.of("{\"result\":\"success\"}"), null);
         });
 
         assertTrue(exception.getMessage().contains("Step not found"));
@@ -260,7 +386,7 @@ class StepServiceImplTest {
     void testGetStepsByRunId_EmptyList() {
         when(stepRepository.findByRunIdOrderByOrderAsc(runId)).thenReturn(Collections.emptyList());
 
-        List<XRayStep> result = stepService.getStepsByRunId(runId);
+        List<XRayStep> result = stepService.getStepsByRunId(runId, Set.of());
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
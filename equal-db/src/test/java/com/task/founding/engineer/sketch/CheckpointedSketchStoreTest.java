@@ -0,0 +1,108 @@
+package com.task.founding.engineer.sketch;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CheckpointedSketchStoreTest {
+
+    record Hour(LocalDateTime start) implements CheckpointedSketchStore.HourlyWindow {
+    }
+
+    @Mock
+    private CheckpointedSketchStore.Rows<Hour> rows;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CheckpointedSketchStore<Hour, List<String>> store;
+    private Hour current;
+
+    @BeforeEach
+    void setUp() {
+        // A list of keys stands in for a sketch
+        store = new CheckpointedSketchStore<>("test", ArrayList::new, List::add,
+            keys -> String.join(",", keys).getBytes(StandardCharsets.UTF_8), rows, transactionManager, Duration.ofDays(7));
+        current = new Hour(LocalDateTime.now().truncatedTo(ChronoUnit.HOURS));
+    }
+
+    @Test
+    void testCheckpoint_SavesOnlyChangedWindowsUnderOneInstance() {
+        store.add(current, List.of("A", "B"));
+        store.checkpoint();
+        store.checkpoint();
+        store.add(current, List.of("C"));
+        store.checkpoint();
+
+        ArgumentCaptor<UUID> instances = ArgumentCaptor.forClass(UUID.class);
+        ArgumentCaptor<byte[]> sketches = ArgumentCaptor.forClass(byte[].class);
+        verify(rows, times(2)).save(eq(current), instances.capture(), sketches.capture());
+        assertEquals(instances.getAllValues().get(0), instances.getAllValues().get(1));
+        assertEquals("A,B,C", new String(sketches.getValue(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testCheckpoint_FailureIsRetried() {
+        doThrow(new DataAccessResourceFailureException("database down")).doNothing()
+            .when(rows).save(any(), any(), any());
+        store.add(current, List.of("A"));
+
+        store.checkpoint();
+        store.checkpoint();
+
+        verify(rows, times(2)).save(eq(current), any(), any());
+    }
+
+    @Test
+    void testAddAfterCommit_AddsOnlyOnCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        store.addAfterCommit(current, List.of("A"));
+        store.addAfterCommit(current, List.of("B"));
+        store.checkpoint();
+
+        verifyNoInteractions(rows);
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        // The first batch rolls back, the second commits
+        synchronizations.get(0).afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        synchronizations.get(1).afterCommit();
+        store.checkpoint();
+
+        ArgumentCaptor<byte[]> sketch = ArgumentCaptor.forClass(byte[].class);
+        verify(rows).save(eq(current), any(), sketch.capture());
+        assertEquals("B", new String(sketch.getValue(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testPurge_DeletesRowsOlderThanRetention() {
+        when(rows.deleteByWindowStartBefore(any())).thenReturn(3);
+
+        store.purge();
+
+        ArgumentCaptor<LocalDateTime> before = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(rows).deleteByWindowStartBefore(before.capture());
+        assertTrue(before.getValue().isBefore(LocalDateTime.now().minusDays(6)));
+    }
+}
@@ -0,0 +1,141 @@
+package com.task.founding.engineer.sketch;
+
+import com.task.founding.engineer.model.XRayDistinctKeySketch;
+import com.task.founding.engineer.repository.SketchRow;
+import com.task.founding.engineer.repository.XRayDistinctKeySketchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DistinctKeySketchesTest {
+
+    @Mock
+    private XRayDistinctKeySketchRepository sketchRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DistinctKeySketches sketches;
+
+    @BeforeEach
+    void setUp() {
+        sketches = new DistinctKeySketches(sketchRepository, transactionManager, 10, Duration.ofDays(90));
+    }
+
+    @Test
+    void testCheckpoint_WritesOnlyChangedWindows() {
+        sketches.add(3, 4, List.of("A", "B", "A"));
+
+        sketches.checkpoint();
+        sketches.checkpoint();
+
+        ArgumentCaptor<XRayDistinctKeySketch> captor = ArgumentCaptor.forClass(XRayDistinctKeySketch.class);
+        verify(sketchRepository, times(1)).save(captor.capture());
+        XRayDistinctKeySketch row = captor.getValue();
+        assertEquals(3, row.getPipelineTypeCode());
+        assertEquals(4, row.getStepNameCode());
+        assertEquals(LocalDateTime.now().truncatedTo(ChronoUnit.HOURS), row.getWindowStart());
+        assertNotNull(row.getInstanceId());
+        assertEquals(2, HyperLogLog.fromBytes(row.getSketch()).estimate());
+    }
+
+    @Test
+    void testCheckpoint_FailureIsRetried() {
+        when(sketchRepository.save(any(XRayDistinctKeySketch.class)))
+            .thenThrow(new DataAccessResourceFailureException("database down"))
+            .thenAnswer(invocation -> invocation.getArgument(0));
+        sketches.add(3, 4, List.of("A"));
+
+        sketches.checkpoint();
+        sketches.checkpoint();
+
+        verify(sketchRepository, times(2)).save(any(XRayDistinctKeySketch.class));
+    }
+
+    @Test
+    void testForEachSketch_MergesOpenSketchesInHourOrderWithoutWriting() {
+        LocalDateTime current = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime previous = current.minusHours(1);
+        LocalDateTime from = previous.minusHours(1);
+        LocalDateTime to = current.plusHours(1);
+        sketches.add(3, 4, List.of("A"));
+        sketches.checkpoint();
+        ArgumentCaptor<XRayDistinctKeySketch> captor = ArgumentCaptor.forClass(XRayDistinctKeySketch.class);
+        verify(sketchRepository).save(captor.capture());
+        XRayDistinctKeySketch ownRow = captor.getValue();
+        sketches.add(3, 4, List.of("B"));
+
+        HyperLogLog otherInstance = new HyperLogLog(10);
+        otherInstance.add("C");
+        // This instance's row of the open hour is stale and superseded by the in-memory sketch
+        when(sketchRepository.streamSketches(3, null, from, to)).thenReturn(Stream.of(
+            new SketchRow(4, previous, UUID.randomUUID(), otherInstance.toBytes()),
+            new SketchRow(4, current, ownRow.getInstanceId(), ownRow.getSketch()),
+            new SketchRow(4, current, UUID.randomUUID(), otherInstance.toBytes())));
+
+        List<LocalDateTime> hours = new ArrayList<>();
+        List<Long> estimates = new ArrayList<>();
+        sketches.forEachSketch(3, null, from, to, (start, sketch) -> {
+            hours.add(start);
+            estimates.add(sketch.estimate());
+        });
+
+        assertEquals(List.of(previous, current, current), hours);
+        assertEquals(List.of(1L, 2L, 1L), estimates);
+        // Only the checkpoint above wrote
+        verify(sketchRepository, times(1)).save(any(XRayDistinctKeySketch.class));
+    }
+
+    @Test
+    void testAdd_CountedOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        sketches.add(3, 4, List.of("A"));
+        sketches.checkpoint();
+
+        verifyNoInteractions(sketchRepository);
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        sketches.checkpoint();
+
+        verify(sketchRepository).save(any(XRayDistinctKeySketch.class));
+    }
+
+    @Test
+    void testAdd_IgnoresUncodedStepsAndEmptyBatches() {
+        sketches.add(null, 4, List.of("A"));
+        sketches.add(3, null, List.of("A"));
+        sketches.add(3, 4, List.of());
+
+        sketches.checkpoint();
+
+        verifyNoInteractions(sketchRepository);
+    }
+
+    @Test
+    void testConstructor_RejectsInvalidPrecision() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new DistinctKeySketches(sketchRepository, transactionManager, 20, Duration.ofDays(90)));
+    }
+}
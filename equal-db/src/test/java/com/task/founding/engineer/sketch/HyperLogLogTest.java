@@ -0,0 +1,76 @@
+package com.task.founding.engineer.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HyperLogLogTest {
+
+    @Test
+    void testEstimate_SmallAndLargeCardinalities() {
+        for (int cardinality : new int[] {0, 1, 100, 10_000, 1_000_000}) {
+            HyperLogLog sketch = new HyperLogLog(12);
+            for (int i = 0; i < cardinality; i++) {
+                sketch.add("item-" + i);
+            }
+            // Duplicates never change the estimate
+            for (int i = 0; i < Math.min(cardinality, 1000); i++) {
+                sketch.add("item-" + i);
+            }
+            assertEquals(cardinality, sketch.estimate(), Math.max(2, cardinality * 4 * sketch.standardError()),
+                "cardinality " + cardinality);
+        }
+    }
+
+    @Test
+    void testUnion_CountsOverlapOnce() {
+        HyperLogLog first = new HyperLogLog(12);
+        HyperLogLog second = new HyperLogLog(12);
+        for (int i = 0; i < 60_000; i++) {
+            first.add("item-" + i);
+            second.add("item-" + (i + 40_000));
+        }
+
+        HyperLogLog union = HyperLogLog.union(first, second);
+
+        assertEquals(100_000, union.estimate(), 100_000 * 4 * union.standardError());
+    }
+
+    @Test
+    void testUnion_FoldsToLowerPrecision() {
+        HyperLogLog fine = new HyperLogLog(14);
+        HyperLogLog coarse = new HyperLogLog(10);
+        HyperLogLog direct = new HyperLogLog(10);
+        for (int i = 0; i < 50_000; i++) {
+            fine.add("item-" + i);
+            direct.add("item-" + i);
+        }
+
+        // Folding is exact: the result equals a sketch built at the lower precision
+        assertArrayEquals(direct.toBytes(), HyperLogLog.union(fine, coarse).toBytes());
+        assertArrayEquals(direct.toBytes(), HyperLogLog.union(new HyperLogLog(10), fine).toBytes());
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(10).merge(new HyperLogLog(4)));
+    }
+
+    @Test
+    void testToBytes_RoundTrip() {
+        HyperLogLog sketch = new HyperLogLog(8);
+        sketch.add("12345");
+        sketch.add("67890");
+
+        byte[] bytes = sketch.toBytes();
+        HyperLogLog restored = HyperLogLog.fromBytes(bytes);
+
+        assertEquals(2 + 256, bytes.length);
+        assertEquals(8, restored.precision());
+        assertArrayEquals(bytes, restored.toBytes());
+        assertThrows(IllegalStateException.class, () -> HyperLogLog.fromBytes(new byte[] {9, 8}));
+        assertThrows(IllegalStateException.class, () -> HyperLogLog.fromBytes(new byte[] {1, 8, 0}));
+    }
+
+    @Test
+    void testConstructor_RejectsInvalidPrecision() {
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(3));
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(17));
+    }
+}
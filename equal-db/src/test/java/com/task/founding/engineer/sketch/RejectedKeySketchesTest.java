@@ -0,0 +1,186 @@
+package com.task.founding.engineer.sketch;
+
+import com.task.founding.engineer.model.XRayRejectedKeySketch;
+import com.task.founding.engineer.repository.SketchRow;
+import com.task.founding.engineer.repository.XRayRejectedKeySketchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RejectedKeySketchesTest {
+
+    @Mock
+    private XRayRejectedKeySketchRepository sketchRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private RejectedKeySketches sketches;
+
+    @BeforeEach
+    void setUp() {
+        sketches = new RejectedKeySketches(sketchRepository, transactionManager, 100, Duration.ofDays(7));
+    }
+
+    @Test
+    void testCheckpoint_WritesOnlyChangedWindows() {
+        sketches.record(4, List.of("A", "A", "B"));
+
+        sketches.checkpoint();
+        sketches.checkpoint();
+
+        ArgumentCaptor<XRayRejectedKeySketch> captor = ArgumentCaptor.forClass(XRayRejectedKeySketch.class);
+        verify(sketchRepository, times(1)).save(captor.capture());
+        XRayRejectedKeySketch row = captor.getValue();
+        assertEquals(4, row.getStepNameCode());
+        assertEquals(LocalDateTime.now().truncatedTo(ChronoUnit.HOURS), row.getWindowStart());
+        assertNotNull(row.getInstanceId());
+        SpaceSavingSketch saved = SpaceSavingSketch.fromBytes(row.getSketch());
+        assertEquals(new SpaceSavingSketch.Counter("A", 2, 0), saved.top(1).get(0));
+    }
+
+    @Test
+    void testCheckpoint_UpdatesExistingRowOfThisInstance() {
+        XRayRejectedKeySketch existing = XRayRejectedKeySketch.builder().sketchId(1L).build();
+        when(sketchRepository.findByStepNameCodeAndWindowStartAndInstanceId(eq(4), any(), any()))
+            .thenReturn(Optional.of(existing));
+        sketches.record(4, List.of("A"));
+
+        sketches.checkpoint();
+
+        verify(sketchRepository).save(existing);
+        assertNotNull(existing.getSketch());
+    }
+
+    @Test
+    void testCheckpoint_FailureIsRetried() {
+        when(sketchRepository.save(any(XRayRejectedKeySketch.class)))
+            .thenThrow(new DataAccessResourceFailureException("database down"))
+            .thenAnswer(invocation -> invocation.getArgument(0));
+        sketches.record(4, List.of("A"));
+
+        sketches.checkpoint();
+        sketches.checkpoint();
+
+        verify(sketchRepository, times(2)).save(any(XRayRejectedKeySketch.class));
+    }
+
+    @Test
+    void testCheckpoint_DropsWindowsAnHourAfterTheyEnd() {
+        LocalDateTime old = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(3);
+        sketches.offer(new RejectedKeySketches.Window(4, old), List.of("A"));
+        sketches.checkpoint();
+        sketches.checkpoint();
+
+        // The window is gone from memory, so a late offer starts a fresh sketch
+        sketches.offer(new RejectedKeySketches.Window(4, old), List.of("B"));
+        sketches.checkpoint();
+
+        ArgumentCaptor<XRayRejectedKeySketch> captor = ArgumentCaptor.forClass(XRayRejectedKeySketch.class);
+        verify(sketchRepository, times(2)).save(captor.capture());
+        assertEquals(1, SpaceSavingSketch.fromBytes(captor.getValue().getSketch()).total());
+    }
+
+    @Test
+    void testMerged_CombinesCheckpointedWindows() {
+        SpaceSavingSketch first = new SpaceSavingSketch(100);
+        first.offer("A");
+        SpaceSavingSketch second = new SpaceSavingSketch(100);
+        second.offer("A");
+        second.offer("B");
+        LocalDateTime from = LocalDateTime.now().minusHours(2);
+        LocalDateTime to = LocalDateTime.now();
+        when(sketchRepository.findSketches(4, from, to)).thenReturn(List.of(
+            new SketchRow(4, from, UUID.randomUUID(), first.toBytes()),
+            new SketchRow(4, from, UUID.randomUUID(), second.toBytes())));
+
+        SpaceSavingSketch merged = sketches.merged(4, from, to);
+
+        assertEquals(3, merged.total());
+        assertEquals(new SpaceSavingSketch.Counter("A", 2, 0), merged.top(1).get(0));
+    }
+
+    @Test
+    void testMerged_UsesOpenSketchesInPlaceOfThisInstancesRowsWithoutWriting() {
+        LocalDateTime current = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime from = current.minusHours(1);
+        LocalDateTime to = current.plusHours(1);
+        sketches.record(4, List.of("A"));
+        sketches.checkpoint();
+        ArgumentCaptor<XRayRejectedKeySketch> captor = ArgumentCaptor.forClass(XRayRejectedKeySketch.class);
+        verify(sketchRepository).save(captor.capture());
+        XRayRejectedKeySketch ownRow = captor.getValue();
+        sketches.record(4, List.of("A", "B"));
+
+        SpaceSavingSketch otherInstance = new SpaceSavingSketch(100);
+        otherInstance.offer("B");
+        when(sketchRepository.findSketches(4, from, to)).thenReturn(List.of(
+            new SketchRow(4, current, ownRow.getInstanceId(), ownRow.getSketch()),
+            new SketchRow(4, current, UUID.randomUUID(), otherInstance.toBytes())));
+
+        SpaceSavingSketch merged = sketches.merged(4, from, to);
+
+        assertEquals(4, merged.total());
+        // Only the checkpoint above wrote
+        verify(sketchRepository, times(1)).save(any(XRayRejectedKeySketch.class));
+    }
+
+    @Test
+    void testRecord_CountedOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        sketches.record(4, List.of("A"));
+        sketches.checkpoint();
+
+        verifyNoInteractions(sketchRepository);
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        sketches.checkpoint();
+
+        verify(sketchRepository).save(any(XRayRejectedKeySketch.class));
+    }
+
+    @Test
+    void testRecord_RolledBackBatchIsNotCounted() {
+        TransactionSynchronizationManager.initSynchronization();
+        sketches.record(4, List.of("A"));
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        sketches.checkpoint();
+
+        verifyNoInteractions(sketchRepository);
+    }
+
+    @Test
+    void testRecord_IgnoresUnknownStepAndEmptyBatches() {
+        sketches.record(null, List.of("A"));
+        sketches.record(4, List.of());
+
+        sketches.checkpoint();
+
+        verifyNoInteractions(sketchRepository);
+    }
+}
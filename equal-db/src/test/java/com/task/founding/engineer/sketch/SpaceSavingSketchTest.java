@@ -0,0 +1,104 @@
+package com.task.founding.engineer.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpaceSavingSketchTest {
+
+    @Test
+    void testOffer_ExactBelowCapacity() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(10);
+        offer(sketch, "A", 5);
+        offer(sketch, "B", 3);
+        offer(sketch, "C", 1);
+
+        assertEquals(List.of(
+            new SpaceSavingSketch.Counter("A", 5, 0),
+            new SpaceSavingSketch.Counter("B", 3, 0)), sketch.top(2));
+        assertEquals(9, sketch.total());
+    }
+
+    @Test
+    void testOffer_FindsHeavyHittersInLongTail() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(100);
+        Map<String, Long> truth = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 200_000; i++) {
+            // Ten keys take half the stream, the rest is spread over 50,000 keys
+            String key = random.nextBoolean() ? "hot-" + random.nextInt(10) : "tail-" + random.nextInt(50_000);
+            sketch.offer(key);
+            truth.merge(key, 1L, Long::sum);
+        }
+
+        List<SpaceSavingSketch.Counter> top = sketch.top(10);
+        for (SpaceSavingSketch.Counter counter : top) {
+            assertTrue(counter.key().startsWith("hot-"), counter.key());
+            long actual = truth.get(counter.key());
+            assertTrue(counter.count() >= actual);
+            assertTrue(counter.count() - counter.error() <= actual);
+        }
+        assertEquals(200_000, sketch.total());
+        assertEquals(100, sketch.size());
+    }
+
+    @Test
+    void testMerge_KeepsHeavyHittersAndTotals() {
+        SpaceSavingSketch first = new SpaceSavingSketch(3);
+        offer(first, "A", 10);
+        offer(first, "B", 4);
+        offer(first, "C", 2);
+        offer(first, "D", 1);
+        SpaceSavingSketch second = new SpaceSavingSketch(3);
+        offer(second, "A", 5);
+        offer(second, "E", 8);
+
+        SpaceSavingSketch merged = SpaceSavingSketch.merge(3, List.of(first, second));
+
+        List<SpaceSavingSketch.Counter> top = merged.top(3);
+        assertEquals("A", top.get(0).key());
+        // The second sketch is not full, so A gets nothing added for it beyond its own count
+        assertEquals(15, top.get(0).count());
+        assertEquals("E", top.get(1).key());
+        // E is missing from the full first sketch, so it may have had up to that sketch's minimum (D at 3)
+        assertEquals(11, top.get(1).count());
+        assertEquals(3, top.get(1).error());
+        assertEquals(30, merged.total());
+    }
+
+    @Test
+    void testToBytes_RoundTrip() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(2);
+        offer(sketch, "12345", 3);
+        offer(sketch, "ünïcode", 2);
+
+        SpaceSavingSketch restored = SpaceSavingSketch.fromBytes(sketch.toBytes());
+
+        assertEquals(sketch.top(2), restored.top(2));
+        assertEquals(sketch.total(), restored.total());
+        // The restored heap keeps evicting the smallest counter
+        restored.offer("new");
+        assertEquals(List.of(
+            new SpaceSavingSketch.Counter("12345", 3, 0),
+            new SpaceSavingSketch.Counter("new", 3, 2)), restored.top(2));
+    }
+
+    @Test
+    void testFromBytes_RejectsUnknownVersion() {
+        byte[] bytes = new SpaceSavingSketch(1).toBytes();
+        bytes[0] = 9;
+
+        assertThrows(IllegalStateException.class, () -> SpaceSavingSketch.fromBytes(bytes));
+    }
+
+    private static void offer(SpaceSavingSketch sketch, String key, int times) {
+        for (int i = 0; i < times; i++) {
+            sketch.offer(key);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.task.founding.engineer.whatif;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.jdbc.Work;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CandidateColumnLoaderTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2026, 1, 8, 0, 0);
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement statement;
+
+    @Mock
+    private ResultSet rows;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        lenient().when(entityManager.unwrap(Session.class)).thenReturn(session);
+        lenient().doAnswer(invocation -> {
+            invocation.<Work>getArgument(0).execute(connection);
+            return null;
+        }).when(session).doWork(any());
+        lenient().when(connection.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(statement);
+        lenient().when(statement.executeQuery()).thenReturn(rows);
+    }
+
+    @Test
+    void testToSql_OnlyScoreSelectedAndPromotedKeys() {
+        List<Object> parameters = new ArrayList<>();
+
+        String sql = CandidateColumnLoader.toSql(4, 3, START, END, List.of("data #>> '{category}'"), parameters);
+
+        assertEquals("SELECT c.score, c.selected, c.data #>> '{category}' FROM xray_candidates c "
+            + "JOIN xray_steps s ON s.step_id = c.step_id JOIN xray_runs r ON r.run_id = s.run_id "
+            + "WHERE s.step_name_code = ? AND s.started_at >= ? AND s.started_at <= ? AND r.pipeline_type_code = ?", sql);
+        assertEquals(List.of(4, START, END, 3), parameters);
+        assertFalse(CandidateColumnLoader.toSql(4, null, START, END, List.of(), new ArrayList<>()).contains("xray_runs"));
+    }
+
+    @Test
+    void testLoad_StreamsRowsIntoColumns() throws Exception {
+        when(rows.next()).thenReturn(true, true, false);
+        when(rows.getDouble(1)).thenReturn(0.8, 0.0);
+        when(rows.wasNull()).thenReturn(false, true);
+        when(rows.getBoolean(2)).thenReturn(true, false);
+        when(rows.getString(3)).thenReturn("shoes", (String) null);
+
+        CandidateColumns columns = new CandidateColumnLoader(entityManager, Duration.ofSeconds(30), 10)
+            .load(4, null, START, END, List.of("data #>> '{category}'"));
+
+        assertEquals(2, columns.size());
+        assertEquals(0.8, columns.scores()[0]);
+        assertTrue(Double.isNaN(columns.scores()[1]));
+        assertEquals(1L, columns.selected()[0]);
+        assertEquals(List.of("shoes"), columns.values(0));
+        assertEquals(CandidateColumns.NULL_CODE, columns.codes(0)[1]);
+        verify(statement).setFetchSize(CandidateColumnLoader.FETCH_SIZE);
+        verify(statement).setQueryTimeout(30);
+        verify(statement).setObject(1, 4);
+    }
+
+    @Test
+    void testLoad_RejectsTooManyCandidates() throws Exception {
+        when(rows.next()).thenReturn(true);
+
+        CandidateColumnLoader loader = new CandidateColumnLoader(entityManager, Duration.ofSeconds(30), 100);
+
+        assertThrows(IllegalArgumentException.class, () -> loader.load(4, null, START, END, List.of()));
+        verify(rows, times(101)).next();
+    }
+}
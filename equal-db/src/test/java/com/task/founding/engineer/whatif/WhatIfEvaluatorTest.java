@@ -0,0 +1,93 @@
+package com.task.founding.engineer.whatif;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WhatIfEvaluatorTest {
+
+    @Test
+    void testEvaluate_MatchesRowByRowEvaluation() {
+        // Several parallel chunks, and a last word that is only partly filled
+        int rows = WhatIfEvaluator.CHUNK_WORDS * Long.SIZE * 3 + 37;
+        Random random = new Random(11);
+        String[] categories = {"shoes", "bags", "hats"};
+        double[] scores = new double[rows];
+        boolean[] selected = new boolean[rows];
+        String[] category = new String[rows];
+        String[] price = new String[rows];
+        CandidateColumns columns = new CandidateColumns(2);
+        for (int i = 0; i < rows; i++) {
+            scores[i] = random.nextInt(20) == 0 ? Double.NaN : random.nextDouble();
+            selected[i] = random.nextBoolean();
+            category[i] = random.nextInt(10) == 0 ? null : categories[random.nextInt(categories.length)];
+            price[i] = String.valueOf(random.nextInt(200));
+            columns.append(scores[i], selected[i], new String[] {category[i], price[i]});
+        }
+        List<WhatIfEvaluator.Rule> rules = List.of(
+            WhatIfEvaluator.Rule.of(columns, 0, "shoes"::equals),
+            WhatIfEvaluator.Rule.of(columns, 1, value -> Integer.parseInt(value) <= 100));
+        double[] thresholds = {0.25, 0.5, Double.NaN};
+
+        WhatIfEvaluator.Counts counts = WhatIfEvaluator.evaluate(columns, rules, thresholds);
+
+        assertEquals(rows, counts.candidates());
+        for (int t = 0; t < thresholds.length; t++) {
+            long expectedSelected = 0;
+            long expectedKept = 0;
+            long expectedHistorical = 0;
+            long expectedUnscored = 0;
+            for (int i = 0; i < rows; i++) {
+                boolean passes = "shoes".equals(category[i]) && Integer.parseInt(price[i]) <= 100
+                    && (Double.isNaN(thresholds[t]) || scores[i] >= thresholds[t]);
+                expectedSelected += passes ? 1 : 0;
+                expectedKept += passes && selected[i] ? 1 : 0;
+                expectedHistorical += selected[i] ? 1 : 0;
+                expectedUnscored += Double.isNaN(scores[i]) ? 1 : 0;
+            }
+            assertEquals(expectedSelected, counts.selected()[t]);
+            assertEquals(expectedKept, counts.keptSelected()[t]);
+            assertEquals(expectedHistorical, counts.historicalSelected());
+            assertEquals(expectedUnscored, counts.unscored());
+        }
+    }
+
+    @Test
+    void testEvaluate_NoRowsAndNoRules() {
+        WhatIfEvaluator.Counts empty = WhatIfEvaluator.evaluate(new CandidateColumns(0), List.of(), new double[] {0.5});
+        assertEquals(0, empty.candidates());
+        assertEquals(0, empty.selected()[0]);
+
+        CandidateColumns columns = new CandidateColumns(0);
+        columns.append(0.9, true, new String[0]);
+        columns.append(0.1, false, new String[0]);
+        columns.append(Double.NaN, true, new String[0]);
+
+        WhatIfEvaluator.Counts counts = WhatIfEvaluator.evaluate(columns, List.of(), new double[] {0.0, Double.NaN});
+
+        assertEquals(2, counts.selected()[0]);
+        assertEquals(1, counts.keptSelected()[0]);
+        // Without a threshold and rules every row passes, including the unscored one
+        assertEquals(3, counts.selected()[1]);
+        assertEquals(2, counts.keptSelected()[1]);
+        assertEquals(1, counts.unscored());
+    }
+
+    @Test
+    void testRule_DecidedPerDistinctValue() {
+        CandidateColumns columns = new CandidateColumns(1);
+        columns.append(0.5, false, new String[] {"b"});
+        columns.append(0.5, false, new String[] {"a"});
+        columns.append(0.5, false, new String[] {"b"});
+        columns.append(0.5, false, new String[] {null});
+
+        WhatIfEvaluator.Rule rule = WhatIfEvaluator.Rule.of(columns, 0, "b"::equals);
+
+        assertEquals(List.of("b", "a"), columns.values(0));
+        assertArrayEquals(new boolean[] {true, false}, rule.matchingCodes());
+        assertEquals(2, WhatIfEvaluator.evaluate(columns, List.of(rule), new double[] {Double.NaN}).selected()[0]);
+    }
+}
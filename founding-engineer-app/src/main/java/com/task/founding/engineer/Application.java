@@ -3,11 +3,13 @@ package com.task.founding.engineer;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(scanBasePackages = {
     "com.task.founding.engineer"  // Scans all packages: dto, service, repository, api.controller
 })
 @EnableJpaRepositories(basePackages = "com.task.founding.engineer.repository")
+@EnableScheduling
 public class Application {
 
 	public static void main(String[] args) {
@@ -0,0 +1,81 @@
+package com.task.founding.engineer.execution;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admits at most {@code maxConcurrent} requests of one workload class at once.
+ * <p>
+ * Up to {@code maxQueued} more wait, in arrival order, for at most {@code queueTimeout}. A request
+ * that finds the queue full, or times out in it, is rejected at once. The requests a class can park
+ * are therefore bounded, and it cannot take the threads every other class needs.
+ */
+public class Bulkhead {
+
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final Duration queueTimeout;
+    private final Semaphore slots;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    public Bulkhead(int maxConcurrent, int maxQueued, Duration queueTimeout) {
+        if (maxConcurrent < 1 || maxQueued < 0) {
+            throw new IllegalArgumentException(
+                    "Bulkhead needs a positive concurrency and a non-negative queue: " + maxConcurrent + ", " + maxQueued);
+        }
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.queueTimeout = queueTimeout;
+        this.slots = new Semaphore(maxConcurrent, true);
+    }
+
+    /**
+     * Takes a slot, waiting in the queue if there is room in it.
+     *
+     * @return false when the request is rejected; {@link #exit()} is then not called
+     */
+    public boolean tryEnter() {
+        try {
+            // The timed form honours fairness, so a new request does not overtake the queue
+            if (slots.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+            if (queued.incrementAndGet() > maxQueued) {
+                queued.decrementAndGet();
+                rejected.increment();
+                return false;
+            }
+            try {
+                if (slots.tryAcquire(queueTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                    return true;
+                }
+            } finally {
+                queued.decrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public void exit() {
+        slots.release();
+    }
+
+    public int active() {
+        return maxConcurrent - slots.availablePermits();
+    }
+
+    public int queued() {
+        return queued.get();
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+}
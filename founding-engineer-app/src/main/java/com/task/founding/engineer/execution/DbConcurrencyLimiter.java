@@ -0,0 +1,69 @@
+package com.task.founding.engineer.execution;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Wraps the application's data source in a {@link LimitedDataSource} when
+ * {@code xray.db-limiter.enabled} is set, so at most {@code max-concurrent} requests or jobs hold a
+ * connection at once whatever the number of threads serving them. Meant for the {@code virtual}
+ * profile, where request concurrency is no longer bounded by a thread pool.
+ */
+@Slf4j
+@Component
+@ManagedResource(objectName = "com.task.founding.engineer:type=DbConcurrencyLimiter")
+public class DbConcurrencyLimiter implements BeanPostProcessor, Ordered {
+
+    // Wraps the data source before WorkloadBulkheads does
+    static final int ORDER = 0;
+
+    private final boolean enabled;
+    private final int maxConcurrent;
+    private final Duration acquireTimeout;
+    private volatile LimitedDataSource limited;
+
+    public DbConcurrencyLimiter(
+            @Value("${xray.db-limiter.enabled:false}") boolean enabled,
+            @Value("${xray.db-limiter.max-concurrent:9}") int maxConcurrent,
+            @Value("${xray.db-limiter.acquire-timeout:PT10S}") Duration acquireTimeout) {
+        this.enabled = enabled;
+        this.maxConcurrent = maxConcurrent;
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!enabled || !(bean instanceof DataSource dataSource) || bean instanceof LimitedDataSource) {
+            return bean;
+        }
+        log.info("Limiting data source {} to {} concurrent connections", beanName, maxConcurrent);
+        limited = new LimitedDataSource(dataSource, maxConcurrent, acquireTimeout);
+        return limited;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @ManagedAttribute(description = "Database permits not in use; -1 when the limiter is disabled")
+    public int getAvailablePermits() {
+        LimitedDataSource current = limited;
+        return Objects.nonNull(current) ? current.availablePermits() : -1;
+    }
+
+    @ManagedAttribute(description = "Threads waiting for a database permit (estimate)")
+    public int getWaiting() {
+        LimitedDataSource current = limited;
+        return Objects.nonNull(current) ? current.waiting() : 0;
+    }
+}
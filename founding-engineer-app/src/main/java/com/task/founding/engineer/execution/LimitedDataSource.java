@@ -0,0 +1,136 @@
+package com.task.founding.engineer.execution;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Holds at most {@code maxConcurrent} connections of the target data source open at once.
+ * <p>
+ * A caller takes a permit before borrowing a connection and gives it back when the connection is
+ * closed, so a transaction holds its permit from begin to commit. Waiters park on a fair semaphore,
+ * which costs a virtual thread nothing, and fail with {@link SQLTransientConnectionException} after
+ * {@code acquireTimeout}.
+ * <p>
+ * Permits are reentrant per thread: a connection borrowed while the thread still holds one, such as
+ * the connection of a {@code REQUIRES_NEW} transaction nested in another, shares the outer permit
+ * instead of waiting for a second one that every other holder may be waiting for too. Such nested
+ * connections are not counted, so the pool needs at least one connection beyond the permits.
+ */
+public class LimitedDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final Duration acquireTimeout;
+    // Open connections of the thread's permit; 0 once they are all closed and the permit is back
+    private final ThreadLocal<AtomicInteger> held = new ThreadLocal<>();
+
+    public LimitedDataSource(DataSource target, int maxConcurrent, Duration acquireTimeout) {
+        super(target);
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("Database concurrency limit must be positive: " + maxConcurrent);
+        }
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        AtomicInteger holder = enter();
+        try {
+            return limited(obtainTargetDataSource().getConnection(), holder);
+        } catch (SQLException | RuntimeException e) {
+            exit(holder);
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        AtomicInteger holder = enter();
+        try {
+            return limited(obtainTargetDataSource().getConnection(username, password), holder);
+        } catch (SQLException | RuntimeException e) {
+            exit(holder);
+            throw e;
+        }
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    public int waiting() {
+        return permits.getQueueLength();
+    }
+
+    // Joins the permit the thread holds, or takes a new one
+    private AtomicInteger enter() throws SQLException {
+        AtomicInteger holder = held.get();
+        // A connection closed on another thread may have just returned the permit; then take a new one
+        if (Objects.nonNull(holder) && holder.getAndUpdate(open -> open > 0 ? open + 1 : open) > 0) {
+            return holder;
+        }
+        acquire();
+        holder = new AtomicInteger(1);
+        held.set(holder);
+        return holder;
+    }
+
+    private void exit(AtomicInteger holder) {
+        if (holder.decrementAndGet() == 0) {
+            permits.release();
+            if (held.get() == holder) {
+                held.remove();
+            }
+        }
+    }
+
+    private void acquire() throws SQLException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database permit", e);
+        }
+        if (!acquired) {
+            throw new SQLTransientConnectionException(
+                    "Database concurrency limit reached; no permit within " + acquireTimeout);
+        }
+    }
+
+    // Closing the connection, once, leaves its permit; the last one out returns it
+    private Connection limited(Connection connection, AtomicInteger holder) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        } finally {
+                            exit(holder);
+                        }
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
@@ -0,0 +1,150 @@
+package com.task.founding.engineer.execution;
+
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.NotNull;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reports virtual threads pinned to their carrier, from the JFR {@code jdk.VirtualThreadPinned}
+ * event streamed in process.
+ * <p>
+ * A virtual thread that blocks inside {@code synchronized} or a native frame keeps its carrier, so
+ * a few slow pinned calls in the Hibernate or JDBC path can stall every request. Each pinning
+ * longer than {@code threshold} is counted by its site, the first frame in the application,
+ * Hibernate, the JDBC driver or the pool; the first pinning at a site is logged with its stack.
+ * Counts are exported over JMX.
+ */
+@Slf4j
+@Component
+@ManagedResource(objectName = "com.task.founding.engineer:type=PinningMonitor")
+public class PinningMonitor implements SmartLifecycle {
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    // Frames of these packages name the site of a pinning; JDK frames above them do not
+    private static final List<String> SITE_PACKAGES = List.of(
+            "com.task.founding.engineer.", "org.hibernate.", "org.postgresql.", "com.zaxxer.hikari.", "org.h2.");
+    // Bound on distinct sites, so an unbounded set of call sites cannot grow the map
+    private static final int MAX_SITES = 1000;
+    private static final String OTHER_SITE = "_other";
+    private static final int LOGGED_FRAMES = 20;
+
+    private final boolean enabled;
+    private final Duration threshold;
+    private final ConcurrentMap<String, LongAdder> bySite = new ConcurrentHashMap<>();
+    private final LongAdder pinned = new LongAdder();
+    private volatile RecordingStream stream;
+
+    public PinningMonitor(
+            @Value("${xray.pinning-monitor.enabled:false}") boolean enabled,
+            @Value("${xray.pinning-monitor.threshold:PT0.02S}") Duration threshold) {
+        this.enabled = enabled;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || Objects.nonNull(stream)) {
+            return;
+        }
+        RecordingStream recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::record);
+        recording.startAsync();
+        stream = recording;
+        log.info("Reporting virtual threads pinned for more than {}", threshold);
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream recording = stream;
+        if (Objects.nonNull(recording)) {
+            stream = null;
+            recording.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return Objects.nonNull(stream);
+    }
+
+    @ManagedAttribute(description = "Virtual thread pinnings longer than the threshold since startup")
+    public long getPinnedEvents() {
+        return pinned.sum();
+    }
+
+    @ManagedAttribute(description = "Pinnings longer than the threshold by site")
+    public Map<String, Long> getPinnedSites() {
+        Map<String, Long> sites = new TreeMap<>();
+        bySite.forEach((site, count) -> sites.put(site, count.sum()));
+        return sites;
+    }
+
+    void record(@NotNull RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = Objects.nonNull(stackTrace) ? stackTrace.getFrames() : List.of();
+        String site = siteOf(frames);
+        pinned.increment();
+        LongAdder count = bySite.get(site);
+        if (Objects.isNull(count)) {
+            if (bySite.size() >= MAX_SITES) {
+                site = OTHER_SITE;
+            }
+            LongAdder created = new LongAdder();
+            count = bySite.putIfAbsent(site, created);
+            if (Objects.isNull(count)) {
+                count = created;
+                log.warn("Virtual thread pinned for {} ms at {}:{}", event.getDuration().toMillis(), site, describe(frames));
+            }
+        }
+        count.increment();
+    }
+
+    static String siteOf(@NotNull List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            String type = typeOf(frame);
+            if (Objects.nonNull(type) && SITE_PACKAGES.stream().anyMatch(type::startsWith)) {
+                return name(frame);
+            }
+        }
+        return frames.isEmpty() ? "unknown" : name(frames.getFirst());
+    }
+
+    @Nullable
+    private static String typeOf(RecordedFrame frame) {
+        return Objects.nonNull(frame.getMethod()) ? frame.getMethod().getType().getName() : null;
+    }
+
+    private static String name(RecordedFrame frame) {
+        String type = typeOf(frame);
+        if (Objects.isNull(type)) {
+            return "unknown";
+        }
+        return type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    private static String describe(List<RecordedFrame> frames) {
+        StringBuilder stack = new StringBuilder();
+        frames.stream().limit(LOGGED_FRAMES).forEach(frame -> stack.append("\n\tat ").append(name(frame)));
+        return stack.toString();
+    }
+}
@@ -0,0 +1,170 @@
+package com.task.founding.engineer.execution;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.validation.constraints.NotNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.PathContainer;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bulkheads between the {@link WorkloadClass workload classes}, on when {@code xray.bulkhead.enabled}
+ * is set.
+ * <p>
+ * Requests are classified by {@link #classify(String, String)}. Paths matching
+ * {@code analytics-paths} are analytics, other writes are ingest, and other reads are interactive.
+ * Each class gets a {@link Bulkhead} of request slots with a bounded queue, applied by
+ * {@link WorkloadInterceptor}. It also gets its own database permits, because the data source is
+ * wrapped in a {@link WorkloadDataSource}. A heavy analytics query or a burst of large
+ * {@code GET /runs} can then only exhaust its own class, and batch ingest keeps its connections.
+ * <p>
+ * Runs after {@link DbConcurrencyLimiter}, so a request takes its class permit before the global
+ * one and a class waiting on its own permits holds none of the global ones.
+ */
+@Slf4j
+@Component
+@ManagedResource(objectName = "com.task.founding.engineer:type=WorkloadBulkheads")
+public class WorkloadBulkheads implements BeanPostProcessor, Ordered {
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final boolean enabled;
+    private final List<PathPattern> analyticsPaths;
+    private final Map<WorkloadClass, Bulkhead> bulkheads = new EnumMap<>(WorkloadClass.class);
+    private final Map<WorkloadClass, Integer> dbPermits = new EnumMap<>(WorkloadClass.class);
+    private final Duration dbAcquireTimeout;
+    private volatile WorkloadDataSource dataSource;
+
+    public WorkloadBulkheads(
+            @Value("${xray.bulkhead.enabled:false}") boolean enabled,
+            @Value("${xray.bulkhead.analytics-paths:/api/v1/analytics/**}") String[] analyticsPaths,
+            @Value("${xray.bulkhead.queue-timeout:PT5S}") Duration queueTimeout,
+            @Value("${xray.bulkhead.db-acquire-timeout:PT10S}") Duration dbAcquireTimeout,
+            @Value("${xray.bulkhead.ingest.max-concurrent:80}") int ingestConcurrent,
+            @Value("${xray.bulkhead.ingest.max-queued:40}") int ingestQueued,
+            @Value("${xray.bulkhead.ingest.db-permits:4}") int ingestPermits,
+            @Value("${xray.bulkhead.interactive.max-concurrent:40}") int interactiveConcurrent,
+            @Value("${xray.bulkhead.interactive.max-queued:20}") int interactiveQueued,
+            @Value("${xray.bulkhead.interactive.db-permits:3}") int interactivePermits,
+            @Value("${xray.bulkhead.analytics.max-concurrent:10}") int analyticsConcurrent,
+            @Value("${xray.bulkhead.analytics.max-queued:10}") int analyticsQueued,
+            @Value("${xray.bulkhead.analytics.db-permits:2}") int analyticsPermits) {
+        this.enabled = enabled;
+        this.analyticsPaths = Arrays.stream(analyticsPaths)
+                .map(String::trim)
+                .filter(path -> !path.isEmpty())
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
+        this.dbAcquireTimeout = dbAcquireTimeout;
+        bulkheads.put(WorkloadClass.INGEST, new Bulkhead(ingestConcurrent, ingestQueued, queueTimeout));
+        bulkheads.put(WorkloadClass.INTERACTIVE, new Bulkhead(interactiveConcurrent, interactiveQueued, queueTimeout));
+        bulkheads.put(WorkloadClass.ANALYTICS, new Bulkhead(analyticsConcurrent, analyticsQueued, queueTimeout));
+        dbPermits.put(WorkloadClass.INGEST, ingestPermits);
+        dbPermits.put(WorkloadClass.INTERACTIVE, interactivePermits);
+        dbPermits.put(WorkloadClass.ANALYTICS, analyticsPermits);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param path the request path without the context path
+     */
+    @NotNull
+    public WorkloadClass classify(@NotNull String method, @NotNull String path) {
+        PathContainer container = PathContainer.parsePath(path);
+        if (analyticsPaths.stream().anyMatch(pattern -> pattern.matches(container))) {
+            return WorkloadClass.ANALYTICS;
+        }
+        return READ_METHODS.contains(method) ? WorkloadClass.INTERACTIVE : WorkloadClass.INGEST;
+    }
+
+    @NotNull
+    public Bulkhead bulkhead(@NotNull WorkloadClass workload) {
+        return bulkheads.get(workload);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!enabled || !(bean instanceof DataSource target) || bean instanceof WorkloadDataSource) {
+            return bean;
+        }
+        log.info("Splitting data source {} into database permits per workload class {}", beanName, dbPermits);
+        warnIfPoolIsSmaller(target);
+        dataSource = new WorkloadDataSource(target, dbPermits, dbAcquireTimeout);
+        return dataSource;
+    }
+
+    @Override
+    public int getOrder() {
+        return DbConcurrencyLimiter.ORDER + 1;
+    }
+
+    @ManagedAttribute(description = "Requests holding a slot, by workload class")
+    public Map<String, Long> getActiveRequests() {
+        return byClass(workload -> bulkheads.get(workload).active());
+    }
+
+    @ManagedAttribute(description = "Requests waiting for a slot, by workload class")
+    public Map<String, Long> getQueuedRequests() {
+        return byClass(workload -> bulkheads.get(workload).queued());
+    }
+
+    @ManagedAttribute(description = "Requests rejected with a full queue or after the queue timeout since startup, by workload class")
+    public Map<String, Long> getRejectedRequests() {
+        return byClass(workload -> bulkheads.get(workload).rejected());
+    }
+
+    @ManagedAttribute(description = "Database permits not in use by workload class; empty when the bulkheads are disabled")
+    public Map<String, Long> getAvailableDbPermits() {
+        WorkloadDataSource current = dataSource;
+        return Objects.nonNull(current) ? byClass(current::availablePermits) : Map.of();
+    }
+
+    private static Map<String, Long> byClass(ToLongFunction<WorkloadClass> value) {
+        Map<String, Long> values = new TreeMap<>();
+        for (WorkloadClass workload : WorkloadClass.values()) {
+            values.put(workload.name(), value.applyAsLong(workload));
+        }
+        return values;
+    }
+
+    // Permits beyond the pool size let a class wait on connections another class holds
+    private void warnIfPoolIsSmaller(DataSource target) {
+        try {
+            if (target.isWrapperFor(HikariDataSource.class)) {
+                int poolSize = target.unwrap(HikariDataSource.class).getMaximumPoolSize();
+                int permits = dbPermits.values().stream().mapToInt(Integer::intValue).sum();
+                if (permits > poolSize) {
+                    log.warn("Database permits of all workload classes ({}) exceed the pool size ({}); classes are not isolated",
+                            permits, poolSize);
+                } else if (permits == poolSize) {
+                    // A nested transaction's connection shares its caller's permit but still needs a pooled one
+                    log.warn("Database permits of all workload classes ({}) take the whole pool ({}); nested transactions wait on the pool",
+                            permits, poolSize);
+                }
+            }
+        } catch (SQLException e) {
+            log.debug("Could not read the pool size of the data source", e);
+        }
+    }
+}
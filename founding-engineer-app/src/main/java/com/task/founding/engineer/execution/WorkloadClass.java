@@ -0,0 +1,14 @@
+package com.task.founding.engineer.execution;
+
+/**
+ * Kinds of work isolated from each other by {@link WorkloadBulkheads}: each class has its own request
+ * slots, request queue and database permits, so saturating one cannot starve the others.
+ */
+public enum WorkloadClass {
+    // Writes from the pipelines: runs, steps and candidates
+    INGEST,
+    // Reads of single runs, steps and candidate lists
+    INTERACTIVE,
+    // Aggregations, scans and exports, and work started outside a request
+    ANALYTICS
+}
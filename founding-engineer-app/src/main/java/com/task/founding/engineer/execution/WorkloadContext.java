@@ -0,0 +1,57 @@
+package com.task.founding.engineer.execution;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.Objects;
+
+/**
+ * The workload class of the work running on the current thread, set by {@link WorkloadInterceptor}
+ * for a request and read by {@link WorkloadDataSource} to pick the permits a connection is taken from.
+ */
+public final class WorkloadContext {
+
+    // Scheduled jobs and startup work compete with analytics, never with ingest
+    static final WorkloadClass UNCLASSIFIED = WorkloadClass.ANALYTICS;
+
+    private static final ThreadLocal<WorkloadClass> CURRENT = new ThreadLocal<>();
+
+    private WorkloadContext() {
+    }
+
+    @NotNull
+    public static WorkloadClass current() {
+        WorkloadClass workload = CURRENT.get();
+        return Objects.nonNull(workload) ? workload : UNCLASSIFIED;
+    }
+
+    static void set(@NotNull WorkloadClass workload) {
+        CURRENT.set(workload);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Wraps a task handed off to another thread so it runs in the class of the current thread.
+     */
+    public static Runnable propagate(@NotNull Runnable task) {
+        WorkloadClass workload = CURRENT.get();
+        if (Objects.isNull(workload)) {
+            return task;
+        }
+        return () -> {
+            WorkloadClass previous = CURRENT.get();
+            CURRENT.set(workload);
+            try {
+                task.run();
+            } finally {
+                if (Objects.nonNull(previous)) {
+                    CURRENT.set(previous);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,53 @@
+package com.task.founding.engineer.execution;
+
+import jakarta.validation.constraints.NotNull;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Takes each connection from the permits of the current {@link WorkloadContext workload class}.
+ * <p>
+ * Every class has its own {@link LimitedDataSource} over the same pool. When the permits add up to
+ * no more than the pool size, a class always finds a connection for each of its permits, whatever
+ * the other classes hold.
+ */
+public class WorkloadDataSource extends DelegatingDataSource {
+
+    private final Map<WorkloadClass, LimitedDataSource> byClass = new EnumMap<>(WorkloadClass.class);
+
+    public WorkloadDataSource(DataSource target, @NotNull Map<WorkloadClass, Integer> permits, Duration acquireTimeout) {
+        super(target);
+        for (WorkloadClass workload : WorkloadClass.values()) {
+            Integer classPermits = permits.get(workload);
+            if (Objects.isNull(classPermits)) {
+                throw new IllegalArgumentException("No database permits configured for " + workload);
+            }
+            byClass.put(workload, new LimitedDataSource(target, classPermits, acquireTimeout));
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return byClass.get(WorkloadContext.current()).getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return byClass.get(WorkloadContext.current()).getConnection(username, password);
+    }
+
+    public int availablePermits(@NotNull WorkloadClass workload) {
+        return byClass.get(workload).availablePermits();
+    }
+
+    public int waiting(@NotNull WorkloadClass workload) {
+        return byClass.get(workload).waiting();
+    }
+}
@@ -0,0 +1,77 @@
+package com.task.founding.engineer.execution;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Admits each request through the {@link Bulkhead} of its workload class and runs it in that class.
+ * <p>
+ * A request gives its slot back when the handler returns. For a streamed or event-stream response,
+ * that is when the response goes async, so long-lived streams do not hold slots. The work they hand
+ * to the application task executor keeps the class, because this is also that executor's
+ * {@link TaskDecorator}, so a streamed export still takes analytics database permits. A rejected
+ * request fails with {@link RejectedExecutionException}, answered with 503.
+ */
+@Component
+@RequiredArgsConstructor
+public class WorkloadInterceptor implements AsyncHandlerInterceptor, WebMvcConfigurer, TaskDecorator {
+
+    private static final String WORKLOAD_ATTRIBUTE = WorkloadInterceptor.class.getName() + ".workload";
+
+    private final WorkloadBulkheads bulkheads;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (bulkheads.isEnabled()) {
+            registry.addInterceptor(this);
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Async and error dispatches belong to a request that was already admitted
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        WorkloadClass workload = bulkheads.classify(request.getMethod(), path);
+        if (!bulkheads.bulkhead(workload).tryEnter()) {
+            throw new RejectedExecutionException(workload.name().toLowerCase() + " requests are at capacity; retry later");
+        }
+        request.setAttribute(WORKLOAD_ATTRIBUTE, workload);
+        WorkloadContext.set(workload);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        exit(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        exit(request);
+    }
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        return WorkloadContext.propagate(runnable);
+    }
+
+    private void exit(HttpServletRequest request) {
+        if (request.getAttribute(WORKLOAD_ATTRIBUTE) instanceof WorkloadClass workload) {
+            request.removeAttribute(WORKLOAD_ATTRIBUTE);
+            bulkheads.bulkhead(workload).exit();
+            WorkloadContext.clear();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.task.founding.engineer.execution;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadTest {
+
+    @Test
+    void testTryEnter_RejectsAtOnceWhenTheQueueIsFull() {
+        Bulkhead bulkhead = new Bulkhead(1, 0, Duration.ofSeconds(5));
+
+        assertTrue(bulkhead.tryEnter());
+        long start = System.nanoTime();
+        assertFalse(bulkhead.tryEnter());
+
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(1).toNanos());
+        assertEquals(1, bulkhead.active());
+        assertEquals(1, bulkhead.rejected());
+    }
+
+    @Test
+    void testTryEnter_QueuedRequestTakesTheReleasedSlot() throws Exception {
+        Bulkhead bulkhead = new Bulkhead(1, 1, Duration.ofSeconds(10));
+        assertTrue(bulkhead.tryEnter());
+
+        CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(bulkhead::tryEnter);
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (bulkhead.queued() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(1, bulkhead.queued());
+        // The queue holds one: a third request is turned away
+        assertFalse(bulkhead.tryEnter());
+
+        bulkhead.exit();
+
+        assertTrue(waiter.get(5, TimeUnit.SECONDS));
+        assertEquals(0, bulkhead.queued());
+        assertEquals(1, bulkhead.active());
+    }
+
+    @Test
+    void testTryEnter_RejectsAfterTheQueueTimeout() {
+        Bulkhead bulkhead = new Bulkhead(1, 1, Duration.ofMillis(50));
+        assertTrue(bulkhead.tryEnter());
+
+        assertFalse(bulkhead.tryEnter());
+
+        assertEquals(0, bulkhead.queued());
+        assertEquals(1, bulkhead.rejected());
+    }
+
+    @Test
+    void testConstructor_RejectsInvalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new Bulkhead(0, 1, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> new Bulkhead(1, -1, Duration.ofSeconds(1)));
+    }
+}
@@ -0,0 +1,36 @@
+package com.task.founding.engineer.execution;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class DbConcurrencyLimiterTest {
+
+    private final DataSource dataSource = mock(DataSource.class);
+
+    @Test
+    void testPostProcess_WrapsTheDataSourceWhenEnabled() {
+        DbConcurrencyLimiter limiter = new DbConcurrencyLimiter(true, 4, Duration.ofSeconds(1));
+
+        Object processed = limiter.postProcessAfterInitialization(dataSource, "dataSource");
+
+        LimitedDataSource limited = assertInstanceOf(LimitedDataSource.class, processed);
+        assertSame(dataSource, limited.getTargetDataSource());
+        assertSame(limited, limiter.postProcessAfterInitialization(limited, "dataSource"));
+        assertEquals(4, limiter.getAvailablePermits());
+    }
+
+    @Test
+    void testPostProcess_LeavesBeansAloneWhenDisabled() {
+        DbConcurrencyLimiter limiter = new DbConcurrencyLimiter(false, 4, Duration.ofSeconds(1));
+        Object other = new Object();
+
+        assertSame(dataSource, limiter.postProcessAfterInitialization(dataSource, "dataSource"));
+        assertSame(other, limiter.postProcessAfterInitialization(other, "other"));
+        assertEquals(-1, limiter.getAvailablePermits());
+    }
+}
@@ -0,0 +1,133 @@
+package com.task.founding.engineer.execution;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LimitedDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    private LimitedDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new LimitedDataSource(target, 1, Duration.ofMillis(50));
+    }
+
+    @Test
+    void testGetConnection_WaitsForAPermitThenTimesOut() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+        Connection held = dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, this::getConnectionOnAnotherThread);
+
+        held.close();
+        assertNotNull(dataSource.getConnection());
+        verify(target, times(2)).getConnection();
+    }
+
+    @Test
+    void testGetConnection_NestedConnectionSharesTheThreadsPermit() throws Exception {
+        when(target.getConnection()).thenReturn(connection);
+        Connection outer = dataSource.getConnection();
+
+        Connection nested = dataSource.getConnection();
+        assertEquals(0, dataSource.availablePermits());
+        assertThrows(SQLTransientConnectionException.class, this::getConnectionOnAnotherThread);
+
+        nested.close();
+        assertEquals(0, dataSource.availablePermits());
+        outer.close();
+        assertEquals(1, dataSource.availablePermits());
+    }
+
+    @Test
+    void testGetConnection_TakesANewPermitOnceAConnectionClosedElsewhereReturnedIt() throws Exception {
+        when(target.getConnection()).thenReturn(connection);
+        Connection held = dataSource.getConnection();
+        Thread.ofPlatform().start(() -> {
+            try {
+                held.close();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }).join();
+        assertEquals(1, dataSource.availablePermits());
+
+        Connection next = dataSource.getConnection();
+
+        assertEquals(0, dataSource.availablePermits());
+        next.close();
+        assertEquals(1, dataSource.availablePermits());
+    }
+
+    @Test
+    void testClose_ReleasesThePermitOnce() throws Exception {
+        dataSource = new LimitedDataSource(target, 2, Duration.ofMillis(50));
+        when(target.getConnection()).thenReturn(connection);
+        Connection first = dataSource.getConnection();
+        getConnectionOnAnotherThread();
+
+        first.close();
+        first.close();
+
+        assertEquals(1, dataSource.availablePermits());
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void testGetConnection_FailedBorrowReleasesThePermit() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("pool exhausted"));
+
+        assertThrows(SQLException.class, () -> dataSource.getConnection());
+
+        assertEquals(1, dataSource.availablePermits());
+    }
+
+    @Test
+    void testConnection_DelegatesOtherCallsAndTheirExceptions() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(false);
+        doThrow(new SQLException("read only")).when(connection).setReadOnly(true);
+        Connection limited = dataSource.getConnection();
+
+        assertFalse(limited.getAutoCommit());
+        SQLException thrown = assertThrows(SQLException.class, () -> limited.setReadOnly(true));
+        assertEquals("read only", thrown.getMessage());
+    }
+
+    @Test
+    void testConstructor_RejectsNonPositiveLimit() {
+        assertThrows(IllegalArgumentException.class, () -> new LimitedDataSource(target, 0, Duration.ofSeconds(1)));
+    }
+
+    // A thread of its own holds no permit to share
+    private Connection getConnectionOnAnotherThread() throws Exception {
+        FutureTask<Connection> borrow = new FutureTask<>(dataSource::getConnection);
+        Thread.ofPlatform().start(borrow);
+        try {
+            return borrow.get();
+        } catch (ExecutionException e) {
+            throw (Exception) e.getCause();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.task.founding.engineer.execution;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class PinningMonitorTest {
+
+    private final Object lock = new Object();
+    private PinningMonitor monitor;
+
+    @AfterEach
+    void tearDown() {
+        if (Objects.nonNull(monitor)) {
+            monitor.stop();
+        }
+    }
+
+    @Test
+    void testRecord_CountsPinningBySite() throws InterruptedException {
+        // Since JDK 24 blocking inside synchronized no longer pins
+        assumeTrue(Runtime.version().feature() < 24);
+        monitor = new PinningMonitor(true, Duration.ofMillis(10));
+        monitor.start();
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(20).toNanos();
+        while (monitor.getPinnedEvents() == 0 && System.nanoTime() < deadline) {
+            Thread.ofVirtual().start(this::sleepHoldingLock).join();
+            Thread.sleep(200);
+        }
+
+        assertTrue(monitor.getPinnedEvents() > 0);
+        Map<String, Long> sites = monitor.getPinnedSites();
+        assertTrue(sites.keySet().stream().anyMatch(site -> site.startsWith(PinningMonitorTest.class.getName() + ".sleepHoldingLock")),
+                sites.toString());
+    }
+
+    @Test
+    void testStart_DisabledRecordsNothing() {
+        monitor = new PinningMonitor(false, Duration.ofMillis(10));
+
+        monitor.start();
+
+        assertFalse(monitor.isRunning());
+        assertEquals(0, monitor.getPinnedEvents());
+    }
+
+    private void sleepHoldingLock() {
+        synchronized (lock) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.task.founding.engineer.execution;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class WorkloadBulkheadsTest {
+
+    private final DataSource dataSource = mock(DataSource.class);
+
+    @Test
+    void testClassify_AnalyticsPathsThenWritesThenReads() {
+        WorkloadBulkheads bulkheads = bulkheads(true);
+
+        assertEquals(WorkloadClass.ANALYTICS, bulkheads.classify("GET", "/api/v1/analytics/filtering_stats"));
+        assertEquals(WorkloadClass.ANALYTICS, bulkheads.classify("POST", "/api/v1/analytics/what_if"));
+        assertEquals(WorkloadClass.ANALYTICS, bulkheads.classify("GET", "/api/v1/runs/42/decision_matrix"));
+        assertEquals(WorkloadClass.INGEST, bulkheads.classify("POST", "/api/v1/steps/42/candidates/batch"));
+        assertEquals(WorkloadClass.INGEST, bulkheads.classify("PUT", "/api/v1/runs/42/complete"));
+        assertEquals(WorkloadClass.INTERACTIVE, bulkheads.classify("GET", "/api/v1/runs"));
+        assertEquals(WorkloadClass.INTERACTIVE, bulkheads.classify("GET", "/api/v1/runs/42/stream"));
+    }
+
+    @Test
+    void testPostProcess_SplitsTheDataSourceWhenEnabled() {
+        WorkloadBulkheads bulkheads = bulkheads(true);
+
+        Object processed = bulkheads.postProcessAfterInitialization(dataSource, "dataSource");
+
+        WorkloadDataSource split = assertInstanceOf(WorkloadDataSource.class, processed);
+        assertSame(dataSource, split.getTargetDataSource());
+        assertSame(split, bulkheads.postProcessAfterInitialization(split, "dataSource"));
+        assertEquals(Map.of("ANALYTICS", 1L, "INGEST", 3L, "INTERACTIVE", 2L), bulkheads.getAvailableDbPermits());
+    }
+
+    @Test
+    void testPostProcess_WrapsTheGlobalLimiterNotTheOtherWayRound() {
+        DbConcurrencyLimiter limiter = new DbConcurrencyLimiter(true, 6, Duration.ofSeconds(1));
+        WorkloadBulkheads bulkheads = bulkheads(true);
+        HikariDataSource pool = new HikariDataSource();
+
+        assertTrue(limiter.getOrder() < bulkheads.getOrder());
+        Object processed = bulkheads.postProcessAfterInitialization(
+                limiter.postProcessAfterInitialization(pool, "dataSource"), "dataSource");
+
+        WorkloadDataSource split = assertInstanceOf(WorkloadDataSource.class, processed);
+        assertInstanceOf(LimitedDataSource.class, split.getTargetDataSource());
+        pool.close();
+    }
+
+    @Test
+    void testPostProcess_LeavesBeansAloneWhenDisabled() {
+        WorkloadBulkheads bulkheads = bulkheads(false);
+
+        assertSame(dataSource, bulkheads.postProcessAfterInitialization(dataSource, "dataSource"));
+        assertEquals(Map.of(), bulkheads.getAvailableDbPermits());
+    }
+
+    private static WorkloadBulkheads bulkheads(boolean enabled) {
+        return new WorkloadBulkheads(enabled,
+                new String[] {"/api/v1/analytics/**", " /api/v1/runs/*/decision_matrix"},
+                Duration.ofSeconds(1), Duration.ofSeconds(1),
+                8, 4, 3,
+                4, 2, 2,
+                2, 1, 1);
+    }
+}
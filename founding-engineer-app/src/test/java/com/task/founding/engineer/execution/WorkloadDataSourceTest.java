@@ -0,0 +1,165 @@
+package com.task.founding.engineer.execution;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WorkloadDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    private WorkloadDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new WorkloadDataSource(target, Map.of(
+                WorkloadClass.INGEST, 2,
+                WorkloadClass.INTERACTIVE, 2,
+                WorkloadClass.ANALYTICS, 1), Duration.ofMillis(50));
+    }
+
+    @AfterEach
+    void tearDown() {
+        WorkloadContext.clear();
+    }
+
+    @Test
+    void testGetConnection_SaturatedAnalyticsLeavesIngestPermits() throws Exception {
+        when(target.getConnection()).thenReturn(connection);
+        WorkloadContext.set(WorkloadClass.ANALYTICS);
+        dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, () -> getConnectionOnAnotherThread(WorkloadClass.ANALYTICS));
+
+        WorkloadContext.set(WorkloadClass.INGEST);
+        Connection ingest = dataSource.getConnection();
+        assertEquals(0, dataSource.availablePermits(WorkloadClass.ANALYTICS));
+        assertEquals(1, dataSource.availablePermits(WorkloadClass.INGEST));
+
+        ingest.close();
+        assertEquals(2, dataSource.availablePermits(WorkloadClass.INGEST));
+    }
+
+    @Test
+    void testGetConnection_UnclassifiedWorkTakesAnalyticsPermits() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+
+        dataSource.getConnection();
+
+        assertEquals(0, dataSource.availablePermits(WorkloadClass.ANALYTICS));
+        assertEquals(2, dataSource.availablePermits(WorkloadClass.INTERACTIVE));
+    }
+
+    @Test
+    void testNestedTransactions_ConcurrentBatchesEachAddingAReasonShareTheirPermit() throws Exception {
+        int batches = 2;
+        try (HikariDataSource pool = new HikariDataSource()) {
+            pool.setJdbcUrl("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+            // One connection beyond the permits, for the nested transactions
+            pool.setMaximumPoolSize(batches + 1);
+            pool.setConnectionTimeout(Duration.ofSeconds(5).toMillis());
+            WorkloadDataSource workload = new WorkloadDataSource(pool, Map.of(
+                    WorkloadClass.INGEST, batches,
+                    WorkloadClass.INTERACTIVE, 1,
+                    WorkloadClass.ANALYTICS, 1), Duration.ofSeconds(1));
+            JdbcTemplate jdbc = new JdbcTemplate(workload);
+            jdbc.execute("CREATE TABLE reasons (code INT PRIMARY KEY, reason VARCHAR(100))");
+            jdbc.execute("CREATE TABLE candidates (candidate_id INT PRIMARY KEY, reason_code INT)");
+            DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(workload);
+            TransactionTemplate batch = new TransactionTemplate(transactionManager);
+            TransactionTemplate newReason = new TransactionTemplate(transactionManager);
+            newReason.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            // Every batch holds its ingest permit before any adds its reason
+            CyclicBarrier allHoldAPermit = new CyclicBarrier(batches);
+
+            List<Future<?>> results = new ArrayList<>();
+            try (ExecutorService executor = Executors.newFixedThreadPool(batches)) {
+                for (int i = 0; i < batches; i++) {
+                    int code = i;
+                    results.add(executor.submit(() -> {
+                        WorkloadContext.set(WorkloadClass.INGEST);
+                        try {
+                            batch.executeWithoutResult(status -> {
+                                jdbc.update("INSERT INTO candidates VALUES (?, ?)", code, code);
+                                await(allHoldAPermit);
+                                newReason.executeWithoutResult(nested ->
+                                        jdbc.update("INSERT INTO reasons VALUES (?, ?)", code, "reason " + code));
+                            });
+                        } finally {
+                            WorkloadContext.clear();
+                        }
+                    }));
+                }
+                for (Future<?> result : results) {
+                    result.get(10, TimeUnit.SECONDS);
+                }
+            }
+
+            assertEquals(batches, jdbc.queryForObject("SELECT COUNT(*) FROM reasons", Integer.class));
+            assertEquals(batches, jdbc.queryForObject("SELECT COUNT(*) FROM candidates", Integer.class));
+            assertEquals(batches, workload.availablePermits(WorkloadClass.INGEST));
+        }
+    }
+
+    @Test
+    void testConstructor_RequiresPermitsForEveryClass() {
+        Map<WorkloadClass, Integer> permits = Map.of(WorkloadClass.INGEST, 2);
+
+        assertThrows(IllegalArgumentException.class, () -> new WorkloadDataSource(target, permits, Duration.ofSeconds(1)));
+    }
+
+    // A thread of its own holds no permit to share
+    private Connection getConnectionOnAnotherThread(WorkloadClass workload) throws Exception {
+        FutureTask<Connection> borrow = new FutureTask<>(() -> {
+            WorkloadContext.set(workload);
+            return dataSource.getConnection();
+        });
+        Thread.ofPlatform().start(borrow);
+        try {
+            return borrow.get();
+        } catch (ExecutionException e) {
+            throw (Exception) e.getCause();
+        }
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.task.founding.engineer.execution;
+
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkloadInterceptorTest {
+
+    private final WorkloadBulkheads bulkheads = new WorkloadBulkheads(true,
+            new String[] {"/api/v1/analytics/**"},
+            Duration.ofMillis(10), Duration.ofSeconds(1),
+            2, 0, 2,
+            2, 0, 2,
+            1, 0, 1);
+    private final WorkloadInterceptor interceptor = new WorkloadInterceptor(bulkheads);
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @AfterEach
+    void tearDown() {
+        WorkloadContext.clear();
+    }
+
+    @Test
+    void testPreHandle_RunsTheRequestInItsClassUntilCompletion() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/steps/42/candidates/batch");
+
+        assertTrue(interceptor.preHandle(request, response, new Object()));
+
+        assertEquals(WorkloadClass.INGEST, WorkloadContext.current());
+        assertEquals(1, bulkheads.bulkhead(WorkloadClass.INGEST).active());
+
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        assertEquals(WorkloadContext.UNCLASSIFIED, WorkloadContext.current());
+        assertEquals(0, bulkheads.bulkhead(WorkloadClass.INGEST).active());
+    }
+
+    @Test
+    void testPreHandle_FullAnalyticsRejectsAnalyticsButAdmitsIngest() {
+        MockHttpServletRequest analytics = new MockHttpServletRequest("GET", "/api/v1/analytics/filtering_stats");
+        interceptor.preHandle(analytics, response, new Object());
+
+        RejectedExecutionException rejected = assertThrows(RejectedExecutionException.class,
+                () -> interceptor.preHandle(new MockHttpServletRequest("GET", "/api/v1/analytics/score_drift"), response, new Object()));
+        assertEquals("analytics requests are at capacity; retry later", rejected.getMessage());
+
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest("POST", "/api/v1/runs"), response, new Object()));
+        assertEquals(1, bulkheads.getRejectedRequests().get("ANALYTICS"));
+        assertEquals(0, bulkheads.getRejectedRequests().get("INGEST"));
+    }
+
+    @Test
+    void testAfterConcurrentHandlingStarted_ReleasesTheSlotOfAStream() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/runs/42/stream");
+        interceptor.preHandle(request, response, new Object());
+
+        interceptor.afterConcurrentHandlingStarted(request, response, new Object());
+        request.setDispatcherType(DispatcherType.ASYNC);
+        assertTrue(interceptor.preHandle(request, response, new Object()));
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        assertEquals(0, bulkheads.bulkhead(WorkloadClass.INTERACTIVE).active());
+    }
+
+    @Test
+    void testDecorate_CarriesTheClassToTheTaskThread() throws InterruptedException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/analytics/filtering_stats");
+        interceptor.preHandle(request, response, new Object());
+        AtomicReference<WorkloadClass> seen = new AtomicReference<>();
+        Runnable task = interceptor.decorate(() -> seen.set(WorkloadContext.current()));
+        interceptor.afterConcurrentHandlingStarted(request, response, new Object());
+
+        Thread worker = Thread.ofPlatform().start(task);
+        worker.join();
+
+        assertEquals(WorkloadClass.ANALYTICS, seen.get());
+    }
+}
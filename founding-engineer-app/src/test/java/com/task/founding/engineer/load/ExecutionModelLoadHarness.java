@@ -0,0 +1,148 @@
+package com.task.founding.engineer.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop load against a running instance: {@code clients} virtual threads each send the same
+ * {@code GET} back to back, and after a warmup the completed requests, errors and latency
+ * percentiles are reported per client count.
+ * <p>
+ * Compares the execution models by running it against the default profile (Tomcat's 200 platform
+ * threads) and then the {@code virtual} profile, at 1,000 and 10,000 clients. Point it at a slow
+ * analytics endpoint to see the thread pool saturate while the database still has headroom. Raise
+ * the open file limit ({@code ulimit -n}) of both processes above the client count first.
+ * <p>
+ * Run with {@code mvn -pl founding-engineer-app test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.task.founding.engineer.load.ExecutionModelLoadHarness
+ * -Dexec.args="http://localhost:8080 /api/v1/analytics/filtering_stats 1000,10000 PT30S"}.
+ */
+public final class ExecutionModelLoadHarness {
+
+    private static final Duration WARMUP = Duration.ofSeconds(10);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+
+    private ExecutionModelLoadHarness() {
+    }
+
+    public record Result(int clients, long requests, long errors, double perSecond, long p50Millis, long p99Millis, long maxMillis) {
+
+        @Override
+        public String toString() {
+            return String.format("%,7d clients: %,9d requests (%,.0f/s), %,d errors, p50 %,d ms, p99 %,d ms, max %,d ms",
+                    clients, requests, perSecond, errors, p50Millis, p99Millis, maxMillis);
+        }
+    }
+
+    public static void main(String[] args) {
+        URI uri = URI.create((args.length > 0 ? args[0] : "http://localhost:8080")
+                + (args.length > 1 ? args[1] : "/api/v1/runs?status=IN_PROGRESS"));
+        int[] clientCounts = Arrays.stream((args.length > 2 ? args[2] : "1000,10000").split(","))
+                .mapToInt(count -> Integer.parseInt(count.trim()))
+                .toArray();
+        Duration duration = Duration.parse(args.length > 3 ? args[3] : "PT30S");
+
+        System.out.println("GET " + uri + " for " + duration + " after a " + WARMUP + " warmup");
+        for (int clients : clientCounts) {
+            System.out.println(run(uri, clients, duration));
+        }
+    }
+
+    public static Result run(URI uri, int clients, Duration duration) {
+        return run(HttpRequest.newBuilder(uri).timeout(REQUEST_TIMEOUT).GET().build(), clients, duration);
+    }
+
+    public static Result run(HttpRequest request, int clients, Duration duration) {
+        LongAdder errors = new LongAdder();
+        List<Latencies> latencies = new ArrayList<>();
+        long start = System.nanoTime();
+        long measureFrom = start + WARMUP.toNanos();
+        long until = measureFrom + duration.toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(REQUEST_TIMEOUT)
+                     .executor(executor)
+                     .build();
+             ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                Latencies own = new Latencies();
+                latencies.add(own);
+                clientThreads.execute(() -> {
+                    long now;
+                    while ((now = System.nanoTime()) < until) {
+                        boolean ok = send(client, request);
+                        long finished = System.nanoTime();
+                        if (now >= measureFrom) {
+                            if (ok) {
+                                own.add((finished - now) / 1_000_000);
+                            } else {
+                                errors.increment();
+                            }
+                        }
+                    }
+                });
+            }
+        }
+
+        // Closing the executors waited for every client
+        long[] all = latencies.stream().flatMapToLong(own -> Arrays.stream(own.trimmed())).sorted().toArray();
+        double seconds = duration.toNanos() / 1e9;
+        return new Result(
+                clients,
+                all.length,
+                errors.sum(),
+                all.length / seconds,
+                percentile(all, 0.50),
+                percentile(all, 0.99),
+                all.length == 0 ? 0 : all[all.length - 1]);
+    }
+
+    static boolean send(HttpClient client, HttpRequest request) {
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() < 400;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static long percentile(long[] sorted, double probability) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(probability * sorted.length) - 1)];
+    }
+
+    // One client's latencies in milliseconds, grown by doubling
+    private static final class Latencies {
+
+        private long[] values = new long[64];
+        private int size;
+
+        void add(long millis) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = millis;
+        }
+
+        long[] trimmed() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
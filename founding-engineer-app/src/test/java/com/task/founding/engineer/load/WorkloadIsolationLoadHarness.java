@@ -0,0 +1,124 @@
+package com.task.founding.engineer.load;
+
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Measures batch ingest latency alone and then while analytics clients saturate the instance, to
+ * check that the workload bulkheads keep ingest flat.
+ * <p>
+ * Creates a run and a step, then {@code ingestClients} post batches of {@value #BATCH_SIZE}
+ * candidates to the step back to back ({@link ExecutionModelLoadHarness#run}). The second pass does
+ * the same while {@code analyticsClients} loop on {@code GET /api/v1/analytics/filtering_stats}, backing off
+ * for a second after an error or a 503.
+ * Compare the two p99s with {@code xray.bulkhead.enabled} on and off.
+ * <p>
+ * Run with {@code mvn -pl founding-engineer-app test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.task.founding.engineer.load.WorkloadIsolationLoadHarness
+ * -Dexec.args="http://localhost:8080 50 1000 PT30S"}.
+ */
+public final class WorkloadIsolationLoadHarness {
+
+    private static final int BATCH_SIZE = 100;
+    private static final Duration REJECTED_BACK_OFF = Duration.ofSeconds(1);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+    private static final JsonMapper JSON_MAPPER = JsonMapper.builder().build();
+
+    private WorkloadIsolationLoadHarness() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int ingestClients = Integer.parseInt(args.length > 1 ? args[1] : "50");
+        int analyticsClients = Integer.parseInt(args.length > 2 ? args[2] : "1000");
+        Duration duration = Duration.parse(args.length > 3 ? args[3] : "PT30S");
+
+        HttpRequest ingest;
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            String runId = createdId(client, baseUrl + "/api/v1/runs",
+                    "{\"pipelineType\":\"load\",\"pipelineId\":\"workload-isolation\",\"input\":{}}");
+            String stepId = createdId(client, baseUrl + "/api/v1/runs/" + runId + "/steps",
+                    "{\"stepName\":\"ingest\",\"stepType\":\"filter\",\"order\":1}");
+            ingest = post(baseUrl + "/api/v1/steps/" + stepId + "/candidates/batch", batch());
+        }
+        HttpRequest analytics = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/analytics/filtering_stats"))
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+
+        System.out.println("Ingest alone:                " + ExecutionModelLoadHarness.run(ingest, ingestClients, duration));
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder analyticsRequests = new LongAdder();
+        LongAdder analyticsErrors = new LongAdder();
+        ExecutionModelLoadHarness.Result saturated;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(REQUEST_TIMEOUT)
+                     .executor(executor)
+                     .build();
+             ExecutorService analyticsThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < analyticsClients; i++) {
+                analyticsThreads.execute(() -> {
+                    while (running.get()) {
+                        if (ExecutionModelLoadHarness.send(client, analytics)) {
+                            analyticsRequests.increment();
+                        } else {
+                            analyticsErrors.increment();
+                            backOff();
+                        }
+                    }
+                });
+            }
+            saturated = ExecutionModelLoadHarness.run(ingest, ingestClients, duration);
+            running.set(false);
+        }
+        System.out.println("Ingest with analytics load:  " + saturated);
+        System.out.printf("Analytics: %,d clients, %,d requests, %,d errors or rejections%n",
+                analyticsClients, analyticsRequests.sum(), analyticsErrors.sum());
+    }
+
+    // As a well-behaved client honours Retry-After; retrying at once measures the retry storm, not the bulkheads
+    private static void backOff() {
+        try {
+            Thread.sleep(REJECTED_BACK_OFF);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String batch() {
+        return IntStream.range(0, BATCH_SIZE)
+                .mapToObj(i -> "{\"data\":{\"id\":\"item-" + i + "\",\"price\":" + i + "},\"score\":0.5,\"selected\":" + (i % 2 == 0) + "}")
+                .collect(Collectors.joining(",", "{\"candidates\":[", "]}"));
+    }
+
+    private static HttpRequest post(String uri, String body) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static String createdId(HttpClient client, String uri, String body) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(post(uri, body), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException("POST " + uri + " failed with " + response.statusCode() + ": " + response.body());
+        }
+        return JSON_MAPPER.readTree(response.body()).path("data").path("id").asString();
+    }
+}
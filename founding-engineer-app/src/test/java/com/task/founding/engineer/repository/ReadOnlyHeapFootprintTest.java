@@ -0,0 +1,168 @@
+package com.task.founding.engineer.repository;
+
+import com.task.founding.engineer.json.RawJson;
+import com.task.founding.engineer.model.XRayCandidate;
+import com.task.founding.engineer.model.XRayRun;
+import com.task.founding.engineer.model.XRayStep;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.ref.Reference;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures the heap retained per loaded {@link XRayCandidate} while the persistence context is
+ * open, comparing the old read path (read-write transaction, plain query) with the read-only path
+ * used by the GET services (read-only transaction, {@link ReadOnlyQuery} finder).
+ * <p>
+ * A measurement rather than a check: it forces full GCs and compares medians, so it is tagged
+ * {@code benchmark} and excluded from the build. Run it with {@code mvn -pl founding-engineer-app
+ * test -Dtest=ReadOnlyHeapFootprintTest -Dtest.excludedGroups=none}. {@link ReadOnlyPersistenceContextTest}
+ * asserts what the saving comes from.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReadOnlyHeapFootprintTest {
+
+    private static final int CANDIDATE_COUNT = 20_000;
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private XRayRunRepository runRepository;
+
+    @Autowired
+    private XRayStepRepository stepRepository;
+
+    @Autowired
+    private XRayCandidateRepository candidateRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private UUID stepId;
+
+    @BeforeEach
+    void setUp() {
+        stepId = new TransactionTemplate(transactionManager).execute(status -> {
+            XRayRun run = runRepository.save(XRayRun.builder()
+                    .pipelineType("competitor-selection")
+                    .pipelineId("heap-footprint")
+                    .build());
+            XRayStep step = stepRepository.save(XRayStep.builder()
+                    .run(run)
+                    .stepName("filter_by_price")
+                    .stepType("filter")
+                    .order(1)
+                    .build());
+
+            List<XRayCandidate> candidates = new ArrayList<>(CANDIDATE_COUNT);
+            for (int i = 0; i < CANDIDATE_COUNT; i++) {
+                candidates.add(XRayCandidate.builder()
+                        .step(step)
+                        .data(RawJson.of("{\"productId\":\"p-" + i + "\",\"price\":" + (i % 500) + "}"))
+                        .score(i / (double) CANDIDATE_COUNT)
+                        .selected(i % 3 == 0)
+                        .rejectionReason(i % 3 == 0 ? null : "price above threshold")
+                        .build());
+            }
+            candidateRepository.saveAll(candidates);
+            return step.getStepId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            candidateRepository.deleteAllInBatch();
+            stepRepository.deleteAllInBatch();
+            runRepository.deleteAllInBatch();
+        });
+    }
+
+    @Test
+    void readOnlyPathRetainsLessHeapPerCandidate() {
+        long[] readWrite = new long[ROUNDS];
+        long[] readOnly = new long[ROUNDS];
+
+        // Early rounds are skewed by class loading and JIT compilation, so they are discarded.
+        for (int round = -WARMUP_ROUNDS; round < ROUNDS; round++) {
+            long readWriteSample = retainedBytesPerCandidate(false, () ->
+                    entityManager.createQuery(
+                                    "SELECT c FROM XRayCandidate c WHERE c.stepId = :stepId", XRayCandidate.class)
+                            .setParameter("stepId", stepId)
+                            .getResultList());
+
+            long readOnlySample = retainedBytesPerCandidate(true, () -> {
+                List<XRayCandidate> candidates = candidateRepository.findByStepId(stepId);
+                Session session = entityManager.unwrap(Session.class);
+                assertTrue(candidates.stream().allMatch(session::isReadOnly));
+                return candidates;
+            });
+
+            if (round >= 0) {
+                readWrite[round] = readWriteSample;
+                readOnly[round] = readOnlySample;
+            }
+        }
+
+        long readWriteBytes = median(readWrite);
+        long readOnlyBytes = median(readOnly);
+        assertTrue(readOnlyBytes < readWriteBytes,
+                "read-only path retained " + readOnlyBytes + " B/candidate, read-write " + readWriteBytes + " B/candidate");
+    }
+
+    private long retainedBytesPerCandidate(boolean readOnly, Supplier<List<XRayCandidate>> loader) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+
+        return template.execute(status -> {
+            long before = usedHeapAfterGc();
+            List<XRayCandidate> candidates = loader.get();
+            long after = usedHeapAfterGc();
+
+            assertEquals(CANDIDATE_COUNT, candidates.size());
+            Reference.reachabilityFence(candidates);
+            return (after - before) / CANDIDATE_COUNT;
+        });
+    }
+
+    private static long median(long[] samples) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,129 @@
+package com.task.founding.engineer.repository;
+
+import com.task.founding.engineer.json.RawJson;
+import com.task.founding.engineer.model.XRayCandidate;
+import com.task.founding.engineer.model.XRayRun;
+import com.task.founding.engineer.model.XRayStep;
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.PersistenceContext;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the read path used by the GET services (read-only transaction, {@link ReadOnlyQuery}
+ * finder) leaves no loaded-state snapshot in the persistence context, while a read-write
+ * transaction keeps one per entity.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReadOnlyPersistenceContextTest {
+
+    private static final int CANDIDATE_COUNT = 3;
+
+    @Autowired
+    private XRayRunRepository runRepository;
+
+    @Autowired
+    private XRayStepRepository stepRepository;
+
+    @Autowired
+    private XRayCandidateRepository candidateRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private UUID stepId;
+
+    @BeforeEach
+    void setUp() {
+        stepId = new TransactionTemplate(transactionManager).execute(status -> {
+            XRayRun run = runRepository.save(XRayRun.builder()
+                    .pipelineType("competitor-selection")
+                    .pipelineId("read-only")
+                    .build());
+            XRayStep step = stepRepository.save(XRayStep.builder()
+                    .run(run)
+                    .stepName("filter_by_price")
+                    .stepType("filter")
+                    .order(1)
+                    .build());
+
+            List<XRayCandidate> candidates = new ArrayList<>(CANDIDATE_COUNT);
+            for (int i = 0; i < CANDIDATE_COUNT; i++) {
+                candidates.add(XRayCandidate.builder()
+                        .step(step)
+                        .data(RawJson.of("{\"productId\":\"p-" + i + "\"}"))
+                        .score(0.5)
+                        .selected(false)
+                        .rejectionReason("price above threshold")
+                        .build());
+            }
+            candidateRepository.saveAll(candidates);
+            return step.getStepId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            candidateRepository.deleteAllInBatch();
+            stepRepository.deleteAllInBatch();
+            runRepository.deleteAllInBatch();
+        });
+    }
+
+    @Test
+    void testFindByStepId_ReadOnlyTransactionKeepsNoSnapshots() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+
+        template.executeWithoutResult(status -> {
+            List<XRayCandidate> candidates = candidateRepository.findByStepId(stepId);
+            SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+            PersistenceContext persistenceContext = session.getPersistenceContextInternal();
+
+            assertEquals(CANDIDATE_COUNT, candidates.size());
+            assertTrue(session.isDefaultReadOnly());
+            assertTrue(candidates.stream().allMatch(session::isReadOnly));
+            assertTrue(candidates.stream()
+                    .allMatch(candidate -> Objects.isNull(persistenceContext.getEntry(candidate).getLoadedState())));
+        });
+    }
+
+    @Test
+    void testFindByStepId_ReadWriteTransactionKeepsASnapshotPerEntity() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<XRayCandidate> candidates = entityManager.createQuery(
+                            "SELECT c FROM XRayCandidate c WHERE c.stepId = :stepId", XRayCandidate.class)
+                    .setParameter("stepId", stepId)
+                    .getResultList();
+            SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+            PersistenceContext persistenceContext = session.getPersistenceContextInternal();
+
+            assertEquals(CANDIDATE_COUNT, candidates.size());
+            assertFalse(candidates.stream().anyMatch(session::isReadOnly));
+            assertTrue(candidates.stream()
+                    .allMatch(candidate -> Objects.nonNull(persistenceContext.getEntry(candidate).getLoadedState())));
+        });
+    }
+}
@@ -0,0 +1,51 @@
+package com.task.founding.engineer.repository;
+
+import com.task.founding.engineer.dictionary.ValueDictionary;
+import com.task.founding.engineer.dictionary.ValueDigest;
+import com.task.founding.engineer.enums.DictionaryKind;
+import com.task.founding.engineer.model.XRayDictionaryEntry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Interns values through {@link ValueDictionary}'s native insert against H2, including a
+ * rejection reason far longer than a PostgreSQL B-tree index entry can hold.
+ */
+@DataJpaTest(includeFilters = @ComponentScan.Filter(
+        type = FilterType.ASSIGNABLE_TYPE, classes = ValueDictionary.class))
+@ActiveProfiles("h2")
+class XRayDictionaryEntryRepositoryTest {
+
+    @Autowired
+    private ValueDictionary valueDictionary;
+
+    @Autowired
+    private XRayDictionaryEntryRepository entryRepository;
+
+    @Test
+    void testEncodeAll_LongReasonIsInternedOnceByDigest() {
+        String longReason = "Rejected because " + "the listing title does not match the query. ".repeat(250);
+
+        Map<String, Integer> codes = valueDictionary.encodeAll(DictionaryKind.REJECTION_REASON,
+                List.of(longReason, "Price exceeds maximum allowed"));
+        Map<String, Integer> again = valueDictionary.encodeAll(DictionaryKind.REJECTION_REASON,
+                List.of(longReason, "Price exceeds maximum allowed"));
+
+        assertEquals(codes, again);
+        XRayDictionaryEntry entry = entryRepository
+                .findByKindAndDigest(DictionaryKind.REJECTION_REASON, ValueDigest.of(longReason))
+                .orElseThrow();
+        assertEquals(codes.get(longReason), entry.getCode());
+        assertEquals(longReason, entry.getValue());
+        assertEquals(2, entryRepository.count());
+    }
+}
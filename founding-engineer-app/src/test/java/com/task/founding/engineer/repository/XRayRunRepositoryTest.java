@@ -0,0 +1,103 @@
+package com.task.founding.engineer.repository;
+
+import com.task.founding.engineer.enums.RunStatus;
+import com.task.founding.engineer.model.XRayRun;
+import com.task.founding.engineer.model.XRayStep;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs {@link XRayRunRepository#failIdleRuns} and the pipeline type filters against H2, since
+ * which runs they fail or match is decided entirely in their JPQL.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+class XRayRunRepositoryTest {
+
+    @Autowired
+    private XRayRunRepository runRepository;
+
+    @Autowired
+    private XRayStepRepository stepRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void testFailIdleRuns_CandidateIngestKeepsRunAlive() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime twoHoursAgo = now.minusHours(2);
+        UUID ingesting = runWithStepStartedAt(twoHoursAgo);
+        UUID idle = runWithStepStartedAt(twoHoursAgo);
+
+        // Only candidates went to the first run since its step started
+        assertEquals(1, runRepository.touchActivity(ingesting, now.minusMinutes(5), now.minusMinutes(6)));
+        int failed = runRepository.failIdleRuns(RunStatus.IN_PROGRESS, RunStatus.FAILED, now.minusHours(1), now);
+        entityManager.clear();
+
+        assertEquals(1, failed);
+        assertEquals(RunStatus.IN_PROGRESS, runRepository.findById(ingesting).orElseThrow().getStatus());
+        assertEquals(RunStatus.FAILED, runRepository.findById(idle).orElseThrow().getStatus());
+    }
+
+    @Test
+    void testTouchActivity_WritesAtMostOncePerResolution() {
+        LocalDateTime now = LocalDateTime.now();
+        UUID runId = runWithStepStartedAt(now);
+
+        assertEquals(1, runRepository.touchActivity(runId, now, now.minusMinutes(1)));
+        assertEquals(0, runRepository.touchActivity(runId, now.plusSeconds(30), now.minusSeconds(30)));
+        assertEquals(1, runRepository.touchActivity(runId, now.plusMinutes(2), now.plusMinutes(1)));
+    }
+
+    @Test
+    void testFindByPipelineTypeOrCode_MatchesRunsNotCodedYetOnTheString() {
+        LocalDateTime now = LocalDateTime.now();
+        UUID coded = runRepository.save(XRayRun.builder()
+                .pipelineType("competitor-selection").pipelineTypeCode(3).pipelineId("coded").startedAt(now).build())
+                .getRunId();
+        UUID uncoded = runRepository.save(XRayRun.builder()
+                .pipelineType("competitor-selection").pipelineId("uncoded").startedAt(now).build())
+                .getRunId();
+        runRepository.save(XRayRun.builder()
+                .pipelineType("ranking").pipelineTypeCode(4).pipelineId("other").startedAt(now).build());
+        entityManager.flush();
+
+        assertEquals(Set.of(coded, uncoded), runIds(runRepository.findByPipelineTypeOrCode("competitor-selection", 3)));
+        // A type that was never interned only matches runs not coded yet
+        assertEquals(Set.of(uncoded), runIds(runRepository.findByPipelineTypeOrCodeAndStartedAtBetween(
+                "competitor-selection", null, now.minusMinutes(1), now.plusMinutes(1))));
+    }
+
+    private static Set<UUID> runIds(List<XRayRun> runs) {
+        return runs.stream().map(XRayRun::getRunId).collect(Collectors.toSet());
+    }
+
+    private UUID runWithStepStartedAt(LocalDateTime startedAt) {
+        XRayRun run = runRepository.save(XRayRun.builder()
+                .pipelineType("competitor-selection")
+                .pipelineId("reaper")
+                .startedAt(startedAt)
+                .build());
+        stepRepository.save(XRayStep.builder()
+                .run(run)
+                .stepName("filter_by_price")
+                .stepType("filter")
+                .order(1)
+                .startedAt(startedAt)
+                .build());
+        entityManager.flush();
+        return run.getRunId();
+    }
+}